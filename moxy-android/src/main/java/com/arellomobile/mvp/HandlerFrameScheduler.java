@@ -0,0 +1,36 @@
+package com.arellomobile.mvp;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.arellomobile.mvp.viewstate.dispatch.FrameScheduler;
+
+/**
+ * Date: 18.10.2026
+ * Time: 17:40
+ * <p>
+ * Runs frames of batched dispatch on looper of handler, by default on main looper. Commands, sent while one
+ * message of looper is handled, are delivered together by next message, before next drawing of views.
+ *
+ * @author agent
+ */
+public class HandlerFrameScheduler implements FrameScheduler
+{
+	private final Handler mHandler;
+
+	public HandlerFrameScheduler()
+	{
+		this(new Handler(Looper.getMainLooper()));
+	}
+
+	public HandlerFrameScheduler(Handler handler)
+	{
+		mHandler = handler;
+	}
+
+	@Override
+	public void scheduleFrame(Runnable frame)
+	{
+		mHandler.post(frame);
+	}
+}
@@ -0,0 +1,41 @@
+package com.arellomobile.mvp;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.arellomobile.mvp.viewstate.dispatch.ViewThread;
+
+/**
+ * Date: 18.10.2026
+ * Time: 19:05
+ * <p>
+ * Confines view state to looper of handler, by default to main looper.
+ *
+ * @author agent
+ */
+public class HandlerViewThread implements ViewThread
+{
+	private final Handler mHandler;
+
+	public HandlerViewThread()
+	{
+		this(new Handler(Looper.getMainLooper()));
+	}
+
+	public HandlerViewThread(Handler handler)
+	{
+		mHandler = handler;
+	}
+
+	@Override
+	public boolean isViewThread()
+	{
+		return Looper.myLooper() == mHandler.getLooper();
+	}
+
+	@Override
+	public void execute(Runnable task)
+	{
+		mHandler.post(task);
+	}
+}
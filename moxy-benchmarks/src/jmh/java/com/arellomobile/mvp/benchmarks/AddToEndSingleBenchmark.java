@@ -0,0 +1,70 @@
+package com.arellomobile.mvp.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.ViewCommands;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Date: 18.10.2026
+ * Time: 13:30
+ * <p>
+ * Busy view state: {@link #historySize} commands with {@link AddToEndSingleStrategy} are already recorded, and
+ * each invocation calls one of them again, in random order. So history size stays the same, and score is cost of
+ * replacing single command in history of such size.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AddToEndSingleBenchmark
+{
+	private static final int ORDER_SIZE = 1024;
+
+	@Param({"10", "100", "1000"})
+	public int historySize;
+
+	private BenchmarkViewCommand[] mCommands;
+	private int[] mOrder;
+	private int mIndex;
+	private ViewCommands<MvpView> mViewCommands;
+
+	@Setup
+	public void setup()
+	{
+		mCommands = new BenchmarkViewCommand[historySize];
+		mViewCommands = new ViewCommands<>();
+		for (int i = 0; i < historySize; i++)
+		{
+			mCommands[i] = new BenchmarkViewCommand(AddToEndSingleStrategy.class, "command" + i);
+			mViewCommands.beforeApply(mCommands[i], null);
+		}
+
+		Random random = new Random(42);
+		mOrder = new int[ORDER_SIZE];
+		for (int i = 0; i < ORDER_SIZE; i++)
+		{
+			mOrder[i] = random.nextInt(historySize);
+		}
+	}
+
+	@Benchmark
+	public Object replaceSingle()
+	{
+		mIndex = (mIndex + 1) & (ORDER_SIZE - 1);
+		mViewCommands.beforeApply(mCommands[mOrder[mIndex]], null);
+		return mViewCommands;
+	}
+}
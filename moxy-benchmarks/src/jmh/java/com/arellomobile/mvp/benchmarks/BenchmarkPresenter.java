@@ -0,0 +1,14 @@
+package com.arellomobile.mvp.benchmarks;
+
+import com.arellomobile.mvp.MvpPresenter;
+import com.arellomobile.mvp.MvpView;
+
+/**
+ * Date: 18.10.2026
+ * Time: 18:30
+ *
+ * @author agent
+ */
+public class BenchmarkPresenter extends MvpPresenter<MvpView>
+{
+}
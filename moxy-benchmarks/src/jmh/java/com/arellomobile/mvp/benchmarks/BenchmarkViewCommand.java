@@ -0,0 +1,43 @@
+package com.arellomobile.mvp.benchmarks;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:40
+ * <p>
+ * Command with given strategy, which does nothing on apply. Each instance is a distinct command, as each constant of
+ * generated command enum is
+ *
+ * @author agent
+ */
+public class BenchmarkViewCommand implements ViewCommand<MvpView>
+{
+	private final Class<? extends StateStrategy> mStateStrategyType;
+	private final String mTag;
+
+	public BenchmarkViewCommand(Class<? extends StateStrategy> stateStrategyType, String tag)
+	{
+		mStateStrategyType = stateStrategyType;
+		mTag = tag;
+	}
+
+	@Override
+	public void apply(MvpView view, Object params)
+	{
+	}
+
+	@Override
+	public Class<? extends StateStrategy> getStrategyType()
+	{
+		return mStateStrategyType;
+	}
+
+	@Override
+	public String getTag()
+	{
+		return mTag;
+	}
+}
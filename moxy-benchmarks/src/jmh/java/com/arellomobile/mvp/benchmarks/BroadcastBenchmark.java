@@ -0,0 +1,65 @@
+package com.arellomobile.mvp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Date: 18.10.2026
+ * Time: 20:15
+ * <p>
+ * Sends command of generated view state to {@link #viewsCount} attached views, as global presenter does for all
+ * its views. Command has {@code AddToEndSingleStrategy}, so history doesn't grow and score is cost of fan-out.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BroadcastBenchmark
+{
+	@Param({"1", "10", "100"})
+	public int viewsCount;
+
+	private WidgetView$$State mViewState;
+	// views are held here, because view state holds them weakly
+	private CountingWidgetView[] mViews;
+	private int mValue;
+
+	@Setup
+	public void setup()
+	{
+		mViewState = new WidgetView$$State();
+		mViews = new CountingWidgetView[viewsCount];
+		for (int i = 0; i < viewsCount; i++)
+		{
+			mViews[i] = new CountingWidgetView();
+			mViewState.attachView(mViews[i]);
+		}
+	}
+
+	@Benchmark
+	public int broadcast()
+	{
+		mViewState.setValue(mValue++);
+		return mViews[0].mValue;
+	}
+
+	private static class CountingWidgetView implements WidgetView
+	{
+		private int mValue;
+
+		@Override
+		public void setValue(int value)
+		{
+			mValue = value;
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.arellomobile.mvp.benchmarks;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.presenter.InjectPresenter;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:58
+ * <p>
+ * Six levels of inheritance below Activity-like base. Like Android Activity, base is a chain of classes without
+ * presenters, and only odd levels have presenter, so binders are looked up both for classes with binders and for
+ * classes without them. Benchmark uses {@link Level6}
+ *
+ * @author agent
+ */
+public final class DeepHierarchyView
+{
+	private DeepHierarchyView()
+	{
+	}
+
+	public static class BaseActivity
+	{
+	}
+
+	public static class BaseFragmentActivity extends BaseActivity
+	{
+	}
+
+	public static class BaseCompatActivity extends BaseFragmentActivity
+	{
+	}
+
+	public static class BaseMvpActivity extends BaseCompatActivity implements MvpView
+	{
+	}
+
+	public static class Level1 extends BaseMvpActivity
+	{
+		@InjectPresenter
+		public BenchmarkPresenter mPresenter1;
+	}
+
+	public static class Level2 extends Level1
+	{
+	}
+
+	public static class Level3 extends Level2
+	{
+		@InjectPresenter
+		public BenchmarkPresenter mPresenter3;
+	}
+
+	public static class Level4 extends Level3
+	{
+	}
+
+	public static class Level5 extends Level4
+	{
+		@InjectPresenter
+		public BenchmarkPresenter mPresenter5;
+	}
+
+	public static class Level6 extends Level5
+	{
+	}
+}
@@ -0,0 +1,16 @@
+package com.arellomobile.mvp.benchmarks;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.persistence.PersistentState;
+
+/**
+ * Date: 18.10.2026
+ * Time: 22:20
+ *
+ * @author agent
+ */
+@PersistentState
+public interface FeedView extends MvpView
+{
+	void showItem(int position, long id, String title);
+}
@@ -0,0 +1,19 @@
+package com.arellomobile.mvp.benchmarks;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.presenter.InjectPresenter;
+import com.arellomobile.mvp.presenter.PresenterType;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:56
+ * <p>
+ * Global presenter survives destroy of view, so each delegate after the first one gets it from store
+ *
+ * @author agent
+ */
+public class GlobalPresenterView implements MvpView
+{
+	@InjectPresenter(type = PresenterType.GLOBAL, tag = "GlobalPresenterView")
+	public BenchmarkPresenter mPresenter;
+}
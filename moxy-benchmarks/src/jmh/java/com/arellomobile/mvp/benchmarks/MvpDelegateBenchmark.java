@@ -0,0 +1,57 @@
+package com.arellomobile.mvp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.arellomobile.mvp.MvpDelegate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:59
+ * <p>
+ * Full lifecycle of {@link MvpDelegate}: create, start, stop and destroy of new view. Delegates are created with null
+ * Bundle, so Android API is not called. Local presenters are created and destroyed on each cycle, global presenter
+ * is got from store.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MvpDelegateBenchmark
+{
+	@Benchmark
+	public Object singlePresenter()
+	{
+		return cycle(new SinglePresenterView());
+	}
+
+	@Benchmark
+	public Object globalPresenter()
+	{
+		return cycle(new GlobalPresenterView());
+	}
+
+	@Benchmark
+	public Object deepHierarchy()
+	{
+		return cycle(new DeepHierarchyView.Level6());
+	}
+
+	private static <Delegated> MvpDelegate<Delegated> cycle(Delegated view)
+	{
+		MvpDelegate<Delegated> delegate = new MvpDelegate<>(view);
+		delegate.onCreate(null);
+		delegate.onStart();
+		delegate.onStop();
+		delegate.onDestroy();
+
+		return delegate;
+	}
+}
@@ -0,0 +1,82 @@
+package com.arellomobile.mvp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Date: 18.10.2026
+ * Time: 22:25
+ * <p>
+ * Saves and restores history of generated view state of {@link FeedView}, which is persistent. Restore doesn't
+ * decode params, so {@link #restoreAndAttach()} shows cost of decoding too.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PersistenceBenchmark
+{
+	@Param({"10", "100", "1000"})
+	public int historySize;
+
+	private FeedView$$State mViewState;
+	private byte[] mHistory;
+	private CountingFeedView mView;
+
+	@Setup
+	public void setup()
+	{
+		mViewState = new FeedView$$State();
+		for (int i = 0; i < historySize; i++)
+		{
+			mViewState.showItem(i, 1000000L + i, "Item " + i);
+		}
+
+		mHistory = mViewState.saveHistory();
+		mView = new CountingFeedView();
+	}
+
+	@Benchmark
+	public byte[] save()
+	{
+		return mViewState.saveHistory();
+	}
+
+	@Benchmark
+	public FeedView$$State restore()
+	{
+		FeedView$$State viewState = new FeedView$$State();
+		viewState.restoreHistory(mHistory);
+		return viewState;
+	}
+
+	@Benchmark
+	public int restoreAndAttach()
+	{
+		FeedView$$State viewState = new FeedView$$State();
+		viewState.restoreHistory(mHistory);
+		viewState.attachView(mView);
+		viewState.detachView(mView);
+		return mView.mCount;
+	}
+
+	private static class CountingFeedView implements FeedView
+	{
+		private int mCount;
+
+		@Override
+		public void showItem(int position, long id, String title)
+		{
+			mCount += title.length();
+		}
+	}
+}
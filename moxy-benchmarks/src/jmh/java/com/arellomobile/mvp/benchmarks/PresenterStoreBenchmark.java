@@ -0,0 +1,98 @@
+package com.arellomobile.mvp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.arellomobile.mvp.PresenterKey;
+import com.arellomobile.mvp.PresenterStore;
+import com.arellomobile.mvp.presenter.PresenterType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Date: 18.10.2026
+ * Time: 18:32
+ * <p>
+ * Store contains {@link #storeSize} presenters of other delegates, grouped by {@link #scopeSize} presenters. Benchmarks work
+ * with one more scope of {@link #scopeSize} presenters, so cost of scoped operations could be compared with size of whole store.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PresenterStoreBenchmark
+{
+	@Param({"100", "1000", "10000"})
+	public int storeSize;
+
+	@Param({"1", "10", "100"})
+	public int scopeSize;
+
+	private PresenterStore mPresenterStore;
+	private PresenterKey mScope;
+	private PresenterKey[] mScopeKeys;
+	private BenchmarkPresenter[] mScopePresenters;
+
+	@Setup
+	public void setup()
+	{
+		mPresenterStore = new PresenterStore();
+
+		for (int i = 0; i < storeSize; i++)
+		{
+			PresenterKey key = PresenterKey.of("delegate" + i / scopeSize).child("mPresenter" + i % scopeSize);
+			mPresenterStore.add(PresenterType.GLOBAL, key, new BenchmarkPresenter());
+		}
+
+		mScope = PresenterKey.of("scope");
+		mScopeKeys = new PresenterKey[scopeSize];
+		mScopePresenters = new BenchmarkPresenter[scopeSize];
+		for (int i = 0; i < scopeSize; i++)
+		{
+			mScopeKeys[i] = mScope.child("mPresenter" + i);
+			mScopePresenters[i] = new BenchmarkPresenter();
+		}
+
+		addScope();
+	}
+
+	@Benchmark
+	public Object get()
+	{
+		return mPresenterStore.get(PresenterType.GLOBAL, mScopeKeys[0], BenchmarkPresenter.class);
+	}
+
+	@Benchmark
+	public Object addRemove()
+	{
+		mPresenterStore.remove(PresenterType.GLOBAL, mScopeKeys[0], BenchmarkPresenter.class);
+		mPresenterStore.add(PresenterType.GLOBAL, mScopeKeys[0], mScopePresenters[0]);
+		return mPresenterStore;
+	}
+
+	/**
+	 * Scope is filled again after removing, so store size is the same for each invocation. Filling costs O(scopeSize)
+	 */
+	@Benchmark
+	public Object removeAll()
+	{
+		mPresenterStore.removeAll(PresenterType.GLOBAL, mScope);
+		addScope();
+		return mPresenterStore;
+	}
+
+	private void addScope()
+	{
+		for (int i = 0; i < scopeSize; i++)
+		{
+			mPresenterStore.add(PresenterType.GLOBAL, mScopeKeys[i], mScopePresenters[i]);
+		}
+	}
+}
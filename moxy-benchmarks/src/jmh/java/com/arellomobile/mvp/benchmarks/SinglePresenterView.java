@@ -0,0 +1,16 @@
+package com.arellomobile.mvp.benchmarks;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.presenter.InjectPresenter;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:55
+ *
+ * @author agent
+ */
+public class SinglePresenterView implements MvpView
+{
+	@InjectPresenter
+	public BenchmarkPresenter mPresenter;
+}
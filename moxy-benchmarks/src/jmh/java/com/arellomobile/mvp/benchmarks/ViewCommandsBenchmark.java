@@ -0,0 +1,104 @@
+package com.arellomobile.mvp.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.ViewCommands;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:45
+ * <p>
+ * Records and replays history of {@link #historySize} distinct commands with the same built-in strategy. History is
+ * recorded into new {@link ViewCommands} on each invocation, because some strategies (e.g. AddToEndStrategy) grow
+ * history without limit, so cost of single command is score divided by history size.
+ * <p>
+ * {@link #reapplyAfterChange()} records one command before each replay, so snapshot of history can't be reused.
+ * History, which grows by strategy, is recorded again when it is doubled.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ViewCommandsBenchmark
+{
+	@Param({"AddToEndStrategy", "AddToEndSingleStrategy", "AddToEndSingleTagStrategy", "ClearTagStrategy", "SingleStateStrategy", "SkipStrategy"})
+	public String strategy;
+
+	@Param({"1", "10", "100"})
+	public int historySize;
+
+	private BenchmarkViewCommand[] mCommands;
+	private ViewCommands<MvpView> mViewCommands;
+	private MvpView mView;
+	private int mNextCommand;
+
+	@Setup
+	public void setup() throws ClassNotFoundException
+	{
+		//noinspection unchecked
+		Class<? extends StateStrategy> strategyType = (Class<? extends StateStrategy>) Class.forName(StateStrategy.class.getPackage().getName() + "." + strategy);
+
+		mCommands = new BenchmarkViewCommand[historySize];
+		for (int i = 0; i < historySize; i++)
+		{
+			mCommands[i] = new BenchmarkViewCommand(strategyType, "command" + i);
+		}
+
+		mViewCommands = recordHistory();
+		mView = new MvpView()
+		{
+		};
+	}
+
+	@Benchmark
+	public Object beforeApply()
+	{
+		return recordHistory();
+	}
+
+	@Benchmark
+	public Object reapply()
+	{
+		mViewCommands.reapply(mView);
+		return mViewCommands;
+	}
+
+	@Benchmark
+	public Object reapplyAfterChange()
+	{
+		if (mViewCommands.size() >= historySize * 2)
+		{
+			mViewCommands = recordHistory();
+		}
+
+		mViewCommands.beforeApply(mCommands[mNextCommand], null);
+		mNextCommand = (mNextCommand + 1) % historySize;
+
+		mViewCommands.reapply(mView);
+		return mViewCommands;
+	}
+
+	private ViewCommands<MvpView> recordHistory()
+	{
+		ViewCommands<MvpView> viewCommands = new ViewCommands<>();
+
+		for (BenchmarkViewCommand command : mCommands)
+		{
+			viewCommands.beforeApply(command, null);
+		}
+
+		return viewCommands;
+	}
+}
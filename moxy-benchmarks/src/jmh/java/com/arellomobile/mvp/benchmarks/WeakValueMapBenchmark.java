@@ -0,0 +1,148 @@
+package com.arellomobile.mvp.benchmarks;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.arellomobile.mvp.ConcurrentWeakValueHashMap;
+import com.arellomobile.mvp.WeakValueHashMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Date: 18.10.2026
+ * Time: 20:30
+ * <p>
+ * Compares deprecated {@link WeakValueHashMap} with {@link ConcurrentWeakValueHashMap}. Map contains {@link #size}
+ * strongly reachable values and the same count of churn keys. Values put by churn keys are garbage right after put,
+ * so young collections during measurement keep reference queue busy, like weak presenters of destroyed views do.
+ * Benchmark is single-threaded, because {@link WeakValueHashMap} is not thread-safe. Synchronized wrapper of it is
+ * measured too, as it is the cheapest thread-safe way to use it.
+ *
+ * @author agent
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@SuppressWarnings("deprecation")
+public class WeakValueMapBenchmark
+{
+	@Param({"WeakValueHashMap", "SynchronizedWeakValueHashMap", "ConcurrentWeakValueHashMap"})
+	public String implementation;
+
+	@Param({"100", "10000"})
+	public int size;
+
+	private Map<String, Object> mMap;
+	private String[] mKeys;
+	private String[] mChurnKeys;
+	private Object[] mValues;
+	private int mIndex;
+
+	@Setup(Level.Trial)
+	public void setup()
+	{
+		mKeys = new String[size];
+		mChurnKeys = new String[size];
+		mValues = new Object[size];
+
+		for (int i = 0; i < size; i++)
+		{
+			mKeys[i] = "key" + i;
+			mChurnKeys[i] = "churn" + i;
+			mValues[i] = new Object();
+		}
+	}
+
+	/**
+	 * Map is recreated for each iteration, so iterations start with the same content and full reference queue
+	 */
+	@Setup(Level.Iteration)
+	public void fill()
+	{
+		mMap = createMap();
+
+		for (int i = 0; i < size; i++)
+		{
+			mMap.put(mKeys[i], mValues[i]);
+			mMap.put(mChurnKeys[i], new Object());
+		}
+
+		System.gc();
+	}
+
+	private Map<String, Object> createMap()
+	{
+		switch (implementation)
+		{
+			case "WeakValueHashMap":
+				return new WeakValueHashMap<>();
+			case "SynchronizedWeakValueHashMap":
+				return Collections.synchronizedMap(new WeakValueHashMap<String, Object>());
+			case "ConcurrentWeakValueHashMap":
+				return new ConcurrentWeakValueHashMap<>();
+			default:
+				throw new IllegalArgumentException("Unknown implementation " + implementation);
+		}
+	}
+
+	@Benchmark
+	public Object get()
+	{
+		return mMap.get(mKeys[nextIndex()]);
+	}
+
+	@Benchmark
+	public Object put()
+	{
+		return mMap.put(mChurnKeys[nextIndex()], new Object());
+	}
+
+	/**
+	 * Mixed workload: each lookup is preceded by put of garbage value
+	 */
+	@Benchmark
+	public Object churnAndGet()
+	{
+		int index = nextIndex();
+		mMap.put(mChurnKeys[index], new Object());
+
+		return mMap.get(mKeys[index]);
+	}
+
+	@Benchmark
+	public int iterate()
+	{
+		int count = 0;
+
+		// synchronized wrapper requires manual synchronization for iteration
+		synchronized (mMap)
+		{
+			for (Object value : mMap.values())
+			{
+				if (value != null)
+				{
+					count++;
+				}
+			}
+		}
+
+		return count;
+	}
+
+	private int nextIndex()
+	{
+		int index = mIndex;
+		mIndex = index + 1 == size ? 0 : index + 1;
+
+		return index;
+	}
+}
@@ -0,0 +1,15 @@
+package com.arellomobile.mvp.benchmarks;
+
+import com.arellomobile.mvp.InjectViewState;
+import com.arellomobile.mvp.MvpPresenter;
+
+/**
+ * Date: 18.10.2026
+ * Time: 20:11
+ *
+ * @author agent
+ */
+@InjectViewState
+public class WidgetPresenter extends MvpPresenter<WidgetView>
+{
+}
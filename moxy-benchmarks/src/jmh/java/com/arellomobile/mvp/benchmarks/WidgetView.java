@@ -0,0 +1,17 @@
+package com.arellomobile.mvp.benchmarks;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategyType;
+
+/**
+ * Date: 18.10.2026
+ * Time: 20:10
+ *
+ * @author agent
+ */
+@StateStrategyType(AddToEndSingleStrategy.class)
+public interface WidgetView extends MvpView
+{
+	void setValue(int value);
+}
@@ -11,6 +11,7 @@ import java.util.Set;
 
 import com.arellomobile.mvp.GenerateViewState;
 import com.arellomobile.mvp.InjectViewState;
+import com.arellomobile.mvp.MvpRegistry;
 import com.arellomobile.mvp.ParamsProvider;
 import com.arellomobile.mvp.presenter.InjectPresenter;
 import com.google.auto.service.AutoService;
@@ -27,7 +28,10 @@ import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 
 
 import static javax.lang.model.SourceVersion.latestSupported;
@@ -40,6 +44,17 @@ public class MvpCompiler extends AbstractProcessor
 	private static Types sTypeUtils;
 	private static Elements sElementUtils;
 
+	/**
+	 * Package of generated {@link MvpRegistry}. By default it is the longest package, which contains all processed
+	 * classes. Modules with the same such package should set different packages by this option, and it is required,
+	 * if processed classes have no common package
+	 */
+	public static final String OPTION_REGISTRY_PACKAGE = "moxyRegistryPackage";
+
+	private final MvpRegistryClassGenerator mRegistryClassGenerator = new MvpRegistryClassGenerator();
+	private final Set<String> mGeneratedViews = new HashSet<>();
+	private boolean mIsRegistryGenerated;
+
 	@Override
 	public synchronized void init(ProcessingEnvironment processingEnv)
 	{
@@ -73,6 +88,12 @@ public class MvpCompiler extends AbstractProcessor
 		return supportedAnnotationTypes;
 	}
 
+	@Override
+	public Set<String> getSupportedOptions()
+	{
+		return Collections.singleton(OPTION_REGISTRY_PACKAGE);
+	}
+
 	@Override
 	public SourceVersion getSupportedSourceVersion()
 	{
@@ -86,7 +107,8 @@ public class MvpCompiler extends AbstractProcessor
 
 		ViewStateProviderClassGenerator viewStateProviderClassGenerator = new ViewStateProviderClassGenerator();
 		processInjectors(roundEnv, InjectViewState.class, ElementKind.CLASS, viewStateProviderClassGenerator);
-		processInjectors(roundEnv, InjectPresenter.class, ElementKind.FIELD, new PresenterBinderClassGenerator());
+		PresenterBinderClassGenerator presenterBinderClassGenerator = new PresenterBinderClassGenerator();
+		processInjectors(roundEnv, InjectPresenter.class, ElementKind.FIELD, presenterBinderClassGenerator);
 		processInjectors(roundEnv, ParamsProvider.class, ElementKind.INTERFACE, new ParamsHolderClassGenerator());
 
 		ViewStateClassGenerator viewStateClassGenerator = new ViewStateClassGenerator();
@@ -94,12 +116,62 @@ public class MvpCompiler extends AbstractProcessor
 
 		for (TypeElement usedView : usedViews)
 		{
+			// view could be used by presenters of several rounds
+			if (!mGeneratedViews.add(usedView.getQualifiedName().toString()))
+			{
+				continue;
+			}
+
 			generateCode(ElementKind.INTERFACE, viewStateClassGenerator, usedView);
 		}
 
+		List<TypeElement> presentersContainers = presenterBinderClassGenerator.getPresentersContainers();
+		List<TypeElement> presenters = viewStateProviderClassGenerator.getPresenters();
+
+		if (mIsRegistryGenerated)
+		{
+			warnNotRegistered(presentersContainers);
+			warnNotRegistered(presenters);
+
+			return true;
+		}
+
+		for (TypeElement presentersContainer : presentersContainers)
+		{
+			mRegistryClassGenerator.addPresentersContainer(presentersContainer);
+		}
+		for (TypeElement presenter : presenters)
+		{
+			mRegistryClassGenerator.addPresenter(presenter);
+		}
+
+		// registry lists classes of all rounds, so it is generated at first round, which brings no new classes. It is
+		// not generated at final round, because sources created there are not compiled by next round
+		boolean hasNewClasses = !presentersContainers.isEmpty() || !presenters.isEmpty();
+		boolean isLastRound = !hasNewClasses && !roundEnv.getRootElements().isEmpty() || roundEnv.processingOver();
+
+		if (isLastRound && !mRegistryClassGenerator.isEmpty())
+		{
+			generateRegistry();
+			mIsRegistryGenerated = true;
+		}
+
 		return true;
 	}
 
+	/**
+	 * Classes, which are generated by other processors after registry, are found by reflection at runtime
+	 */
+	private void warnNotRegistered(List<TypeElement> classes)
+	{
+		for (TypeElement clazz : classes)
+		{
+			sMessager.printMessage(Diagnostic.Kind.WARNING, clazz.getQualifiedName() + " is generated after " +
+					MvpRegistryClassGenerator.REGISTRY_CLASS_NAME + ", so it is not listed there and will be found " +
+					"by reflection", clazz);
+		}
+	}
+
 
 	private void checkInjectors(final RoundEnvironment roundEnv, Class<? extends Annotation> clazz, AnnotationRule annotationRule)
 	{
@@ -151,6 +223,47 @@ public class MvpCompiler extends AbstractProcessor
 		}
 	}
 
+	private void generateRegistry()
+	{
+		String registryPackage = processingEnv.getOptions().get(OPTION_REGISTRY_PACKAGE);
+		if (registryPackage == null || registryPackage.isEmpty())
+		{
+			registryPackage = mRegistryClassGenerator.getCommonPackage();
+		}
+		if (registryPackage == null)
+		{
+			// registries of modules without common package would have the same name
+			sMessager.printMessage(Diagnostic.Kind.ERROR, "Presenters and presenters containers have no common " +
+					"package, so package of " + MvpRegistryClassGenerator.REGISTRY_CLASS_NAME + " should be set by " +
+					"-A" + OPTION_REGISTRY_PACKAGE + "=<package> option");
+			return;
+		}
+
+		List<ClassGeneratingParams> classGeneratingParamsList = new ArrayList<>();
+
+		mRegistryClassGenerator.generate(registryPackage, classGeneratingParamsList);
+
+		for (ClassGeneratingParams classGeneratingParams : classGeneratingParamsList)
+		{
+			createSourceFile(classGeneratingParams);
+		}
+
+		// runtime finds registries of all modules by ServiceLoader
+		try
+		{
+			FileObject f = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + MvpRegistry.class.getName());
+
+			Writer w = f.openWriter();
+			w.write(registryPackage + "." + MvpRegistryClassGenerator.REGISTRY_CLASS_NAME + "\n");
+			w.flush();
+			w.close();
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
 	private void createSourceFile(ClassGeneratingParams classGeneratingParams)
 	{
 		try
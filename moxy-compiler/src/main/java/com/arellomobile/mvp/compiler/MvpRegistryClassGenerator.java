@@ -0,0 +1,217 @@
+package com.arellomobile.mvp.compiler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.arellomobile.mvp.MvpProcessor;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+
+/**
+ * Date: 18.10.2026
+ * Time: 12:25
+ * <p>
+ * Generates {@link com.arellomobile.mvp.MvpRegistry} implementation of one module, that maps presenters containers
+ * to their binders and presenters to their view state providers without reflection. Registry also lists these
+ * classes, so they could be prewarmed at application start.
+ * <p>
+ * Classes are collected through rounds of processing, and registry is generated at first round, which brings no new
+ * classes, so registry itself is compiled by next round. Registry is named by package of module (see {@link MvpCompiler#OPTION_REGISTRY_PACKAGE}), so registries of several modules
+ * don't clash, and it is listed in {@code META-INF/services}, so runtime finds registries of all modules. Binders
+ * and providers are created only when they are requested, so registry doesn't load them on start.
+ * <p>
+ * Only public classes could be referenced from registry. Binders for other classes will be found by reflection
+ * at runtime.
+ *
+ * @author agent
+ */
+final class MvpRegistryClassGenerator extends ClassGenerator<String>
+{
+	public static final String REGISTRY_CLASS_NAME = "MvpRegistry$$Generated";
+
+	// sorted by binary name, so generated registry doesn't depend on order of rounds
+	private final Map<String, Entry> mPresentersContainers = new TreeMap<>();
+	private final Map<String, Entry> mPresenters = new TreeMap<>();
+	private String mCommonPackage;
+
+	void addPresentersContainer(TypeElement presentersContainer)
+	{
+		addEntry(mPresentersContainers, presentersContainer, MvpProcessor.PRESENTER_BINDER_SUFFIX);
+	}
+
+	void addPresenter(TypeElement presenter)
+	{
+		addEntry(mPresenters, presenter, MvpProcessor.VIEW_STATE_PROVIDER_SUFFIX);
+	}
+
+	boolean isEmpty()
+	{
+		return mPresentersContainers.isEmpty() && mPresenters.isEmpty();
+	}
+
+	/**
+	 * @return longest package, which contains all collected classes, or null if there is no such package
+	 */
+	String getCommonPackage()
+	{
+		return mCommonPackage == null || mCommonPackage.isEmpty() ? null : mCommonPackage;
+	}
+
+	/**
+	 * @param packageName package of generated registry
+	 */
+	@Override
+	boolean generate(String packageName, List<ClassGeneratingParams> classGeneratingParamsList)
+	{
+		String builder = "package " + packageName + ";\n" +
+				"\n" +
+				"import java.util.Arrays;\n" +
+				"import java.util.Collection;\n" +
+				"import java.util.Collections;\n" +
+				"\n" +
+				"import com.arellomobile.mvp.MvpRegistry;\n" +
+				"import com.arellomobile.mvp.PresenterBinder;\n" +
+				"import com.arellomobile.mvp.ViewStateProvider;\n" +
+				"\n" +
+				"public final class " + REGISTRY_CLASS_NAME + " implements MvpRegistry\n" +
+				"{\n" +
+				"\t@Override\n" +
+				"\tpublic PresenterBinder<?> getPresenterBinder(Class<?> presentersContainer)\n" +
+				"\t{\n" +
+				generateLookup(mPresentersContainers, "presentersContainer") +
+				"\t}\n" +
+				"\n" +
+				"\t@Override\n" +
+				"\tpublic ViewStateProvider getViewStateProvider(Class<?> presenterClass)\n" +
+				"\t{\n" +
+				generateLookup(mPresenters, "presenterClass") +
+				"\t}\n" +
+				"\n" +
+				"\t@Override\n" +
+				"\tpublic Collection<Class<?>> getPresentersContainers()\n" +
+				"\t{\n" +
+				generateClasses(mPresentersContainers) +
+				"\t}\n" +
+				"\n" +
+				"\t@Override\n" +
+				"\tpublic Collection<Class<?>> getPresenters()\n" +
+				"\t{\n" +
+				generateClasses(mPresenters) +
+				"\t}\n" +
+				"}\n";
+
+		ClassGeneratingParams classGeneratingParams = new ClassGeneratingParams();
+		classGeneratingParams.setName(packageName + "." + REGISTRY_CLASS_NAME);
+		classGeneratingParams.setBody(builder);
+		classGeneratingParamsList.add(classGeneratingParams);
+
+		return true;
+	}
+
+	/**
+	 * Classes are matched by name, so lookup doesn't load all known classes
+	 */
+	private static String generateLookup(Map<String, Entry> entries, String argumentName)
+	{
+		if (entries.isEmpty())
+		{
+			return "\t\treturn null;\n";
+		}
+
+		String builder = "\t\tswitch (" + argumentName + ".getName())\n" +
+				"\t\t{\n";
+
+		for (Map.Entry<String, Entry> entry : entries.entrySet())
+		{
+			builder += "\t\t\tcase \"" + entry.getKey() + "\":\n" +
+					"\t\t\t\treturn new " + entry.getValue().generatedClassName + "();\n";
+		}
+
+		builder += "\t\t\tdefault:\n" +
+				"\t\t\t\treturn null;\n" +
+				"\t\t}\n";
+
+		return builder;
+	}
+
+	private static String generateClasses(Map<String, Entry> entries)
+	{
+		if (entries.isEmpty())
+		{
+			return "\t\treturn Collections.emptyList();\n";
+		}
+
+		String classes = "";
+		for (Entry entry : entries.values())
+		{
+			if (classes.length() > 0)
+			{
+				classes += ",\n";
+			}
+
+			classes += "\t\t\t\t" + entry.className + ".class";
+		}
+
+		return "\t\treturn Collections.unmodifiableList(Arrays.<Class<?>>asList(\n" +
+				classes + "));\n";
+	}
+
+	private void addEntry(Map<String, Entry> entries, TypeElement typeElement, String generatedClassSuffix)
+	{
+		String packageName = MvpCompiler.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
+		mCommonPackage = mCommonPackage == null ? packageName : getCommonPackage(mCommonPackage, packageName);
+
+		if (!isAccessible(typeElement))
+		{
+			return;
+		}
+
+		String binaryName = MvpCompiler.getElementUtils().getBinaryName(typeElement).toString();
+		entries.put(binaryName, new Entry(typeElement.getQualifiedName().toString(), Util.getFullClassName(typeElement) + generatedClassSuffix));
+	}
+
+	private static String getCommonPackage(String first, String second)
+	{
+		String[] firstParts = first.split("\\.");
+		String[] secondParts = second.split("\\.");
+
+		String common = "";
+		for (int i = 0; i < firstParts.length && i < secondParts.length && firstParts[i].equals(secondParts[i]); i++)
+		{
+			common += (common.isEmpty() ? "" : ".") + firstParts[i];
+		}
+
+		return common;
+	}
+
+	private static boolean isAccessible(TypeElement typeElement)
+	{
+		Element element = typeElement;
+		while (element instanceof TypeElement)
+		{
+			if (!element.getModifiers().contains(Modifier.PUBLIC))
+			{
+				return false;
+			}
+
+			element = element.getEnclosingElement();
+		}
+
+		return true;
+	}
+
+	private static class Entry
+	{
+		String className;
+		String generatedClassName;
+
+		Entry(String className, String generatedClassName)
+		{
+			this.className = className;
+			this.generatedClassName = generatedClassName;
+		}
+	}
+}
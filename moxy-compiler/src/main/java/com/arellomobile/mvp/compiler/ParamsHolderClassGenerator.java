@@ -87,13 +87,14 @@ final class ParamsHolderClassGenerator extends ClassGenerator<TypeElement>
 		String builder = "package " + parentClassName.substring(0, parentClassName.lastIndexOf(".")) + ";\n" +
 				"\n" +
 				"import com.arellomobile.mvp.ParamsHolder;\n" +
+				"import com.arellomobile.mvp.PresenterKey;\n" +
 				"import com.arellomobile.mvp.presenter.PresenterField;\n" +
 				"\n" +
 				"public class " + viewClassName + MvpProcessor.FACTORY_PARAMS_HOLDER_SUFFIX + " implements ParamsHolder<" + returnType + ">" +//" implements PresenterBinder<" + parentClassName + ">" +
 				"\n" +
 				"{\n" +
 				"\t@Override\n" +
-				"\tpublic " + returnType + " getParams(PresenterField<?> presenterField, Object delegated, String delegateTag)\n" +
+				"\tpublic " + returnType + " getParams(PresenterField<?> presenterField, Object delegated, PresenterKey delegateKey)\n" +
 				"\t{\n" +
 				"\t\treturn ((" + className + ") delegated)." + methodName + "(presenterField.getPresenterId());\n" +
 				"\t}\n" +
@@ -20,6 +20,8 @@ import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 
 /**
  * 18.12.2015
@@ -50,7 +52,7 @@ import javax.lang.model.type.DeclaredType;
 final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement>
 {
 	public static final String PRESENTER_FIELD_ANNOTATION = InjectPresenter.class.getName();
-	private final List<String> mPresentersContainers;
+	private final List<TypeElement> mPresentersContainers;
 
 	public PresenterBinderClassGenerator()
 	{
@@ -65,7 +67,7 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 		{
 			throw new RuntimeException("Only class fields could be annotated as @InjectPresenter: " + variableElement + " at " + enclosingElement);
 		}
-		if (mPresentersContainers.contains(enclosingElement.toString()))
+		if (mPresentersContainers.contains(enclosingElement))
 		{
 			return false;
 		}
@@ -74,7 +76,7 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 
 		System.out.println(presentersContainer + " " + presentersContainer.getModifiers().iterator().next().name());
 
-		mPresentersContainers.add(presentersContainer.toString());
+		mPresentersContainers.add(presentersContainer);
 
 		String fullClassName = Util.getFullClassName(presentersContainer);
 
@@ -85,9 +87,13 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 
 		final String viewClassName = fullClassName.substring(fullClassName.lastIndexOf(".") + 1);
 
+		final TypeElement parentPresentersContainer = findParentPresentersContainer(presentersContainer);
+		final String parentBinderClassName = parentPresentersContainer == null ? null : Util.getFullClassName(parentPresentersContainer) + MvpProcessor.PRESENTER_BINDER_SUFFIX;
+
 		String builder = "package " + fullClassName.substring(0, fullClassName.lastIndexOf(".")) + ";\n" +
 				"\n" +
 				"import java.util.ArrayList;\n" +
+				"import java.util.Collections;\n" +
 				"import java.util.List;\n" +
 				"\n" +
 				"import com.arellomobile.mvp.ParamsHolder;" +
@@ -99,18 +105,11 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 				"\n" +
 				"public class " + viewClassName + MvpProcessor.PRESENTER_BINDER_SUFFIX + " implements PresenterBinder<" + parentClassName + ">" +
 				"\n" +
-				"{\n" +
-				"\tprivate " + parentClassName + " mTarget;\n" +
-				"\n" +
-				"\n" +
-				"\t@Override\n" +
-				"\tpublic void setTarget(final " + parentClassName + " target)\n" +
-				"\t{\n" +
-				"\t\tmTarget = target;\n" +
-				"\t}\n" +
-				"\n";
+				"{\n";
 
 		List<Field> fields = new ArrayList<>();
+		// fields of superclasses go first in binder, so ids of own fields follow them
+		int fieldId = countInjectedPresentersOfSuperclasses(presentersContainer);
 
 		outer:
 		for (Element element : presentersContainer.getEnclosedElements())
@@ -161,7 +160,7 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 							presenterId = elementValues.get(executableElement).toString();
 						}
 					}
-					Field field = new Field(clazz, name, type, tag, factory, presenterId);
+					Field field = new Field(fieldId++, clazz, name, type, tag, factory, presenterId);
 					fields.add(field);
 					continue outer;
 				}
@@ -170,10 +169,10 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 
 		for (Field field : fields)
 		{
-			builder = generatePresenterBinderClass(builder, field);
+			builder = generatePresenterBinderClass(builder, field, parentClassName);
 		}
 
-		builder = generateGetPresentersMethod(builder, fields, parentClassName);
+		builder = generateGetPresentersMethod(builder, fields, parentClassName, parentBinderClassName);
 
 		builder += "}\n";
 
@@ -183,14 +182,97 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 		return true;
 	}
 
-	private static String generateGetPresentersMethod(final String builder, final List<Field> fields, String parentClassName)
+	public List<TypeElement> getPresentersContainers()
+	{
+		return mPresentersContainers;
+	}
+
+	/**
+	 * Finds nearest superclass which has fields annotated with &#64;InjectPresenter. Binder of this superclass will be used by generated binder,
+	 * so single binder of concrete class covers all presenters from hierarchy and MvpProcessor shouldn't walk through superclasses
+	 *
+	 * @param presentersContainer class with &#64;InjectPresenter fields
+	 * @return nearest superclass with presenters or null if there is no one
+	 */
+	private static TypeElement findParentPresentersContainer(TypeElement presentersContainer)
+	{
+		TypeMirror superclass = presentersContainer.getSuperclass();
+
+		while (superclass.getKind() == TypeKind.DECLARED)
+		{
+			final TypeElement superclassElement = (TypeElement) ((DeclaredType) superclass).asElement();
+
+			if (hasInjectedPresenters(superclassElement))
+			{
+				return superclassElement;
+			}
+
+			superclass = superclassElement.getSuperclass();
+		}
+
+		return null;
+	}
+
+	private static boolean hasInjectedPresenters(TypeElement typeElement)
+	{
+		return countInjectedPresenters(typeElement) > 0;
+	}
+
+	private static int countInjectedPresentersOfSuperclasses(TypeElement presentersContainer)
+	{
+		int count = 0;
+		TypeMirror superclass = presentersContainer.getSuperclass();
+
+		while (superclass.getKind() == TypeKind.DECLARED)
+		{
+			final TypeElement superclassElement = (TypeElement) ((DeclaredType) superclass).asElement();
+
+			count += countInjectedPresenters(superclassElement);
+
+			superclass = superclassElement.getSuperclass();
+		}
+
+		return count;
+	}
+
+	private static int countInjectedPresenters(TypeElement typeElement)
+	{
+		int count = 0;
+
+		for (Element element : typeElement.getEnclosedElements())
+		{
+			if (element.getKind() != ElementKind.FIELD)
+			{
+				continue;
+			}
+
+			for (AnnotationMirror annotationMirror : element.getAnnotationMirrors())
+			{
+				if (annotationMirror.getAnnotationType().asElement().toString().equals(PRESENTER_FIELD_ANNOTATION))
+				{
+					count++;
+					break;
+				}
+			}
+		}
+
+		return count;
+	}
+
+	private static String generateGetPresentersMethod(final String builder, final List<Field> fields, String parentClassName, String parentBinderClassName)
 	{
 		String s = "\n" +
-				"\tpublic List<PresenterField<? super " + parentClassName + ">> getPresenterFields()\n" +
+				"\tprivate static final List<PresenterField<? super " + parentClassName + ">> PRESENTER_FIELDS;\n" +
+				"\n" +
+				"\tstatic\n" +
 				"\t{\n" +
 				"\t\tList<PresenterField<? super " + parentClassName + ">> presenters = new ArrayList<>();\n" +
 				"\n";
 
+		if (parentBinderClassName != null)
+		{
+			s += "\t\tpresenters.addAll(new " + parentBinderClassName + "().getPresenterFields());\n";
+		}
 
 		for (Field field : fields)
 		{
@@ -198,14 +280,20 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 		}
 
 		s += "\n" +
-				"\t\treturn presenters;\n" +
+				"\t\tPRESENTER_FIELDS = Collections.unmodifiableList(presenters);\n" +
+				"\t}\n" +
+				"\n" +
+				"\t@Override\n" +
+				"\tpublic List<PresenterField<? super " + parentClassName + ">> getPresenterFields()\n" +
+				"\t{\n" +
+				"\t\treturn PRESENTER_FIELDS;\n" +
 				"\t}\n" +
 				"\n";
 
 		return builder + s;
 	}
 
-	private static String generatePresenterBinderClass(final String builder, final Field field)
+	private static String generatePresenterBinderClass(final String builder, final Field field, String parentClassName)
 	{
 		boolean hasEmptyConstructor = false;
 
@@ -230,9 +318,21 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 			}
 		}
 
-		final String s = "\tpublic class " + field.getGeneratedClassName() + " implements PresenterField\n" +
+		final String s = "\tpublic static final class " + field.getGeneratedClassName() + " implements PresenterField<" + parentClassName + ">\n" +
 				"\t{\n" +
 				"\t\t@Override\n" +
+				"\t\tpublic String getName()\n" +
+				"\t\t{\n" +
+				"\t\t\treturn \"" + field.getName() + "\";\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\t@Override\n" +
+				"\t\tpublic int getId()\n" +
+				"\t\t{\n" +
+				"\t\t\treturn " + field.getId() + ";\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\t@Override\n" +
 				"\t\tpublic String getTag()\n" +
 				"\t\t{\n" +
 				"\t\t\treturn " + field.getTag() + ";\n" +
@@ -245,16 +345,13 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 				"\t\t}\n" +
 				"\n" +
 				"\t\t@Override\n" +
-				"\t\tpublic void setValue(MvpPresenter presenter)\n" +
+				"\t\tpublic void bind(" + parentClassName + " target, MvpPresenter<?> presenter)\n" +
 				"\t\t{\n" +
-				"\t\t\tmTarget." + field.getName() + " = (" + field.getClazz() + ") presenter;\n" +
+				"\t\t\ttarget." + field.getName() + " = (" + field.getClazz() + ") presenter;\n" +
 				"\t\t}\n" +
 				"\n" +
 				"\t\t@Override\n" +
-				"\t\tpublic Class<? extends MvpPresenter> getPresenterClass()\n" +
-				"\t\t{\n" +
-				"\t\t\treturn " + field.getClazz().asElement() + ".class;\n" +
-				"\t\t}\n" +
+				generatePresenterClassGetter(field) +
 				"\n" +
 				"\t\t@Override\n" +
 				"\t\tpublic " + field.getClazz() + " getDefaultInstance()\n" +
@@ -288,8 +385,29 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 		return builder + s;
 	}
 
+	private static String generatePresenterClassGetter(Field field)
+	{
+		TypeElement presenterElement = (TypeElement) field.getClazz().asElement();
+
+		// class literal of generic presenter is raw, so it is converted to wildcard type through Class<?>
+		if (presenterElement.getTypeParameters().isEmpty())
+		{
+			return "\t\tpublic Class<? extends MvpPresenter<?>> getPresenterClass()\n" +
+					"\t\t{\n" +
+					"\t\t\treturn " + presenterElement + ".class;\n" +
+					"\t\t}\n";
+		}
+
+		return "\t\t@SuppressWarnings(\"unchecked\")\n" +
+				"\t\tpublic Class<? extends MvpPresenter<?>> getPresenterClass()\n" +
+				"\t\t{\n" +
+				"\t\t\treturn (Class<? extends MvpPresenter<?>>) (Class<?>) " + presenterElement + ".class;\n" +
+				"\t\t}\n";
+	}
+
 	private static class Field
 	{
+		private final int mId;
 		private final DeclaredType mClazz;
 		private final String mName;
 		private final DeclaredType mFactory;
@@ -299,8 +417,9 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 		String mTag;
 		PresenterType mType;
 
-		public Field(final DeclaredType clazz, final String name, final String type, final String tag, DeclaredType factory, String presenterId)
+		public Field(int id, final DeclaredType clazz, final String name, final String type, final String tag, DeclaredType factory, String presenterId)
 		{
+			mId = id;
 			mClazz = clazz;
 			mName = name;
 			mTag = tag;
@@ -329,6 +448,11 @@ final class PresenterBinderClassGenerator extends ClassGenerator<VariableElement
 
 		}
 
+		public int getId()
+		{
+			return mId;
+		}
+
 		public DeclaredType getClazz()
 		{
 			return mClazz;
@@ -3,11 +3,16 @@ package com.arellomobile.mvp.compiler;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 import com.arellomobile.mvp.MvpProcessor;
+import com.arellomobile.mvp.viewstate.history.Compaction;
+import com.arellomobile.mvp.viewstate.history.EvictionPolicies;
+import com.arellomobile.mvp.viewstate.history.StateHistory;
+import com.arellomobile.mvp.viewstate.persistence.PersistentState;
 import com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy;
 import com.arellomobile.mvp.viewstate.strategy.StateStrategyType;
 
@@ -19,8 +24,10 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.TypeParameterElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
 import javax.lang.model.type.DeclaredType;
 import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
 
@@ -37,6 +44,23 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 {
 	public static final String STATE_STRATEGY_TYPE_ANNOTATION = StateStrategyType.class.getName();
 	public static final String DEFAULT_STATE_STRATEGY = AddToEndStrategy.class.getName() + ".class";
+	public static final String STATE_HISTORY_ANNOTATION = StateHistory.class.getName();
+	public static final String PERSISTENT_STATE_ANNOTATION = PersistentState.class.getName();
+	public static final String COMPACTION_ANNOTATION = Compaction.class.getName();
+
+	private static final Map<String, TypeKind> BOXED_TYPES = new LinkedHashMap<>();
+
+	static
+	{
+		BOXED_TYPES.put(Boolean.class.getName(), TypeKind.BOOLEAN);
+		BOXED_TYPES.put(Byte.class.getName(), TypeKind.BYTE);
+		BOXED_TYPES.put(Short.class.getName(), TypeKind.SHORT);
+		BOXED_TYPES.put(Character.class.getName(), TypeKind.CHAR);
+		BOXED_TYPES.put(Integer.class.getName(), TypeKind.INT);
+		BOXED_TYPES.put(Long.class.getName(), TypeKind.LONG);
+		BOXED_TYPES.put(Float.class.getName(), TypeKind.FLOAT);
+		BOXED_TYPES.put(Double.class.getName(), TypeKind.DOUBLE);
+	}
 
 	private String mViewClassName;
 
@@ -56,7 +80,12 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 
 		String importSource = "package " + fullClassName.substring(0, fullClassName.lastIndexOf(".")) + ";\n" +
 				"\n" +
+				"import java.lang.ref.WeakReference;\n" +
+				"\n" +
+				"import com.arellomobile.mvp.MvpFacade;\n" +
+				"import com.arellomobile.mvp.viewstate.CommandRecord;\n" +
 				"import com.arellomobile.mvp.viewstate.MvpViewState;\n" +
+				"import com.arellomobile.mvp.viewstate.ResolvedStrategyCommand;\n" +
 				"import com.arellomobile.mvp.viewstate.ViewCommand;\n" +
 				"import com.arellomobile.mvp.viewstate.ViewCommands;\n" +
 				"import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy;\n" +
@@ -64,8 +93,7 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 				"import com.arellomobile.mvp.viewstate.strategy.StateStrategy;\n";
 		String classSource = "\npublic class " + fullClassName.substring(fullClassName.lastIndexOf(".") + 1) + "$$State extends MvpViewState<" + mViewClassName + "> implements " + mViewClassName + "\n" +
 				"{\n" +
-				"\tprivate ViewCommands<" + mViewClassName + "> mViewCommands = new ViewCommands<>();\n" +
-				"\n" +
+				generateEvictionPolicy(typeElement, fullClassName.substring(fullClassName.lastIndexOf(".") + 1) + "$$State") +
 				"\t@Override\n" +
 				"\tpublic void restoreState(" + mViewClassName + " view)\n" +
 				"\t{\n" +
@@ -120,6 +148,7 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 			}
 
 			String fieldName = "params";
+			String recordName = "record";
 			String argumentsString = "";
 			int index = 0;
 			for (Argument argument : method.arguments)
@@ -128,6 +157,10 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 				{
 					fieldName = "params" + index;
 				}
+				if (argument.name.equals(recordName))
+				{
+					recordName = "record" + index;
+				}
 
 				if (argumentsString.length() > 0)
 				{
@@ -154,11 +187,11 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 						"\tpublic " + method.genericType + method.resultType + " " + method.name + "(" + join(", ", method.arguments) + ")" + throwTypesString + "\n" +
 						"\t{\n" +
 						"\t\t" + argumentClassName + " " + fieldName + " = " + argumentsWrapperNewInstance +
-						"\t\tmViewCommands.beforeApply(LocalViewCommand." + method.uniqueName + ", " + fieldName + ");\n" +
+						"\t\tCommandRecord<" + mViewClassName + "> " + recordName + " = mViewCommands.beforeApply(LocalViewCommand." + method.uniqueName + ", " + fieldName + ");\n" +
 						"\n" +
 						"\t\tif (mViews != null && !mViews.isEmpty())\n" +
 						"\t\t{\n" +
-						"\t\t\tmViewCommands.afterApply(LocalViewCommand." + method.uniqueName + ", " + fieldName + ");\n" +
+						"\t\t\tmViewCommands.afterApply(" + recordName + ");\n" +
 						"\t\t}\n" +
 						"\n" +
 						"\t\treturn " + subjectName + ".asObservable();\n" +
@@ -170,19 +203,35 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 						"\tpublic " + method.genericType + method.resultType + " " + method.name + "(" + join(", ", method.arguments) + ")" + throwTypesString + "\n" +
 						"\t{\n" +
 						"\t\t" + argumentClassName + " " + fieldName + " = " + argumentsWrapperNewInstance +
-						"\t\tmViewCommands.beforeApply(LocalViewCommand." + method.uniqueName + ", " + fieldName + ");\n" +
+						"\n" +
+						"\t\tif (postToViewThread(LocalViewCommand." + method.uniqueName + ", " + fieldName + "))\n" +
+						"\t\t{\n" +
+						"\t\t\treturn;\n" +
+						"\t\t}\n" +
+						"\n" +
+						"\t\tCommandRecord<" + mViewClassName + "> " + recordName + " = mViewCommands.beforeApply(LocalViewCommand." + method.uniqueName + ", " + fieldName + ");\n" +
 						"\n" +
 						"\t\tif (mViews == null || mViews.isEmpty())\n" +
 						"\t\t{\n" +
 						"\t\t\treturn;\n" +
 						"\t\t}\n" +
 						"\n" +
-						"\t\tfor(" + mViewClassName + " view : mViews)\n" +
+						"\t\tif (dispatchInFrame(" + recordName + "))\n" +
 						"\t\t{\n" +
-						"\t\t\tview." + method.name + "(" + argumentsString + ");\n" +
+						"\t\t\treturn;\n" +
 						"\t\t}\n" +
 						"\n" +
-						"\t\tmViewCommands.afterApply(LocalViewCommand." + method.uniqueName + ", " + fieldName + ");\n" +
+						"\t\tfor (WeakReference<" + mViewClassName + "> viewReference : mViews.getReferences())\n" +
+						"\t\t{\n" +
+						"\t\t\t" + mViewClassName + " view = viewReference.get();\n" +
+						"\n" +
+						"\t\t\tif (view != null)\n" +
+						"\t\t\t{\n" +
+						"\t\t\t\tview." + method.name + "(" + argumentsString + ");\n" +
+						"\t\t\t}\n" +
+						"\t\t}\n" +
+						"\n" +
+						"\t\tmViewCommands.afterApply(" + recordName + ");\n" +
 						"\t}\n" +
 						"\n";
 			}
@@ -227,6 +276,24 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 			classSource = generateLocalViewCommand(mViewClassName, classSource, methods);
 		}
 
+		if (isCompactable(methods))
+		{
+			importSource +=
+					"import com.arellomobile.mvp.viewstate.history.CompactableCommand;\n" +
+					"import com.arellomobile.mvp.viewstate.history.Compaction;\n";
+		}
+
+		boolean persistent = !methods.isEmpty() && getInheritedAnnotation(typeElement, PERSISTENT_STATE_ANNOTATION) != null;
+		if (persistent)
+		{
+			classSource += generateCodec(methods);
+
+			importSource +=
+					"import com.arellomobile.mvp.viewstate.persistence.CommandReader;\n" +
+					"import com.arellomobile.mvp.viewstate.persistence.CommandWriter;\n" +
+					"import com.arellomobile.mvp.viewstate.persistence.ViewStateCodec;\n";
+		}
+
 		classSource += "}\n";
 
 		if (!observableReturningMethods.isEmpty()) {
@@ -246,6 +313,313 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 		return true;
 	}
 
+	private String generateEvictionPolicy(TypeElement typeElement, String viewStateClassName)
+	{
+		AnnotationMirror stateHistory = getInheritedAnnotation(typeElement, STATE_HISTORY_ANNOTATION);
+
+		if (stateHistory == null)
+		{
+			return "";
+		}
+
+		int maxCommands = 0;
+		long maxBytes = 0;
+		String eviction = StateHistory.Eviction.DROP_OLDEST.name();
+
+		final Map<? extends ExecutableElement, ? extends AnnotationValue> elementValues = stateHistory.getElementValues();
+		for (ExecutableElement key : elementValues.keySet())
+		{
+			Object value = elementValues.get(key).getValue();
+
+			if ("maxCommands()".equals(key.toString()))
+			{
+				maxCommands = ((Number) value).intValue();
+			}
+			else if ("maxBytes()".equals(key.toString()))
+			{
+				maxBytes = ((Number) value).longValue();
+			}
+			else if ("eviction()".equals(key.toString()))
+			{
+				eviction = ((VariableElement) value).getSimpleName().toString();
+			}
+		}
+
+		if (maxCommands < 0 || maxBytes < 0)
+		{
+			throw new IllegalStateException("Limits of state history of " + mViewClassName + " must be not negative");
+		}
+
+		if (maxCommands == 0 && maxBytes == 0)
+		{
+			return "";
+		}
+
+		return "\tpublic " + viewStateClassName + "()\n" +
+				"\t{\n" +
+				"\t\tmViewCommands.setEvictionPolicy(" + EvictionPolicies.class.getName() + ".create(" + maxCommands + ", " + StateHistory.Eviction.class.getCanonicalName() + "." + eviction + ", " + maxBytes + "L));\n" +
+				"\t}\n" +
+				"\n";
+	}
+
+	private AnnotationMirror getInheritedAnnotation(TypeElement typeElement, String annotationName)
+	{
+		for (AnnotationMirror annotationMirror : typeElement.getAnnotationMirrors())
+		{
+			if (annotationMirror.getAnnotationType().asElement().toString().equals(annotationName))
+			{
+				return annotationMirror;
+			}
+		}
+
+		// view could inherit limits and persistence from super interface
+		for (TypeMirror typeMirror : typeElement.getInterfaces())
+		{
+			AnnotationMirror annotation = getInheritedAnnotation((TypeElement) ((DeclaredType) typeMirror).asElement(), annotationName);
+
+			if (annotation != null)
+			{
+				return annotation;
+			}
+		}
+
+		return null;
+	}
+
+	private String generateCodec(List<Method> methods)
+	{
+		String schema = "";
+		String writeCases = "";
+		String readCases = "";
+		for (Method method : methods)
+		{
+			schema += method.uniqueName + "(";
+
+			if (method.arguments.isEmpty())
+			{
+				schema += ");";
+				continue;
+			}
+
+			String writeParams = "";
+			String readParams = "";
+			for (Argument argument : method.arguments)
+			{
+				schema += getSchema(argument.typeMirror) + ",";
+				writeParams += generateWriteParam(method, argument, "params." + argument.name);
+
+				if (readParams.length() > 0)
+				{
+					readParams += ", ";
+				}
+				readParams += generateReadParam(method, argument);
+			}
+			schema += ");";
+
+			writeCases += "\t\t\t\tcase " + method.uniqueName + ":\n" +
+					"\t\t\t\t{\n" +
+					"\t\t\t\t\t" + method.paramsClassName + " params = (" + method.paramsClassName + ") paramsObject;\n" +
+					writeParams +
+					"\t\t\t\t\tbreak;\n" +
+					"\t\t\t\t}\n";
+			readCases += "\t\t\t\tcase " + method.uniqueName + ":\n" +
+					"\t\t\t\t\treturn new " + method.paramsClassName + "(" + readParams + ");\n";
+		}
+
+		return "\n\tprivate LocalCodec mCodec;\n" +
+				"\n" +
+				"\t@Override\n" +
+				"\tprotected ViewStateCodec<" + mViewClassName + "> getCodec()\n" +
+				"\t{\n" +
+				"\t\tif (mCodec == null)\n" +
+				"\t\t{\n" +
+				"\t\t\tmCodec = new LocalCodec();\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\treturn mCodec;\n" +
+				"\t}\n" +
+				"\n" +
+				"\tprivate class LocalCodec implements ViewStateCodec<" + mViewClassName + ">\n" +
+				"\t{\n" +
+				"\t\tprivate final LocalViewCommand[] mCommands = LocalViewCommand.values();\n" +
+				"\n" +
+				"\t\t@Override\n" +
+				"\t\tpublic int getSchemaHash()\n" +
+				"\t\t{\n" +
+				"\t\t\treturn " + schema.hashCode() + ";\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\t@Override\n" +
+				"\t\tpublic int getCommandId(ViewCommand<" + mViewClassName + "> command)\n" +
+				"\t\t{\n" +
+				"\t\t\treturn ((LocalViewCommand) command).ordinal();\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\t@Override\n" +
+				"\t\tpublic ViewCommand<" + mViewClassName + "> getCommand(int commandId)\n" +
+				"\t\t{\n" +
+				"\t\t\treturn commandId >= 0 && commandId < mCommands.length ? mCommands[commandId] : null;\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\t@Override\n" +
+				"\t\tpublic void writeParams(ViewCommand<" + mViewClassName + "> command, Object paramsObject, CommandWriter writer)\n" +
+				"\t\t{\n" +
+				"\t\t\tswitch ((LocalViewCommand) command)\n" +
+				"\t\t\t{\n" +
+				writeCases +
+				"\t\t\t\tdefault:\n" +
+				"\t\t\t\t\tbreak;\n" +
+				"\t\t\t}\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\t@Override\n" +
+				"\t\tpublic Object readParams(ViewCommand<" + mViewClassName + "> command, CommandReader reader)\n" +
+				"\t\t{\n" +
+				"\t\t\tswitch ((LocalViewCommand) command)\n" +
+				"\t\t\t{\n" +
+				readCases +
+				"\t\t\t\tdefault:\n" +
+				"\t\t\t\t\treturn null;\n" +
+				"\t\t\t}\n" +
+				"\t\t}\n" +
+				"\t}\n";
+	}
+
+	private String generateWriteParam(Method method, Argument argument, String value)
+	{
+		TypeMirror type = argument.typeMirror;
+
+		if (type.getKind().isPrimitive())
+		{
+			return "\t\t\t\t\twriter.write" + getCodecMethodSuffix(type.getKind()) + "(" + value + ");\n";
+		}
+
+		TypeKind unboxedKind = getUnboxedKind(type);
+		if (unboxedKind != null)
+		{
+			return "\t\t\t\t\tif (writer.writeNotNull(" + value + "))\n" +
+					"\t\t\t\t\t{\n" +
+					"\t\t\t\t\t\twriter.write" + getCodecMethodSuffix(unboxedKind) + "(" + value + ");\n" +
+					"\t\t\t\t\t}\n";
+		}
+
+		return "\t\t\t\t\twriter.write" + getObjectCodecMethodSuffix(method, argument) + "(" + value + ");\n";
+	}
+
+	private String generateReadParam(Method method, Argument argument)
+	{
+		TypeMirror type = argument.typeMirror;
+
+		if (type.getKind().isPrimitive())
+		{
+			return generateReadPrimitive(type.getKind());
+		}
+
+		TypeKind unboxedKind = getUnboxedKind(type);
+		if (unboxedKind != null)
+		{
+			return "reader.readNotNull() ? " + ((DeclaredType) type).asElement() + ".valueOf(" + generateReadPrimitive(unboxedKind) + ") : null";
+		}
+
+		String suffix = getObjectCodecMethodSuffix(method, argument);
+		if (suffix.equals("Enum"))
+		{
+			return "reader.readEnum(" + argument.type + ".values())";
+		}
+
+		return "reader.read" + suffix + "()";
+	}
+
+	private static String generateReadPrimitive(TypeKind kind)
+	{
+		String read = "reader.read" + getCodecMethodSuffix(kind) + "()";
+
+		// byte, short and char are written as int
+		if (kind == TypeKind.BYTE || kind == TypeKind.SHORT || kind == TypeKind.CHAR)
+		{
+			return "(" + kind.name().toLowerCase() + ") " + read;
+		}
+
+		return read;
+	}
+
+	private static String getCodecMethodSuffix(TypeKind kind)
+	{
+		switch (kind)
+		{
+			case BOOLEAN:
+				return "Boolean";
+			case LONG:
+				return "Long";
+			case FLOAT:
+				return "Float";
+			case DOUBLE:
+				return "Double";
+			default:
+				return "Int";
+		}
+	}
+
+	private String getObjectCodecMethodSuffix(Method method, Argument argument)
+	{
+		TypeMirror type = argument.typeMirror;
+
+		if (type.getKind() == TypeKind.ARRAY && ((ArrayType) type).getComponentType().getKind() == TypeKind.BYTE)
+		{
+			return "Bytes";
+		}
+
+		if (type.getKind() == TypeKind.DECLARED)
+		{
+			Element element = ((DeclaredType) type).asElement();
+
+			if (element.toString().equals(String.class.getName()))
+			{
+				return "String";
+			}
+
+			if (element.getKind() == ElementKind.ENUM)
+			{
+				return "Enum";
+			}
+		}
+
+		throw new IllegalStateException("Argument " + argument.name + " of method " + method.name + " of " + mViewClassName + " has type " + argument.type + ", which can't be persisted. Use primitives, their boxes, String, enums or byte[] in views with @" + PersistentState.class.getSimpleName());
+	}
+
+	private static TypeKind getUnboxedKind(TypeMirror type)
+	{
+		if (type.getKind() != TypeKind.DECLARED)
+		{
+			return null;
+		}
+
+		return BOXED_TYPES.get(((DeclaredType) type).asElement().toString());
+	}
+
+	/**
+	 * Enum constants are written as ordinals, so they are part of schema
+	 */
+	private static String getSchema(TypeMirror type)
+	{
+		String schema = type.toString();
+
+		if (type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM)
+		{
+			schema += "{";
+			for (Element element : ((DeclaredType) type).asElement().getEnclosedElements())
+			{
+				if (element.getKind() == ElementKind.ENUM_CONSTANT)
+				{
+					schema += element.getSimpleName() + ",";
+				}
+			}
+			schema += "}";
+		}
+
+		return schema;
+	}
+
 	private List<Method> iterateInterfaces(int level, TypeElement parentElement, String parentDefaultStrategy, Map<String, String> parentTypes, List<Method> rootMethods, List<Method> superinterfacesMethods)
 	{
 		for (TypeMirror typeMirror : parentElement.getInterfaces())
@@ -296,8 +670,29 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 
 			String strategyClass = defaultStrategy != null ? defaultStrategy : DEFAULT_STATE_STRATEGY;
 			String methodTag = "\"" + methodElement.getSimpleName() + "\"";
+			String compactionRule = null;
+			String compactionKey = "";
 			for (AnnotationMirror annotationMirror : methodElement.getAnnotationMirrors())
 			{
+				if (annotationMirror.getAnnotationType().asElement().toString().equals(COMPACTION_ANNOTATION))
+				{
+					final Map<? extends ExecutableElement, ? extends AnnotationValue> elementValues = annotationMirror.getElementValues();
+
+					for (ExecutableElement key : elementValues.keySet())
+					{
+						if ("value()".equals(key.toString()))
+						{
+							compactionRule = ((VariableElement) elementValues.get(key).getValue()).getSimpleName().toString();
+						}
+						else if ("key()".equals(key.toString()))
+						{
+							compactionKey = (String) elementValues.get(key).getValue();
+						}
+					}
+
+					continue;
+				}
+
 				if (!annotationMirror.getAnnotationType().asElement().toString().equals(STATE_STRATEGY_TYPE_ANNOTATION))
 				{
 					continue;
@@ -370,7 +765,7 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 			List<Argument> arguments = new ArrayList<>();
 			for (VariableElement parameter : parameters)
 			{
-				arguments.add(new Argument(fillGenerics(methodTypes, parameter.asType()), parameter.toString()));
+				arguments.add(new Argument(fillGenerics(methodTypes, parameter.asType()), parameter.toString(), parameter.asType()));
 			}
 
 			List<String> throwTypes = new ArrayList<>();
@@ -381,6 +776,12 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 
 			final Method method = new Method(genericsCount, generics, fillGenerics(methodTypes, methodElement.getReturnType()), methodElement.getSimpleName().toString(), arguments, throwTypes, strategyClass, methodTag, getClassName(typeElement));
 
+			if (compactionRule != null)
+			{
+				method.compactionRule = compactionRule;
+				method.compactionKey = getCompactionKey(method, compactionKey);
+			}
+
 			if (rootMethods.contains(method))
 			{
 				continue;
@@ -408,6 +809,52 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 		return superinterfacesMethods;
 	}
 
+	/**
+	 * @return argument, which is key of compaction, or null if rule doesn't use key
+	 */
+	private Argument getCompactionKey(Method method, String keyName)
+	{
+		boolean isKeyRequired = method.compactionRule.equals(Compaction.Rule.LAST_BY_KEY.name());
+
+		if (!isKeyRequired)
+		{
+			if (!keyName.isEmpty())
+			{
+				throw new IllegalStateException("Compaction " + method.compactionRule + " of method " + method.name + " of " + method.enclosedClass + " doesn't use key");
+			}
+
+			return null;
+		}
+
+		for (Argument argument : method.arguments)
+		{
+			if (argument.name.equals(keyName))
+			{
+				if (argument.typeMirror.getKind() == TypeKind.ARRAY)
+				{
+					throw new IllegalStateException("Key " + keyName + " of compaction of method " + method.name + " of " + method.enclosedClass + " is array, so it can't be compared");
+				}
+
+				return argument;
+			}
+		}
+
+		throw new IllegalStateException("Compaction " + method.compactionRule + " of method " + method.name + " of " + method.enclosedClass + " requires key, which is name of argument, but was \"" + keyName + "\"");
+	}
+
+	private static boolean isCompactable(List<Method> methods)
+	{
+		for (Method method : methods)
+		{
+			if (method.compactionRule != null)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	private String getClassName(TypeElement typeElement)
 	{
 		String name = typeElement.getSimpleName().toString();
@@ -424,7 +871,9 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 
 	private String generateLocalViewCommand(String viewClassName, String builder, List<Method> methods)
 	{
-		builder += "\tprivate enum LocalViewCommand implements ViewCommand<" + viewClassName + ">\n" +
+		boolean compactable = isCompactable(methods);
+
+		builder += "\tprivate enum LocalViewCommand implements " + (compactable ? "CompactableCommand<" + viewClassName + ">, " : "") + "ResolvedStrategyCommand<" + viewClassName + ">\n" +
 				"\t{\n";
 
 		boolean isFirstEnum = true;
@@ -475,6 +924,7 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 					) +
 					"\t\t\t\t\t\tmvpView." + method.name + "(" + argumentsString + ");\n" +
 					"\t\t\t\t\t}\n" +
+					generateCompaction(method, generics) +
 					"\t\t\t\t}";
 		}
 
@@ -482,6 +932,10 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 				"\n" +
 				"\t\tprivate Class<? extends StateStrategy> mStateStrategyType;\n" +
 				"\t\tprivate String mTag;\n" +
+				"\t\t// resolved on first call. Strategy is written before volatile flag, so thread, which sees flag, sees strategy too.\n" +
+				"\t\t// Racing threads could resolve it twice, which is harmless for stateless shared strategies\n" +
+				"\t\tprivate StateStrategy mSharedStrategy;\n" +
+				"\t\tprivate volatile boolean mIsSharedStrategyResolved;\n" +
 				"\n" +
 				"\t\tLocalViewCommand(Class<? extends StateStrategy> stateStrategyType, String tag)\n" +
 				"\t\t{\n" +
@@ -500,6 +954,41 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 				"\t\t{\n" +
 				"\t\t\treturn mTag;\n" +
 				"\t\t}\n" +
+				"\n" +
+				"\t\t@Override\n" +
+				"\t\tpublic StateStrategy getSharedStrategy()\n" +
+				"\t\t{\n" +
+				"\t\t\tif (!mIsSharedStrategyResolved)\n" +
+				"\t\t\t{\n" +
+				"\t\t\t\tmSharedStrategy = MvpFacade.getInstance().getStateStrategyStore().getSharedStrategy(mStateStrategyType);\n" +
+				"\t\t\t\tmIsSharedStrategyResolved = true;\n" +
+				"\t\t\t}\n" +
+				"\n" +
+				"\t\t\treturn mSharedStrategy;\n" +
+				"\t\t}\n" +
+				(
+						compactable ?
+								"\n" +
+								"\t\t@Override\n" +
+								"\t\tpublic Compaction.Rule getCompactionRule()\n" +
+								"\t\t{\n" +
+								"\t\t\treturn null;\n" +
+								"\t\t}\n" +
+								"\n" +
+								"\t\t@Override\n" +
+								"\t\tpublic Object getCompactionKey(Object paramsObject)\n" +
+								"\t\t{\n" +
+								"\t\t\treturn null;\n" +
+								"\t\t}\n" +
+								"\n" +
+								"\t\t@Override\n" +
+								"\t\tpublic boolean isSameParams(Object paramsObject, Object otherParamsObject)\n" +
+								"\t\t{\n" +
+								"\t\t\treturn false;\n" +
+								"\t\t}\n"
+								:
+								""
+				) +
 				"\t}\n";
 
 		for (Method method : methods)
@@ -530,6 +1019,80 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 		return builder;
 	}
 
+	private String generateCompaction(Method method, String generics)
+	{
+		if (method.compactionRule == null)
+		{
+			return "";
+		}
+
+		String paramsClassName = method.paramsClassName + generics;
+
+		String compaction = "\n" +
+				"\t\t\t\t\t@Override\n" +
+				"\t\t\t\t\tpublic Compaction.Rule getCompactionRule()\n" +
+				"\t\t\t\t\t{\n" +
+				"\t\t\t\t\t\treturn Compaction.Rule." + method.compactionRule + ";\n" +
+				"\t\t\t\t\t}\n" +
+				"\n";
+
+		if (method.compactionKey != null)
+		{
+			return compaction +
+					"\t\t\t\t\t@Override\n" +
+					"\t\t\t\t\tpublic Object getCompactionKey(Object paramsObject)\n" +
+					"\t\t\t\t\t{\n" +
+					"\t\t\t\t\t\treturn ((" + paramsClassName + ") paramsObject)." + method.compactionKey.name + ";\n" +
+					"\t\t\t\t\t}\n";
+		}
+
+		String sameParams = "";
+		for (Argument argument : method.arguments)
+		{
+			if (sameParams.length() > 0)
+			{
+				sameParams += "\n\t\t\t\t\t\t\t\t&& ";
+			}
+
+			sameParams += generateEquals(argument.typeMirror, "params." + argument.name, "otherParams." + argument.name);
+		}
+
+		return compaction +
+				"\t\t\t\t\t@Override\n" +
+				"\t\t\t\t\tpublic boolean isSameParams(Object paramsObject, Object otherParamsObject)\n" +
+				"\t\t\t\t\t{\n" +
+				(
+						method.arguments.isEmpty() ?
+								"\t\t\t\t\t\treturn true;\n"
+								:
+								"\t\t\t\t\t\tfinal " + paramsClassName + " params = (" + method.paramsClassName + ") paramsObject;\n" +
+								"\t\t\t\t\t\tfinal " + paramsClassName + " otherParams = (" + method.paramsClassName + ") otherParamsObject;\n" +
+								"\n" +
+								"\t\t\t\t\t\treturn " + sameParams + ";\n"
+				) +
+				"\t\t\t\t\t}\n";
+	}
+
+	private static String generateEquals(TypeMirror type, String value, String otherValue)
+	{
+		switch (type.getKind())
+		{
+			case FLOAT:
+				return "Float.compare(" + value + ", " + otherValue + ") == 0";
+			case DOUBLE:
+				return "Double.compare(" + value + ", " + otherValue + ") == 0";
+			case ARRAY:
+				return "java.util.Arrays.equals(" + value + ", " + otherValue + ")";
+			default:
+				if (type.getKind().isPrimitive())
+				{
+					return value + " == " + otherValue;
+				}
+
+				return "(" + value + " == null ? " + otherValue + " == null : " + value + ".equals(" + otherValue + "))";
+		}
+	}
+
 	public String getStateStrategyType(TypeElement typeElement)
 	{
 		for (AnnotationMirror annotationMirror : typeElement.getAnnotationMirrors())
@@ -567,6 +1130,8 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 		String stateStrategy;
 		String tag;
 		String enclosedClass;
+		String compactionRule; // name of Compaction.Rule or null
+		Argument compactionKey;
 
 		Method(int genericsCount, String genericType, String resultType, String name, List<Argument> arguments, List<String> thrownTypes, String stateStrategy, String methodTag, String enclosedClass)
 		{
@@ -614,11 +1179,13 @@ final class ViewStateClassGenerator extends ClassGenerator<TypeElement>
 	{
 		String type;
 		String name;
+		TypeMirror typeMirror; // required for persistence of params
 
-		public Argument(String type, String name)
+		public Argument(String type, String name, TypeMirror typeMirror)
 		{
 			this.type = type;
 			this.name = name;
+			this.typeMirror = typeMirror;
 		}
 
 		@Override
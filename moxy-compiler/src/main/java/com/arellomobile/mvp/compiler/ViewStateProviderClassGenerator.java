@@ -1,5 +1,6 @@
 package com.arellomobile.mvp.compiler;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -35,10 +36,12 @@ final class ViewStateProviderClassGenerator extends ClassGenerator<TypeElement>
 	public static final String MVP_PRESENTER_CLASS = MvpPresenter.class.getCanonicalName();
 
 	private Set<TypeElement> mUsedViews;
+	private List<TypeElement> mPresenters;
 
 	public ViewStateProviderClassGenerator()
 	{
 		mUsedViews = new HashSet<>();
+		mPresenters = new ArrayList<>();
 	}
 
 	@Override
@@ -72,25 +75,28 @@ final class ViewStateProviderClassGenerator extends ClassGenerator<TypeElement>
 
 		String builder = "package " + parentClassName.substring(0, parentClassName.lastIndexOf(".")) + ";\n" +
 				"\n" +
-				"import com.arellomobile.mvp.ViewStateClassNameProvider;\n" +
-				"import java.lang.String;\n" +
-				"\n" + "public class " + viewClassName + MvpProcessor.VIEW_STATE_CLASS_NAME_PROVIDER_SUFFIX + " implements ViewStateClassNameProvider" + "\n" +
+				"import com.arellomobile.mvp.ViewStateProvider;\n" +
+				"import com.arellomobile.mvp.viewstate.MvpViewState;\n" +
+				"\n" + "public class " + viewClassName + MvpProcessor.VIEW_STATE_PROVIDER_SUFFIX + " implements ViewStateProvider" + "\n" +
 				"{\n" +
-				"\tpublic String getViewStateClassName()\n" +
+				"\t@Override\n" +
+				"\tpublic MvpViewState<?> getViewState()\n" +
 				"\t{\n";
 		if (viewState == null)
 		{
-			builder += "\t\tthrow new RuntimeException(" + parentClassName + " should has view\");\n";
+			builder += "\t\tthrow new RuntimeException(\"" + parentClassName + " should has view\");\n";
 		}
 		else
 		{
-			builder += "\t\treturn \"" + viewState + "\";\n";
+			builder += "\t\treturn new " + viewState + "();\n";
 		}
 		builder += "\t}\n" +
 				"}";
 
+		mPresenters.add(typeElement);
+
 		ClassGeneratingParams classGeneratingParams = new ClassGeneratingParams();
-		classGeneratingParams.setName(parentClassName + MvpProcessor.VIEW_STATE_CLASS_NAME_PROVIDER_SUFFIX);
+		classGeneratingParams.setName(parentClassName + MvpProcessor.VIEW_STATE_PROVIDER_SUFFIX);
 		classGeneratingParams.setBody(builder);
 		classGeneratingParamsList.add(classGeneratingParams);
 
@@ -199,4 +205,9 @@ final class ViewStateProviderClassGenerator extends ClassGenerator<TypeElement>
 	{
 		return mUsedViews;
 	}
+
+	public List<TypeElement> getPresenters()
+	{
+		return mPresenters;
+	}
 }
@@ -0,0 +1,81 @@
+package com.arellomobile.mvp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Date: 19.10.2026
+ * Time: 10:20
+ * <p>
+ * Combines generated registries of several modules. Each class is processed by single module, so the first registry,
+ * which knows class, is used.
+ *
+ * @author agent
+ */
+final class CompositeMvpRegistry implements MvpRegistry
+{
+	private final List<MvpRegistry> mRegistries;
+
+	CompositeMvpRegistry(List<MvpRegistry> registries)
+	{
+		mRegistries = registries;
+	}
+
+	@Override
+	public PresenterBinder<?> getPresenterBinder(Class<?> presentersContainer)
+	{
+		for (MvpRegistry registry : mRegistries)
+		{
+			PresenterBinder<?> presenterBinder = registry.getPresenterBinder(presentersContainer);
+
+			if (presenterBinder != null)
+			{
+				return presenterBinder;
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	public ViewStateProvider getViewStateProvider(Class<?> presenterClass)
+	{
+		for (MvpRegistry registry : mRegistries)
+		{
+			ViewStateProvider viewStateProvider = registry.getViewStateProvider(presenterClass);
+
+			if (viewStateProvider != null)
+			{
+				return viewStateProvider;
+			}
+		}
+
+		return null;
+	}
+
+	@Override
+	public Collection<Class<?>> getPresentersContainers()
+	{
+		List<Class<?>> presentersContainers = new ArrayList<>();
+		for (MvpRegistry registry : mRegistries)
+		{
+			presentersContainers.addAll(registry.getPresentersContainers());
+		}
+
+		return Collections.unmodifiableList(presentersContainers);
+	}
+
+	@Override
+	public Collection<Class<?>> getPresenters()
+	{
+		List<Class<?>> presenters = new ArrayList<>();
+		for (MvpRegistry registry : mRegistries)
+		{
+			presenters.addAll(registry.getPresenters());
+		}
+
+		return Collections.unmodifiableList(presenters);
+	}
+}
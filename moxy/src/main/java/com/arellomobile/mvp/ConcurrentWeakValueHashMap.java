@@ -0,0 +1,476 @@
+package com.arellomobile.mvp;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Date: 18.10.2026
+ * Time: 19:40
+ * <p>
+ * Thread-safe map, which keeps weak references to values. Once value is collected by garbage collector, its entry
+ * disappears from map.
+ * <p>
+ * Unlike {@link WeakValueHashMap}:
+ * <ul>
+ * <li>map could be used from several threads without external synchronization</li>
+ * <li>{@link #entrySet()}, {@link #keySet()} and {@link #values()} are live views over map, nothing is copied on
+ * iteration. Collected values are skipped and removed, and iterators never return null value</li>
+ * <li>reads don't touch reference queue. Writes drain at most {@link #DRAIN_BATCH_SIZE} collected references, so
+ * cost of cleanup is spread between modifications. {@link #size()} and {@link #expungeStaleEntries()} drain queue
+ * entirely</li>
+ * <li>entry is removed by collected reference only if it is still mapped to that reference, so value put again
+ * with the same key is never removed by stale reference</li>
+ * </ul>
+ * Null keys and values are not permitted.
+ *
+ * @param <K> type of keys
+ * @param <V> type of values
+ * @author agent
+ */
+public class ConcurrentWeakValueHashMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>
+{
+	static final int DRAIN_BATCH_SIZE = 32;
+
+	private final ConcurrentHashMap<K, WeakValue<K, V>> mReferences;
+	private final ReferenceQueue<V> mQueue = new ReferenceQueue<>();
+
+	private Set<Entry<K, V>> mEntrySet;
+	private Collection<V> mValues;
+
+	public ConcurrentWeakValueHashMap()
+	{
+		mReferences = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * @param capacity initial capacity of map
+	 */
+	public ConcurrentWeakValueHashMap(int capacity)
+	{
+		mReferences = new ConcurrentHashMap<>(capacity);
+	}
+
+	@Override
+	public V get(Object key)
+	{
+		WeakValue<K, V> reference = mReferences.get(key);
+		if (reference == null)
+		{
+			return null;
+		}
+
+		V value = reference.get();
+		if (value == null)
+		{
+			// value is already collected, but reference isn't processed yet
+			mReferences.remove(key, reference);
+		}
+
+		return value;
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return get(key) != null;
+	}
+
+	@Override
+	public V put(K key, V value)
+	{
+		checkValue(value);
+		drainQueue(DRAIN_BATCH_SIZE);
+
+		return valueOf(mReferences.put(key, new WeakValue<>(key, value, mQueue)));
+	}
+
+	@Override
+	public V putIfAbsent(K key, V value)
+	{
+		checkValue(value);
+		drainQueue(DRAIN_BATCH_SIZE);
+
+		WeakValue<K, V> reference = new WeakValue<>(key, value, mQueue);
+
+		while (true)
+		{
+			WeakValue<K, V> existingReference = mReferences.putIfAbsent(key, reference);
+			if (existingReference == null)
+			{
+				return null;
+			}
+
+			V existingValue = existingReference.get();
+			if (existingValue != null)
+			{
+				return existingValue;
+			}
+
+			// existing value is collected, so key is absent in fact
+			if (mReferences.replace(key, existingReference, reference))
+			{
+				return null;
+			}
+		}
+	}
+
+	@Override
+	public V remove(Object key)
+	{
+		drainQueue(DRAIN_BATCH_SIZE);
+
+		return valueOf(mReferences.remove(key));
+	}
+
+	@Override
+	public boolean remove(Object key, Object value)
+	{
+		if (value == null)
+		{
+			return false;
+		}
+
+		drainQueue(DRAIN_BATCH_SIZE);
+
+		WeakValue<K, V> reference = mReferences.get(key);
+
+		return reference != null && value.equals(reference.get()) && mReferences.remove(key, reference);
+	}
+
+	@Override
+	public boolean replace(K key, V oldValue, V newValue)
+	{
+		checkValue(oldValue);
+		checkValue(newValue);
+		drainQueue(DRAIN_BATCH_SIZE);
+
+		WeakValue<K, V> reference = mReferences.get(key);
+
+		return reference != null && oldValue.equals(reference.get()) && mReferences.replace(key, reference, new WeakValue<>(key, newValue, mQueue));
+	}
+
+	@Override
+	public V replace(K key, V value)
+	{
+		checkValue(value);
+		drainQueue(DRAIN_BATCH_SIZE);
+
+		WeakValue<K, V> newReference = new WeakValue<>(key, value, mQueue);
+
+		while (true)
+		{
+			WeakValue<K, V> reference = mReferences.get(key);
+			if (reference == null)
+			{
+				return null;
+			}
+
+			V oldValue = reference.get();
+			if (oldValue == null)
+			{
+				mReferences.remove(key, reference);
+				return null;
+			}
+
+			if (mReferences.replace(key, reference, newReference))
+			{
+				return oldValue;
+			}
+		}
+	}
+
+	@Override
+	public void clear()
+	{
+		mReferences.clear();
+
+		// references of removed entries are useless now
+		while (mQueue.poll() != null)
+		{
+			// drop
+		}
+	}
+
+	/**
+	 * Size could include entries, which values are collected but not enqueued yet
+	 *
+	 * @return count of entries in map
+	 */
+	@Override
+	public int size()
+	{
+		expungeStaleEntries();
+
+		return mReferences.size();
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+
+	/**
+	 * Removes all entries, which values are collected and enqueued by garbage collector
+	 */
+	public void expungeStaleEntries()
+	{
+		drainQueue(Integer.MAX_VALUE);
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet()
+	{
+		Set<Entry<K, V>> entrySet = mEntrySet;
+		if (entrySet == null)
+		{
+			entrySet = mEntrySet = new EntrySet();
+		}
+
+		return entrySet;
+	}
+
+	@Override
+	public Collection<V> values()
+	{
+		Collection<V> values = mValues;
+		if (values == null)
+		{
+			values = mValues = new Values();
+		}
+
+		return values;
+	}
+
+	private void drainQueue(int limit)
+	{
+		for (int i = 0; i < limit; i++)
+		{
+			// queue receives only values of this map
+			@SuppressWarnings("unchecked")
+			WeakValue<K, V> reference = (WeakValue<K, V>) mQueue.poll();
+			if (reference == null)
+			{
+				return;
+			}
+
+			mReferences.remove(reference.mKey, reference);
+		}
+	}
+
+	private static void checkValue(Object value)
+	{
+		if (value == null)
+		{
+			throw new NullPointerException("ConcurrentWeakValueHashMap doesn't permit null values");
+		}
+	}
+
+	private static <V> V valueOf(WeakValue<?, V> reference)
+	{
+		return reference == null ? null : reference.get();
+	}
+
+	/**
+	 * Weak reference to value, which keeps key for removal of entry after value is collected
+	 */
+	private static final class WeakValue<K, V> extends WeakReference<V>
+	{
+		private final K mKey;
+
+		WeakValue(K key, V value, ReferenceQueue<V> queue)
+		{
+			super(value, queue);
+
+			if (key == null)
+			{
+				throw new NullPointerException("ConcurrentWeakValueHashMap doesn't permit null keys");
+			}
+
+			mKey = key;
+		}
+	}
+
+	/**
+	 * Iterates over backing map and holds strong reference to next value, so returned values are never null
+	 */
+	private abstract class WeakValueIterator<T> implements Iterator<T>
+	{
+		private final Iterator<WeakValue<K, V>> mIterator = mReferences.values().iterator();
+
+		private WeakValue<K, V> mNextReference;
+		private V mNextValue;
+		private WeakValue<K, V> mLastReference;
+
+		@Override
+		public boolean hasNext()
+		{
+			while (mNextValue == null && mIterator.hasNext())
+			{
+				mNextReference = mIterator.next();
+				mNextValue = mNextReference.get();
+
+				if (mNextValue == null)
+				{
+					// value is already collected, so next iterations don't need to pass this entry
+					mReferences.remove(mNextReference.mKey, mNextReference);
+				}
+			}
+
+			return mNextValue != null;
+		}
+
+		WeakValue<K, V> nextReference()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+
+			mLastReference = mNextReference;
+			mNextReference = null;
+
+			return mLastReference;
+		}
+
+		V takeNextValue()
+		{
+			V value = mNextValue;
+			mNextValue = null;
+
+			return value;
+		}
+
+		@Override
+		public void remove()
+		{
+			if (mLastReference == null)
+			{
+				throw new IllegalStateException();
+			}
+
+			mReferences.remove(mLastReference.mKey, mLastReference);
+			mLastReference = null;
+		}
+	}
+
+	private final class EntryIterator extends WeakValueIterator<Entry<K, V>>
+	{
+		@Override
+		public Entry<K, V> next()
+		{
+			WeakValue<K, V> reference = nextReference();
+
+			return new WriteThroughEntry(reference.mKey, takeNextValue());
+		}
+	}
+
+	private final class ValueIterator extends WeakValueIterator<V>
+	{
+		@Override
+		public V next()
+		{
+			nextReference();
+
+			return takeNextValue();
+		}
+	}
+
+	private final class WriteThroughEntry extends SimpleEntry<K, V>
+	{
+		private static final long serialVersionUID = 1L;
+
+		WriteThroughEntry(K key, V value)
+		{
+			super(key, value);
+		}
+
+		@Override
+		public V setValue(V value)
+		{
+			checkValue(value);
+			super.setValue(value);
+
+			return put(getKey(), value);
+		}
+	}
+
+	private final class EntrySet extends AbstractSet<Entry<K, V>>
+	{
+		@Override
+		public Iterator<Entry<K, V>> iterator()
+		{
+			return new EntryIterator();
+		}
+
+		@Override
+		public boolean contains(Object o)
+		{
+			if (!(o instanceof Entry))
+			{
+				return false;
+			}
+
+			Entry<?, ?> entry = (Entry<?, ?>) o;
+			V value = ConcurrentWeakValueHashMap.this.get(entry.getKey());
+
+			return value != null && value.equals(entry.getValue());
+		}
+
+		@Override
+		public boolean remove(Object o)
+		{
+			if (!(o instanceof Entry))
+			{
+				return false;
+			}
+
+			Entry<?, ?> entry = (Entry<?, ?>) o;
+
+			return ConcurrentWeakValueHashMap.this.remove(entry.getKey(), entry.getValue());
+		}
+
+		@Override
+		public int size()
+		{
+			return ConcurrentWeakValueHashMap.this.size();
+		}
+
+		@Override
+		public void clear()
+		{
+			ConcurrentWeakValueHashMap.this.clear();
+		}
+	}
+
+	private final class Values extends AbstractCollection<V>
+	{
+		@Override
+		public Iterator<V> iterator()
+		{
+			return new ValueIterator();
+		}
+
+		@Override
+		public int size()
+		{
+			return ConcurrentWeakValueHashMap.this.size();
+		}
+
+		@Override
+		public void clear()
+		{
+			ConcurrentWeakValueHashMap.this.clear();
+		}
+	}
+}
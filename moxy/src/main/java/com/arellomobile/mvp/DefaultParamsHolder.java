@@ -11,8 +11,8 @@ import com.arellomobile.mvp.presenter.PresenterField;
 public class DefaultParamsHolder implements ParamsHolder<DefaultPresenterFactory.Params>
 {
 	@Override
-	public DefaultPresenterFactory.Params getParams(PresenterField<?> presenterField, Object delegated, String delegateTag)
+	public DefaultPresenterFactory.Params getParams(PresenterField<?> presenterField, Object delegated, PresenterKey delegateKey)
 	{
-		return new DefaultPresenterFactory.Params(delegateTag, presenterField.getClass().getSimpleName(), presenterField.getTag());
+		return new DefaultPresenterFactory.Params(delegateKey, presenterField.getId(), presenterField.getTag());
 	}
 }
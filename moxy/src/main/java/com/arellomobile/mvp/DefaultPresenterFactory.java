@@ -1,7 +1,5 @@
 package com.arellomobile.mvp;
 
-import android.text.TextUtils;
-
 /**
  * Date: 25-Dec-15
  * Time: 12:00
@@ -25,26 +23,26 @@ public class DefaultPresenterFactory implements PresenterFactory<MvpPresenter<?>
 	}
 
 	@Override
-	public String createTag(Class<MvpPresenter<?>> presenterClazz, Params params)
+	public PresenterKey createKey(Class<MvpPresenter<?>> presenterClazz, Params params)
 	{
-		if (!TextUtils.isEmpty(params.defaultTag))
+		if (params.defaultTag != null && params.defaultTag.length() > 0)
 		{
-			return params.defaultTag;
+			return PresenterKey.of(params.defaultTag);
 		}
 
-		return params.delegateTag + "$" + params.fieldName;
+		return params.delegateKey.child(params.fieldId);
 	}
 
 	static class Params
 	{
-		private String delegateTag;
-		private String fieldName;
+		private PresenterKey delegateKey;
+		private int fieldId;
 		private String defaultTag;
 
-		Params(String delegateTag, String fieldName, String defaultTag)
+		Params(PresenterKey delegateKey, int fieldId, String defaultTag)
 		{
-			this.delegateTag = delegateTag;
-			this.fieldName = fieldName;
+			this.delegateKey = delegateKey;
+			this.fieldId = fieldId;
 			this.defaultTag = defaultTag;
 		}
 	}
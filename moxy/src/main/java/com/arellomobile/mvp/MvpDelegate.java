@@ -1,7 +1,11 @@
 package com.arellomobile.mvp;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import android.os.Bundle;
 
@@ -25,18 +29,31 @@ import com.arellomobile.mvp.presenter.PresenterType;
  * Every {@link Object} can only be linked with one {@link MvpDelegate} instance,
  * so the instance returned from {@link #MvpDelegate(Object)}} should be kept
  * until the Object is destroyed.
+ * <p>
+ * Presenters with heavy constructors could be created off the main thread by
+ * {@link #onCreate(Bundle, Executor, Executor)}. Presenter fields stay null until
+ * presenters are created, see {@link #isPresentersCreated()}.
  *
  * @author Alexander Blinov
  */
 public class MvpDelegate<Delegated>
 {
 	private static final String KEY_TAGS = "com.arellomobile.mvp.MvpDelegate.KEY_TAGS";
+	private static final String KEY_VIEW_STATE = "com.arellomobile.mvp.MvpDelegate.KEY_VIEW_STATE$";
+
+	// ids are unique inside process. Counter starts from random value, so ids restored after death of process
+	// hardly clash with ids of new delegates
+	private static final AtomicInteger sNextId = new AtomicInteger(new Random().nextInt());
 
 	private String mKeyTags = KEY_TAGS;
-	private String mDelegateTag;
+	private PresenterKey mDelegateKey;
 	private final Delegated mDelegated;
 	private boolean mStateSaved;
 	private boolean mIsAttached;
+	private boolean mIsDestroyed;
+	private boolean mPresentersCreated;
+	// increased on each onCreate(), so result of outdated async creation is ignored
+	private int mCreation;
 	private MvpDelegate mParentDelegate;
 	private List<MvpPresenter<? super Delegated>> mPresenters;
 	private List<MvpDelegate> mChildDelegates;
@@ -92,27 +109,199 @@ public class MvpDelegate<Delegated>
 	 * @param bundle with saved state
 	 */
 	public void onCreate(Bundle bundle)
+	{
+		prepare(bundle);
+
+		MvpMetricsListener metricsListener = MvpFacade.getMetricsListener();
+		long start = metricsListener != null ? System.nanoTime() : 0;
+
+		//bind presenters to view
+		mPresenters = MvpFacade.getInstance().getMvpProcessor().getMvpPresenters(mDelegated, mDelegateKey);
+		mPresentersCreated = true;
+		restoreViewStates(mPresenters);
+
+		if (metricsListener != null)
+		{
+			metricsListener.onDelegateCreated(mDelegated.getClass(), mPresenters.size(), System.nanoTime() - start);
+		}
+
+		for (MvpDelegate childDelegate : mChildDelegates)
+		{
+			childDelegate.onCreate(bundle);
+		}
+	}
+
+	/**
+	 * <p>Same as {@link #onCreate(Bundle)}, but presenters are got (or created if not
+	 * exist) by background executor. Then they are bound to fields of delegated object
+	 * by main executor, and attached to it if {@link #onStart()} was already called.
+	 * Until then presenter fields are not set.</p>
+	 * <p>Params and keys of presenters are provided by delegated object, so they are resolved
+	 * on calling thread; only presenter factories are called by background executor.</p>
+	 * <p>Presenters are created through {@link PresenterStore}, so delegates, which request
+	 * presenter with the same key concurrently, get the same instance.</p>
+	 * <p>If creation fails, exception is thrown by main executor.</p>
+	 *
+	 * @param bundle             with saved state
+	 * @param backgroundExecutor executor to create presenters
+	 * @param mainExecutor       executor of thread, which calls lifecycle methods of this delegate (e.g. executor, which
+	 *                           posts to Handler of main Looper)
+	 */
+	public void onCreate(Bundle bundle, Executor backgroundExecutor, final Executor mainExecutor)
+	{
+		prepare(bundle);
+
+		final int creation = mCreation;
+		final MvpProcessor mvpProcessor = MvpFacade.getInstance().getMvpProcessor();
+
+		// params are provided by delegated object, so they are resolved on this thread
+		final List<MvpProcessor.PresenterRequest<Delegated>> requests = mvpProcessor.getPresenterRequests(mDelegated, mDelegateKey);
+
+		backgroundExecutor.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				MvpMetricsListener metricsListener = MvpFacade.getMetricsListener();
+				long start = metricsListener != null ? System.nanoTime() : 0;
+
+				final List<MvpPresenter<? super Delegated>> presenters;
+				try
+				{
+					presenters = mvpProcessor.createMvpPresenters(requests);
+				}
+				catch (final RuntimeException e)
+				{
+					mainExecutor.execute(new Runnable()
+					{
+						@Override
+						public void run()
+						{
+							throw e;
+						}
+					});
+					return;
+				}
+
+				if (metricsListener != null)
+				{
+					// time of binding on main thread is not included, it doesn't depend on presenters
+					metricsListener.onDelegateCreated(mDelegated.getClass(), presenters.size(), System.nanoTime() - start);
+				}
+
+				mainExecutor.execute(new Runnable()
+				{
+					@Override
+					public void run()
+					{
+						onPresentersCreated(creation, presenters);
+					}
+				});
+			}
+		});
+
+		for (MvpDelegate childDelegate : mChildDelegates)
+		{
+			childDelegate.onCreate(bundle, backgroundExecutor, mainExecutor);
+		}
+	}
+
+	/**
+	 * @return true if presenters are bound to fields of delegated object. Always true after {@link #onCreate(Bundle)}
+	 */
+	public boolean isPresentersCreated()
+	{
+		return mPresentersCreated;
+	}
+
+	private void prepare(Bundle bundle)
 	{
 		mStateSaved = false;
 		mIsAttached = false;
+		mIsDestroyed = false;
+		mPresentersCreated = false;
+		mPresenters = Collections.emptyList();
+		mCreation++;
 		mBundle = bundle;
 
-		//get base tag for presenters
+		//get base key for presenters
+		int delegateId;
 		if (bundle == null || !mBundle.containsKey(mKeyTags))
 		{
-			mDelegateTag = generateTag();
+			delegateId = sNextId.incrementAndGet();
 		}
 		else
 		{
-			mDelegateTag = bundle.getString(mKeyTags);
+			delegateId = bundle.getInt(mKeyTags);
 		}
 
-		//bind presenters to view
-		mPresenters = MvpFacade.getInstance().getMvpProcessor().getMvpPresenters(mDelegated, mDelegateTag);
+		if (mParentDelegate != null && mParentDelegate.mDelegateKey != null)
+		{
+			mDelegateKey = mParentDelegate.mDelegateKey.child(delegateId);
+		}
+		else
+		{
+			mDelegateKey = PresenterKey.of(delegateId);
+		}
+	}
 
-		for (MvpDelegate childDelegate : mChildDelegates)
+	private void onPresentersCreated(int creation, List<MvpPresenter<? super Delegated>> presenters)
+	{
+		if (creation != mCreation)
 		{
-			childDelegate.onCreate(bundle);
+			// delegate is created again, and new creation will return presenters
+			return;
+		}
+
+		mPresenters = presenters;
+
+		if (mIsDestroyed)
+		{
+			// delegated is destroyed before presenters were created, so presenters are never bound to it
+			if (!mStateSaved)
+			{
+				destroyPresenters();
+			}
+			return;
+		}
+
+		MvpFacade.getInstance().getMvpProcessor().bindMvpPresenters(mDelegated, presenters);
+		mPresentersCreated = true;
+		restoreViewStates(presenters);
+
+		if (mIsAttached)
+		{
+			for (MvpPresenter<? super Delegated> presenter : presenters)
+			{
+				presenter.attachView(mDelegated);
+			}
+		}
+	}
+
+	/**
+	 * Restore persistent view states, saved by {@link #onSaveInstanceState(Bundle)} before death of process. View
+	 * states of presenters, which survived in store, are attached already, so they are not changed
+	 */
+	private void restoreViewStates(List<MvpPresenter<? super Delegated>> presenters)
+	{
+		if (mBundle == null)
+		{
+			return;
+		}
+
+		for (MvpPresenter<? super Delegated> presenter : presenters)
+		{
+			if (presenter.getKey() == null)
+			{
+				continue;
+			}
+
+			byte[] history = mBundle.getByteArray(KEY_VIEW_STATE + presenter.getKey());
+
+			if (history != null)
+			{
+				presenter.restoreViewState(history);
+			}
 		}
 	}
 
@@ -158,6 +347,8 @@ public class MvpDelegate<Delegated>
 	 */
 	public void onDestroy()
 	{
+		mIsDestroyed = true;
+
 		for (MvpPresenter<? super Delegated> presenter : mPresenters)
 		{
 			presenter.detachView(mDelegated);
@@ -175,13 +366,24 @@ public class MvpDelegate<Delegated>
 	}
 
 	/**
-	 * Save presenters tag prefix to save state for restore presenters at future after delegate recreate
+	 * Save id of delegate key to save state for restore presenters at future after delegate recreate. History of
+	 * persistent view states is saved too, so it is restored if process is killed
 	 * @param outState out state from Android component
 	 */
 	public void onSaveInstanceState(Bundle outState)
 	{
 		mStateSaved = true;
-		outState.putString(mKeyTags, mDelegateTag);
+		outState.putInt(mKeyTags, mDelegateKey.getId());
+
+		for (MvpPresenter<? super Delegated> presenter : mPresenters)
+		{
+			byte[] history = presenter.getKey() != null ? presenter.saveViewState() : null;
+
+			if (history != null)
+			{
+				outState.putByteArray(KEY_VIEW_STATE + presenter.getKey(), history);
+			}
+		}
 
 		for (MvpDelegate childDelegate : mChildDelegates)
 		{
@@ -198,18 +400,8 @@ public class MvpDelegate<Delegated>
 			if (presenter.getPresenterType() == PresenterType.LOCAL)
 			{
 				presenter.onDestroy();
-				presenterStore.remove(PresenterType.LOCAL, presenter.getTag(), presenter.getClass());
+				presenterStore.remove(PresenterType.LOCAL, presenter.getKey(), PresenterStore.getPresenterClass(presenter));
 			}
 		}
 	}
-
-	/**
-	 * @return generated tag in format: Delegated_class_full_name$MvpDelegate@hashCode
-	 *
-	 * example: com.arellomobile.com.arellomobile.mvp.sample.SampleFragment$MvpDelegate@32649b0
-	 */
-	private String generateTag()
-	{
-		return mDelegated.getClass().getName() + "$" + getClass().getSimpleName()+ toString().replace(getClass().getName(),"");
-	}
 }
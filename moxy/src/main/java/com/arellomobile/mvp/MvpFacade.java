@@ -1,8 +1,19 @@
 package com.arellomobile.mvp;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.Executor;
+
 /**
  * Date: 17-Dec-15
  * Time: 19:00
+ * <p>
+ * Generated classes are loaded lazily, on first creation of each view. To move this work off the main thread,
+ * call {@link #prewarm(Executor, PrewarmReport.Callback)} at application start.
  *
  * @author Alexander Blinov
  */
@@ -10,6 +21,8 @@ public final class MvpFacade
 {
 	private static volatile MvpFacade sInstance;
 
+	private static volatile MvpMetricsListener sMetricsListener;
+
 	private static final Object sLock = new Object();
 
 	public static MvpFacade getInstance()
@@ -32,11 +45,108 @@ public final class MvpFacade
 		getInstance();
 	}
 
+	/**
+	 * @param metricsListener listener to receive runtime metrics, or null to stop metrics
+	 */
+	public static void setMetricsListener(MvpMetricsListener metricsListener)
+	{
+		sMetricsListener = metricsListener;
+	}
+
+	/**
+	 * @return installed metrics listener, or null if there is no listener
+	 */
+	public static MvpMetricsListener getMetricsListener()
+	{
+		return sMetricsListener;
+	}
+
+	/**
+	 * Prewarms all presenters containers and presenters listed in generated {@link MvpRegistry}. Does nothing if
+	 * there is no generated registry.
+	 *
+	 * @param executor executor to prewarm on, usually background one
+	 * @param callback receives timing report on executor thread. Could be null
+	 * @see #prewarm(Collection, Collection, Executor, PrewarmReport.Callback)
+	 */
+	public static void prewarm(Executor executor, PrewarmReport.Callback callback)
+	{
+		MvpRegistry registry = getInstance().getRegistry();
+
+		if (registry == null)
+		{
+			prewarm(Collections.<Class<?>>emptyList(), Collections.<Class<?>>emptyList(), executor, callback);
+		}
+		else
+		{
+			prewarm(registry.getPresentersContainers(), registry.getPresenters(), executor, callback);
+		}
+	}
+
+	/**
+	 * Loads and caches binders, factories, view states and state strategies of given classes, so first creation of
+	 * these views and presenters doesn't pay for class loading and lookup. Presenters of fields of presenters
+	 * containers are prewarmed too. Failure of single class doesn't stop prewarm, it is reported to callback.
+	 *
+	 * @param presentersContainers classes contain fields annotated with {@link com.arellomobile.mvp.presenter.InjectPresenter}
+	 * @param presenters           presenter classes
+	 * @param executor             executor to prewarm on, usually background one
+	 * @param callback             receives timing report on executor thread. Could be null
+	 */
+	public static void prewarm(final Collection<? extends Class<?>> presentersContainers, final Collection<? extends Class<?>> presenters, Executor executor, final PrewarmReport.Callback callback)
+	{
+		final MvpFacade mvpFacade = getInstance();
+
+		executor.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				PrewarmReport report = mvpFacade.mMvpPrewarmer.prewarm(presentersContainers, presenters);
+
+				if (callback != null)
+				{
+					callback.onPrewarmed(report);
+				}
+			}
+		});
+	}
+
 	private MvpFacade()
 	{
 		mPresenterStore = new PresenterStore();
 		mMvpProcessor = new MvpProcessor();
 		mPresenterFactoryStore = new PresenterFactoryStore();
+		mStateStrategyStore = new StateStrategyStore();
+		mRegistry = loadRegistry();
+		mMvpPrewarmer = new MvpPrewarmer(this);
+	}
+
+	/**
+	 * @return registry, which combines generated registries of all modules, or null if there is no one
+	 */
+	private static MvpRegistry loadRegistry()
+	{
+		List<MvpRegistry> registries = new ArrayList<>();
+		try
+		{
+			// R8 replaces this call by direct instantiation of registries, when class loader is given this way
+			for (MvpRegistry registry : ServiceLoader.load(MvpRegistry.class, MvpRegistry.class.getClassLoader()))
+			{
+				registries.add(registry);
+			}
+		}
+		catch (ServiceConfigurationError e)
+		{
+			throw new RuntimeException("Unable to instantiate generated " + MvpRegistry.class.getSimpleName(), e);
+		}
+
+		if (registries.isEmpty())
+		{
+			return null;
+		}
+
+		return registries.size() == 1 ? registries.get(0) : new CompositeMvpRegistry(registries);
 	}
 
 	private PresenterStore mPresenterStore;
@@ -45,6 +155,12 @@ public final class MvpFacade
 
 	private PresenterFactoryStore mPresenterFactoryStore;
 
+	private StateStrategyStore mStateStrategyStore;
+
+	private MvpRegistry mRegistry;
+
+	private MvpPrewarmer mMvpPrewarmer;
+
 	public PresenterStore getPresenterStore()
 	{
 		return mPresenterStore;
@@ -55,8 +171,21 @@ public final class MvpFacade
 		return mPresenterFactoryStore;
 	}
 
+	public StateStrategyStore getStateStrategyStore()
+	{
+		return mStateStrategyStore;
+	}
+
 	public MvpProcessor getMvpProcessor()
 	{
 		return mMvpProcessor;
 	}
+
+	/**
+	 * @return generated registry, or null if there is no registry generated in application
+	 */
+	public MvpRegistry getRegistry()
+	{
+		return mRegistry;
+	}
 }
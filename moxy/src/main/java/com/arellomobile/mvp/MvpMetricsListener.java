@@ -0,0 +1,127 @@
+package com.arellomobile.mvp;
+
+import com.arellomobile.mvp.presenter.PresenterType;
+import com.arellomobile.mvp.viewstate.MvpViewState;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
+
+/**
+ * Date: 18.10.2026
+ * Time: 22:50
+ * <p>
+ * Receives runtime metrics of Moxy. Install it by {@link MvpFacade#setMetricsListener(MvpMetricsListener)}.
+ * When no listener is installed, each hook costs one null check.
+ * <p>
+ * Methods are called synchronously on the thread, which does the work, so implementations should be fast and
+ * thread-safe. All methods do nothing by default, override only needed ones. Durations are in nanoseconds.
+ * <p>
+ * There is no callback of store size: it could be read at any moment by
+ * {@link PresenterStore#getPresentersCount(PresenterType)}, e.g. from {@link #onPresenterAdded} and
+ * {@link #onPresenterRemoved}. Weak presenters, which are collected by garbage collector, are not reported as removed,
+ * so added minus removed weak presenters is only upper bound of their count, while
+ * {@code getPresentersCount(PresenterType.WEAK)} gives exact one.
+ *
+ * @author agent
+ */
+public abstract class MvpMetricsListener
+{
+	/**
+	 * Presenter is created by its factory, because store has no presenter with such key
+	 *
+	 * @param type           type of presenter
+	 * @param presenterClass class of presenter
+	 * @param nanos          time of creation by factory
+	 */
+	public void onPresenterCreated(PresenterType type, Class<? extends MvpPresenter<?>> presenterClass, long nanos)
+	{
+	}
+
+	/**
+	 * Presenter is found in store, so it is not created
+	 *
+	 * @param type           type of presenter
+	 * @param presenterClass class of presenter
+	 */
+	public void onPresenterStoreHit(PresenterType type, Class<? extends MvpPresenter<?>> presenterClass)
+	{
+	}
+
+	/**
+	 * Presenter is put into {@link PresenterStore}
+	 *
+	 * @param type           type of presenter
+	 * @param presenterClass class of presenter
+	 */
+	public void onPresenterAdded(PresenterType type, Class<? extends MvpPresenter<?>> presenterClass)
+	{
+	}
+
+	/**
+	 * Presenter is removed from {@link PresenterStore}. Not called for weak presenters, which are collected by garbage
+	 * collector
+	 *
+	 * @param type           type of presenter
+	 * @param presenterClass class of presenter
+	 */
+	public void onPresenterRemoved(PresenterType type, Class<? extends MvpPresenter<?>> presenterClass)
+	{
+	}
+
+	/**
+	 * Binder of presenters container is looked up. Called once per class, next lookups are served from cache
+	 *
+	 * @param presentersContainer class contains presenters
+	 * @param found               false if class hierarchy has no presenters
+	 * @param nanos               time of lookup, including lookup of superclasses
+	 */
+	public void onPresenterBinderResolved(Class<?> presentersContainer, boolean found, long nanos)
+	{
+	}
+
+	/**
+	 * Presenters of {@link MvpDelegate} are got and bound
+	 *
+	 * @param delegatedClass  class of delegated object
+	 * @param presentersCount count of presenters
+	 * @param nanos           time of getting presenters, including creation of absent ones
+	 */
+	public void onDelegateCreated(Class<?> delegatedClass, int presentersCount, long nanos)
+	{
+	}
+
+	/**
+	 * Command is passed to its state strategy to be recorded in view state
+	 *
+	 * @param strategyType type of strategy of command
+	 */
+	public void onCommandRecorded(Class<? extends StateStrategy> strategyType)
+	{
+	}
+
+	/**
+	 * Recorded command is removed from history by {@link com.arellomobile.mvp.viewstate.history.EvictionPolicy}
+	 *
+	 * @param strategyType type of strategy of command
+	 */
+	public void onCommandEvicted(Class<? extends StateStrategy> strategyType)
+	{
+	}
+
+	/**
+	 * Recorded command is applied to view during restore of state
+	 *
+	 * @param strategyType type of strategy of command
+	 */
+	public void onCommandReplayed(Class<? extends StateStrategy> strategyType)
+	{
+	}
+
+	/**
+	 * State is restored to newly attached view
+	 *
+	 * @param viewStateClass class of view state
+	 * @param nanos          time of restore
+	 */
+	public void onStateRestored(Class<? extends MvpViewState<?>> viewStateClass, long nanos)
+	{
+	}
+}
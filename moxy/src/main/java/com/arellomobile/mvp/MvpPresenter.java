@@ -1,8 +1,8 @@
 package com.arellomobile.mvp;
 
-import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.arellomobile.mvp.presenter.PresenterType;
 import com.arellomobile.mvp.viewstate.MvpViewState;
@@ -17,7 +17,7 @@ import com.arellomobile.mvp.viewstate.MvpViewState;
 public abstract class MvpPresenter<View extends MvpView>
 {
 	private boolean mFirstLaunch = true;
-	private String mTag;
+	private PresenterKey mKey;
 	private PresenterType mPresenterType;
 	private Set<View> mViews;
 	private View mViewStateAsView;
@@ -26,8 +26,6 @@ public abstract class MvpPresenter<View extends MvpView>
 	public MvpPresenter()
 	{
 		Binder.bind(this);
-
-		mViews = Collections.newSetFromMap(new WeakHashMap<View, Boolean>());
 	}
 
 	/**
@@ -45,6 +43,11 @@ public abstract class MvpPresenter<View extends MvpView>
 		}
 		else
 		{
+			// presenters with view state don't need own views
+			if (mViews == null)
+			{
+				mViews = new WeakViewSet<>();
+			}
 			mViews.add(view);
 		}
 		if (mFirstLaunch)
@@ -78,7 +81,7 @@ public abstract class MvpPresenter<View extends MvpView>
 		{
 			mViewState.detachView(view);
 		}
-		else
+		else if (mViews != null)
 		{
 			mViews.remove(view);
 		}
@@ -94,6 +97,11 @@ public abstract class MvpPresenter<View extends MvpView>
 			return mViewState.getViews();
 		}
 
+		if (mViews == null)
+		{
+			mViews = new WeakViewSet<>();
+		}
+
 		return mViews;
 	}
 
@@ -133,6 +141,31 @@ public abstract class MvpPresenter<View extends MvpView>
 		mViewState = (MvpViewState) viewState;
 	}
 
+	/**
+	 * @return true if history of view state is restored after death of process, see
+	 * {@link com.arellomobile.mvp.viewstate.persistence.PersistentState}
+	 */
+	protected boolean isViewStateRestored()
+	{
+		return mViewState != null && mViewState.isHistoryRestored();
+	}
+
+	/**
+	 * @return encoded history of view state or null if it is not persistent
+	 */
+	byte[] saveViewState()
+	{
+		return mViewState != null ? mViewState.saveHistory() : null;
+	}
+
+	void restoreViewState(byte[] history)
+	{
+		if (mViewState != null)
+		{
+			mViewState.restoreHistory(history);
+		}
+	}
+
 	PresenterType getPresenterType()
 	{
 		return mPresenterType;
@@ -143,14 +176,14 @@ public abstract class MvpPresenter<View extends MvpView>
 		mPresenterType = presenterType;
 	}
 
-	String getTag()
+	PresenterKey getKey()
 	{
-		return mTag;
+		return mKey;
 	}
 
-	void setTag(String tag)
+	void setKey(PresenterKey key)
 	{
-		mTag = tag;
+		mKey = key;
 	}
 
 	/**
@@ -161,45 +194,90 @@ public abstract class MvpPresenter<View extends MvpView>
 	{
 	}
 
+	/**
+	 * @param presenterClass class of presenter
+	 * @return resolved and cached view state provider of presenter. Provider returns null if presenter has no view state
+	 */
+	static ViewStateProvider getViewStateProvider(Class<?> presenterClass)
+	{
+		return Binder.getViewStateProvider(presenterClass);
+	}
+
 	private static class Binder
 	{
-		static void bind(MvpPresenter presenter)
+		/**
+		 * Marks presenter classes without view state, so lookup is not repeated for them
+		 */
+		private static final ViewStateProvider NO_VIEW_STATE_PROVIDER = new ViewStateProvider()
 		{
-			ViewStateClassNameProvider viewStateClassNameProvider;
-			String viewStateClassNameProviderClassName = presenter.getClass().getName() + "$$ViewStateClassNameProvider";
-			try
+			@Override
+			public MvpViewState<?> getViewState()
 			{
-				viewStateClassNameProvider = (ViewStateClassNameProvider) Class.forName(viewStateClassNameProviderClassName).newInstance();
+				return null;
 			}
-			catch (ClassNotFoundException e)
+		};
+
+		/**
+		 * Resolved view state providers by presenter class. Presenters could be created on any thread
+		 */
+		private static final Map<Class<?>, ViewStateProvider> sViewStateProviders = new ConcurrentHashMap<>();
+
+		/**
+		 * View state is generated for view of presenter, so it is safe to cast it to view of presenter
+		 */
+		@SuppressWarnings("unchecked")
+		static <View extends MvpView> void bind(MvpPresenter<View> presenter)
+		{
+			MvpViewState<?> viewState = getViewStateProvider(presenter.getClass()).getViewState();
+
+			if (viewState == null)
 			{
 				return;
 			}
-			catch (Exception e)
+
+			presenter.mViewStateAsView = (View) viewState;
+			presenter.mViewState = (MvpViewState<View>) viewState;
+		}
+
+		private static ViewStateProvider getViewStateProvider(Class<?> presenterClass)
+		{
+			ViewStateProvider viewStateProvider = sViewStateProviders.get(presenterClass);
+			if (viewStateProvider != null)
 			{
-				throw new RuntimeException("Unable to instantiate " + viewStateClassNameProviderClassName + ": " +
-						"make sure class name exists, " +
-						"is public, and " +
-						"has an empty constructor that is public", e);
+				return viewStateProvider;
 			}
 
-			final String viewStateClassName = viewStateClassNameProvider.getViewStateClassName();
+			MvpRegistry registry = MvpFacade.getInstance().getRegistry();
+			viewStateProvider = registry != null ? registry.getViewStateProvider(presenterClass) : null;
 
-			Object viewState;
+			if (viewStateProvider == null)
+			{
+				viewStateProvider = findViewStateProvider(presenterClass);
+			}
+
+			sViewStateProviders.put(presenterClass, viewStateProvider);
+
+			return viewStateProvider;
+		}
+
+		private static ViewStateProvider findViewStateProvider(Class<?> presenterClass)
+		{
+			String viewStateProviderClassName = presenterClass.getName() + MvpProcessor.VIEW_STATE_PROVIDER_SUFFIX;
 			try
 			{
-				viewState = Class.forName(viewStateClassName).newInstance();
+				return (ViewStateProvider) Class.forName(viewStateProviderClassName).newInstance();
+			}
+			catch (ClassNotFoundException e)
+			{
+				return NO_VIEW_STATE_PROVIDER;
 			}
 			catch (Exception e)
 			{
-				throw new RuntimeException("Unable to instantiate " + viewStateClassName + ": " +
+				throw new RuntimeException("Unable to instantiate " + viewStateProviderClassName + ": " +
 						"make sure class name exists, " +
 						"is public, and " +
 						"has an empty constructor that is public", e);
 			}
-
-			presenter.mViewStateAsView = (MvpView) viewState;
-			presenter.mViewState = (MvpViewState) viewState;
 		}
 	}
 }
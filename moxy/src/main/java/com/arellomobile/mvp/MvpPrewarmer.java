@@ -0,0 +1,142 @@
+package com.arellomobile.mvp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.arellomobile.mvp.presenter.PresenterField;
+import com.arellomobile.mvp.viewstate.MvpViewState;
+import com.arellomobile.mvp.viewstate.ResolvedStrategyCommand;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 22:05
+ * <p>
+ * Resolves and caches everything, what is needed to create presenters of given containers: binders, presenter
+ * factories, params holders, view state providers, view states with their commands and state strategies.
+ * Classes are resolved through the same caches, as are used by {@link MvpDelegate}, so nothing is loaded twice.
+ *
+ * @author agent
+ */
+class MvpPrewarmer
+{
+	private final MvpFacade mMvpFacade;
+	// prewarm could be started several times from different executors
+	private final Set<Class<?>> mPrewarmedPresenters = Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+
+	MvpPrewarmer(MvpFacade mvpFacade)
+	{
+		mMvpFacade = mvpFacade;
+	}
+
+	PrewarmReport prewarm(Collection<? extends Class<?>> presentersContainers, Collection<? extends Class<?>> presenters)
+	{
+		PrewarmReport report = new PrewarmReport();
+		long start = System.nanoTime();
+
+		List<Class<?>> fieldPresenters = new ArrayList<>();
+		for (Class<?> presentersContainer : presentersContainers)
+		{
+			long containerStart = System.nanoTime();
+			try
+			{
+				prewarmPresentersContainer(presentersContainer, fieldPresenters);
+				report.addTiming(presentersContainer, System.nanoTime() - containerStart);
+			}
+			catch (RuntimeException e)
+			{
+				report.addFailure(presentersContainer, e);
+			}
+		}
+
+		fieldPresenters.addAll(presenters);
+		for (Class<?> presenter : fieldPresenters)
+		{
+			if (!mPrewarmedPresenters.add(presenter))
+			{
+				continue;
+			}
+
+			long presenterStart = System.nanoTime();
+			try
+			{
+				prewarmPresenter(presenter);
+				report.addTiming(presenter, System.nanoTime() - presenterStart);
+			}
+			catch (RuntimeException e)
+			{
+				report.addFailure(presenter, e);
+			}
+		}
+
+		report.setTotalNanos(System.nanoTime() - start);
+
+		return report;
+	}
+
+	private <PresentersContainer> void prewarmPresentersContainer(Class<PresentersContainer> presentersContainer, List<Class<?>> presenters)
+	{
+		PresenterBinder<?> presenterBinder = mMvpFacade.getMvpProcessor().getPresenterBinder(presentersContainer);
+
+		if (presenterBinder == null)
+		{
+			return;
+		}
+
+		PresenterFactoryStore presenterFactoryStore = mMvpFacade.getPresenterFactoryStore();
+		for (PresenterField<?> presenterField : presenterBinder.getPresenterFields())
+		{
+			presenterFactoryStore.getPresenterFactory(presenterField.getFactory());
+			presenterFactoryStore.getParamsHolder(presenterField.getParamsHolderClass());
+
+			presenters.add(presenterField.getPresenterClass());
+		}
+	}
+
+	private void prewarmPresenter(Class<?> presenter)
+	{
+		MvpViewState<?> viewState = MvpPresenter.getViewStateProvider(presenter).getViewState();
+
+		if (viewState == null)
+		{
+			return;
+		}
+
+		StateStrategyStore stateStrategyStore = mMvpFacade.getStateStrategyStore();
+
+		// commands of view state are nested enum, other nested classes hold params of commands
+		for (Class<?> nestedClass : viewState.getClass().getDeclaredClasses())
+		{
+			try
+			{
+				Class.forName(nestedClass.getName(), true, nestedClass.getClassLoader());
+			}
+			catch (ClassNotFoundException e)
+			{
+				throw new IllegalStateException("Unable to initialize " + nestedClass.getName(), e);
+			}
+
+			if (!nestedClass.isEnum() || !ViewCommand.class.isAssignableFrom(nestedClass))
+			{
+				continue;
+			}
+
+			for (Object constant : nestedClass.getEnumConstants())
+			{
+				ViewCommand<?> command = (ViewCommand<?>) constant;
+
+				// loads strategy class, and creates shared instance of built-in strategy
+				stateStrategyStore.getStateStrategy(command.getStrategyType());
+
+				if (command instanceof ResolvedStrategyCommand)
+				{
+					((ResolvedStrategyCommand<?>) command).getSharedStrategy();
+				}
+			}
+		}
+	}
+}
@@ -6,6 +6,9 @@ import com.arellomobile.mvp.presenter.PresenterType;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Date: 18-Dec-15
@@ -22,21 +25,85 @@ public class MvpProcessor
 	public static final String FACTORY_PARAMS_HOLDER_SUFFIX = "$$ParamsHolder";
 	public static final String PRESENTER_BINDER_INNER_SUFFIX = "Binder";
 	public static final String VIEW_STATE_CLASS_NAME_PROVIDER_SUFFIX = "$$ViewStateClassNameProvider";
+	public static final String VIEW_STATE_PROVIDER_SUFFIX = "$$ViewStateProvider";
 
 	/**
-	 * Return all info about injected presenters and factories in view
+	 * Marks class hierarchy without presenters, because {@link ConcurrentHashMap} doesn't accept null values
+	 */
+	private static final PresenterBinder<Object> NO_PRESENTER_BINDER = new PresenterBinder<Object>()
+	{
+		@Override
+		public List<PresenterField<? super Object>> getPresenterFields()
+		{
+			return Collections.emptyList();
+		}
+	};
+
+	/**
+	 * Resolved binders by presenters container class. Generated binder covers presenters of all superclasses, so class
+	 * without own binder is mapped to binder of nearest superclass, or to {@link #NO_PRESENTER_BINDER} if there are no
+	 * presenters in hierarchy. Lookup is done once per class; concurrent lookups of the same class resolve equal
+	 * stateless binders, so any of them could be stored
+	 */
+	private Map<Class<?>, PresenterBinder<?>> mPresenterBinders = new ConcurrentHashMap<>();
+
+	/**
+	 * Return all info about injected presenters and factories in view and its superclasses
 	 *
 	 * @param delegated   class contains presenter
 	 * @param <Delegated> type of delegated
-	 * @return PresenterBinder instance
+	 * @return PresenterBinder instance, or null if class hierarchy has no presenters
 	 */
-	private <Delegated> PresenterBinder<? super Delegated> getPresenterBinder(Class<? super Delegated> delegated)
+	<Delegated> PresenterBinder<? super Delegated> getPresenterBinder(Class<? super Delegated> delegated)
 	{
-		PresenterBinder<Delegated> binder;
-		try
+		PresenterBinder<?> cachedBinder = mPresenterBinders.get(delegated);
+		if (cachedBinder != null)
 		{
 			//noinspection unchecked
-			binder = (PresenterBinder<Delegated>) findPresenterBinderForClass(delegated);
+			return cachedBinder == NO_PRESENTER_BINDER ? null : (PresenterBinder<? super Delegated>) cachedBinder;
+		}
+
+		MvpMetricsListener metricsListener = MvpFacade.getMetricsListener();
+		long start = metricsListener != null ? System.nanoTime() : 0;
+
+		PresenterBinder<? super Delegated> binder = findPresenterBinder(delegated);
+
+		Class<? super Delegated> superclass = delegated.getSuperclass();
+		if (binder == null && superclass != null && superclass != Object.class)
+		{
+			binder = getPresenterBinder(superclass);
+		}
+
+		mPresenterBinders.put(delegated, binder != null ? binder : NO_PRESENTER_BINDER);
+
+		if (metricsListener != null)
+		{
+			metricsListener.onPresenterBinderResolved(delegated, binder != null, System.nanoTime() - start);
+		}
+
+		return binder;
+	}
+
+	/**
+	 * Looks for binder generated for exactly this class: at first in generated {@link MvpRegistry}, then by class name
+	 *
+	 * @param delegated   class contains presenter
+	 * @param <Delegated> type of delegated
+	 * @return PresenterBinder instance, or null if class has no own presenters
+	 */
+	private <Delegated> PresenterBinder<? super Delegated> findPresenterBinder(Class<? super Delegated> delegated)
+	{
+		MvpRegistry registry = MvpFacade.getInstance().getRegistry();
+
+		//noinspection unchecked
+		PresenterBinder<Delegated> binder = registry != null ? (PresenterBinder<Delegated>) registry.getPresenterBinder(delegated) : null;
+		try
+		{
+			if (binder == null)
+			{
+				//noinspection unchecked
+				binder = (PresenterBinder<Delegated>) findPresenterBinderForClass(delegated);
+			}
 		}
 		catch (InstantiationException e)
 		{
@@ -77,113 +144,235 @@ public class MvpProcessor
 		{
 			return null;
 		}
-		//TODO add to binders array
 
 		return presenterBinder;
 	}
 
 	/**
-	 * 1) Generates tag for identification MvpPresenter using params.
+	 * 1) Generates key for identification MvpPresenter using params.
 	 * Custom presenter factory should use interface {@link ParamsProvider}'s method annotated with {@link ParamsProvider} to provide params from view
 	 * <p>
 	 * {@link com.arellomobile.mvp.DefaultPresenterFactory} works with {@link com.arellomobile.mvp.DefaultPresenterFactory.Params}.
 	 * Default factory doesn't need in special method of view to provide params. It takes param from {@link com.arellomobile.mvp.presenter.InjectPresenter} annotation fields
 	 * <p>
-	 * 2) Checks if presenter with tag is already exist in {@link com.arellomobile.mvp.PresenterStore}, and returns it.
-	 * <p>
-	 * 3)If {@link com.arellomobile.mvp.PresenterStore} doesn't contain MvpPresenter with current tag, {@link com.arellomobile.mvp.PresenterFactory} will create it
+	 * Params provider is method of view, so this step should be done on thread, which creates view. Presenter itself is
+	 * got by {@link #getMvpPresenter(PresenterRequest)}
 	 *
 	 * @param presenterField info about presenter from {@link com.arellomobile.mvp.presenter.InjectPresenter}
 	 * @param delegated      class contains presenter
-	 * @param delegateTag    unique tag generated by {@link MvpDelegate#generateTag()}
+	 * @param delegateKey    unique key of {@link MvpDelegate}
 	 * @param <Delegated>    type of delegated
-	 * @return MvpPresenter instance
+	 * @return resolved params and key of presenter
 	 */
-	private <Delegated> MvpPresenter<? super Delegated> getMvpPresenter(PresenterField<? super Delegated> presenterField, Delegated delegated, String delegateTag)
+	private <Delegated> PresenterRequest<Delegated> getPresenterRequest(PresenterField<? super Delegated> presenterField, Delegated delegated, PresenterKey delegateKey)
 	{
 		Class<? extends MvpPresenter<?>> presenterClass = presenterField.getPresenterClass();
 		Class<? extends PresenterFactory<?, ?>> presenterFactoryClass = presenterField.getFactory();
 		ParamsHolder<?> holder = MvpFacade.getInstance().getPresenterFactoryStore().getParamsHolder(presenterField.getParamsHolderClass());
-		PresenterStore presenterStore = MvpFacade.getInstance().getPresenterStore();
-		PresenterFactory presenterFactory = MvpFacade.getInstance().getPresenterFactoryStore().getPresenterFactory(presenterFactoryClass);
+		PresenterFactory<?, ?> presenterFactory = MvpFacade.getInstance().getPresenterFactoryStore().getPresenterFactory(presenterFactoryClass);
 
-		Object params = holder.getParams(presenterField, delegated, delegateTag);
+		Object params = holder.getParams(presenterField, delegated, delegateKey);
 
 		//TODO throw exception
-		//noinspection unchecked
-		String tag = presenterFactory.createTag(presenterClass, params);
-		PresenterType type = presenterField.getPresenterType();
+		PresenterKey key = createKey(presenterFactory, presenterClass, params);
 
-		//noinspection unchecked
-		MvpPresenter<? super Delegated> presenter = presenterStore.get(type, tag, presenterClass);
+		return new PresenterRequest<>(presenterField, presenterClass, presenterFactory, params, key);
+	}
+
+	/**
+	 * 2) Checks if presenter with key is already exist in {@link com.arellomobile.mvp.PresenterStore}, and returns it.
+	 * <p>
+	 * 3)If {@link com.arellomobile.mvp.PresenterStore} doesn't contain MvpPresenter with current key, {@link com.arellomobile.mvp.PresenterFactory} will create it.
+	 * Presenter is created once even if it is requested from several threads at the same time
+	 *
+	 * @param request     params and key of presenter returned by {@link #getPresenterRequest}
+	 * @param <Delegated> type of delegated
+	 * @return MvpPresenter instance
+	 */
+	@SuppressWarnings("unchecked")
+	private <Delegated> MvpPresenter<? super Delegated> getMvpPresenter(final PresenterRequest<Delegated> request)
+	{
+		final PresenterType type = request.presenterField.getPresenterType();
+		PresenterStore presenterStore = MvpFacade.getInstance().getPresenterStore();
+
+		// presenter of field is created for class of view, which declares field
+		MvpPresenter<? super Delegated> presenter = (MvpPresenter<? super Delegated>) presenterStore.get(type, request.key, request.presenterClass);
 		if (presenter != null)
 		{
+			MvpMetricsListener metricsListener = MvpFacade.getMetricsListener();
+			if (metricsListener != null)
+			{
+				metricsListener.onPresenterStoreHit(type, request.presenterClass);
+			}
+
 			return presenter;
 		}
 
-		//noinspection unchecked
-		presenter = presenterFactory.createPresenter(presenterField.getDefaultInstance(), presenterClass, params);
-		presenter.setPresenterType(type);
-		presenter.setTag(tag);
-		presenterStore.add(type, tag, presenter);
+		return (MvpPresenter<? super Delegated>) presenterStore.getOrCreate(type, request.key, request.presenterClass, new Callable<MvpPresenter<?>>()
+		{
+			@Override
+			public MvpPresenter<?> call()
+			{
+				MvpMetricsListener metricsListener = MvpFacade.getMetricsListener();
+				long start = metricsListener != null ? System.nanoTime() : 0;
+
+				// default instance is the presenter itself for default factory, so it is built only by creating thread
+				MvpPresenter<?> presenter = createPresenter(request.presenterFactory, request.presenterField.getDefaultInstance(), request.presenterClass, request.params);
+				presenter.setPresenterType(type);
+				presenter.setKey(request.key);
+
+				if (metricsListener != null)
+				{
+					metricsListener.onPresenterCreated(type, request.presenterClass, System.nanoTime() - start);
+				}
 
-		return presenter;
+				return presenter;
+			}
+		});
 	}
 
 
 	/**
-	 * Gets presenters {@link java.util.List} annotated with {@link com.arellomobile.mvp.presenter.InjectPresenter} for view.
+	 * Gets presenters {@link java.util.List} annotated with {@link com.arellomobile.mvp.presenter.InjectPresenter} for view
+	 * and binds them to fields of view.
 	 * <p>
-	 * See full info about getting presenter instance in {@link #getMvpPresenter}
+	 * See full info about getting presenter instance in {@link #getPresenterRequest} and {@link #getMvpPresenter}
 	 *
 	 * @param delegated   class contains presenter
-	 * @param delegateTag unique tag generated by {@link MvpDelegate#generateTag()}
+	 * @param delegateKey unique key of {@link MvpDelegate}
 	 * @param <Delegated> type of delegated
 	 * @return presenters list for specifies presenters container
 	 */
-	<Delegated> List<MvpPresenter<? super Delegated>> getMvpPresenters(Delegated delegated, String delegateTag)
+	<Delegated> List<MvpPresenter<? super Delegated>> getMvpPresenters(Delegated delegated, PresenterKey delegateKey)
 	{
-		@SuppressWarnings("unchecked")
-		Class<? super Delegated> aClass = (Class<Delegated>) delegated.getClass();
-		List<PresenterBinder<? super Delegated>> presenterBinders = new ArrayList<>();
+		List<MvpPresenter<? super Delegated>> presenters = createMvpPresenters(getPresenterRequests(delegated, delegateKey));
 
-		while (aClass != Object.class)
-		{
-			PresenterBinder<? super Delegated> presenterBinder = MvpFacade.getInstance().getMvpProcessor().getPresenterBinder(aClass);
+		bindMvpPresenters(delegated, presenters);
 
-			aClass = aClass.getSuperclass();
+		return presenters;
+	}
 
-			if (presenterBinder == null)
-			{
-				continue;
-			}
+	/**
+	 * Resolves params and keys of presenters of view. Params are provided by view, so it should be called from thread,
+	 * which creates view
+	 *
+	 * @param delegated   class contains presenter
+	 * @param delegateKey unique key of {@link MvpDelegate}
+	 * @param <Delegated> type of delegated
+	 * @return requests in order of presenter fields, should be passed to {@link #createMvpPresenters(List)}
+	 */
+	<Delegated> List<PresenterRequest<Delegated>> getPresenterRequests(Delegated delegated, PresenterKey delegateKey)
+	{
+		List<? extends PresenterField<? super Delegated>> presenterFields = getPresenterFields(delegated);
 
-			presenterBinder.setTarget(delegated);
-			presenterBinders.add(presenterBinder);
+		if (presenterFields.isEmpty())
+		{
+			return Collections.emptyList();
 		}
 
-		if (presenterBinders.isEmpty())
+		List<PresenterRequest<Delegated>> requests = new ArrayList<>(presenterFields.size());
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < presenterFields.size(); i++)
+		{
+			requests.add(getPresenterRequest(presenterFields.get(i), delegated, delegateKey));
+		}
+
+		return requests;
+	}
+
+	/**
+	 * Gets or creates presenters for resolved requests, but doesn't bind them to fields of view. Doesn't touch view, so
+	 * could be called from any thread: presenter with the same key is created once, even if it is requested concurrently.
+	 *
+	 * @param requests    requests returned by {@link #getPresenterRequests(Object, PresenterKey)}
+	 * @param <Delegated> type of delegated
+	 * @return presenters list in order of presenter fields, should be passed to {@link #bindMvpPresenters(Object, List)}
+	 */
+	<Delegated> List<MvpPresenter<? super Delegated>> createMvpPresenters(List<PresenterRequest<Delegated>> requests)
+	{
+		if (requests.isEmpty())
 		{
 			return Collections.emptyList();
 		}
 
-		List<MvpPresenter<? super Delegated>> presenters = new ArrayList<>();
-		for (PresenterBinder<? super Delegated> presenterBinder : presenterBinders)
+		List<MvpPresenter<? super Delegated>> presenters = new ArrayList<>(requests.size());
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < requests.size(); i++)
 		{
-			List<? extends PresenterField<? super Delegated>> presenterFields = presenterBinder.getPresenterFields();
+			presenters.add(getMvpPresenter(requests.get(i)));
+		}
 
-			for (PresenterField<? super Delegated> presenterField : presenterFields)
-			{
-				MvpPresenter<? super Delegated> presenter = getMvpPresenter(presenterField, delegated, delegateTag);
+		return presenters;
+	}
 
-				if (presenter != null)
-				{
-					presenters.add(presenter);
-					presenterField.setValue(presenter);
-				}
-			}
+	/**
+	 * Sets presenters to fields of view. Should be called from thread, which uses these fields
+	 *
+	 * @param delegated   class contains presenter
+	 * @param presenters  presenters returned by {@link #createMvpPresenters(List)} for this view
+	 * @param <Delegated> type of delegated
+	 */
+	<Delegated> void bindMvpPresenters(Delegated delegated, List<MvpPresenter<? super Delegated>> presenters)
+	{
+		List<? extends PresenterField<? super Delegated>> presenterFields = getPresenterFields(delegated);
+
+		//noinspection ForLoopReplaceableByForEach
+		for (int i = 0; i < presenterFields.size(); i++)
+		{
+			presenterFields.get(i).bind(delegated, presenters.get(i));
 		}
+	}
 
-		return presenters;
+	private <Delegated> List<? extends PresenterField<? super Delegated>> getPresenterFields(Delegated delegated)
+	{
+		@SuppressWarnings("unchecked")
+		Class<? super Delegated> aClass = (Class<Delegated>) delegated.getClass();
+
+		// binder of concrete class also contains presenters of superclasses
+		PresenterBinder<? super Delegated> presenterBinder = getPresenterBinder(aClass);
+
+		if (presenterBinder == null)
+		{
+			return Collections.emptyList();
+		}
+
+		return presenterBinder.getPresenterFields();
+	}
+
+	/**
+	 * Presenter class and params are declared by {@link com.arellomobile.mvp.presenter.InjectPresenter} together with
+	 * factory, so they are cast to types of factory there
+	 */
+	@SuppressWarnings("unchecked")
+	private static <Presenter extends MvpPresenter<?>, Params> PresenterKey createKey(PresenterFactory<Presenter, Params> presenterFactory, Class<?> presenterClass, Object params)
+	{
+		return presenterFactory.createKey((Class<Presenter>) presenterClass, (Params) params);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <Presenter extends MvpPresenter<?>, Params> Presenter createPresenter(PresenterFactory<Presenter, Params> presenterFactory, MvpPresenter<?> defaultInstance, Class<?> presenterClass, Object params)
+	{
+		return presenterFactory.createPresenter((Presenter) defaultInstance, (Class<Presenter>) presenterClass, (Params) params);
+	}
+
+	/**
+	 * Params and key of presenter, resolved on thread of view
+	 */
+	static final class PresenterRequest<Delegated>
+	{
+		final PresenterField<? super Delegated> presenterField;
+		final Class<? extends MvpPresenter<?>> presenterClass;
+		final PresenterFactory<?, ?> presenterFactory;
+		final Object params;
+		final PresenterKey key;
+
+		PresenterRequest(PresenterField<? super Delegated> presenterField, Class<? extends MvpPresenter<?>> presenterClass, PresenterFactory<?, ?> presenterFactory, Object params, PresenterKey key)
+		{
+			this.presenterField = presenterField;
+			this.presenterClass = presenterClass;
+			this.presenterFactory = presenterFactory;
+			this.params = params;
+			this.key = key;
+		}
 	}
 }
@@ -0,0 +1,41 @@
+package com.arellomobile.mvp;
+
+import java.util.Collection;
+
+/**
+ * Date: 18.10.2026
+ * Time: 12:10
+ * <p>
+ * Index of generated classes. Implementation is generated by moxy-compiler for each module and contains direct
+ * references to generated classes, so they can be found without reflection. Registries are listed in
+ * {@code META-INF/services}, and {@link MvpFacade#getRegistry()} combines registries of all modules.
+ * <p>
+ * Registry knows only classes processed in the same compilation. Classes, which are not public, will be found by
+ * reflective lookup.
+ *
+ * @author agent
+ */
+public interface MvpRegistry
+{
+	/**
+	 * @param presentersContainer class contains fields annotated with {@link com.arellomobile.mvp.presenter.InjectPresenter}
+	 * @return binder for this class, or null if class is unknown for registry
+	 */
+	PresenterBinder<?> getPresenterBinder(Class<?> presentersContainer);
+
+	/**
+	 * @param presenterClass class annotated with {@link InjectViewState}
+	 * @return view state provider for this presenter, or null if class is unknown for registry
+	 */
+	ViewStateProvider getViewStateProvider(Class<?> presenterClass);
+
+	/**
+	 * @return all presenters containers, which binders are known by registry
+	 */
+	Collection<Class<?>> getPresentersContainers();
+
+	/**
+	 * @return all presenters, which view state providers are known by registry
+	 */
+	Collection<Class<?>> getPresenters();
+}
@@ -11,12 +11,13 @@ import com.arellomobile.mvp.presenter.PresenterField;
 public interface ParamsHolder<ReturnType>
 {
 	/**
-	 * Generate params for creating presenter instance
+	 * Generate params for creating presenter instance. Always called on thread, which creates view, even if presenters
+	 * are created by background executor
 	 *
 	 * @param presenterField generated class describes field
 	 * @param delegated view contains presenter
-	 * @param delegateTag key for current {@link MvpDelegate}
+	 * @param delegateKey key for current {@link MvpDelegate}
 	 * @return params to creating presenter via factory
 	 */
-	ReturnType getParams(PresenterField<?> presenterField, Object delegated, String delegateTag);
+	ReturnType getParams(PresenterField<?> presenterField, Object delegated, PresenterKey delegateKey);
 }
@@ -7,12 +7,15 @@ import com.arellomobile.mvp.presenter.PresenterField;
 /**
  * Date: 18-Dec-15
  * Time: 18:42
+ * <p>
+ * Generated binders are stateless, so single instance could be used for all presenters containers from any thread
  *
  * @author Alexander Blinov
  */
 public interface PresenterBinder<PresentersContainer>
 {
+	/**
+	 * @return unmodifiable list of presenter fields of container and all its superclasses. Same list is returned on each call
+	 */
 	List<PresenterField<? super PresentersContainer>> getPresenterFields();
-
-	void setTarget(PresentersContainer presenterAggregator);
 }
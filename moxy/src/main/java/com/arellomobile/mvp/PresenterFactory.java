@@ -27,7 +27,7 @@ public interface PresenterFactory<Presenter extends MvpPresenter<?>, Params>
 	/**
 	 * @param presenterClazz expected clazz of presenter
 	 * @param params         initial params for presenter.
-	 * @return unique tag for presenter created via {@link #createPresenter(MvpPresenter, Class, Object)}
+	 * @return unique key for presenter created via {@link #createPresenter(MvpPresenter, Class, Object)}
 	 */
-	String createTag(Class<Presenter> presenterClazz, Params params);
+	PresenterKey createKey(Class<Presenter> presenterClazz, Params params);
 }
@@ -1,29 +1,30 @@
 package com.arellomobile.mvp;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Date: 23-Dec-15
  * Time: 19:37
+ * <p>
+ * Factories and params holders are stateless, so they are shared between threads. If instance is requested
+ * concurrently, all callers get the instance stored first.
  *
  * @author Alexander Blinov
  */
 public class PresenterFactoryStore
 {
-	private static Map<Class<? extends PresenterFactory<?, ?>>, PresenterFactory<?, ?>> sPresenterFactories = new HashMap<>();
-	private static Map<Class<? extends ParamsHolder<?>>, ParamsHolder<?>> sParamsHolders = new HashMap<>();
+	private static ConcurrentMap<Class<? extends PresenterFactory<?, ?>>, PresenterFactory<?, ?>> sPresenterFactories = new ConcurrentHashMap<>();
+	private static ConcurrentMap<Class<? extends ParamsHolder<?>>, ParamsHolder<?>> sParamsHolders = new ConcurrentHashMap<>();
 
 	public PresenterFactory<?, ?> getPresenterFactory(Class<? extends PresenterFactory<?, ?>> clazz)
 	{
-		if (sPresenterFactories.containsKey(clazz))
+		PresenterFactory<?, ?> instance = sPresenterFactories.get(clazz);
+		if (instance != null)
 		{
-			//noinspection unchecked
-			return sPresenterFactories.get(clazz);
+			return instance;
 		}
 
-		PresenterFactory<?, ?> instance;
-
 		try
 		{
 			instance = clazz.newInstance();
@@ -36,20 +37,19 @@ public class PresenterFactoryStore
 					"has an empty constructor that is public", e);
 		}
 
-		sPresenterFactories.put(clazz, instance);
+		PresenterFactory<?, ?> existingInstance = sPresenterFactories.putIfAbsent(clazz, instance);
 
-		return instance;
+		return existingInstance != null ? existingInstance : instance;
 	}
 
 	public ParamsHolder<?> getParamsHolder(Class<? extends ParamsHolder<?>> clazz)
 	{
-		if (sParamsHolders.containsKey(clazz))
+		ParamsHolder<?> instance = sParamsHolders.get(clazz);
+		if (instance != null)
 		{
-			return sParamsHolders.get(clazz);
+			return instance;
 		}
 
-		ParamsHolder<?> instance;
-
 		try
 		{
 			instance = clazz.newInstance();
@@ -62,8 +62,8 @@ public class PresenterFactoryStore
 					"has an empty constructor that is public", e);
 		}
 
-		sParamsHolders.put(clazz, instance);
+		ParamsHolder<?> existingInstance = sParamsHolders.putIfAbsent(clazz, instance);
 
-		return instance;
+		return existingInstance != null ? existingInstance : instance;
 	}
 }
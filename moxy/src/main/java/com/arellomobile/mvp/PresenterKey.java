@@ -0,0 +1,159 @@
+package com.arellomobile.mvp;
+
+/**
+ * Date: 18.10.2026
+ * Time: 16:40
+ * <p>
+ * Identity of presenter in {@link PresenterStore}. Key is a path of ids or names: root key identifies {@link MvpDelegate}
+ * (or custom tag of presenter), child keys identify presenter fields and child delegates inside it. Delegates and
+ * presenter fields are identified by int ids, names are used by custom tags and factories.
+ * <p>
+ * Hash code is computed once on creation and names are not concatenated, so keys are cheap to create, compare and
+ * store. Parent/child relationship is kept as reference, so scope of delegate is checked without string operations.
+ *
+ * @author agent
+ */
+public final class PresenterKey
+{
+	private final PresenterKey mParent;
+	private final String mName;
+	private final int mId;
+	private final int mDepth;
+	private final int mHashCode;
+
+	private PresenterKey(PresenterKey parent, String name, int id)
+	{
+		mParent = parent;
+		mName = name;
+		mId = id;
+		mDepth = parent == null ? 0 : parent.mDepth + 1;
+		mHashCode = 31 * (parent == null ? 0 : parent.mHashCode) + (name == null ? id : name.hashCode());
+	}
+
+	/**
+	 * @param name name of root key
+	 * @return key without parent
+	 */
+	public static PresenterKey of(String name)
+	{
+		return new PresenterKey(null, checkName(name), 0);
+	}
+
+	/**
+	 * @param id id of root key
+	 * @return key without parent
+	 */
+	public static PresenterKey of(int id)
+	{
+		return new PresenterKey(null, null, id);
+	}
+
+	/**
+	 * @param name name of child inside this key
+	 * @return key, which parent is this key
+	 */
+	public PresenterKey child(String name)
+	{
+		return new PresenterKey(this, checkName(name), 0);
+	}
+
+	/**
+	 * @param id id of child inside this key
+	 * @return key, which parent is this key
+	 */
+	public PresenterKey child(int id)
+	{
+		return new PresenterKey(this, null, id);
+	}
+
+	/**
+	 * @return parent key, or null if this key is root
+	 */
+	public PresenterKey getParent()
+	{
+		return mParent;
+	}
+
+	/**
+	 * @return name of this key inside parent, or null if key is identified by id
+	 */
+	public String getName()
+	{
+		return mName;
+	}
+
+	/**
+	 * @return id of this key inside parent. Makes sense only if {@link #getName()} is null
+	 */
+	public int getId()
+	{
+		return mId;
+	}
+
+	/**
+	 * @param ancestor possible ancestor of this key
+	 * @return true if ancestor equals to this key or to one of its parents
+	 */
+	public boolean isDescendantOf(PresenterKey ancestor)
+	{
+		PresenterKey key = this;
+
+		while (key != null && key.mDepth >= ancestor.mDepth)
+		{
+			if (key.mDepth == ancestor.mDepth)
+			{
+				return key.equals(ancestor);
+			}
+
+			key = key.mParent;
+		}
+
+		return false;
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (!(o instanceof PresenterKey))
+		{
+			return false;
+		}
+
+		PresenterKey key = (PresenterKey) o;
+
+		if (mHashCode != key.mHashCode || mDepth != key.mDepth || mId != key.mId || (mName == null ? key.mName != null : !mName.equals(key.mName)))
+		{
+			return false;
+		}
+
+		return mParent == null ? key.mParent == null : mParent.equals(key.mParent);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return mHashCode;
+	}
+
+	@Override
+	public String toString()
+	{
+		String name = mName != null ? mName : "#" + mId;
+
+		return mParent == null ? name : mParent.toString() + "$" + name;
+	}
+
+	private static String checkName(String name)
+	{
+		if (name == null)
+		{
+			throw new IllegalArgumentException("Name of presenter key must be not null");
+		}
+
+		return name;
+	}
+}
@@ -2,119 +2,541 @@ package com.arellomobile.mvp;
 
 import com.arellomobile.mvp.presenter.PresenterType;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 /**
  * Date: 17-Dec-15
  * Time: 16:05
+ * <p>
+ * Local and global presenters are also indexed by scope tree built from {@link PresenterKey} parents, so
+ * {@link #removeAll(PresenterType, PresenterKey)} touches only presenters of removed scope.
+ * <p>
+ * Store could be used from any thread. Reads of local and global presenters are lock-free, inserts are done by
+ * putIfAbsent. Only scope index is guarded by lock. Weak presenters are kept in {@link ConcurrentWeakValueHashMap}.
+ * {@link #getOrCreate(PresenterType, PresenterKey, Class, Callable)} guarantees that presenter for the same key is
+ * created once, even if it is requested from several threads at the same time.
  *
  * @author Alexander Blinov
  */
 public class PresenterStore
 {
-	private Map<Class<? extends MvpPresenter>, Map<String, MvpPresenter>> mGlobalPresenters = new HashMap<>();
-	private Map<Class<? extends MvpPresenter>, Map<String, MvpPresenter>> mWeakPresenters = new WeakValueHashMap<>();
+	private final ConcurrentMap<Class<? extends MvpPresenter<?>>, ConcurrentMap<PresenterKey, MvpPresenter<?>>> mGlobalPresenters = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Class<? extends MvpPresenter<?>>, ConcurrentMap<PresenterKey, MvpPresenter<?>>> mWeakPresenters = new ConcurrentHashMap<>();
+	private final ScopeIndex mGlobalScopes = new ScopeIndex();
+	private final ConcurrentMap<PendingKey, PendingPresenter> mPendingPresenters = new ConcurrentHashMap<>();
 
 	/**
 	 *
 	 * @param type     Type is presenter local, global or weak
-	 * @param tag      Object to store presenter
+	 * @param key      Key to store presenter
 	 * @param instance Instance of MvpPresenter implementation to store
 	 * @param <T>      type of presenter
 	 */
-	public <T extends MvpPresenter> void add(PresenterType type, String tag, T instance)
+	public <T extends MvpPresenter<?>> void add(PresenterType type, PresenterKey key, T instance)
 	{
-		Map<String, MvpPresenter> mvpPresenterMap;
+		ConcurrentMap<PresenterKey, MvpPresenter<?>> mvpPresenterMap = getPresentersStore(type, getPresenterClass(instance), true);
 
-		final Map<Class<? extends MvpPresenter>, Map<String, MvpPresenter>> presenters = getPresenters(type);
-
-		if (presenters.containsKey(instance.getClass()))
+		if (mvpPresenterMap.putIfAbsent(key, instance) != null)
 		{
-			mvpPresenterMap = presenters.get(instance.getClass());
+			throw new IllegalStateException("mvp multiple presenters map already contains key " + key);
 		}
-		else
+
+		if (type != PresenterType.WEAK)
 		{
-			mvpPresenterMap = createPresentersStore(type);
-			presenters.put(instance.getClass(), mvpPresenterMap);
+			synchronized (mGlobalScopes)
+			{
+				mGlobalScopes.add(key, getPresenterClass(instance));
+			}
 		}
 
-		if (mvpPresenterMap.containsKey(tag))
+		MvpMetricsListener metricsListener = MvpFacade.getMetricsListener();
+		if (metricsListener != null)
 		{
-			throw new IllegalStateException("mvp multiple presenters map already contains tag");
+			metricsListener.onPresenterAdded(type, getPresenterClass(instance));
 		}
-
-		mvpPresenterMap.put(tag, instance);
 	}
 
-	public MvpPresenter get(PresenterType type, String tag, Class<? extends MvpPresenter> clazz)
+	public MvpPresenter<?> get(PresenterType type, PresenterKey key, Class<? extends MvpPresenter<?>> clazz)
 	{
-		Map<String, MvpPresenter> tagMvpPresenterMap = getPresenters(type).get(clazz);
+		ConcurrentMap<PresenterKey, MvpPresenter<?>> tagMvpPresenterMap = getPresentersStore(type, clazz, false);
 
 		if (tagMvpPresenterMap == null)
 		{
-			//TODO add builder
 			return null;
 		}
 
-		//TODO add builder if tagMvpPresenterMap.getPresenterFactory(tag) == null
+		return tagMvpPresenterMap.get(key);
+	}
+
+	/**
+	 * Returns stored presenter, or creates and stores it if store doesn't contain presenter with such key.
+	 * Concurrent calls for the same key wait for single creation and return the same instance.
+	 *
+	 * @param type    Type is presenter local, global or weak
+	 * @param key     Key of presenter
+	 * @param clazz   Class of presenter
+	 * @param creator creates new presenter. Called at most once for key, while presenter is stored
+	 * @return stored or created presenter
+	 */
+	public MvpPresenter<?> getOrCreate(PresenterType type, PresenterKey key, Class<? extends MvpPresenter<?>> clazz, Callable<? extends MvpPresenter<?>> creator)
+	{
+		MvpPresenter<?> presenter = get(type, key, clazz);
+		if (presenter != null)
+		{
+			return presenter;
+		}
+
+		PendingKey pendingKey = new PendingKey(type == PresenterType.WEAK, clazz, key);
+		PendingPresenter pendingPresenter = new PendingPresenter(creator);
+
+		PendingPresenter existingPendingPresenter = mPendingPresenters.putIfAbsent(pendingKey, pendingPresenter);
+		if (existingPendingPresenter != null)
+		{
+			if (existingPendingPresenter.mThread == Thread.currentThread())
+			{
+				throw new IllegalStateException("Presenter " + clazz.getName() + " with key " + key + " is requested recursively during its creation");
+			}
+
+			return await(existingPendingPresenter, key);
+		}
+
+		try
+		{
+			// presenter could be stored by other thread between first check and pending registration
+			presenter = get(type, key, clazz);
+			if (presenter != null)
+			{
+				return presenter;
+			}
+
+			pendingPresenter.run();
+			presenter = await(pendingPresenter, key);
 
-		return tagMvpPresenterMap.get(tag);
+			add(type, key, presenter);
+
+			return presenter;
+		}
+		finally
+		{
+			mPendingPresenters.remove(pendingKey, pendingPresenter);
+		}
 	}
 
 
-	public MvpPresenter remove(PresenterType type, String tag, Class<? extends MvpPresenter> clazz)
+	public MvpPresenter<?> remove(PresenterType type, PresenterKey key, Class<? extends MvpPresenter<?>> clazz)
 	{
-		Map<String, MvpPresenter> tagMvpPresenterMap = getPresenters(type).get(clazz);
+		ConcurrentMap<PresenterKey, MvpPresenter<?>> tagMvpPresenterMap = getPresentersStore(type, clazz, false);
 
 		if (tagMvpPresenterMap == null)
 		{
 			return null;
 		}
 
-		return tagMvpPresenterMap.remove(tag);
+		MvpPresenter<?> presenter = tagMvpPresenterMap.remove(key);
+
+		if (presenter != null && type != PresenterType.WEAK)
+		{
+			synchronized (mGlobalScopes)
+			{
+				mGlobalScopes.remove(key, clazz);
+			}
+		}
+
+		if (presenter != null)
+		{
+			onRemoved(type, presenter);
+		}
+
+		return presenter;
+	}
+
+	/**
+	 * Removes and destroys all presenters, which keys are descendants of scope
+	 *
+	 * @param type  Type is presenter local, global or weak
+	 * @param scope key of removed scope
+	 */
+	public void removeAll(PresenterType type, PresenterKey scope) {
+		if (type != PresenterType.WEAK) {
+			removeScope(type, scope);
+			return;
+		}
+
+		// weak presenters could be collected at any moment without notification, so they are not indexed by scope
+		List<MvpPresenter<?>> removedPresenters = new ArrayList<>();
+		for (ConcurrentMap<PresenterKey, MvpPresenter<?>> presenters : mWeakPresenters.values()) {
+			removeAll(presenters, scope, removedPresenters);
+		}
+
+		for (MvpPresenter<?> presenter : removedPresenters) {
+			onRemoved(type, presenter);
+			presenter.onDestroy();
+		}
 	}
 
-	public void removeAll(PresenterType type, String tag) {
-		Map<Class<? extends MvpPresenter>, Map<String, MvpPresenter>> presenters = getPresenters(type);
-		Iterator<Map<String, MvpPresenter>> iterator = presenters.values().iterator();
-		while (iterator.hasNext()) {
-			if (removeAll(iterator.next(), tag)) {
-				iterator.remove();
+	private void removeScope(PresenterType type, PresenterKey scope) {
+		List<ScopeNode> nodes = new ArrayList<>();
+
+		synchronized (mGlobalScopes) {
+			ScopeNode scopeNode = mGlobalScopes.detach(scope);
+			if (scopeNode == null) {
+				return;
+			}
+
+			nodes.add(scopeNode);
+
+			for (int i = 0; i < nodes.size(); i++) {
+				ScopeNode node = nodes.get(i);
+				mGlobalScopes.mNodes.remove(node.mKey);
+
+				if (node.mChildren != null) {
+					nodes.addAll(node.mChildren.values());
+				}
+			}
+		}
+
+		// detached nodes are not reachable by other threads, so presenters are removed and destroyed without lock
+		for (ScopeNode node : nodes) {
+			if (node.mPresenterClasses == null) {
+				continue;
+			}
+
+			for (Class<? extends MvpPresenter<?>> presenterClass : node.mPresenterClasses) {
+				ConcurrentMap<PresenterKey, MvpPresenter<?>> presenters = mGlobalPresenters.get(presenterClass);
+				if (presenters == null) {
+					continue;
+				}
+
+				MvpPresenter<?> presenter = presenters.remove(node.mKey);
+
+				if (presenter != null) {
+					onRemoved(type, presenter);
+					presenter.onDestroy();
+				}
 			}
 		}
 	}
 
-	private boolean removeAll(Map<String, MvpPresenter> presenters, String tag) {
-		Iterator<Map.Entry<String, MvpPresenter>> iterator = presenters.entrySet().iterator();
-		while (iterator.hasNext()) {
-			Map.Entry<String, MvpPresenter> entry = iterator.next();
-			if (entry.getKey().startsWith(tag)) {
-				entry.getValue().onDestroy();
-				iterator.remove();
+	private void removeAll(ConcurrentMap<PresenterKey, MvpPresenter<?>> presenters, PresenterKey scope, List<MvpPresenter<?>> removedPresenters) {
+		for (Map.Entry<PresenterKey, MvpPresenter<?>> entry : presenters.entrySet()) {
+			// presenter could be removed concurrently, so it is destroyed only by thread which removed it
+			if (entry.getKey().isDescendantOf(scope) && presenters.remove(entry.getKey(), entry.getValue())) {
+				removedPresenters.add(entry.getValue());
 			}
 		}
-		return presenters.isEmpty();
 	}
 
-	private Map<Class<? extends MvpPresenter>, Map<String, MvpPresenter>> getPresenters(PresenterType type)
+	private static void onRemoved(PresenterType type, MvpPresenter<?> presenter)
+	{
+		MvpMetricsListener metricsListener = MvpFacade.getMetricsListener();
+		if (metricsListener != null)
+		{
+			// local and global presenters share scope index, so actual type is taken from presenter if it is known
+			metricsListener.onPresenterRemoved(presenter.getPresenterType() != null ? presenter.getPresenterType() : type, getPresenterClass(presenter));
+		}
+	}
+
+	/**
+	 * Counts presenters by iterating over store, so it should not be called on hot path
+	 *
+	 * @param type type of presenters. Presenters, which type is not set, are counted as {@link PresenterType#GLOBAL} or {@link PresenterType#WEAK}
+	 * @return current count of stored presenters of this type
+	 */
+	public int getPresentersCount(PresenterType type)
 	{
 		if (type == PresenterType.WEAK)
 		{
-			return mWeakPresenters;
+			int count = 0;
+			for (ConcurrentMap<PresenterKey, MvpPresenter<?>> presenters : mWeakPresenters.values())
+			{
+				count += presenters.size();
+			}
+
+			return count;
 		}
 
-		return mGlobalPresenters;
+		int count = 0;
+		for (ConcurrentMap<PresenterKey, MvpPresenter<?>> presenters : mGlobalPresenters.values())
+		{
+			for (MvpPresenter<?> presenter : presenters.values())
+			{
+				PresenterType presenterType = presenter.getPresenterType() != null ? presenter.getPresenterType() : PresenterType.GLOBAL;
+				if (presenterType == type)
+				{
+					count++;
+				}
+			}
+		}
+
+		return count;
 	}
 
-	private Map<String, MvpPresenter> createPresentersStore(PresenterType type)
+	/**
+	 * @param presenter presenter instance
+	 * @return class of presenter. {@link Object#getClass()} returns raw type, so it is cast there once
+	 */
+	@SuppressWarnings("unchecked")
+	static Class<? extends MvpPresenter<?>> getPresenterClass(MvpPresenter<?> presenter)
 	{
-		if (type == PresenterType.WEAK)
+		return (Class<? extends MvpPresenter<?>>) presenter.getClass();
+	}
+
+	private ConcurrentMap<PresenterKey, MvpPresenter<?>> getPresentersStore(PresenterType type, Class<? extends MvpPresenter<?>> clazz, boolean create)
+	{
+		ConcurrentMap<Class<? extends MvpPresenter<?>>, ConcurrentMap<PresenterKey, MvpPresenter<?>>> presentersStores = type == PresenterType.WEAK ? mWeakPresenters : mGlobalPresenters;
+
+		ConcurrentMap<PresenterKey, MvpPresenter<?>> presenters = presentersStores.get(clazz);
+
+		if (presenters == null && create)
 		{
-			return new WeakValueHashMap<>();
+			presenters = type == PresenterType.WEAK ? new ConcurrentWeakValueHashMap<PresenterKey, MvpPresenter<?>>() : new ConcurrentHashMap<PresenterKey, MvpPresenter<?>>();
+
+			ConcurrentMap<PresenterKey, MvpPresenter<?>> existingPresenters = presentersStores.putIfAbsent(clazz, presenters);
+			if (existingPresenters != null)
+			{
+				presenters = existingPresenters;
+			}
 		}
 
-		return new HashMap<>();
+		return presenters;
+	}
+
+	private static MvpPresenter<?> await(PendingPresenter pendingPresenter, PresenterKey key)
+	{
+		boolean interrupted = false;
+
+		try
+		{
+			while (true)
+			{
+				try
+				{
+					return pendingPresenter.get();
+				}
+				catch (InterruptedException e)
+				{
+					interrupted = true;
+				}
+			}
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error)
+			{
+				throw (Error) cause;
+			}
+
+			throw new IllegalStateException("Unable to create presenter with key " + key, cause);
+		}
+		finally
+		{
+			if (interrupted)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Creation of presenter, which is in progress
+	 */
+	private static class PendingPresenter extends FutureTask<MvpPresenter<?>>
+	{
+		private final Thread mThread = Thread.currentThread();
+
+		@SuppressWarnings("unchecked")
+		PendingPresenter(Callable<? extends MvpPresenter<?>> creator)
+		{
+			super((Callable<MvpPresenter<?>>) creator);
+		}
+	}
+
+	private static final class PendingKey
+	{
+		private final boolean mWeak;
+		private final Class<? extends MvpPresenter<?>> mClass;
+		private final PresenterKey mKey;
+
+		PendingKey(boolean weak, Class<? extends MvpPresenter<?>> clazz, PresenterKey key)
+		{
+			mWeak = weak;
+			mClass = clazz;
+			mKey = key;
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof PendingKey))
+			{
+				return false;
+			}
+
+			PendingKey pendingKey = (PendingKey) o;
+
+			return mWeak == pendingKey.mWeak && mClass == pendingKey.mClass && mKey.equals(pendingKey.mKey);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * mKey.hashCode() + mClass.hashCode();
+		}
+	}
+
+	/**
+	 * Node of scope tree. Node exists while there are presenters stored by its key or by keys of its descendants
+	 */
+	private static class ScopeNode
+	{
+		private final PresenterKey mKey;
+		private ScopeNode mParent;
+		private Map<PresenterKey, ScopeNode> mChildren;
+		// usually there is single presenter by key, so list is smaller than set here
+		private List<Class<? extends MvpPresenter<?>>> mPresenterClasses;
+
+		ScopeNode(PresenterKey key)
+		{
+			mKey = key;
+		}
+
+		boolean isEmpty()
+		{
+			return (mChildren == null || mChildren.isEmpty()) && (mPresenterClasses == null || mPresenterClasses.isEmpty());
+		}
+	}
+
+	/**
+	 * Scope tree of local and global presenters. Is not thread-safe, all calls should be synchronized on index
+	 */
+	private static class ScopeIndex
+	{
+		private final Map<PresenterKey, ScopeNode> mNodes = new HashMap<>();
+
+		void add(PresenterKey key, Class<? extends MvpPresenter<?>> presenterClass)
+		{
+			ScopeNode node = getOrCreateNode(key);
+
+			if (node.mPresenterClasses == null)
+			{
+				node.mPresenterClasses = new ArrayList<>(1);
+			}
+			node.mPresenterClasses.add(presenterClass);
+		}
+
+		void remove(PresenterKey key, Class<? extends MvpPresenter<?>> presenterClass)
+		{
+			ScopeNode node = mNodes.get(key);
+
+			if (node == null || node.mPresenterClasses == null)
+			{
+				return;
+			}
+
+			node.mPresenterClasses.remove(presenterClass);
+
+			prune(node);
+		}
+
+		/**
+		 * Unlinks node of scope from tree. Descendants of this node are still in {@link #mNodes}
+		 *
+		 * @param scope key of scope
+		 * @return node of scope, or null if there are no presenters in this scope
+		 */
+		ScopeNode detach(PresenterKey scope)
+		{
+			ScopeNode node = mNodes.get(scope);
+
+			if (node == null)
+			{
+				return null;
+			}
+
+			ScopeNode parent = node.mParent;
+			if (parent != null)
+			{
+				parent.mChildren.remove(node.mKey);
+				node.mParent = null;
+
+				prune(parent);
+			}
+
+			return node;
+		}
+
+		private ScopeNode getOrCreateNode(PresenterKey key)
+		{
+			ScopeNode node = mNodes.get(key);
+			if (node != null)
+			{
+				return node;
+			}
+
+			node = new ScopeNode(key);
+			mNodes.put(key, node);
+
+			// link new node and missing ancestors up to first existing one
+			ScopeNode child = node;
+			PresenterKey parentKey = key.getParent();
+			while (parentKey != null)
+			{
+				ScopeNode parent = mNodes.get(parentKey);
+				boolean exists = parent != null;
+
+				if (!exists)
+				{
+					parent = new ScopeNode(parentKey);
+					mNodes.put(parentKey, parent);
+				}
+
+				if (parent.mChildren == null)
+				{
+					parent.mChildren = new HashMap<>();
+				}
+				parent.mChildren.put(child.mKey, child);
+				child.mParent = parent;
+
+				if (exists)
+				{
+					break;
+				}
+
+				child = parent;
+				parentKey = parentKey.getParent();
+			}
+
+			return node;
+		}
+
+		private void prune(ScopeNode node)
+		{
+			while (node != null && node.isEmpty())
+			{
+				mNodes.remove(node.mKey);
+
+				ScopeNode parent = node.mParent;
+				if (parent != null)
+				{
+					parent.mChildren.remove(node.mKey);
+					node.mParent = null;
+				}
+
+				node = parent;
+			}
+		}
 	}
-}
\ No newline at end of file
+}
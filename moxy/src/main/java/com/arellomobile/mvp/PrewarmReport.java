@@ -0,0 +1,115 @@
+package com.arellomobile.mvp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date: 18.10.2026
+ * Time: 21:50
+ * <p>
+ * Result of {@link MvpFacade#prewarm}. Time of each class is time spent on loading and resolving its generated
+ * classes, factories and strategies. Without prewarm this time would be spent on first creation of such
+ * presenters container or presenter, usually on main thread.
+ *
+ * @author agent
+ */
+public final class PrewarmReport
+{
+	private static final int SLOWEST_CLASSES_IN_SUMMARY = 5;
+
+	public interface Callback
+	{
+		/**
+		 * Called by prewarm executor when all classes are prewarmed
+		 *
+		 * @param report timings of prewarm
+		 */
+		void onPrewarmed(PrewarmReport report);
+	}
+
+	private final Map<Class<?>, Long> mTimings = new LinkedHashMap<>();
+	private final Map<Class<?>, Throwable> mFailures = new LinkedHashMap<>();
+	private long mTotalNanos;
+
+	PrewarmReport()
+	{
+	}
+
+	void addTiming(Class<?> clazz, long nanos)
+	{
+		mTimings.put(clazz, nanos);
+	}
+
+	void addFailure(Class<?> clazz, Throwable throwable)
+	{
+		mFailures.put(clazz, throwable);
+	}
+
+	void setTotalNanos(long totalNanos)
+	{
+		mTotalNanos = totalNanos;
+	}
+
+	/**
+	 * @return prewarmed presenters containers and presenters with time spent on each of them, in order of prewarm
+	 */
+	public Map<Class<?>, Long> getTimings()
+	{
+		return Collections.unmodifiableMap(mTimings);
+	}
+
+	/**
+	 * @return classes, which prewarm is failed. Same error will be thrown on first use of such class
+	 */
+	public Map<Class<?>, Throwable> getFailures()
+	{
+		return Collections.unmodifiableMap(mFailures);
+	}
+
+	/**
+	 * @param unit unit of result
+	 * @return wall time of whole prewarm
+	 */
+	public long getTotalTime(TimeUnit unit)
+	{
+		return unit.convert(mTotalNanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public String toString()
+	{
+		List<Map.Entry<Class<?>, Long>> timings = new ArrayList<>(mTimings.entrySet());
+		Collections.sort(timings, new Comparator<Map.Entry<Class<?>, Long>>()
+		{
+			@Override
+			public int compare(Map.Entry<Class<?>, Long> first, Map.Entry<Class<?>, Long> second)
+			{
+				return second.getValue().compareTo(first.getValue());
+			}
+		});
+
+		StringBuilder builder = new StringBuilder()
+				.append("Prewarmed ").append(mTimings.size()).append(" classes in ")
+				.append(TimeUnit.NANOSECONDS.toMicros(mTotalNanos)).append(" us");
+
+		if (!mFailures.isEmpty())
+		{
+			builder.append(", failed ").append(mFailures.keySet());
+		}
+
+		for (int i = 0; i < timings.size() && i < SLOWEST_CLASSES_IN_SUMMARY; i++)
+		{
+			Map.Entry<Class<?>, Long> timing = timings.get(i);
+			builder.append(i == 0 ? "; slowest: " : ", ")
+					.append(timing.getKey().getName()).append(' ')
+					.append(TimeUnit.NANOSECONDS.toMicros(timing.getValue())).append(" us");
+		}
+
+		return builder.toString();
+	}
+}
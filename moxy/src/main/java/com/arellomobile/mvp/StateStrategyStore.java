@@ -0,0 +1,112 @@
+package com.arellomobile.mvp;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleTagStrategy;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy;
+import com.arellomobile.mvp.viewstate.strategy.ClearTagStrategy;
+import com.arellomobile.mvp.viewstate.strategy.RecordStateStrategy;
+import com.arellomobile.mvp.viewstate.strategy.SingleStateStrategy;
+import com.arellomobile.mvp.viewstate.strategy.SkipStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategyAdapter;
+
+/**
+ * Date: 18.10.2026
+ * Time: 16:05
+ * <p>
+ * Process-wide store of state strategies. Built-in strategies are stateless, so each of them is instantiated once
+ * and shared by all view states. Other strategies could keep state, so new instance is created for each request, and
+ * view state keeps it for own commands.
+ *
+ * @author agent
+ */
+public class StateStrategyStore
+{
+	// exact classes: subclasses of built-in strategies could keep state
+	@SuppressWarnings("unchecked")
+	private static final Set<Class<? extends StateStrategy>> SHARED_STRATEGIES = Collections.unmodifiableSet(new HashSet<>(Arrays.<Class<? extends StateStrategy>>asList(
+			AddToEndStrategy.class,
+			AddToEndSingleStrategy.class,
+			AddToEndSingleTagStrategy.class,
+			ClearTagStrategy.class,
+			SingleStateStrategy.class,
+			SkipStrategy.class)));
+
+	private final Map<Class<? extends StateStrategy>, StateStrategy> mStateStrategies = new ConcurrentHashMap<>();
+
+	/**
+	 * @param clazz type of strategy
+	 * @return shared instance of built-in strategy, or new instance of other strategy
+	 */
+	public StateStrategy getStateStrategy(Class<? extends StateStrategy> clazz)
+	{
+		if (!isShared(clazz))
+		{
+			return createStateStrategy(clazz);
+		}
+
+		StateStrategy stateStrategy = mStateStrategies.get(clazz);
+		if (stateStrategy != null)
+		{
+			return stateStrategy;
+		}
+
+		stateStrategy = createStateStrategy(clazz);
+		mStateStrategies.put(clazz, stateStrategy);
+
+		return stateStrategy;
+	}
+
+	/**
+	 * @param clazz type of strategy
+	 * @return shared instance of built-in strategy, or null if strategy of this type is created for each view state
+	 */
+	public StateStrategy getSharedStrategy(Class<? extends StateStrategy> clazz)
+	{
+		return isShared(clazz) ? getStateStrategy(clazz) : null;
+	}
+
+	/**
+	 * @param clazz type of strategy
+	 * @return true if instance of this type is shared by all view states
+	 */
+	public boolean isShared(Class<? extends StateStrategy> clazz)
+	{
+		return SHARED_STRATEGIES.contains(clazz);
+	}
+
+	/**
+	 * @param stateStrategy strategy of command
+	 * @return strategy itself, if it is {@link RecordStateStrategy}, or new {@link StateStrategyAdapter} of it
+	 */
+	public RecordStateStrategy getRecordStateStrategy(StateStrategy stateStrategy)
+	{
+		if (stateStrategy instanceof RecordStateStrategy)
+		{
+			return (RecordStateStrategy) stateStrategy;
+		}
+
+		return new StateStrategyAdapter(stateStrategy);
+	}
+
+	private static StateStrategy createStateStrategy(Class<? extends StateStrategy> clazz)
+	{
+		try
+		{
+			return clazz.newInstance();
+		}
+		catch (Exception e)
+		{
+			throw new IllegalArgumentException("Unable to create state strategy " + clazz + ": " +
+					"make sure class is public, and " +
+					"has an empty constructor that is public", e);
+		}
+	}
+}
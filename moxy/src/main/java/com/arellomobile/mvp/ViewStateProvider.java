@@ -0,0 +1,21 @@
+package com.arellomobile.mvp;
+
+import com.arellomobile.mvp.viewstate.MvpViewState;
+
+/**
+ * Date: 18.10.2026
+ * Time: 15:02
+ * <p>
+ * Generated for each presenter annotated with {@link InjectViewState}. Creates view state directly, without reflection.
+ *
+ * @author agent
+ */
+public interface ViewStateProvider
+{
+	/**
+	 * <p>Presenter gets view state object from this method.</p>
+	 *
+	 * @return new view state instance
+	 */
+	MvpViewState<?> getViewState();
+}
@@ -29,7 +29,9 @@ import java.lang.ref.WeakReference;
  *
  * @param <K> - the type of the key object
  * @param <V> - the type of the value object
+ * @deprecated is not thread-safe and copies content on each iteration. Use {@link ConcurrentWeakValueHashMap} instead
  */
+@Deprecated
 public class WeakValueHashMap<K,V> extends AbstractMap<K,V> {
 
 	// the internal hash map to the weak references of the actual value objects
@@ -0,0 +1,242 @@
+package com.arellomobile.mvp;
+
+import java.lang.ref.WeakReference;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Date: 18.10.2026
+ * Time: 19:30
+ * <p>
+ * Set of views, which doesn't prevent them from being garbage collected. Views are held by copy-on-write array of
+ * {@link WeakReference}: attach and detach of view copy array, while {@link #getReferences()} returns current array
+ * without copying. So views could be attached and detached while commands are broadcast to them, and broadcast
+ * doesn't allocate anything. Empty set shares empty array, so it holds nothing.
+ * <p>
+ * References of collected views are dropped by next change of set. Views are compared by
+ * {@link Object#equals(Object)}, as in {@link java.util.WeakHashMap}. Null views are not allowed. Not thread-safe.
+ *
+ * @author agent
+ */
+public class WeakViewSet<View> extends AbstractSet<View>
+{
+	private static final WeakReference<?>[] EMPTY = new WeakReference<?>[0];
+
+	private WeakReference<View>[] mReferences = empty();
+
+	@Override
+	public boolean add(View view)
+	{
+		if (view == null)
+		{
+			throw new IllegalArgumentException("View must be not null");
+		}
+
+		if (indexOf(view) >= 0)
+		{
+			return false;
+		}
+
+		WeakReference<View>[] references = copyAlive(1, -1);
+		references[references.length - 1] = new WeakReference<>(view);
+		mReferences = references;
+
+		return true;
+	}
+
+	@Override
+	public boolean remove(Object view)
+	{
+		int index = indexOf(view);
+
+		if (index < 0)
+		{
+			return false;
+		}
+
+		mReferences = copyAlive(0, index);
+
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object view)
+	{
+		return indexOf(view) >= 0;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		for (WeakReference<View> reference : mReferences)
+		{
+			if (reference.get() != null)
+			{
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public int size()
+	{
+		int size = 0;
+		for (WeakReference<View> reference : mReferences)
+		{
+			if (reference.get() != null)
+			{
+				size++;
+			}
+		}
+
+		return size;
+	}
+
+	@Override
+	public void clear()
+	{
+		mReferences = empty();
+	}
+
+	/**
+	 * Snapshot of set for iteration without allocation. Array is never changed, because set replaces it on each
+	 * change, so it could be iterated while views are attached or detached. Referents of collected views are null.
+	 *
+	 * @return references of views. Must not be modified
+	 */
+	public WeakReference<View>[] getReferences()
+	{
+		return mReferences;
+	}
+
+	@Override
+	public Iterator<View> iterator()
+	{
+		return new ViewIterator(mReferences);
+	}
+
+	private int indexOf(Object view)
+	{
+		if (view == null)
+		{
+			return -1;
+		}
+
+		WeakReference<View>[] references = mReferences;
+		for (int i = 0; i < references.length; i++)
+		{
+			View referent = references[i].get();
+
+			if (referent != null && (referent == view || referent.equals(view)))
+			{
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * @param extraLength count of empty cells at the end of copy
+	 * @param skipIndex   index of reference, which should not be copied, or -1
+	 * @return copy of current array without collected and skipped references
+	 */
+	private WeakReference<View>[] copyAlive(int extraLength, int skipIndex)
+	{
+		WeakReference<View>[] references = mReferences;
+
+		int aliveCount = 0;
+		for (int i = 0; i < references.length; i++)
+		{
+			if (i != skipIndex && references[i].get() != null)
+			{
+				aliveCount++;
+			}
+		}
+
+		if (aliveCount + extraLength == 0)
+		{
+			return empty();
+		}
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		WeakReference<View>[] copy = new WeakReference[aliveCount + extraLength];
+		int index = 0;
+		for (int i = 0; i < references.length && index < aliveCount; i++)
+		{
+			if (i != skipIndex && references[i].get() != null)
+			{
+				copy[index++] = references[i];
+			}
+		}
+
+		if (index < aliveCount)
+		{
+			// some views are collected between loops
+			return index + extraLength == 0 ? WeakViewSet.<View>empty() : Arrays.copyOf(copy, index + extraLength);
+		}
+
+		return copy;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <View> WeakReference<View>[] empty()
+	{
+		return (WeakReference<View>[]) EMPTY;
+	}
+
+	private class ViewIterator implements Iterator<View>
+	{
+		private final WeakReference<View>[] mReferences;
+		private int mIndex;
+		// strong references, so views are not collected between hasNext() and next()
+		private View mNext;
+		private View mLast;
+
+		private ViewIterator(WeakReference<View>[] references)
+		{
+			mReferences = references;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			while (mNext == null && mIndex < mReferences.length)
+			{
+				mNext = mReferences[mIndex++].get();
+			}
+
+			return mNext != null;
+		}
+
+		@Override
+		public View next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+
+			mLast = mNext;
+			mNext = null;
+
+			return mLast;
+		}
+
+		@Override
+		public void remove()
+		{
+			if (mLast == null)
+			{
+				throw new IllegalStateException();
+			}
+
+			WeakViewSet.this.remove(mLast);
+			mLast = null;
+		}
+	}
+}
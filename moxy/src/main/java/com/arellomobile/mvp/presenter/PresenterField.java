@@ -5,20 +5,40 @@ import com.arellomobile.mvp.*;
 /**
  * Date: 18-Dec-15
  * Time: 17:50
+ * <p>
+ * Immutable description of field annotated with {@link InjectPresenter}. Instances are created once per generated binder class
+ * and shared between all presenters containers, so implementation shouldn't keep any reference to target.
  *
  * @author Alexander Blinov
  */
-public interface PresenterField<View extends MvpView>
+public interface PresenterField<PresentersContainer>
 {
+	/**
+	 * @return name of field
+	 */
+	String getName();
+
+	/**
+	 * @return index of field in presenters container. Fields of superclasses go first, so index is unique inside
+	 * hierarchy of presenters container. It is used as part of presenter key
+	 */
+	int getId();
+
 	String getTag();
 
 	PresenterType getPresenterType();
 
-	void setValue(MvpPresenter presenter);
+	/**
+	 * Set presenter to described field of target
+	 *
+	 * @param target    presenters container
+	 * @param presenter presenter instance for field
+	 */
+	void bind(PresentersContainer target, MvpPresenter<?> presenter);
 
-	Class<? extends MvpPresenter<View>> getPresenterClass();
+	Class<? extends MvpPresenter<?>> getPresenterClass();
 
-	MvpPresenter<View> getDefaultInstance();
+	MvpPresenter<?> getDefaultInstance();
 
 	Class<? extends PresenterFactory<?, ?>> getFactory();
 
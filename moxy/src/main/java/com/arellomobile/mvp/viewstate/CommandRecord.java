@@ -0,0 +1,69 @@
+package com.arellomobile.mvp.viewstate;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+
+/**
+ * Date: 18.10.2026
+ * Time: 15:40
+ * <p>
+ * Single call of command, recorded in {@link ViewCommands}. Same instance is passed to
+ * {@link com.arellomobile.mvp.viewstate.strategy.StateStrategy#beforeApply}, to
+ * {@link com.arellomobile.mvp.viewstate.strategy.StateStrategy#afterApply} and is kept in history for replay, so
+ * recording of command doesn't allocate anything else.
+ * <p>
+ * Record is {@link Pair} of command and its params, so strategies, which work with pairs, receive records as is.
+ *
+ * @author agent
+ */
+public class CommandRecord<View extends MvpView> extends Pair<ViewCommand<View>, Object>
+{
+	private final String mTag;
+
+	public CommandRecord(ViewCommand<View> command, Object params)
+	{
+		this(command, params, command.getTag());
+	}
+
+	/**
+	 * @param command command
+	 * @param params  params of command. Null if command has no arguments
+	 * @param tag     tag of this call, which is used instead of {@link ViewCommand#getTag()} by tag strategies
+	 */
+	public CommandRecord(ViewCommand<View> command, Object params, String tag)
+	{
+		super(command, params);
+
+		mTag = tag;
+	}
+
+	/**
+	 * @param entry entry of history
+	 * @param <View> type of view
+	 * @return entry itself, if it is record, or new record with the same command and params
+	 */
+	public static <View extends MvpView> CommandRecord<View> of(Pair<ViewCommand<View>, Object> entry)
+	{
+		if (entry instanceof CommandRecord)
+		{
+			return (CommandRecord<View>) entry;
+		}
+
+		return new CommandRecord<>(entry.first, entry.second);
+	}
+
+	public ViewCommand<View> getCommand()
+	{
+		return first;
+	}
+
+	public Object getParams()
+	{
+		return second;
+	}
+
+	public String getTag()
+	{
+		return mTag;
+	}
+}
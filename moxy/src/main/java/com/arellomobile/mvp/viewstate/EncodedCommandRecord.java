@@ -0,0 +1,64 @@
+package com.arellomobile.mvp.viewstate;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.persistence.CommandReader;
+import com.arellomobile.mvp.viewstate.persistence.CommandWriter;
+import com.arellomobile.mvp.viewstate.persistence.ViewStateCodec;
+
+/**
+ * Date: 18.10.2026
+ * Time: 21:05
+ * <p>
+ * Record of restored history, which decodes its params on first {@link #getParams()}. Until then
+ * {@link #second} is null, and encoded params are saved again as is.
+ *
+ * @author agent
+ */
+final class EncodedCommandRecord<View extends MvpView> extends CommandRecord<View>
+{
+	private ViewStateCodec<View> mCodec;
+	private byte[] mBuffer;
+	private int mOffset;
+	private int mLength;
+	private Object mParams;
+
+	EncodedCommandRecord(ViewCommand<View> command, ViewStateCodec<View> codec, byte[] buffer, int offset, int length)
+	{
+		super(command, null);
+
+		mCodec = codec;
+		mBuffer = buffer;
+		mOffset = offset;
+		mLength = length;
+	}
+
+	@Override
+	public Object getParams()
+	{
+		if (mBuffer != null)
+		{
+			mParams = mCodec.readParams(getCommand(), new CommandReader(mBuffer, mOffset, mLength));
+			mCodec = null;
+			mBuffer = null;
+		}
+
+		return mParams;
+	}
+
+	/**
+	 * @param writer receiver of encoded params
+	 * @return false if params are decoded already, so they should be encoded again
+	 */
+	boolean writeEncodedParams(CommandWriter writer)
+	{
+		if (mBuffer == null)
+		{
+			return false;
+		}
+
+		writer.writeVarInt(mLength);
+		writer.writeRaw(mBuffer, mOffset, mLength);
+
+		return true;
+	}
+}
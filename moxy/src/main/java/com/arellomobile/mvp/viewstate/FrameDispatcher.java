@@ -0,0 +1,98 @@
+package com.arellomobile.mvp.viewstate;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.dispatch.FrameScheduler;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleTagStrategy;
+import com.arellomobile.mvp.viewstate.strategy.ClearTagStrategy;
+import com.arellomobile.mvp.viewstate.strategy.SingleStateStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
+
+/**
+ * Date: 18.10.2026
+ * Time: 17:25
+ * <p>
+ * Collects commands of {@link MvpViewState} and delivers them to views in frame of {@link FrameScheduler}.
+ * Commands are coalesced inside batch the same way, as they replace each other in history: command of
+ * {@link AddToEndSingleStrategy} replaces pending calls of the same command, commands of
+ * {@link AddToEndSingleTagStrategy} and {@link ClearTagStrategy} replace pending commands with the same tag and
+ * command of {@link SingleStateStrategy} replaces whole batch. Other commands, including commands of subclasses of
+ * these strategies, are never dropped.
+ *
+ * @author agent
+ */
+final class FrameDispatcher<View extends MvpView> implements Runnable
+{
+	private final MvpViewState<View> mViewState;
+	private final FrameScheduler mFrameScheduler;
+	private CommandHistory<View> mBatch = new CommandHistory<>();
+	private boolean mFrameScheduled;
+
+	FrameDispatcher(MvpViewState<View> viewState, FrameScheduler frameScheduler)
+	{
+		mViewState = viewState;
+		mFrameScheduler = frameScheduler;
+	}
+
+	FrameScheduler getFrameScheduler()
+	{
+		return mFrameScheduler;
+	}
+
+	void dispatch(CommandRecord<View> record)
+	{
+		Class<? extends StateStrategy> strategyType = record.getCommand().getStrategyType();
+
+		// subclasses could change behaviour of built-in strategy, so only exact classes are coalesced
+		if (strategyType == SingleStateStrategy.class)
+		{
+			mBatch.clear();
+		}
+		else if (strategyType == AddToEndSingleStrategy.class)
+		{
+			mBatch.removeAllOf(record.getCommand());
+		}
+		else if (strategyType == AddToEndSingleTagStrategy.class || strategyType == ClearTagStrategy.class)
+		{
+			mBatch.removeAllOfTag(record.getTag());
+		}
+
+		mBatch.add(record);
+
+		if (!mFrameScheduled)
+		{
+			mFrameScheduled = true;
+			mFrameScheduler.scheduleFrame(this);
+		}
+	}
+
+	@Override
+	public void run()
+	{
+		mFrameScheduled = false;
+
+		flush();
+	}
+
+	/**
+	 * Deliver pending commands immediately. Commands, received during delivery, are left for next frame
+	 */
+	void flush()
+	{
+		if (mBatch.isEmpty())
+		{
+			return;
+		}
+
+		// views could send new commands and even flush batch again while they apply commands
+		CommandHistory<View> batch = mBatch;
+		mBatch = new CommandHistory<>();
+
+		for (Pair<ViewCommand<View>, Object> entry : batch)
+		{
+			mViewState.applyToViews((CommandRecord<View>) entry);
+		}
+	}
+}
@@ -1,12 +1,20 @@
 package com.arellomobile.mvp.viewstate;
 
+import com.arellomobile.mvp.MvpFacade;
+import com.arellomobile.mvp.MvpMetricsListener;
 import com.arellomobile.mvp.MvpView;
 import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.WeakViewSet;
+import com.arellomobile.mvp.viewstate.dispatch.FrameScheduler;
+import com.arellomobile.mvp.viewstate.dispatch.ViewThread;
+import com.arellomobile.mvp.viewstate.history.EvictionListener;
+import com.arellomobile.mvp.viewstate.history.EvictionPolicy;
+import com.arellomobile.mvp.viewstate.persistence.ViewStateCodec;
 
-import java.util.Collections;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 /**
  * Date: 15.12.2015
@@ -16,13 +24,18 @@ import java.util.WeakHashMap;
  */
 public abstract class MvpViewState<View extends MvpView>
 {
-	protected Set<View> mViews;
-	protected Set<View> mInRestoreState;
+	protected WeakViewSet<View> mViews;
+	// views are held only while state is restored to them, so plain list is enough
+	private List<View> mInRestoreState;
+	protected ViewCommands<View> mViewCommands = new ViewCommands<>();
+	private FrameDispatcher<View> mFrameDispatcher;
+	private volatile ViewThreadDispatcher<View> mViewThreadDispatcher;
+	private boolean mAttachedOnce;
+	private boolean mHistoryRestored;
 
 	public MvpViewState()
 	{
-		mViews = Collections.newSetFromMap(new WeakHashMap<View, Boolean>());
-		mInRestoreState = Collections.newSetFromMap(new WeakHashMap<View, Boolean>());
+		mViews = new WeakViewSet<>();
 	}
 
 	/**
@@ -44,6 +57,12 @@ public abstract class MvpViewState<View extends MvpView>
 			throw new IllegalArgumentException("Mvp view must be not null");
 		}
 
+		if (mFrameDispatcher != null)
+		{
+			// new view receives pending commands by restore of state, so they should be delivered to other views before
+			mFrameDispatcher.flush();
+		}
+
 		boolean isViewAdded = mViews.add(view);
 
 		if (!isViewAdded)
@@ -51,11 +70,33 @@ public abstract class MvpViewState<View extends MvpView>
 			return;
 		}
 
+		mAttachedOnce = true;
+
+		if (mInRestoreState == null)
+		{
+			mInRestoreState = new ArrayList<>(1);
+		}
 		mInRestoreState.add(view);
 
-		restoreState(view);
+		MvpMetricsListener metricsListener = MvpFacade.getMetricsListener();
+		long start = metricsListener != null ? System.nanoTime() : 0;
+
+		try
+		{
+			restoreState(view);
+		}
+		finally
+		{
+			mInRestoreState.remove(view);
+		}
 
-		mInRestoreState.remove(view);
+		if (metricsListener != null)
+		{
+			// class of generic view state is raw
+			@SuppressWarnings("unchecked")
+			Class<? extends MvpViewState<?>> viewStateClass = (Class<? extends MvpViewState<?>>) getClass();
+			metricsListener.onStateRestored(viewStateClass, System.nanoTime() - start);
+		}
 	}
 
 	/**
@@ -68,7 +109,28 @@ public abstract class MvpViewState<View extends MvpView>
 	public void detachView(View view)
 	{
 		mViews.remove(view);
-		mInRestoreState.remove(view);
+
+		if (mInRestoreState != null)
+		{
+			mInRestoreState.remove(view);
+		}
+
+		// view state is idle until next view is attached
+		if (mViews.isEmpty())
+		{
+			mViewCommands.compact();
+		}
+	}
+
+	/**
+	 * Remove calls of commands, which are redundant by their {@link com.arellomobile.mvp.viewstate.history.Compaction},
+	 * from history. History is compacted automatically too, when it is doubled and when last view is detached
+	 *
+	 * @return count of removed commands
+	 */
+	public int compactHistory()
+	{
+		return mViewCommands.compact();
 	}
 
 	/**
@@ -79,6 +141,221 @@ public abstract class MvpViewState<View extends MvpView>
 		return mViews;
 	}
 
+	/**
+	 * Set policy, which bounds history of commands. Replaces policy from
+	 * {@link com.arellomobile.mvp.viewstate.history.StateHistory} of view interface.
+	 * Current history is trimmed immediately.
+	 *
+	 * @param evictionPolicy policy of history or null to keep history unbounded
+	 */
+	public void setEvictionPolicy(EvictionPolicy evictionPolicy)
+	{
+		mViewCommands.setEvictionPolicy(evictionPolicy);
+	}
+
+	/**
+	 * @return policy, which bounds history of commands. Null if history is unbounded
+	 */
+	public EvictionPolicy getEvictionPolicy()
+	{
+		return mViewCommands.getEvictionPolicy();
+	}
+
+	/**
+	 * @param evictionListener receiver of commands, evicted from history. Could be null
+	 */
+	public void setEvictionListener(EvictionListener evictionListener)
+	{
+		mViewCommands.setEvictionListener(evictionListener);
+	}
+
+	/**
+	 * Enable batched dispatch. Commands are still recorded immediately, but they are delivered to attached views
+	 * in frames of given scheduler, and only last command of each slot is delivered. Slots are defined by state
+	 * strategies: {@link com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy} coalesces calls of the
+	 * same command, {@link com.arellomobile.mvp.viewstate.strategy.AddToEndSingleTagStrategy} and
+	 * {@link com.arellomobile.mvp.viewstate.strategy.ClearTagStrategy} coalesce commands with the same tag,
+	 * {@link com.arellomobile.mvp.viewstate.strategy.SingleStateStrategy} drops all pending commands.
+	 * Pending commands are delivered immediately when view is attached or scheduler is changed.
+	 * <p>
+	 * Methods, which return {@code rx.Observable}, are not batched.
+	 *
+	 * @param frameScheduler scheduler of frames or null to deliver commands immediately
+	 */
+	public void setFrameScheduler(FrameScheduler frameScheduler)
+	{
+		if (mFrameDispatcher != null)
+		{
+			mFrameDispatcher.flush();
+		}
+
+		mFrameDispatcher = frameScheduler != null ? new FrameDispatcher<>(this, frameScheduler) : null;
+	}
+
+	/**
+	 * @return scheduler of batched dispatch. Null if commands are delivered immediately
+	 */
+	public FrameScheduler getFrameScheduler()
+	{
+		return mFrameDispatcher != null ? mFrameDispatcher.getFrameScheduler() : null;
+	}
+
+	/**
+	 * Confine view state to given thread. Commands, sent from other threads, are put to lock-free queue and
+	 * are recorded and applied to views by view thread, in order of arrival. Commands, sent on view thread, are
+	 * applied immediately after queued ones. So commands could be sent from any thread, while history and views
+	 * are touched by view thread only.
+	 * <p>
+	 * This method, {@link #attachView(MvpView)} and {@link #detachView(MvpView)} should be called on view thread.
+	 * Methods, which return {@code rx.Observable}, are not confined.
+	 *
+	 * @param viewThread thread of views or null to apply commands on thread, which sends them
+	 */
+	public void setViewThread(ViewThread viewThread)
+	{
+		ViewThreadDispatcher<View> viewThreadDispatcher = mViewThreadDispatcher;
+		if (viewThreadDispatcher != null)
+		{
+			viewThreadDispatcher.drain();
+		}
+
+		mViewThreadDispatcher = viewThread != null ? new ViewThreadDispatcher<>(this, viewThread) : null;
+	}
+
+	/**
+	 * @return thread of views. Null if commands are applied on thread, which sends them
+	 */
+	public ViewThread getViewThread()
+	{
+		ViewThreadDispatcher<View> viewThreadDispatcher = mViewThreadDispatcher;
+
+		return viewThreadDispatcher != null ? viewThreadDispatcher.getViewThread() : null;
+	}
+
+	/**
+	 * Called by view state before command is recorded
+	 *
+	 * @param viewCommand command
+	 * @param params      params of command
+	 * @return true if command is queued to view thread, false if it should be recorded and applied right now
+	 */
+	protected boolean postToViewThread(ViewCommand<View> viewCommand, Object params)
+	{
+		ViewThreadDispatcher<View> viewThreadDispatcher = mViewThreadDispatcher;
+
+		return viewThreadDispatcher != null && viewThreadDispatcher.post(viewCommand, params);
+	}
+
+	/**
+	 * Record command and apply it to views the same way, as view state does it
+	 */
+	void applyRecord(CommandRecord<View> record)
+	{
+		mViewCommands.beforeApply(record);
+
+		if (mViews.isEmpty() || dispatchInFrame(record))
+		{
+			return;
+		}
+
+		applyToViews(record);
+	}
+
+	/**
+	 * Called by view state, when command is recorded and there are attached views
+	 *
+	 * @param record recorded command
+	 * @return true if command will be delivered in frame, false if it should be applied to views immediately
+	 */
+	protected boolean dispatchInFrame(CommandRecord<View> record)
+	{
+		if (mFrameDispatcher == null)
+		{
+			return false;
+		}
+
+		mFrameDispatcher.dispatch(record);
+
+		return true;
+	}
+
+	void applyToViews(CommandRecord<View> record)
+	{
+		if (mViews.isEmpty())
+		{
+			return;
+		}
+
+		for (WeakReference<View> viewReference : mViews.getReferences())
+		{
+			View view = viewReference.get();
+
+			if (view != null)
+			{
+				record.getCommand().apply(view, record.getParams());
+			}
+		}
+
+		mViewCommands.afterApply(record);
+	}
+
+	/**
+	 * Codec of commands, which is generated for views annotated by
+	 * {@link com.arellomobile.mvp.viewstate.persistence.PersistentState}
+	 *
+	 * @return codec or null if history of this view state is not persistent
+	 */
+	protected ViewStateCodec<View> getCodec()
+	{
+		return null;
+	}
+
+	/**
+	 * @return encoded history or null if history of this view state is not persistent
+	 */
+	public byte[] saveHistory()
+	{
+		ViewStateCodec<View> codec = getCodec();
+
+		if (codec == null)
+		{
+			return null;
+		}
+
+		return mViewCommands.encode(codec);
+	}
+
+	/**
+	 * Restore history, saved by {@link #saveHistory()}, e.g. after death of process. History is restored only before
+	 * first view is attached, restored commands are put before commands, which are recorded already. Whole history
+	 * is recorded again by strategies of commands and bounded by {@link com.arellomobile.mvp.viewstate.history.StateHistory}
+	 * limits, as if restored commands were called first.
+	 *
+	 * @param history encoded history. Must not be changed after this call
+	 * @return true if history is restored
+	 */
+	public boolean restoreHistory(byte[] history)
+	{
+		ViewStateCodec<View> codec = getCodec();
+
+		if (codec == null || history == null || mAttachedOnce || mHistoryRestored)
+		{
+			return false;
+		}
+
+		mHistoryRestored = mViewCommands.decode(history, codec);
+
+		return mHistoryRestored;
+	}
+
+	/**
+	 * @return true if history is restored by {@link #restoreHistory(byte[])}
+	 */
+	public boolean isHistoryRestored()
+	{
+		return mHistoryRestored;
+	}
+
 	/**
 	 * Check if view is in restore state or not
 	 *
@@ -87,6 +364,6 @@ public abstract class MvpViewState<View extends MvpView>
 	 */
 	public boolean isInRestoreState(View view)
 	{
-		return mInRestoreState.contains(view);
+		return mInRestoreState != null && mInRestoreState.contains(view);
 	}
 }
@@ -0,0 +1,22 @@
+package com.arellomobile.mvp.viewstate;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:40
+ * <p>
+ * Command, which keeps shared instance of its state strategy, so {@link ViewCommands} doesn't look strategy up on
+ * each call. Implemented by commands of generated view states.
+ *
+ * @author agent
+ */
+public interface ResolvedStrategyCommand<View extends MvpView> extends ViewCommand<View>
+{
+	/**
+	 * @return shared instance of strategy of this command, or null if its strategy is not shared (see
+	 * {@link com.arellomobile.mvp.StateStrategyStore#isShared(Class)}), so each view state has own instance of it
+	 */
+	StateStrategy getSharedStrategy();
+}
@@ -5,8 +5,20 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import com.arellomobile.mvp.MvpFacade;
+import com.arellomobile.mvp.MvpMetricsListener;
 import com.arellomobile.mvp.MvpView;
 import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.StateStrategyStore;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
+import com.arellomobile.mvp.viewstate.history.CompactableCommand;
+import com.arellomobile.mvp.viewstate.history.EvictionListener;
+import com.arellomobile.mvp.viewstate.history.EvictionPolicy;
+import com.arellomobile.mvp.viewstate.history.HistoryCompactor;
+import com.arellomobile.mvp.viewstate.persistence.CommandReader;
+import com.arellomobile.mvp.viewstate.persistence.CommandWriter;
+import com.arellomobile.mvp.viewstate.persistence.ViewStateCodec;
+import com.arellomobile.mvp.viewstate.strategy.RecordStateStrategy;
 import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
 
 /**
@@ -17,19 +29,145 @@ import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
  */
 public class ViewCommands<View extends MvpView>
 {
-	private List<Pair<ViewCommand<View>, Object>> mStatesPairList = new ArrayList<>();
-	private Map<Class<? extends StateStrategy>, StateStrategy> mStrategies = new HashMap<>();
+	private static final int FORMAT_VERSION = 1;
+	// history is compacted when it is doubled since last compaction, but not before this size
+	private static final int COMPACTION_THRESHOLD = 32;
 
-	public void beforeApply(ViewCommand<View> viewCommand)
+	private CommandHistory<View> mStatesPairList = new CommandHistory<>();
+	// strategies, which are not shared, are created for this view state. Created on first such strategy
+	private Map<Class<? extends StateStrategy>, StateStrategy> mStrategies;
+	private EvictionPolicy mEvictionPolicy;
+	private EvictionListener mEvictionListener;
+	private boolean mHasCompactableCommands;
+	private int mCompactionThreshold = COMPACTION_THRESHOLD;
+
+	private final EvictionListener mEvictionDispatcher = new EvictionListener()
+	{
+		@Override
+		public void onCommandEvicted(ViewCommand<?> command, Object params)
+		{
+			MvpMetricsListener metricsListener = MvpFacade.getMetricsListener();
+			if (metricsListener != null)
+			{
+				metricsListener.onCommandEvicted(command.getStrategyType());
+			}
+
+			EvictionListener evictionListener = mEvictionListener;
+			if (evictionListener != null)
+			{
+				evictionListener.onCommandEvicted(command, params);
+			}
+		}
+	};
+
+	/**
+	 * Set policy, which bounds history. Current history is trimmed immediately
+	 *
+	 * @param evictionPolicy policy of history or null to keep history unbounded
+	 */
+	public void setEvictionPolicy(EvictionPolicy evictionPolicy)
+	{
+		mEvictionPolicy = evictionPolicy;
+		// listeners of previous policy
+		mStatesPairList.clearChangeListeners();
+
+		if (evictionPolicy != null && !mStatesPairList.isEmpty())
+		{
+			evictionPolicy.evict(mStatesPairList, mEvictionDispatcher);
+		}
+	}
+
+	public EvictionPolicy getEvictionPolicy()
+	{
+		return mEvictionPolicy;
+	}
+
+	/**
+	 * @param evictionListener receiver of commands, evicted by {@link EvictionPolicy}. Could be null
+	 */
+	public void setEvictionListener(EvictionListener evictionListener)
 	{
-		beforeApply(viewCommand, null);
+		mEvictionListener = evictionListener;
 	}
 
-	public void beforeApply(ViewCommand<View> viewCommand, Object params)
+	public CommandRecord<View> beforeApply(ViewCommand<View> viewCommand)
 	{
-		StateStrategy stateStrategy = getStateStrategy(viewCommand);
+		return beforeApply(viewCommand, null);
+	}
+
+	/**
+	 * Record command by its strategy
+	 *
+	 * @param viewCommand command
+	 * @param params      params of command. Null if command has no arguments
+	 * @return record of command, which should be passed to {@link #afterApply(CommandRecord)}
+	 */
+	public CommandRecord<View> beforeApply(ViewCommand<View> viewCommand, Object params)
+	{
+		CommandRecord<View> record = new CommandRecord<>(viewCommand, params);
+
+		beforeApply(record);
 
-		stateStrategy.beforeApply(mStatesPairList, Pair.create(viewCommand, params));
+		return record;
+	}
+
+	/**
+	 * Record command, which is created already, by its strategy
+	 *
+	 * @param record record of command
+	 */
+	public void beforeApply(CommandRecord<View> record)
+	{
+		ViewCommand<View> viewCommand = record.getCommand();
+
+		getStrategy(viewCommand).beforeApply(mStatesPairList, record);
+
+		MvpMetricsListener metricsListener = MvpFacade.getMetricsListener();
+		if (metricsListener != null)
+		{
+			metricsListener.onCommandRecorded(viewCommand.getStrategyType());
+		}
+
+		if (mEvictionPolicy != null)
+		{
+			mEvictionPolicy.evict(mStatesPairList, metricsListener != null || mEvictionListener != null ? mEvictionDispatcher : null);
+		}
+
+		if (viewCommand instanceof CompactableCommand)
+		{
+			mHasCompactableCommands = true;
+
+			if (mStatesPairList.size() >= mCompactionThreshold)
+			{
+				compact();
+			}
+		}
+	}
+
+	/**
+	 * Remove calls of commands, which are redundant by their {@link com.arellomobile.mvp.viewstate.history.Compaction}
+	 *
+	 * @return count of removed commands
+	 */
+	public int compact()
+	{
+		if (!mHasCompactableCommands)
+		{
+			return 0;
+		}
+
+		int removed = HistoryCompactor.compact(mStatesPairList);
+		mCompactionThreshold = Math.max(COMPACTION_THRESHOLD, mStatesPairList.size() * 2);
+
+		return removed;
+	}
+
+	/**
+	 * @param record record of applied command, returned by {@link #beforeApply(ViewCommand, Object)}
+	 */
+	public void afterApply(CommandRecord<View> record)
+	{
+		getStrategy(record.getCommand()).afterApply(mStatesPairList, record);
 	}
 
 	public void afterApply(ViewCommand<View> viewCommand)
@@ -39,50 +177,186 @@ public class ViewCommands<View extends MvpView>
 
 	public void afterApply(ViewCommand<View> viewCommand, Object params)
 	{
-		StateStrategy stateStrategy = getStateStrategy(viewCommand);
+		afterApply(new CommandRecord<>(viewCommand, params));
+	}
+
+	public boolean isEmpty()
+	{
+		return mStatesPairList.isEmpty();
+	}
 
-		stateStrategy.afterApply(mStatesPairList, Pair.create(viewCommand, params));
+	/**
+	 * @return count of commands in history
+	 */
+	public int size()
+	{
+		return mStatesPairList.size();
 	}
 
-	private StateStrategy getStateStrategy(ViewCommand<View> viewCommand)
+	/**
+	 * Encode history to bytes, which could be restored by {@link #decode(byte[], ViewStateCodec)}
+	 *
+	 * @param codec codec of commands in history
+	 * @return encoded history
+	 */
+	public byte[] encode(ViewStateCodec<View> codec)
 	{
-		StateStrategy stateStrategy = mStrategies.get(viewCommand.getStrategyType());
-		if (stateStrategy == null)
+		CommandWriter writer = new CommandWriter();
+		CommandWriter paramsWriter = new CommandWriter();
+
+		writer.writeVarInt(FORMAT_VERSION);
+		writer.writeInt(codec.getSchemaHash());
+		writer.writeVarInt(mStatesPairList.size());
+
+		for (Pair<ViewCommand<View>, Object> entry : mStatesPairList)
 		{
-			//noinspection TryWithIdenticalCatches
-			try
-			{
-				stateStrategy = viewCommand.getStrategyType().newInstance();
-			}
-			catch (InstantiationException e)
+			CommandRecord<View> record = CommandRecord.of(entry);
+
+			writer.writeVarInt(codec.getCommandId(record.getCommand()));
+
+			if (record instanceof EncodedCommandRecord && ((EncodedCommandRecord<View>) record).writeEncodedParams(writer))
 			{
-				throw new IllegalArgumentException("Unable to create state strategy: " + viewCommand.toString());
+				continue;
 			}
-			catch (IllegalAccessException e)
+
+			paramsWriter.reset();
+			codec.writeParams(record.getCommand(), record.getParams(), paramsWriter);
+
+			writer.writeVarInt(paramsWriter.size());
+			writer.writeRaw(paramsWriter);
+		}
+
+		return writer.toByteArray();
+	}
+
+	/**
+	 * Put history, encoded by {@link #encode(ViewStateCodec)}, before current history. Restored and current commands
+	 * are recorded again by their strategies in order of calls, then history is bounded by {@link EvictionPolicy}. Params of commands are decoded
+	 * when they are needed, so encoded bytes must not be changed after this call.
+	 *
+	 * @param encoded encoded history
+	 * @param codec   codec of commands in history
+	 * @return false if history is encoded by other version of codec, so it is not restored
+	 */
+	public boolean decode(byte[] encoded, ViewStateCodec<View> codec)
+	{
+		CommandReader reader = new CommandReader(encoded);
+
+		if (reader.readVarInt() != FORMAT_VERSION || reader.readInt() != codec.getSchemaHash())
+		{
+			return false;
+		}
+
+		int size = reader.readVarInt();
+		List<Pair<ViewCommand<View>, Object>> records = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			ViewCommand<View> command = codec.getCommand(reader.readVarInt());
+			int length = reader.readVarInt();
+
+			if (command == null)
 			{
-				throw new IllegalArgumentException("Unable to create state strategy: " + viewCommand.toString());
+				return false;
 			}
 
-			mStrategies.put(viewCommand.getStrategyType(), stateStrategy);
+			records.add(new EncodedCommandRecord<>(command, codec, encoded, reader.getPosition(), length));
+			reader.skip(length);
 		}
 
-		return stateStrategy;
+		// history is rebuilt as if restored commands were called before current ones, so strategies and eviction
+		// policy are applied to the whole history
+		List<Pair<ViewCommand<View>, Object>> current = new ArrayList<>(mStatesPairList);
+		mStatesPairList.clear();
+
+		for (Pair<ViewCommand<View>, Object> record : records)
+		{
+			restore(record);
+		}
+		for (Pair<ViewCommand<View>, Object> entry : current)
+		{
+			restore(entry);
+		}
+
+		if (mEvictionPolicy != null)
+		{
+			mEvictionPolicy.evict(mStatesPairList, MvpFacade.getMetricsListener() != null || mEvictionListener != null ? mEvictionDispatcher : null);
+		}
+
+		return true;
 	}
 
-	public boolean isEmpty()
+	private void restore(Pair<ViewCommand<View>, Object> entry)
 	{
-		return mStatesPairList.isEmpty();
+		CommandRecord<View> record = CommandRecord.of(entry);
+
+		getStrategy(record.getCommand()).beforeApply(mStatesPairList, record);
+
+		if (record.getCommand() instanceof CompactableCommand)
+		{
+			mHasCompactableCommands = true;
+		}
 	}
 
 	public void reapply(View view)
 	{
-		final ArrayList<Pair<ViewCommand<View>, Object>> statePairsList = new ArrayList<>(mStatesPairList);
+		// strategies could change history in afterApply, so commands are replayed from snapshot. Snapshot is shared
+		// until history is changed, so view states with several views don't copy history for each of them
+		final List<Pair<ViewCommand<View>, Object>> statePairsList = mStatesPairList.snapshot();
+		MvpMetricsListener metricsListener = MvpFacade.getMetricsListener();
 
-		for (Pair<ViewCommand<View>, Object> entry : statePairsList)
+		for (int i = 0, size = statePairsList.size(); i < size; i++)
 		{
-			entry.first.apply(view, entry.second);
+			// custom strategies could put own pairs to history
+			CommandRecord<View> record = CommandRecord.of(statePairsList.get(i));
+
+			record.getCommand().apply(view, record.getParams());
+
+			if (metricsListener != null)
+			{
+				metricsListener.onCommandReplayed(record.getCommand().getStrategyType());
+			}
 
-			afterApply(entry.first, entry.second);
+			afterApply(record);
+		}
+	}
+
+	/**
+	 * Strategies are called through {@link StateStrategy}, so subclasses of built-in strategies could override its
+	 * methods. {@link RecordStateStrategy} passes history and record to own methods without conversion
+	 */
+	private StateStrategy getStrategy(ViewCommand<?> viewCommand)
+	{
+		// commands of generated view states resolve shared strategy once
+		if (viewCommand instanceof ResolvedStrategyCommand)
+		{
+			StateStrategy sharedStrategy = ((ResolvedStrategyCommand<?>) viewCommand).getSharedStrategy();
+			if (sharedStrategy != null)
+			{
+				return sharedStrategy;
+			}
 		}
+
+		Class<? extends StateStrategy> strategyType = viewCommand.getStrategyType();
+		StateStrategyStore stateStrategyStore = MvpFacade.getInstance().getStateStrategyStore();
+
+		if (stateStrategyStore.isShared(strategyType))
+		{
+			return stateStrategyStore.getStateStrategy(strategyType);
+		}
+
+		if (mStrategies == null)
+		{
+			mStrategies = new HashMap<>();
+		}
+
+		StateStrategy stateStrategy = mStrategies.get(strategyType);
+
+		if (stateStrategy == null)
+		{
+			stateStrategy = stateStrategyStore.getStateStrategy(strategyType);
+			mStrategies.put(strategyType, stateStrategy);
+		}
+
+		return stateStrategy;
 	}
 }
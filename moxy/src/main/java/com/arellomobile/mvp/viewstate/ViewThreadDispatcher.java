@@ -0,0 +1,82 @@
+package com.arellomobile.mvp.viewstate;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.dispatch.MpscQueue;
+import com.arellomobile.mvp.viewstate.dispatch.ViewThread;
+
+/**
+ * Date: 18.10.2026
+ * Time: 18:40
+ * <p>
+ * Moves commands of {@link MvpViewState}, sent from other threads, to {@link ViewThread}. Commands are recorded
+ * and applied on view thread in order of their arrival to queue, so history and views are touched by one
+ * thread only. Commands sent on view thread are applied immediately, after commands, which are queued already.
+ *
+ * @author agent
+ */
+final class ViewThreadDispatcher<View extends MvpView> implements Runnable
+{
+	private final MvpViewState<View> mViewState;
+	private final ViewThread mViewThread;
+	private final MpscQueue<CommandRecord<View>> mQueue = new MpscQueue<>();
+	private final AtomicBoolean mDrainScheduled = new AtomicBoolean();
+
+	ViewThreadDispatcher(MvpViewState<View> viewState, ViewThread viewThread)
+	{
+		mViewState = viewState;
+		mViewThread = viewThread;
+	}
+
+	ViewThread getViewThread()
+	{
+		return mViewThread;
+	}
+
+	/**
+	 * @return false if command should be applied by caller right now, because caller is on view thread
+	 */
+	boolean post(ViewCommand<View> viewCommand, Object params)
+	{
+		if (mViewThread.isViewThread())
+		{
+			if (!mQueue.isEmpty())
+			{
+				drain();
+			}
+
+			return false;
+		}
+
+		mQueue.offer(new CommandRecord<>(viewCommand, params));
+
+		// flag is checked after offer, so drain, which missed this command, is followed by another one
+		if (mDrainScheduled.compareAndSet(false, true))
+		{
+			mViewThread.execute(this);
+		}
+
+		return true;
+	}
+
+	@Override
+	public void run()
+	{
+		drain();
+	}
+
+	/**
+	 * Apply queued commands. Should be called on view thread
+	 */
+	void drain()
+	{
+		mDrainScheduled.set(false);
+
+		CommandRecord<View> record;
+		while ((record = mQueue.poll()) != null)
+		{
+			mViewState.applyRecord(record);
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.arellomobile.mvp.viewstate.dispatch;
+
+/**
+ * Date: 18.10.2026
+ * Time: 17:10
+ * <p>
+ * Schedules delivery of batched commands to views. See
+ * {@link com.arellomobile.mvp.viewstate.MvpViewState#setFrameScheduler(FrameScheduler)}.
+ *
+ * @author agent
+ */
+public interface FrameScheduler
+{
+	/**
+	 * Run frame once, on the thread, which applies commands to views. Called at most once per batch, so frame
+	 * shouldn't be run immediately: commands, received until frame is run, are delivered together
+	 *
+	 * @param frame delivers batch to views
+	 */
+	void scheduleFrame(Runnable frame);
+}
@@ -0,0 +1,50 @@
+package com.arellomobile.mvp.viewstate.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Date: 18.10.2026
+ * Time: 17:15
+ * <p>
+ * {@link FrameScheduler}, which runs frames only by {@link #runFrames()}. Allows to test batched dispatch on JVM.
+ * Not thread-safe.
+ *
+ * @author agent
+ */
+public class ManualFrameScheduler implements FrameScheduler
+{
+	private List<Runnable> mFrames = new ArrayList<>();
+
+	@Override
+	public void scheduleFrame(Runnable frame)
+	{
+		mFrames.add(frame);
+	}
+
+	/**
+	 * Run frames, scheduled before this call. Frames, scheduled while running, are left for next call
+	 *
+	 * @return count of run frames
+	 */
+	public int runFrames()
+	{
+		List<Runnable> frames = mFrames;
+		mFrames = new ArrayList<>();
+
+		for (Runnable frame : frames)
+		{
+			frame.run();
+		}
+
+		return frames.size();
+	}
+
+	/**
+	 * @return count of scheduled frames, which are not run yet
+	 */
+	public int getScheduledFramesCount()
+	{
+		return mFrames.size();
+	}
+}
@@ -0,0 +1,83 @@
+package com.arellomobile.mvp.viewstate.dispatch;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Date: 18.10.2026
+ * Time: 18:30
+ * <p>
+ * Unbounded lock-free queue for many producers and single consumer. {@link #offer(Object)} could be called from
+ * any thread and takes one atomic exchange, {@link #poll()} should be called only by one thread at a time.
+ * Elements of each producer are polled in order of offer.
+ * <p>
+ * Element, which is offered right now, could be invisible for {@link #poll()} for short time after its producer
+ * returned from exchange, so consumer should be notified by producer after {@link #offer(Object)} returns.
+ *
+ * @author agent
+ */
+public class MpscQueue<E>
+{
+	private final AtomicReference<Node<E>> mTail;
+	// touched by consumer only
+	private Node<E> mHead;
+
+	public MpscQueue()
+	{
+		mHead = new Node<>(null);
+		mTail = new AtomicReference<>(mHead);
+	}
+
+	/**
+	 * @param element element to add. Must be not null
+	 */
+	public void offer(E element)
+	{
+		if (element == null)
+		{
+			throw new IllegalArgumentException("Element must be not null");
+		}
+
+		Node<E> node = new Node<>(element);
+		Node<E> previous = mTail.getAndSet(node);
+		previous.mNext = node;
+	}
+
+	/**
+	 * @return oldest element or null if queue is empty
+	 */
+	public E poll()
+	{
+		Node<E> next = mHead.mNext;
+
+		if (next == null)
+		{
+			return null;
+		}
+
+		E element = next.mElement;
+		// next becomes stub node, so it shouldn't keep element
+		next.mElement = null;
+		mHead = next;
+
+		return element;
+	}
+
+	/**
+	 * @return true if queue has no elements, which are visible for consumer. Should be called by consumer
+	 */
+	public boolean isEmpty()
+	{
+		return mHead.mNext == null;
+	}
+
+	private static class Node<E>
+	{
+		private E mElement;
+		private volatile Node<E> mNext;
+
+		private Node(E element)
+		{
+			mElement = element;
+		}
+	}
+}
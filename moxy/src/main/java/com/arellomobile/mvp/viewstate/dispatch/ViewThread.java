@@ -0,0 +1,25 @@
+package com.arellomobile.mvp.viewstate.dispatch;
+
+/**
+ * Date: 18.10.2026
+ * Time: 18:35
+ * <p>
+ * Thread, which owns views and view state. See
+ * {@link com.arellomobile.mvp.viewstate.MvpViewState#setViewThread(ViewThread)}.
+ *
+ * @author agent
+ */
+public interface ViewThread
+{
+	/**
+	 * @return true if current thread is view thread
+	 */
+	boolean isViewThread();
+
+	/**
+	 * Run task on view thread later. Could be called from any thread
+	 *
+	 * @param task task to run
+	 */
+	void execute(Runnable task);
+}
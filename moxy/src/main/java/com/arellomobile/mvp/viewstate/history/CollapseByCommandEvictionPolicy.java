@@ -0,0 +1,155 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 10:30
+ * <p>
+ * Keeps last {@code maxCommands} commands of history. When history is overflowed, older calls of commands, which
+ * were called again later, are evicted first: they are usually overwritten on restore. They are evicted in order in
+ * which commands were repeated, and policy tracks repeated commands as they are recorded, so eviction doesn't walk
+ * history. If history is overflowed even when each command is kept once, oldest commands are evicted.
+ * <p>
+ * Instance of this policy must not be shared between view states.
+ *
+ * @author agent
+ */
+public class CollapseByCommandEvictionPolicy implements EvictionPolicy
+{
+	private final int mMaxCommands;
+	private final RepeatTracker mRepeatTracker = new RepeatTracker();
+	// commands in order of their repeated calls. Could contain commands, which are not repeated anymore
+	private final Queue<ViewCommand<?>> mRepeatedCommands = new ArrayDeque<>();
+
+	public CollapseByCommandEvictionPolicy(int maxCommands)
+	{
+		if (maxCommands <= 0)
+		{
+			throw new IllegalArgumentException("Max commands must be positive, but was " + maxCommands);
+		}
+
+		mMaxCommands = maxCommands;
+	}
+
+	@Override
+	public <View extends MvpView> void evict(CommandHistory<View> history, EvictionListener listener)
+	{
+		if (!history.hasChangeListener(mRepeatTracker))
+		{
+			mRepeatTracker.attach(history);
+		}
+
+		int excess = history.size() - mMaxCommands;
+
+		// older calls of repeated commands first
+		while (excess > 0 && !mRepeatedCommands.isEmpty())
+		{
+			ViewCommand<?> command = mRepeatedCommands.poll();
+
+			// strategies could remove calls, which were repeated, so command could be not repeated anymore
+			if (history.countOf(command) > 1)
+			{
+				onEvicted(history.removeFirstOf(command), listener);
+				excess--;
+			}
+		}
+
+		// each command is kept once, so oldest commands are evicted
+		Iterator<Pair<ViewCommand<View>, Object>> iterator = history.iterator();
+		for (; excess > 0; excess--)
+		{
+			Pair<ViewCommand<View>, Object> entry = iterator.next();
+
+			iterator.remove();
+			onEvicted(entry, listener);
+		}
+	}
+
+	private static <View extends MvpView> void onEvicted(Pair<ViewCommand<View>, Object> entry, EvictionListener listener)
+	{
+		if (listener != null)
+		{
+			listener.onCommandEvicted(entry.first, CommandRecord.of(entry).getParams());
+		}
+	}
+
+	public int getMaxCommands()
+	{
+		return mMaxCommands;
+	}
+
+	/**
+	 * Queues command each time it is called again, while its previous call is in history. So each repeated call in
+	 * history has its command queued at least once
+	 */
+	private class RepeatTracker implements CommandHistory.ChangeListener
+	{
+		private CommandHistory<?> mHistory;
+
+		<View extends MvpView> void attach(CommandHistory<View> history)
+		{
+			if (mHistory != null)
+			{
+				mHistory.removeChangeListener(this);
+			}
+
+			mHistory = history;
+			fill(history);
+
+			history.addChangeListener(this);
+		}
+
+		private <View extends MvpView> void fill(CommandHistory<View> history)
+		{
+			// queues each call of repeated command: one extra call per command is skipped by evict
+			mRepeatedCommands.clear();
+			for (Pair<ViewCommand<View>, Object> entry : history)
+			{
+				if (history.countOf(entry.first) > 1)
+				{
+					mRepeatedCommands.add(entry.first);
+				}
+			}
+		}
+
+		@Override
+		public <View extends MvpView> void onAdded(CommandHistory<View> history, Pair<ViewCommand<View>, Object> entry)
+		{
+			if (history.countOf(entry.first) <= 1)
+			{
+				return;
+			}
+
+			// calls, removed by strategies, leave stale commands in queue, so it is rebuilt, when it is twice as long
+			// as history. Rebuilt queue is not longer than history, so rebuilding takes amortized constant time
+			if (mRepeatedCommands.size() >= 2 * history.size())
+			{
+				fill(history);
+			}
+			else
+			{
+				mRepeatedCommands.add(entry.first);
+			}
+		}
+
+		@Override
+		public <View extends MvpView> void onRemoved(CommandHistory<View> history, Pair<ViewCommand<View>, Object> entry)
+		{
+			// stale commands are skipped by evict
+		}
+
+		@Override
+		public void onCleared(CommandHistory<?> history)
+		{
+			mRepeatedCommands.clear();
+		}
+	}
+}
@@ -0,0 +1,1012 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import java.util.AbstractList;
+import java.util.AbstractSequentialList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 12:10
+ * <p>
+ * History of {@link com.arellomobile.mvp.viewstate.ViewCommands}. It is linked list in order of recording, which
+ * also links entries of each command and entries of each tag (see {@link CommandRecord#getTag()}) between
+ * themselves. So appending, clearing and removing entries of given command or tag take constant time, while
+ * iteration order is the same as of plain list.
+ * <p>
+ * Entries are indexed by command (or by tag) on first access by command (or by tag) to history longer than
+ * {@value #INDEX_THRESHOLD} entries. Shorter history is scanned, which is faster than maintaining of index, and
+ * history, which is only appended, as with {@link com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy},
+ * doesn't pay for index at all.
+ * <p>
+ * State strategies receive instance of this class as current state, so they could use methods like
+ * {@link #removeFirstOf(ViewCommand)} instead of scanning. Any other {@link java.util.List} operation is supported
+ * too, but access by index is linear.
+ * <p>
+ * {@link #snapshot()} gives immutable view of history. Entries are also kept in append-only array, which is shared by
+ * snapshots: appended entry is written after entries, which are visible to earlier snapshots, so snapshot after
+ * appends takes constant time. Removal or insertion in the middle drops the array, and it is copied from list by
+ * next snapshot. So restoring of state after append-only strategies (e.g.
+ * {@link com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy}) never copies history, while restoring after
+ * removal copies it once.
+ * <p>
+ * {@link ChangeListener} receives each added and removed entry, so {@link EvictionPolicy} could keep its accounting
+ * of history up to date instead of scanning history after each command.
+ *
+ * @author agent
+ */
+public class CommandHistory<View extends MvpView> extends AbstractSequentialList<Pair<ViewCommand<View>, Object>>
+{
+	static final int INDEX_THRESHOLD = 16;
+
+	private final Node<View> mHead = new Node<>(null);
+	private final Index mCommandIndex = new CommandIndex();
+	private final Index mTagIndex = new TagIndex();
+	private int mSize;
+	// entries in order of history, while history is only appended. Slots before mSize are never written again,
+	// because snapshots could share them
+	private Pair<ViewCommand<View>, Object>[] mEntries;
+	private boolean mEntriesValid = true;
+	// dropped on each change of history
+	private List<Pair<ViewCommand<View>, Object>> mSnapshot;
+	// null while there are no listeners
+	private List<ChangeListener> mChangeListeners;
+
+	public CommandHistory()
+	{
+		mHead.next = mHead;
+		mHead.prev = mHead;
+	}
+
+	@Override
+	public int size()
+	{
+		return mSize;
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return mSize == 0;
+	}
+
+	@Override
+	public boolean add(Pair<ViewCommand<View>, Object> entry)
+	{
+		insertBefore(mHead, entry);
+		return true;
+	}
+
+	@Override
+	public void clear()
+	{
+		// unlink nodes, so iterators over removed nodes fail instead of walking removed part
+		for (Node<View> node = mHead.next; node != mHead; )
+		{
+			Node<View> next = node.next;
+			node.next = null;
+			node.prev = null;
+			node.nextSameCommand = null;
+			node.prevSameCommand = null;
+			node.nextSameTag = null;
+			node.prevSameTag = null;
+			node = next;
+		}
+
+		mHead.next = mHead;
+		mHead.prev = mHead;
+		mEntries = null;
+		mEntriesValid = true;
+		mSnapshot = null;
+		mCommandIndex.clear();
+		mTagIndex.clear();
+		mSize = 0;
+		modCount++;
+
+		if (mChangeListeners != null)
+		{
+			for (int i = 0; i < mChangeListeners.size(); i++)
+			{
+				mChangeListeners.get(i).onCleared(this);
+			}
+		}
+	}
+
+	/**
+	 * @param changeListener listener to notify about changes of history
+	 */
+	public void addChangeListener(ChangeListener changeListener)
+	{
+		if (mChangeListeners == null)
+		{
+			mChangeListeners = new ArrayList<>(2);
+		}
+
+		mChangeListeners.add(changeListener);
+	}
+
+	/**
+	 * @param changeListener listener to remove
+	 * @return true if listener was added to history
+	 */
+	public boolean removeChangeListener(ChangeListener changeListener)
+	{
+		return mChangeListeners != null && mChangeListeners.remove(changeListener);
+	}
+
+	/**
+	 * @param changeListener listener to find
+	 * @return true if listener was added to history and was not removed since
+	 */
+	public boolean hasChangeListener(ChangeListener changeListener)
+	{
+		return mChangeListeners != null && mChangeListeners.contains(changeListener);
+	}
+
+	/**
+	 * Remove all listeners, e.g. when {@link EvictionPolicy} of history is replaced
+	 */
+	public void clearChangeListeners()
+	{
+		mChangeListeners = null;
+	}
+
+	/**
+	 * View of history, which is not changed by later changes of history. Next calls return the same instance until
+	 * history is changed. Snapshot is created in constant time, if history was only appended since previous
+	 * snapshot; otherwise history is copied once. Access by index is constant time
+	 *
+	 * @return immutable list of current entries
+	 */
+	public List<Pair<ViewCommand<View>, Object>> snapshot()
+	{
+		List<Pair<ViewCommand<View>, Object>> snapshot = mSnapshot;
+
+		if (snapshot != null)
+		{
+			return snapshot;
+		}
+
+		if (!mEntriesValid)
+		{
+			Pair<ViewCommand<View>, Object>[] entries = newEntries(Math.max(mSize, 4));
+			int index = 0;
+			for (Node<View> node = mHead.next; node != mHead; node = node.next)
+			{
+				entries[index++] = node.entry;
+			}
+
+			mEntries = entries;
+			mEntriesValid = true;
+		}
+
+		snapshot = mSize == 0 ? Collections.<Pair<ViewCommand<View>, Object>>emptyList() : new Snapshot<>(mEntries, mSize);
+		mSnapshot = snapshot;
+
+		return snapshot;
+	}
+
+	/**
+	 * @param command command to find
+	 * @return true if history contains at least one entry of command
+	 */
+	public boolean containsCommand(ViewCommand<?> command)
+	{
+		return mCommandIndex.findFirst(command) != null;
+	}
+
+	/**
+	 * @param command command to count
+	 * @return count of entries of command in history
+	 */
+	public int countOf(ViewCommand<?> command)
+	{
+		return mCommandIndex.count(command);
+	}
+
+	/**
+	 * Remove oldest entry of command in constant time
+	 *
+	 * @param command command to remove
+	 * @return removed entry or null, if history has no entries of command
+	 */
+	public Pair<ViewCommand<View>, Object> removeFirstOf(ViewCommand<?> command)
+	{
+		return remove(mCommandIndex.findFirst(command));
+	}
+
+	/**
+	 * Remove newest entry of command in constant time
+	 *
+	 * @param command command to remove
+	 * @return removed entry or null, if history has no entries of command
+	 */
+	public Pair<ViewCommand<View>, Object> removeLastOf(ViewCommand<?> command)
+	{
+		return remove(mCommandIndex.findLast(command));
+	}
+
+	/**
+	 * Remove all entries of command. Takes time proportional to count of removed entries
+	 *
+	 * @param command command to remove
+	 * @return count of removed entries
+	 */
+	public int removeAllOf(ViewCommand<?> command)
+	{
+		return mCommandIndex.removeAll(command);
+	}
+
+	/**
+	 * @param tag tag to find
+	 * @return true if history contains at least one entry of command with such tag
+	 */
+	public boolean containsTag(String tag)
+	{
+		return mTagIndex.findFirst(tag) != null;
+	}
+
+	/**
+	 * @param tag tag to count
+	 * @return count of entries of commands with such tag in history
+	 */
+	public int countOfTag(String tag)
+	{
+		return mTagIndex.count(tag);
+	}
+
+	/**
+	 * Remove oldest entry of commands with given tag in constant time
+	 *
+	 * @param tag tag of commands to remove
+	 * @return removed entry or null, if history has no entries of commands with such tag
+	 */
+	public Pair<ViewCommand<View>, Object> removeFirstOfTag(String tag)
+	{
+		return remove(mTagIndex.findFirst(tag));
+	}
+
+	/**
+	 * Remove all entries of commands with given tag. Takes time proportional to count of removed entries
+	 *
+	 * @param tag tag of commands to remove
+	 * @return count of removed entries
+	 */
+	public int removeAllOfTag(String tag)
+	{
+		return mTagIndex.removeAll(tag);
+	}
+
+	@Override
+	public ListIterator<Pair<ViewCommand<View>, Object>> listIterator(int index)
+	{
+		if (index < 0 || index > mSize)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+		}
+
+		Node<View> next;
+		if (index < mSize / 2)
+		{
+			next = mHead.next;
+			for (int i = 0; i < index; i++)
+			{
+				next = next.next;
+			}
+		}
+		else
+		{
+			next = mHead;
+			for (int i = mSize; i > index; i--)
+			{
+				next = next.prev;
+			}
+		}
+
+		return new HistoryIterator(next, index);
+	}
+
+	private Node<View> insertBefore(Node<View> successor, Pair<ViewCommand<View>, Object> entry)
+	{
+		Node<View> node = new Node<>(entry);
+
+		node.next = successor;
+		node.prev = successor.prev;
+		successor.prev.next = node;
+		successor.prev = node;
+
+		mCommandIndex.link(node);
+		mTagIndex.link(node);
+
+		if (successor == mHead && mEntriesValid)
+		{
+			appendEntry(entry);
+		}
+		else
+		{
+			dropEntries();
+		}
+
+		mSnapshot = null;
+		mSize++;
+		modCount++;
+
+		notifyAdded(entry);
+
+		return node;
+	}
+
+	private Pair<ViewCommand<View>, Object> remove(Node<View> node)
+	{
+		if (node == null)
+		{
+			return null;
+		}
+
+		unlink(node);
+
+		return node.entry;
+	}
+
+	private void unlink(Node<View> node)
+	{
+		node.prev.next = node.next;
+		node.next.prev = node.prev;
+
+		mCommandIndex.unlink(node);
+		mTagIndex.unlink(node);
+
+		node.next = null;
+		node.prev = null;
+
+		dropEntries();
+		mSnapshot = null;
+		mSize--;
+		modCount++;
+
+		notifyRemoved(node.entry);
+	}
+
+	private void notifyAdded(Pair<ViewCommand<View>, Object> entry)
+	{
+		if (mChangeListeners != null)
+		{
+			for (int i = 0; i < mChangeListeners.size(); i++)
+			{
+				mChangeListeners.get(i).onAdded(this, entry);
+			}
+		}
+	}
+
+	private void notifyRemoved(Pair<ViewCommand<View>, Object> entry)
+	{
+		if (mChangeListeners != null)
+		{
+			for (int i = 0; i < mChangeListeners.size(); i++)
+			{
+				mChangeListeners.get(i).onRemoved(this, entry);
+			}
+		}
+	}
+
+	/**
+	 * Called before size is increased
+	 */
+	private void appendEntry(Pair<ViewCommand<View>, Object> entry)
+	{
+		if (mEntries == null || mEntries.length == mSize)
+		{
+			// new array, because old one could be shared by snapshots
+			Pair<ViewCommand<View>, Object>[] entries = newEntries(Math.max(mSize * 2, 4));
+			if (mEntries != null)
+			{
+				System.arraycopy(mEntries, 0, entries, 0, mSize);
+			}
+			mEntries = entries;
+		}
+
+		mEntries[mSize] = entry;
+	}
+
+	private void dropEntries()
+	{
+		mEntries = null;
+		mEntriesValid = false;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static <View extends MvpView> Pair<ViewCommand<View>, Object>[] newEntries(int length)
+	{
+		return new Pair[length];
+	}
+
+	private static String getTag(Pair<? extends ViewCommand<?>, Object> entry)
+	{
+		if (entry instanceof CommandRecord)
+		{
+			return ((CommandRecord<?>) entry).getTag();
+		}
+
+		return entry.first.getTag();
+	}
+
+	/**
+	 * Receives changes of history. It is called after history is changed, and must not change history itself
+	 */
+	public interface ChangeListener
+	{
+		/**
+		 * @param history history, to which entry was added
+		 * @param entry   added entry
+		 * @param <View>  type of view
+		 */
+		<View extends MvpView> void onAdded(CommandHistory<View> history, Pair<ViewCommand<View>, Object> entry);
+
+		/**
+		 * @param history history, from which entry was removed
+		 * @param entry   removed entry
+		 * @param <View>  type of view
+		 */
+		<View extends MvpView> void onRemoved(CommandHistory<View> history, Pair<ViewCommand<View>, Object> entry);
+
+		/**
+		 * Called instead of {@link #onRemoved(CommandHistory, Pair)} for each entry, when history is cleared
+		 *
+		 * @param history cleared history
+		 */
+		void onCleared(CommandHistory<?> history);
+	}
+
+	/**
+	 * First entries of shared array
+	 */
+	private static class Snapshot<View extends MvpView> extends AbstractList<Pair<ViewCommand<View>, Object>> implements RandomAccess
+	{
+		private final Pair<ViewCommand<View>, Object>[] mEntries;
+		private final int mSize;
+
+		private Snapshot(Pair<ViewCommand<View>, Object>[] entries, int size)
+		{
+			mEntries = entries;
+			mSize = size;
+		}
+
+		@Override
+		public Pair<ViewCommand<View>, Object> get(int index)
+		{
+			if (index < 0 || index >= mSize)
+			{
+				throw new IndexOutOfBoundsException("Index: " + index + ", size: " + mSize);
+			}
+
+			return mEntries[index];
+		}
+
+		@Override
+		public int size()
+		{
+			return mSize;
+		}
+	}
+
+	private static class Node<View extends MvpView>
+	{
+		private Pair<ViewCommand<View>, Object> entry;
+		private Node<View> prev;
+		private Node<View> next;
+		// neighbour entries of the same command
+		private Node<View> prevSameCommand;
+		private Node<View> nextSameCommand;
+		// neighbour entries of commands with the same tag
+		private Node<View> prevSameTag;
+		private Node<View> nextSameTag;
+
+		private Node(Pair<ViewCommand<View>, Object> entry)
+		{
+			this.entry = entry;
+		}
+	}
+
+	private static class Chain<View extends MvpView>
+	{
+		private Node<View> first;
+		private Node<View> last;
+		private int count;
+	}
+
+	/**
+	 * Links entries with the same key between themselves. Index is built on first access by key to long history,
+	 * after that it is updated on each change of history
+	 */
+	private abstract class Index
+	{
+		// null until history longer than INDEX_THRESHOLD is accessed by key
+		private Map<Object, Chain<View>> mChains;
+
+		abstract Map<Object, Chain<View>> createChains();
+
+		abstract Object getKey(Node<View> node);
+
+		abstract boolean hasKey(Node<View> node, Object key);
+
+		abstract Node<View> getPrevSame(Node<View> node);
+
+		abstract void setPrevSame(Node<View> node, Node<View> prevSame);
+
+		abstract Node<View> getNextSame(Node<View> node);
+
+		abstract void setNextSame(Node<View> node, Node<View> nextSame);
+
+		Node<View> findFirst(Object key)
+		{
+			if (isBuilt())
+			{
+				Chain<View> chain = mChains.get(key);
+				return chain == null ? null : chain.first;
+			}
+
+			for (Node<View> node = mHead.next; node != mHead; node = node.next)
+			{
+				if (hasKey(node, key))
+				{
+					return node;
+				}
+			}
+
+			return null;
+		}
+
+		Node<View> findLast(Object key)
+		{
+			if (isBuilt())
+			{
+				Chain<View> chain = mChains.get(key);
+				return chain == null ? null : chain.last;
+			}
+
+			for (Node<View> node = mHead.prev; node != mHead; node = node.prev)
+			{
+				if (hasKey(node, key))
+				{
+					return node;
+				}
+			}
+
+			return null;
+		}
+
+		int count(Object key)
+		{
+			if (isBuilt())
+			{
+				Chain<View> chain = mChains.get(key);
+				return chain == null ? 0 : chain.count;
+			}
+
+			int count = 0;
+			for (Node<View> node = mHead.next; node != mHead; node = node.next)
+			{
+				if (hasKey(node, key))
+				{
+					count++;
+				}
+			}
+
+			return count;
+		}
+
+		int removeAll(Object key)
+		{
+			int count = 0;
+
+			if (isBuilt())
+			{
+				Chain<View> chain = mChains.get(key);
+
+				for (Node<View> node = chain == null ? null : chain.first; node != null; count++)
+				{
+					Node<View> next = getNextSame(node);
+					CommandHistory.this.unlink(node);
+					node = next;
+				}
+
+				return count;
+			}
+
+			for (Node<View> node = mHead.next; node != mHead; )
+			{
+				Node<View> next = node.next;
+				if (hasKey(node, key))
+				{
+					CommandHistory.this.unlink(node);
+					count++;
+				}
+				node = next;
+			}
+
+			return count;
+		}
+
+		void clear()
+		{
+			if (mChains != null)
+			{
+				mChains.clear();
+			}
+		}
+
+		private boolean isBuilt()
+		{
+			if (mChains == null && mSize > INDEX_THRESHOLD)
+			{
+				mChains = createChains();
+
+				for (Node<View> node = mHead.next; node != mHead; node = node.next)
+				{
+					append(node);
+				}
+			}
+
+			return mChains != null;
+		}
+
+		void link(Node<View> node)
+		{
+			if (mChains == null)
+			{
+				return;
+			}
+
+			if (node.next == mHead)
+			{
+				// usual case: entry is appended to the end
+				append(node);
+				return;
+			}
+
+			// entry is inserted in the middle, so it is linked before next entry with the same key
+			Object key = getKey(node);
+			Node<View> nextSame = node.next;
+			while (nextSame != mHead && !hasKey(nextSame, key))
+			{
+				nextSame = nextSame.next;
+			}
+
+			if (nextSame == mHead)
+			{
+				append(node);
+				return;
+			}
+
+			Chain<View> chain = mChains.get(key);
+			Node<View> prevSame = getPrevSame(nextSame);
+			setNextSame(node, nextSame);
+			setPrevSame(node, prevSame);
+			if (prevSame == null)
+			{
+				chain.first = node;
+			}
+			else
+			{
+				setNextSame(prevSame, node);
+			}
+			setPrevSame(nextSame, node);
+			chain.count++;
+		}
+
+		private void append(Node<View> node)
+		{
+			Object key = getKey(node);
+			Chain<View> chain = mChains.get(key);
+
+			if (chain == null)
+			{
+				chain = new Chain<>();
+				chain.first = node;
+				mChains.put(key, chain);
+			}
+			else
+			{
+				setPrevSame(node, chain.last);
+				setNextSame(chain.last, node);
+			}
+
+			chain.last = node;
+			chain.count++;
+		}
+
+		void unlink(Node<View> node)
+		{
+			if (mChains == null)
+			{
+				return;
+			}
+
+			Object key = getKey(node);
+			Chain<View> chain = mChains.get(key);
+			Node<View> prevSame = getPrevSame(node);
+			Node<View> nextSame = getNextSame(node);
+
+			if (--chain.count == 0)
+			{
+				mChains.remove(key);
+			}
+			else
+			{
+				if (prevSame == null)
+				{
+					chain.first = nextSame;
+				}
+				else
+				{
+					setNextSame(prevSame, nextSame);
+				}
+
+				if (nextSame == null)
+				{
+					chain.last = prevSame;
+				}
+				else
+				{
+					setPrevSame(nextSame, prevSame);
+				}
+			}
+
+			setPrevSame(node, null);
+			setNextSame(node, null);
+		}
+	}
+
+	private class CommandIndex extends Index
+	{
+		@Override
+		Map<Object, Chain<View>> createChains()
+		{
+			return new IdentityHashMap<>();
+		}
+
+		@Override
+		Object getKey(Node<View> node)
+		{
+			return node.entry.first;
+		}
+
+		@Override
+		boolean hasKey(Node<View> node, Object key)
+		{
+			return node.entry.first == key;
+		}
+
+		@Override
+		Node<View> getPrevSame(Node<View> node)
+		{
+			return node.prevSameCommand;
+		}
+
+		@Override
+		void setPrevSame(Node<View> node, Node<View> prevSame)
+		{
+			node.prevSameCommand = prevSame;
+		}
+
+		@Override
+		Node<View> getNextSame(Node<View> node)
+		{
+			return node.nextSameCommand;
+		}
+
+		@Override
+		void setNextSame(Node<View> node, Node<View> nextSame)
+		{
+			node.nextSameCommand = nextSame;
+		}
+	}
+
+	private class TagIndex extends Index
+	{
+		@Override
+		Map<Object, Chain<View>> createChains()
+		{
+			return new HashMap<>();
+		}
+
+		@Override
+		Object getKey(Node<View> node)
+		{
+			return getTag(node.entry);
+		}
+
+		@Override
+		boolean hasKey(Node<View> node, Object key)
+		{
+			// tags of generated commands are literals, so usually they are the same instances
+			String tag = getTag(node.entry);
+			return tag == key || tag != null && tag.equals(key);
+		}
+
+		@Override
+		Node<View> getPrevSame(Node<View> node)
+		{
+			return node.prevSameTag;
+		}
+
+		@Override
+		void setPrevSame(Node<View> node, Node<View> prevSame)
+		{
+			node.prevSameTag = prevSame;
+		}
+
+		@Override
+		Node<View> getNextSame(Node<View> node)
+		{
+			return node.nextSameTag;
+		}
+
+		@Override
+		void setNextSame(Node<View> node, Node<View> nextSame)
+		{
+			node.nextSameTag = nextSame;
+		}
+	}
+
+	private class HistoryIterator implements ListIterator<Pair<ViewCommand<View>, Object>>
+	{
+		private Node<View> mNext;
+		private Node<View> mLastReturned;
+		private int mNextIndex;
+		private int mExpectedModCount = modCount;
+
+		private HistoryIterator(Node<View> next, int nextIndex)
+		{
+			mNext = next;
+			mNextIndex = nextIndex;
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			return mNextIndex < mSize;
+		}
+
+		@Override
+		public Pair<ViewCommand<View>, Object> next()
+		{
+			checkForComodification();
+
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+
+			mLastReturned = mNext;
+			mNext = mNext.next;
+			mNextIndex++;
+
+			return mLastReturned.entry;
+		}
+
+		@Override
+		public boolean hasPrevious()
+		{
+			return mNextIndex > 0;
+		}
+
+		@Override
+		public Pair<ViewCommand<View>, Object> previous()
+		{
+			checkForComodification();
+
+			if (!hasPrevious())
+			{
+				throw new NoSuchElementException();
+			}
+
+			mNext = mNext.prev;
+			mLastReturned = mNext;
+			mNextIndex--;
+
+			return mLastReturned.entry;
+		}
+
+		@Override
+		public int nextIndex()
+		{
+			return mNextIndex;
+		}
+
+		@Override
+		public int previousIndex()
+		{
+			return mNextIndex - 1;
+		}
+
+		@Override
+		public void remove()
+		{
+			checkForComodification();
+
+			if (mLastReturned == null)
+			{
+				throw new IllegalStateException();
+			}
+
+			if (mNext == mLastReturned)
+			{
+				// removed after previous()
+				mNext = mLastReturned.next;
+			}
+			else
+			{
+				mNextIndex--;
+			}
+
+			unlink(mLastReturned);
+			mLastReturned = null;
+			mExpectedModCount = modCount;
+		}
+
+		@Override
+		public void set(Pair<ViewCommand<View>, Object> entry)
+		{
+			checkForComodification();
+
+			if (mLastReturned == null)
+			{
+				throw new IllegalStateException();
+			}
+
+			dropEntries();
+			mSnapshot = null;
+
+			Pair<ViewCommand<View>, Object> replaced = mLastReturned.entry;
+
+			if (replaced.first == entry.first)
+			{
+				mLastReturned.entry = entry;
+			}
+			else
+			{
+				mCommandIndex.unlink(mLastReturned);
+				mTagIndex.unlink(mLastReturned);
+				mLastReturned.entry = entry;
+				mCommandIndex.link(mLastReturned);
+				mTagIndex.link(mLastReturned);
+			}
+
+			notifyRemoved(replaced);
+			notifyAdded(entry);
+		}
+
+		@Override
+		public void add(Pair<ViewCommand<View>, Object> entry)
+		{
+			checkForComodification();
+
+			insertBefore(mNext, entry);
+			mNextIndex++;
+			mLastReturned = null;
+			mExpectedModCount = modCount;
+		}
+
+		private void checkForComodification()
+		{
+			if (modCount != mExpectedModCount)
+			{
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+}
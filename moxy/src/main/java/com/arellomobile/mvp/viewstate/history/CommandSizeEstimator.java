@@ -0,0 +1,22 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 10:40
+ *
+ * @author agent
+ */
+public interface CommandSizeEstimator
+{
+	/**
+	 * Estimate memory retained by recorded command. Called once per recorded command, result is cached by
+	 * {@link MaxBytesEvictionPolicy} while command is in history.
+	 *
+	 * @param command recorded command
+	 * @param params  params of recorded command. Null for commands without arguments
+	 * @return approximate size in bytes
+	 */
+	long estimateSize(ViewCommand<?> command, Object params);
+}
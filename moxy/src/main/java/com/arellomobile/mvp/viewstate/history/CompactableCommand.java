@@ -0,0 +1,33 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 22:55
+ * <p>
+ * Command, which could be removed from history by {@link HistoryCompactor}. Implemented by commands of generated
+ * view states, which have methods annotated by {@link Compaction}.
+ *
+ * @author agent
+ */
+public interface CompactableCommand<View extends MvpView> extends ViewCommand<View>
+{
+	/**
+	 * @return rule of compaction or null if command is not compacted
+	 */
+	Compaction.Rule getCompactionRule();
+
+	/**
+	 * @param params params of command
+	 * @return key of {@link Compaction.Rule#LAST_BY_KEY}, which could be null
+	 */
+	Object getCompactionKey(Object params);
+
+	/**
+	 * @return true if command with given params has the same effect, which is required by
+	 * {@link Compaction.Rule#IDEMPOTENT}
+	 */
+	boolean isSameParams(Object params, Object otherParams);
+}
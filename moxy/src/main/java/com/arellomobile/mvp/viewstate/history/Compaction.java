@@ -0,0 +1,44 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Date: 18.10.2026
+ * Time: 22:50
+ * <p>
+ * Allows to drop redundant calls of annotated view method from history of view state. Strategies are applied only
+ * when command is recorded, so, for example, history of setter-like command with
+ * {@link com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy} grows with each call. Calls, which are made
+ * redundant by later calls according to {@link #value()}, are removed by {@link HistoryCompactor}, when history is
+ * doubled since last compaction and when last view is detached from view state.
+ *
+ * @author agent
+ */
+@Target(value = ElementType.METHOD)
+@Retention(value = RetentionPolicy.RUNTIME)
+public @interface Compaction
+{
+	Rule value();
+
+	/**
+	 * @return name of argument, which is key of {@link Rule#LAST_BY_KEY}. Argument must not be array
+	 */
+	String key() default "";
+
+	enum Rule
+	{
+		/**
+		 * Only last call with given value of {@link #key()} argument is kept, as if later call overwrites result of
+		 * earlier calls with the same key
+		 */
+		LAST_BY_KEY,
+		/**
+		 * Call is dropped, if it is immediately followed in history by call of the same command with equal arguments, as applying
+		 * it twice is the same as applying it once
+		 */
+		IDEMPOTENT
+	}
+}
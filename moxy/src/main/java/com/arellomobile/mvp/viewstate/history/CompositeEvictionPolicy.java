@@ -0,0 +1,32 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 11:10
+ * <p>
+ * Applies policies one by one, in given order.
+ *
+ * @author agent
+ */
+public class CompositeEvictionPolicy implements EvictionPolicy
+{
+	private final EvictionPolicy[] mPolicies;
+
+	public CompositeEvictionPolicy(EvictionPolicy... policies)
+	{
+		mPolicies = policies.clone();
+	}
+
+	@Override
+	public <View extends MvpView> void evict(CommandHistory<View> history, EvictionListener listener)
+	{
+		for (EvictionPolicy policy : mPolicies)
+		{
+			policy.evict(history, listener);
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import java.util.List;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 10:20
+ * <p>
+ * Keeps last {@code maxCommands} commands of history.
+ *
+ * @author agent
+ */
+public class DropOldestEvictionPolicy implements EvictionPolicy
+{
+	private final int mMaxCommands;
+
+	public DropOldestEvictionPolicy(int maxCommands)
+	{
+		if (maxCommands <= 0)
+		{
+			throw new IllegalArgumentException("Max commands must be positive, but was " + maxCommands);
+		}
+
+		mMaxCommands = maxCommands;
+	}
+
+	@Override
+	public <View extends MvpView> void evict(CommandHistory<View> history, EvictionListener listener)
+	{
+		int excess = history.size() - mMaxCommands;
+
+		if (excess <= 0)
+		{
+			return;
+		}
+
+		List<Pair<ViewCommand<View>, Object>> evicted = history.subList(0, excess);
+
+		if (listener != null)
+		{
+			for (Pair<ViewCommand<View>, Object> entry : evicted)
+			{
+				listener.onCommandEvicted(entry.first, CommandRecord.of(entry).getParams());
+			}
+		}
+
+		evicted.clear();
+	}
+
+	public int getMaxCommands()
+	{
+		return mMaxCommands;
+	}
+}
@@ -0,0 +1,20 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 10:12
+ *
+ * @author agent
+ */
+public interface EvictionListener
+{
+	/**
+	 * Command is removed from history by {@link EvictionPolicy}, so it will not be applied to next attached views
+	 *
+	 * @param command evicted command
+	 * @param params  params of evicted command
+	 */
+	void onCommandEvicted(ViewCommand<?> command, Object params);
+}
@@ -0,0 +1,42 @@
+package com.arellomobile.mvp.viewstate.history;
+
+/**
+ * Date: 18.10.2026
+ * Time: 11:15
+ * <p>
+ * Creates policies, described by {@link StateHistory}. Used by generated view states.
+ *
+ * @author agent
+ */
+public final class EvictionPolicies
+{
+	private EvictionPolicies()
+	{
+	}
+
+	/**
+	 * @param maxCommands max count of commands in history. 0 means no limit
+	 * @param eviction    how to evict commands, when max count is exceeded
+	 * @param maxBytes    max estimated size of history. 0 means no limit
+	 * @return new policy or null, if history is not limited
+	 */
+	public static EvictionPolicy create(int maxCommands, StateHistory.Eviction eviction, long maxBytes)
+	{
+		EvictionPolicy commandsPolicy = null;
+		if (maxCommands > 0)
+		{
+			commandsPolicy = eviction == StateHistory.Eviction.COLLAPSE_BY_COMMAND
+					? new CollapseByCommandEvictionPolicy(maxCommands)
+					: new DropOldestEvictionPolicy(maxCommands);
+		}
+
+		EvictionPolicy bytesPolicy = maxBytes > 0 ? new MaxBytesEvictionPolicy(maxBytes) : null;
+
+		if (commandsPolicy != null && bytesPolicy != null)
+		{
+			return new CompositeEvictionPolicy(commandsPolicy, bytesPolicy);
+		}
+
+		return commandsPolicy != null ? commandsPolicy : bytesPolicy;
+	}
+}
@@ -0,0 +1,33 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 10:10
+ * <p>
+ * Keeps history of {@link com.arellomobile.mvp.viewstate.ViewCommands} in configured bounds. Unlike
+ * {@link com.arellomobile.mvp.viewstate.strategy.StateStrategy}, policy is not shared: each view state has own
+ * instance, so implementation could keep state between calls. To keep it up to date with changes, made by state
+ * strategies, implementation could add {@link CommandHistory.ChangeListener} to history. Listeners are removed
+ * from history, when its policy is replaced.
+ *
+ * @author agent
+ */
+public interface EvictionPolicy
+{
+	/**
+	 * Called after state strategy of incoming command recorded it in history, and once when policy is set to
+	 * history, which is not empty. Implementation removes commands exceeding its bounds and reports each of them
+	 * to listener.
+	 *
+	 * @param history  recorded commands, oldest first. Each {@link Pair} contains command and params of this command.
+	 *                 Params of restored commands are decoded on demand, so they should be read by
+	 *                 {@code CommandRecord.of(entry).getParams()}
+	 * @param listener receiver of evicted commands. Could be null
+	 * @param <View>   type of view
+	 */
+	<View extends MvpView> void evict(CommandHistory<View> history, EvictionListener listener);
+}
@@ -0,0 +1,77 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:00
+ * <p>
+ * Removes calls of {@link CompactableCommand}, which are redundant by their {@link Compaction.Rule}, from history.
+ * History is walked once from newest to oldest entry, so newest call is always kept and order of kept entries is not
+ * changed. Other commands are not touched.
+ *
+ * @author agent
+ */
+public final class HistoryCompactor
+{
+	private HistoryCompactor()
+	{
+	}
+
+	/**
+	 * @param history history of view state
+	 * @return count of removed entries
+	 */
+	public static <View extends MvpView> int compact(List<Pair<ViewCommand<View>, Object>> history)
+	{
+		int removed = 0;
+		// pairs of command and key, which are called later
+		Set<Pair<ViewCommand<View>, Object>> laterKeys = null;
+		CommandRecord<View> laterRecord = null;
+
+		ListIterator<Pair<ViewCommand<View>, Object>> reverseIterator = history.listIterator(history.size());
+		while (reverseIterator.hasPrevious())
+		{
+			CommandRecord<View> record = CommandRecord.of(reverseIterator.previous());
+			ViewCommand<View> command = record.getCommand();
+
+			Compaction.Rule rule = command instanceof CompactableCommand ? ((CompactableCommand<View>) command).getCompactionRule() : null;
+
+			boolean isRedundant = false;
+			if (rule == Compaction.Rule.LAST_BY_KEY)
+			{
+				if (laterKeys == null)
+				{
+					laterKeys = new HashSet<>();
+				}
+
+				Object key = ((CompactableCommand<View>) command).getCompactionKey(record.getParams());
+				isRedundant = !laterKeys.add(Pair.create(command, key));
+			}
+			else if (rule == Compaction.Rule.IDEMPOTENT && laterRecord != null && laterRecord.getCommand() == command)
+			{
+				isRedundant = ((CompactableCommand<View>) command).isSameParams(record.getParams(), laterRecord.getParams());
+			}
+
+			if (isRedundant)
+			{
+				reverseIterator.remove();
+				removed++;
+			}
+			else
+			{
+				laterRecord = record;
+			}
+		}
+
+		return removed;
+	}
+}
@@ -0,0 +1,137 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 10:55
+ * <p>
+ * Evicts oldest commands, while estimated size of history is more than {@code maxBytes}. Newest command is never
+ * evicted, even if it alone is bigger than limit, so view always receives the last state.
+ * <p>
+ * Size of each command is estimated once, when it is recorded, and total size of history is updated as commands
+ * are recorded and removed, so check of limit doesn't walk history. Instance of this policy must not be shared
+ * between view states.
+ *
+ * @author agent
+ */
+public class MaxBytesEvictionPolicy implements EvictionPolicy
+{
+	private final long mMaxBytes;
+	private final CommandSizeEstimator mSizeEstimator;
+
+	private final SizeTracker mSizeTracker = new SizeTracker();
+	// estimated sizes of entries of history and their sum
+	private final Map<Pair<?, ?>, Long> mSizes = new IdentityHashMap<>();
+	private long mTotalSize;
+
+	public MaxBytesEvictionPolicy(long maxBytes)
+	{
+		this(maxBytes, new ShallowCommandSizeEstimator());
+	}
+
+	public MaxBytesEvictionPolicy(long maxBytes, CommandSizeEstimator sizeEstimator)
+	{
+		if (maxBytes <= 0)
+		{
+			throw new IllegalArgumentException("Max bytes must be positive, but was " + maxBytes);
+		}
+
+		if (sizeEstimator == null)
+		{
+			throw new IllegalArgumentException("Size estimator must be not null");
+		}
+
+		mMaxBytes = maxBytes;
+		mSizeEstimator = sizeEstimator;
+	}
+
+	@Override
+	public <View extends MvpView> void evict(CommandHistory<View> history, EvictionListener listener)
+	{
+		if (!history.hasChangeListener(mSizeTracker))
+		{
+			mSizeTracker.attach(history);
+		}
+
+		Iterator<Pair<ViewCommand<View>, Object>> iterator = history.iterator();
+		for (int remaining = history.size(); mTotalSize > mMaxBytes && remaining > 1; remaining--)
+		{
+			Pair<ViewCommand<View>, Object> entry = iterator.next();
+
+			// size tracker subtracts size of removed entry
+			iterator.remove();
+
+			if (listener != null)
+			{
+				listener.onCommandEvicted(entry.first, CommandRecord.of(entry).getParams());
+			}
+		}
+	}
+
+	/**
+	 * Keeps sizes of entries and their total size up to date, while history is changed by strategies and by policy
+	 */
+	private class SizeTracker implements CommandHistory.ChangeListener
+	{
+		private CommandHistory<?> mHistory;
+
+		<View extends MvpView> void attach(CommandHistory<View> history)
+		{
+			if (mHistory != null)
+			{
+				mHistory.removeChangeListener(this);
+			}
+
+			mHistory = history;
+			mSizes.clear();
+			mTotalSize = 0;
+
+			for (Pair<ViewCommand<View>, Object> entry : history)
+			{
+				onAdded(history, entry);
+			}
+
+			history.addChangeListener(this);
+		}
+
+		@Override
+		public <View extends MvpView> void onAdded(CommandHistory<View> history, Pair<ViewCommand<View>, Object> entry)
+		{
+			long size = mSizeEstimator.estimateSize(entry.first, CommandRecord.of(entry).getParams());
+
+			mSizes.put(entry, size);
+			mTotalSize += size;
+		}
+
+		@Override
+		public <View extends MvpView> void onRemoved(CommandHistory<View> history, Pair<ViewCommand<View>, Object> entry)
+		{
+			Long size = mSizes.remove(entry);
+
+			if (size != null)
+			{
+				mTotalSize -= size;
+			}
+		}
+
+		@Override
+		public void onCleared(CommandHistory<?> history)
+		{
+			mSizes.clear();
+			mTotalSize = 0;
+		}
+	}
+
+	public long getMaxBytes()
+	{
+		return mMaxBytes;
+	}
+}
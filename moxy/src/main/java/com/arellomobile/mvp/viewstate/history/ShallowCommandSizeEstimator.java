@@ -0,0 +1,163 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 10:45
+ * <p>
+ * Default {@link CommandSizeEstimator}. Estimates params object and objects referenced by its fields, without
+ * going deeper: strings and arrays are counted by length, collections and maps by count of references they hold.
+ * It is enough to tell big commands from small ones, but not to measure object graphs. Use own estimator, if
+ * commands carry big objects.
+ *
+ * @author agent
+ */
+public class ShallowCommandSizeEstimator implements CommandSizeEstimator
+{
+	private static final int OBJECT_HEADER_SIZE = 16;
+	private static final int REFERENCE_SIZE = 4;
+	private static final int STRING_SIZE = 40;
+	private static final int ENTRY_SIZE = 32;
+
+	private static final Field[] NO_FIELDS = new Field[0];
+
+	private final Map<Class<?>, Field[]> mFields = new ConcurrentHashMap<>();
+
+	@Override
+	public long estimateSize(ViewCommand<?> command, Object params)
+	{
+		// pair of command and params in history
+		long size = OBJECT_HEADER_SIZE + 2 * REFERENCE_SIZE;
+
+		if (params == null)
+		{
+			return size;
+		}
+
+		size += getShallowSize(params);
+
+		if (params instanceof CharSequence || params.getClass().isArray() || params instanceof Collection || params instanceof Map)
+		{
+			return size;
+		}
+
+		for (Field field : getFields(params.getClass()))
+		{
+			try
+			{
+				size += getShallowSize(field.get(params));
+			}
+			catch (IllegalAccessException e)
+			{
+				throw new IllegalStateException("Unable to read " + field, e);
+			}
+		}
+
+		return size;
+	}
+
+	private long getShallowSize(Object value)
+	{
+		if (value == null)
+		{
+			return 0;
+		}
+
+		if (value instanceof CharSequence)
+		{
+			return STRING_SIZE + 2L * ((CharSequence) value).length();
+		}
+
+		Class<?> clazz = value.getClass();
+		if (clazz.isArray())
+		{
+			return OBJECT_HEADER_SIZE + (long) Array.getLength(value) * getSlotSize(clazz.getComponentType());
+		}
+
+		if (value instanceof Collection)
+		{
+			return OBJECT_HEADER_SIZE + (long) ((Collection<?>) value).size() * ENTRY_SIZE;
+		}
+
+		if (value instanceof Map)
+		{
+			return OBJECT_HEADER_SIZE + (long) ((Map<?, ?>) value).size() * ENTRY_SIZE;
+		}
+
+		long size = OBJECT_HEADER_SIZE;
+		for (Field field : getFields(clazz))
+		{
+			size += getSlotSize(field.getType());
+		}
+
+		return size;
+	}
+
+	private Field[] getFields(Class<?> clazz)
+	{
+		Field[] fields = mFields.get(clazz);
+
+		if (fields != null)
+		{
+			return fields;
+		}
+
+		List<Field> instanceFields = new ArrayList<>();
+		for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass())
+		{
+			if (current.getName().startsWith("java."))
+			{
+				// fields of platform classes could be inaccessible
+				break;
+			}
+
+			for (Field field : current.getDeclaredFields())
+			{
+				if (Modifier.isStatic(field.getModifiers()))
+				{
+					continue;
+				}
+
+				field.setAccessible(true);
+				instanceFields.add(field);
+			}
+		}
+
+		fields = instanceFields.isEmpty() ? NO_FIELDS : instanceFields.toArray(new Field[instanceFields.size()]);
+		mFields.put(clazz, fields);
+
+		return fields;
+	}
+
+	private static int getSlotSize(Class<?> type)
+	{
+		if (type == long.class || type == double.class)
+		{
+			return 8;
+		}
+		if (type == int.class || type == float.class)
+		{
+			return 4;
+		}
+		if (type == short.class || type == char.class)
+		{
+			return 2;
+		}
+		if (type == byte.class || type == boolean.class)
+		{
+			return 1;
+		}
+
+		return REFERENCE_SIZE;
+	}
+}
@@ -0,0 +1,50 @@
+package com.arellomobile.mvp.viewstate.history;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Date: 18.10.2026
+ * Time: 11:05
+ * <p>
+ * Bounds history of view state, generated for annotated view interface. Without this annotation history is not
+ * bounded: for example, each call of command with {@link com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy}
+ * stays in history until view state is destroyed. When both limits are set, both of them are applied.
+ * <p>
+ * Limits could be changed at runtime by {@link com.arellomobile.mvp.viewstate.MvpViewState#setEvictionPolicy(EvictionPolicy)}.
+ *
+ * @author agent
+ */
+@Target(value = ElementType.TYPE)
+@Retention(value = RetentionPolicy.RUNTIME)
+public @interface StateHistory
+{
+	/**
+	 * @return max count of commands in history. 0 means no limit
+	 */
+	int maxCommands() default 0;
+
+	/**
+	 * @return how to evict commands, when {@link #maxCommands()} is exceeded
+	 */
+	Eviction eviction() default Eviction.DROP_OLDEST;
+
+	/**
+	 * @return max size of history in bytes, estimated by {@link ShallowCommandSizeEstimator}. 0 means no limit
+	 */
+	long maxBytes() default 0;
+
+	enum Eviction
+	{
+		/**
+		 * @see DropOldestEvictionPolicy
+		 */
+		DROP_OLDEST,
+		/**
+		 * @see CollapseByCommandEvictionPolicy
+		 */
+		COLLAPSE_BY_COMMAND
+	}
+}
@@ -0,0 +1,249 @@
+package com.arellomobile.mvp.viewstate.persistence;
+
+/**
+ * Date: 18.10.2026
+ * Time: 20:50
+ * <p>
+ * Reads params of commands, written by {@link CommandWriter}, from part of byte array. Array is not copied.
+ *
+ * @author agent
+ */
+public class CommandReader
+{
+	private final byte[] mBuffer;
+	private final int mLimit;
+	private int mPosition;
+
+	public CommandReader(byte[] buffer)
+	{
+		this(buffer, 0, buffer.length);
+	}
+
+	/**
+	 * @param buffer source of bytes
+	 * @param offset first byte to read
+	 * @param length count of bytes to read
+	 */
+	public CommandReader(byte[] buffer, int offset, int length)
+	{
+		if (offset < 0 || length < 0 || offset + length > buffer.length)
+		{
+			throw new IllegalArgumentException("Range " + offset + "+" + length + " is out of buffer of " + buffer.length + " bytes");
+		}
+
+		mBuffer = buffer;
+		mPosition = offset;
+		mLimit = offset + length;
+	}
+
+	public boolean readBoolean()
+	{
+		return readByte() != 0;
+	}
+
+	public int readInt()
+	{
+		int value = readVarInt();
+
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public long readLong()
+	{
+		long value = readVarLong();
+
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public float readFloat()
+	{
+		int bits = 0;
+		for (int i = 0; i < 4; i++)
+		{
+			bits |= (readByte() & 0xFF) << (i * 8);
+		}
+
+		return Float.intBitsToFloat(bits);
+	}
+
+	public double readDouble()
+	{
+		long bits = 0;
+		for (int i = 0; i < 8; i++)
+		{
+			bits |= (readByte() & 0xFFL) << (i * 8);
+		}
+
+		return Double.longBitsToDouble(bits);
+	}
+
+	/**
+	 * @return true if nullable value, written by {@link CommandWriter#writeNotNull(Object)}, is not null
+	 */
+	public boolean readNotNull()
+	{
+		return readBoolean();
+	}
+
+	/**
+	 * @param values constants of enum, e.g. result of {@code values()}
+	 * @return enum constant or null
+	 */
+	public <E extends Enum<E>> E readEnum(E[] values)
+	{
+		int value = readVarInt();
+
+		if (value == 0)
+		{
+			return null;
+		}
+
+		if (value > values.length)
+		{
+			throw new IllegalStateException("Unknown constant " + (value - 1) + " of " + values.getClass().getComponentType().getName());
+		}
+
+		return values[value - 1];
+	}
+
+	public String readString()
+	{
+		int utfLength = readVarInt() - 1;
+
+		if (utfLength < 0)
+		{
+			return null;
+		}
+
+		int end = checkRemaining(utfLength);
+		byte[] buffer = mBuffer;
+		char[] chars = new char[utfLength];
+		int length = 0;
+		int position = mPosition;
+		while (position < end)
+		{
+			int b = buffer[position++];
+
+			if (b >= 0)
+			{
+				chars[length++] = (char) b;
+			}
+			else if ((b & 0xE0) == 0xC0)
+			{
+				chars[length++] = (char) (((b & 0x1F) << 6) | (buffer[position++] & 0x3F));
+			}
+			else if ((b & 0xF0) == 0xE0)
+			{
+				chars[length++] = (char) (((b & 0x0F) << 12) | ((buffer[position++] & 0x3F) << 6) | (buffer[position++] & 0x3F));
+			}
+			else
+			{
+				int codePoint = ((b & 0x07) << 18) | ((buffer[position++] & 0x3F) << 12) | ((buffer[position++] & 0x3F) << 6) | (buffer[position++] & 0x3F);
+				length += Character.toChars(codePoint, chars, length);
+			}
+		}
+		mPosition = end;
+
+		return new String(chars, 0, length);
+	}
+
+	public byte[] readBytes()
+	{
+		int length = readVarInt() - 1;
+
+		if (length < 0)
+		{
+			return null;
+		}
+
+		int end = checkRemaining(length);
+		byte[] value = new byte[length];
+		System.arraycopy(mBuffer, mPosition, value, 0, length);
+		mPosition = end;
+
+		return value;
+	}
+
+	/**
+	 * @return unsigned varint, written by {@link CommandWriter#writeVarInt(int)}
+	 */
+	public int readVarInt()
+	{
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7)
+		{
+			byte b = readByte();
+			value |= (b & 0x7F) << shift;
+
+			if (b >= 0)
+			{
+				return value;
+			}
+		}
+
+		throw new IllegalStateException("Malformed varint");
+	}
+
+	/**
+	 * Skip bytes, e.g. params of command, which are decoded later
+	 *
+	 * @param length count of bytes to skip
+	 */
+	public void skip(int length)
+	{
+		mPosition = checkRemaining(length);
+	}
+
+	/**
+	 * @return position of next byte in buffer
+	 */
+	public int getPosition()
+	{
+		return mPosition;
+	}
+
+	/**
+	 * @return true if all bytes are read
+	 */
+	public boolean isEnd()
+	{
+		return mPosition >= mLimit;
+	}
+
+	private long readVarLong()
+	{
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7)
+		{
+			byte b = readByte();
+			value |= (long) (b & 0x7F) << shift;
+
+			if (b >= 0)
+			{
+				return value;
+			}
+		}
+
+		throw new IllegalStateException("Malformed varint");
+	}
+
+	private byte readByte()
+	{
+		if (mPosition >= mLimit)
+		{
+			throw new IllegalStateException("Unexpected end of data");
+		}
+
+		return mBuffer[mPosition++];
+	}
+
+	private int checkRemaining(int length)
+	{
+		if (length < 0 || length > mLimit - mPosition)
+		{
+			throw new IllegalStateException("Unexpected end of data");
+		}
+
+		return mPosition + length;
+	}
+}
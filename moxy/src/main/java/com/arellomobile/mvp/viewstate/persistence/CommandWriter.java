@@ -0,0 +1,252 @@
+package com.arellomobile.mvp.viewstate.persistence;
+
+import java.util.Arrays;
+
+/**
+ * Date: 18.10.2026
+ * Time: 20:45
+ * <p>
+ * Writes params of commands in compact binary form, which is read by {@link CommandReader}. Integers are written
+ * as zigzag varints, so small values take one byte. Nullable values are prefixed by presence flag or by length,
+ * where 0 means null.
+ *
+ * @author agent
+ */
+public class CommandWriter
+{
+	private byte[] mBuffer;
+	private int mSize;
+
+	public CommandWriter()
+	{
+		this(64);
+	}
+
+	public CommandWriter(int capacity)
+	{
+		mBuffer = new byte[capacity];
+	}
+
+	public void writeBoolean(boolean value)
+	{
+		ensureCapacity(1);
+		mBuffer[mSize++] = (byte) (value ? 1 : 0);
+	}
+
+	public void writeInt(int value)
+	{
+		writeVarInt((value << 1) ^ (value >> 31));
+	}
+
+	public void writeLong(long value)
+	{
+		writeVarLong((value << 1) ^ (value >> 63));
+	}
+
+	public void writeFloat(float value)
+	{
+		int bits = Float.floatToIntBits(value);
+
+		ensureCapacity(4);
+		for (int i = 0; i < 4; i++)
+		{
+			mBuffer[mSize++] = (byte) (bits >>> (i * 8));
+		}
+	}
+
+	public void writeDouble(double value)
+	{
+		long bits = Double.doubleToLongBits(value);
+
+		ensureCapacity(8);
+		for (int i = 0; i < 8; i++)
+		{
+			mBuffer[mSize++] = (byte) (bits >>> (i * 8));
+		}
+	}
+
+	/**
+	 * @param value value of nullable param
+	 * @return true if value is not null, so it should be written next
+	 */
+	public boolean writeNotNull(Object value)
+	{
+		writeBoolean(value != null);
+
+		return value != null;
+	}
+
+	/**
+	 * @param value enum constant or null
+	 */
+	public void writeEnum(Enum<?> value)
+	{
+		writeVarInt(value == null ? 0 : value.ordinal() + 1);
+	}
+
+	/**
+	 * Write string in UTF-8
+	 *
+	 * @param value string or null
+	 */
+	public void writeString(String value)
+	{
+		if (value == null)
+		{
+			writeVarInt(0);
+			return;
+		}
+
+		int length = value.length();
+		int utfLength = 0;
+		for (int i = 0; i < length; i++)
+		{
+			char c = value.charAt(i);
+
+			if (c < 0x80)
+			{
+				utfLength++;
+			}
+			else if (c < 0x800)
+			{
+				utfLength += 2;
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+			{
+				utfLength += 4;
+				i++;
+			}
+			else
+			{
+				utfLength += 3;
+			}
+		}
+
+		writeVarInt(utfLength + 1);
+		ensureCapacity(utfLength);
+
+		byte[] buffer = mBuffer;
+		int position = mSize;
+		for (int i = 0; i < length; i++)
+		{
+			char c = value.charAt(i);
+
+			if (c < 0x80)
+			{
+				buffer[position++] = (byte) c;
+			}
+			else if (c < 0x800)
+			{
+				buffer[position++] = (byte) (0xC0 | (c >> 6));
+				buffer[position++] = (byte) (0x80 | (c & 0x3F));
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+			{
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+				buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+				buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+				buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+			}
+			else
+			{
+				buffer[position++] = (byte) (0xE0 | (c >> 12));
+				buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				buffer[position++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		mSize = position;
+	}
+
+	/**
+	 * @param value bytes or null
+	 */
+	public void writeBytes(byte[] value)
+	{
+		if (value == null)
+		{
+			writeVarInt(0);
+			return;
+		}
+
+		writeVarInt(value.length + 1);
+		writeRaw(value, 0, value.length);
+	}
+
+	/**
+	 * Write unsigned varint. Negative values take five bytes
+	 *
+	 * @param value value to write
+	 */
+	public void writeVarInt(int value)
+	{
+		ensureCapacity(5);
+		while ((value & ~0x7F) != 0)
+		{
+			mBuffer[mSize++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		mBuffer[mSize++] = (byte) value;
+	}
+
+	private void writeVarLong(long value)
+	{
+		ensureCapacity(10);
+		while ((value & ~0x7FL) != 0)
+		{
+			mBuffer[mSize++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		mBuffer[mSize++] = (byte) value;
+	}
+
+	/**
+	 * Write bytes as is, without length
+	 */
+	public void writeRaw(byte[] value, int offset, int length)
+	{
+		ensureCapacity(length);
+		System.arraycopy(value, offset, mBuffer, mSize, length);
+		mSize += length;
+	}
+
+	/**
+	 * Write content of other writer as is, without length
+	 */
+	public void writeRaw(CommandWriter writer)
+	{
+		writeRaw(writer.mBuffer, 0, writer.mSize);
+	}
+
+	/**
+	 * @return count of written bytes
+	 */
+	public int size()
+	{
+		return mSize;
+	}
+
+	/**
+	 * Drop written bytes, so writer could be reused
+	 */
+	public void reset()
+	{
+		mSize = 0;
+	}
+
+	/**
+	 * @return copy of written bytes
+	 */
+	public byte[] toByteArray()
+	{
+		return Arrays.copyOf(mBuffer, mSize);
+	}
+
+	private void ensureCapacity(int extraSize)
+	{
+		if (mSize + extraSize > mBuffer.length)
+		{
+			mBuffer = Arrays.copyOf(mBuffer, Math.max(mBuffer.length * 2, mSize + extraSize));
+		}
+	}
+}
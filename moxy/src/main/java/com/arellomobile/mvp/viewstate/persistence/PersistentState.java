@@ -0,0 +1,28 @@
+package com.arellomobile.mvp.viewstate.persistence;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Date: 18.10.2026
+ * Time: 20:40
+ * <p>
+ * Makes history of view state, generated for annotated view interface, survive death of process. Codec of
+ * commands is generated with view state, so history is saved to {@link android.os.Bundle} by
+ * {@link com.arellomobile.mvp.MvpDelegate#onSaveInstanceState(android.os.Bundle)} in compact binary form, and is
+ * restored to view state of newly created presenter before first view is attached. Params of restored commands are
+ * decoded only when commands are applied.
+ * <p>
+ * Arguments of all methods of view should be primitives, their boxes, {@link String}, enums or {@code byte[]}.
+ * Presenter could check {@link com.arellomobile.mvp.MvpPresenter#isViewStateRestored()} to skip loading
+ * of data, which is restored already.
+ *
+ * @author agent
+ */
+@Target(value = ElementType.TYPE)
+@Retention(value = RetentionPolicy.RUNTIME)
+public @interface PersistentState
+{
+}
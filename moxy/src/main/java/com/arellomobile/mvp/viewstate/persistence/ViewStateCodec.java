@@ -0,0 +1,36 @@
+package com.arellomobile.mvp.viewstate.persistence;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+
+/**
+ * Date: 18.10.2026
+ * Time: 20:55
+ * <p>
+ * Encodes commands of one view state and their params. Generated for views, annotated by {@link PersistentState}.
+ *
+ * @author agent
+ */
+public interface ViewStateCodec<View extends MvpView>
+{
+	/**
+	 * @return hash of commands and their params. Saved history is dropped, if hash is changed
+	 */
+	int getSchemaHash();
+
+	/**
+	 * @param command command of view state
+	 * @return id of command, which is not negative
+	 */
+	int getCommandId(ViewCommand<View> command);
+
+	/**
+	 * @param commandId id of command
+	 * @return command with given id or null if there is no such command
+	 */
+	ViewCommand<View> getCommand(int commandId);
+
+	void writeParams(ViewCommand<View> command, Object params, CommandWriter writer);
+
+	Object readParams(ViewCommand<View> command, CommandReader reader);
+}
@@ -1,11 +1,8 @@
 package com.arellomobile.mvp.viewstate.strategy;
 
-import java.util.Iterator;
-import java.util.List;
-
 import com.arellomobile.mvp.MvpView;
-import com.arellomobile.mvp.Pair;
-import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
 
 /**
  * Date: 17.12.2015
@@ -13,29 +10,17 @@ import com.arellomobile.mvp.viewstate.ViewCommand;
  *
  * @author Yuri Shmakov
  */
-public class AddToEndSingleStrategy implements StateStrategy
+public class AddToEndSingleStrategy extends RecordStateStrategy
 {
 	@Override
-	public <View extends MvpView> void beforeApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+	public <View extends MvpView> void beforeApply(CommandHistory<View> history, CommandRecord<View> incoming)
 	{
-		Iterator<Pair<ViewCommand<View>, Object>> iterator = currentState.iterator();
-
-		while (iterator.hasNext())
-		{
-			Pair<ViewCommand<View>, Object> entry = iterator.next();
-
-			if (entry.first == incomingState.first)
-			{
-				iterator.remove();
-				break;
-			}
-		}
-
-		currentState.add(incomingState);
+		history.removeFirstOf(incoming.getCommand());
+		history.add(incoming);
 	}
 
 	@Override
-	public <View extends MvpView> void afterApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+	public <View extends MvpView> void afterApply(CommandHistory<View> history, CommandRecord<View> applied)
 	{
 		// pass
 	}
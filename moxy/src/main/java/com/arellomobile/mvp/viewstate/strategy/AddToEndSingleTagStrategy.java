@@ -0,0 +1,33 @@
+package com.arellomobile.mvp.viewstate.strategy;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
+
+/**
+ * Date: 18.10.2026
+ * Time: 14:10
+ * <p>
+ * Removes all commands with the same {@link StateStrategyType#tag()} as incoming one, and adds incoming command to
+ * the end. So commands with the same tag share one slot of history: for example, when "showProgress", "showError"
+ * and "showData" have tag "loading", only the last of them is applied on restore.
+ * <p>
+ * Without explicit tag, tag of command is name of its method.
+ *
+ * @author agent
+ */
+public class AddToEndSingleTagStrategy extends RecordStateStrategy
+{
+	@Override
+	public <View extends MvpView> void beforeApply(CommandHistory<View> history, CommandRecord<View> incoming)
+	{
+		history.removeAllOfTag(incoming.getTag());
+		history.add(incoming);
+	}
+
+	@Override
+	public <View extends MvpView> void afterApply(CommandHistory<View> history, CommandRecord<View> applied)
+	{
+		// pass
+	}
+}
@@ -1,10 +1,8 @@
 package com.arellomobile.mvp.viewstate.strategy;
 
-import java.util.List;
-
 import com.arellomobile.mvp.MvpView;
-import com.arellomobile.mvp.Pair;
-import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
 
 /**
  * Date: 17.12.2015
@@ -12,16 +10,16 @@ import com.arellomobile.mvp.viewstate.ViewCommand;
  *
  * @author Yuri Shmakov
  */
-public class AddToEndStrategy implements StateStrategy
+public class AddToEndStrategy extends RecordStateStrategy
 {
 	@Override
-	public <View extends MvpView> void beforeApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+	public <View extends MvpView> void beforeApply(CommandHistory<View> history, CommandRecord<View> incoming)
 	{
-		currentState.add(incomingState);
+		history.add(incoming);
 	}
 
 	@Override
-	public <View extends MvpView> void afterApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+	public <View extends MvpView> void afterApply(CommandHistory<View> history, CommandRecord<View> applied)
 	{
 		// pass
 	}
@@ -0,0 +1,30 @@
+package com.arellomobile.mvp.viewstate.strategy;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
+
+/**
+ * Date: 18.10.2026
+ * Time: 14:20
+ * <p>
+ * Removes all commands with the same {@link StateStrategyType#tag()} as incoming one. Incoming command is applied
+ * to attached views, but is not saved in history. For example, "hideProgress" with tag "loading" clears slot of
+ * commands with {@link AddToEndSingleTagStrategy} and the same tag, so next attached views receive none of them.
+ *
+ * @author agent
+ */
+public class ClearTagStrategy extends RecordStateStrategy
+{
+	@Override
+	public <View extends MvpView> void beforeApply(CommandHistory<View> history, CommandRecord<View> incoming)
+	{
+		history.removeAllOfTag(incoming.getTag());
+	}
+
+	@Override
+	public <View extends MvpView> void afterApply(CommandHistory<View> history, CommandRecord<View> applied)
+	{
+		// pass
+	}
+}
@@ -0,0 +1,84 @@
+package com.arellomobile.mvp.viewstate.strategy;
+
+import java.util.List;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
+
+/**
+ * Date: 18.10.2026
+ * Time: 15:50
+ * <p>
+ * New version of {@link StateStrategy}, which works with {@link CommandHistory} and {@link CommandRecord} directly.
+ * {@link com.arellomobile.mvp.viewstate.ViewCommands} calls methods of {@link StateStrategy} with history and record,
+ * and they are passed to these methods without any conversion, so subclasses could override either of them. Plain
+ * list from other callers is copied to history and back, so it is slow.
+ * <p>
+ * Strategies, which implement only {@link StateStrategy}, are wrapped to {@link StateStrategyAdapter}.
+ *
+ * @author agent
+ */
+public abstract class RecordStateStrategy implements StateStrategy
+{
+	/**
+	 * Called immediately after {@link com.arellomobile.mvp.viewstate.MvpViewState} receive command
+	 *
+	 * @param history  recorded commands, oldest first
+	 * @param incoming incoming command. This instance should be added to history to record the command
+	 * @param <View>   type of view
+	 */
+	public abstract <View extends MvpView> void beforeApply(CommandHistory<View> history, CommandRecord<View> incoming);
+
+	/**
+	 * Called immediately after command is applied to {@link MvpView}, also after re-apply to other views
+	 *
+	 * @param history recorded commands, oldest first
+	 * @param applied applied command
+	 * @param <View>  type of view
+	 */
+	public abstract <View extends MvpView> void afterApply(CommandHistory<View> history, CommandRecord<View> applied);
+
+	@Override
+	public <View extends MvpView> void beforeApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+	{
+		if (currentState instanceof CommandHistory)
+		{
+			beforeApply((CommandHistory<View>) currentState, CommandRecord.of(incomingState));
+			return;
+		}
+
+		CommandHistory<View> history = toHistory(currentState);
+		beforeApply(history, CommandRecord.of(incomingState));
+		copyBack(history, currentState);
+	}
+
+	@Override
+	public <View extends MvpView> void afterApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+	{
+		if (currentState instanceof CommandHistory)
+		{
+			afterApply((CommandHistory<View>) currentState, CommandRecord.of(incomingState));
+			return;
+		}
+
+		CommandHistory<View> history = toHistory(currentState);
+		afterApply(history, CommandRecord.of(incomingState));
+		copyBack(history, currentState);
+	}
+
+	private static <View extends MvpView> CommandHistory<View> toHistory(List<Pair<ViewCommand<View>, Object>> currentState)
+	{
+		CommandHistory<View> history = new CommandHistory<>();
+		history.addAll(currentState);
+		return history;
+	}
+
+	private static <View extends MvpView> void copyBack(CommandHistory<View> history, List<Pair<ViewCommand<View>, Object>> currentState)
+	{
+		currentState.clear();
+		currentState.addAll(history);
+	}
+}
@@ -1,10 +1,8 @@
 package com.arellomobile.mvp.viewstate.strategy;
 
-import java.util.List;
-
 import com.arellomobile.mvp.MvpView;
-import com.arellomobile.mvp.Pair;
-import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
 
 /**
  * Date: 21-Dec-15
@@ -12,16 +10,16 @@ import com.arellomobile.mvp.viewstate.ViewCommand;
  *
  * @author Alexander Blinov
  */
-public class SkipStrategy implements StateStrategy
+public class SkipStrategy extends RecordStateStrategy
 {
 	@Override
-	public <View extends MvpView> void beforeApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+	public <View extends MvpView> void beforeApply(CommandHistory<View> history, CommandRecord<View> incoming)
 	{
 		//do nothing to skip
 	}
 
 	@Override
-	public <View extends MvpView> void afterApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+	public <View extends MvpView> void afterApply(CommandHistory<View> history, CommandRecord<View> applied)
 	{
 		// pass
 	}
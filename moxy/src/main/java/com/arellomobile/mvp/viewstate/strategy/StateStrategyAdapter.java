@@ -0,0 +1,47 @@
+package com.arellomobile.mvp.viewstate.strategy;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
+
+/**
+ * Date: 18.10.2026
+ * Time: 15:55
+ * <p>
+ * Allows to use {@link StateStrategy} as {@link RecordStateStrategy}. History is list of pairs and record is pair,
+ * so wrapped strategy receives them without conversion. Adapters are created by
+ * {@link com.arellomobile.mvp.StateStrategyStore#getRecordStateStrategy(StateStrategy)}.
+ *
+ * @author agent
+ */
+public final class StateStrategyAdapter extends RecordStateStrategy
+{
+	private final StateStrategy mStateStrategy;
+
+	public StateStrategyAdapter(StateStrategy stateStrategy)
+	{
+		if (stateStrategy instanceof RecordStateStrategy)
+		{
+			throw new IllegalArgumentException(stateStrategy.getClass() + " is record strategy already");
+		}
+
+		mStateStrategy = stateStrategy;
+	}
+
+	@Override
+	public <View extends MvpView> void beforeApply(CommandHistory<View> history, CommandRecord<View> incoming)
+	{
+		mStateStrategy.beforeApply(history, incoming);
+	}
+
+	@Override
+	public <View extends MvpView> void afterApply(CommandHistory<View> history, CommandRecord<View> applied)
+	{
+		mStateStrategy.afterApply(history, applied);
+	}
+
+	public StateStrategy getStateStrategy()
+	{
+		return mStateStrategy;
+	}
+}
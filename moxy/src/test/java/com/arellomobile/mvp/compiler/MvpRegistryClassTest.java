@@ -0,0 +1,200 @@
+package com.arellomobile.mvp.compiler;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.Files;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 19.10.2026
+ * Time: 10:40
+ *
+ * @author agent
+ */
+public class MvpRegistryClassTest
+{
+	private static final List<JavaFileObject> DEFAULT_SOURCES = Arrays.asList(JavaFileObjects.forResource("presenter/PositiveViewStateProviderPresenter.java"), JavaFileObjects.forResource("view/PositiveViewStateView.java"));
+
+	private File mOutputDir;
+
+	@Before
+	public void setup()
+	{
+		mOutputDir = Files.createTempDir();
+	}
+
+	@Test
+	public void registryContainsClassesOfAllRounds() throws IOException
+	{
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(Collections.singletonList("-A" + MvpCompiler.OPTION_REGISTRY_PACKAGE + "=com.example.feature"), DEFAULT_SOURCES);
+
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+		{
+			assertFalse("Registry should be compiled by next round: " + diagnostic, diagnostic.getMessage(null).contains("last round"));
+		}
+
+		String registry = read("com/example/feature/MvpRegistry$$Generated.java");
+		assertTrue(registry.contains("case \"presenter.PositiveViewStateProviderPresenter\":"));
+		assertTrue("Presenter generated at later round should be in registry", registry.contains("case \"presenter.LatePresenter\":"));
+		assertFalse("Providers should be created on lookup only", registry.contains("private final"));
+
+		assertEquals("com.example.feature.MvpRegistry$$Generated", read("META-INF/services/com.arellomobile.mvp.MvpRegistry").trim());
+	}
+
+	@Test
+	public void registryIsNamedByPackageOfModule() throws IOException
+	{
+		compile(Collections.<String>emptyList(), DEFAULT_SOURCES);
+
+		assertTrue(new File(mOutputDir, "presenter/MvpRegistry$$Generated.java").isFile());
+		assertEquals("presenter.MvpRegistry$$Generated", read("META-INF/services/com.arellomobile.mvp.MvpRegistry").trim());
+	}
+
+	@Test
+	public void registryPackageIsRequiredWithoutCommonPackage() throws IOException
+	{
+		List<JavaFileObject> sources = Arrays.asList(JavaFileObjects.forResource("view/PositiveViewStateView.java"),
+				JavaFileObjects.forSourceString("first.FirstPresenter", "package first;\n" +
+						"@com.arellomobile.mvp.InjectViewState\n" +
+						"public class FirstPresenter extends com.arellomobile.mvp.MvpPresenter<view.PositiveViewStateView>\n" +
+						"{\n" +
+						"}\n"),
+				JavaFileObjects.forSourceString("second.SecondPresenter", "package second;\n" +
+						"@com.arellomobile.mvp.InjectViewState\n" +
+						"public class SecondPresenter extends com.arellomobile.mvp.MvpPresenter<view.PositiveViewStateView>\n" +
+						"{\n" +
+						"}\n"));
+
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(Collections.<String>emptyList(), sources, Collections.<Processor>singletonList(new MvpCompiler()), false);
+
+		boolean hasError = false;
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+		{
+			hasError |= diagnostic.getKind() == Diagnostic.Kind.ERROR && diagnostic.getMessage(null).contains(MvpCompiler.OPTION_REGISTRY_PACKAGE);
+		}
+		assertTrue("Compilation should fail without registry package: " + diagnostics.getDiagnostics(), hasError);
+		assertFalse(new File(mOutputDir, "com/arellomobile/mvp/MvpRegistry$$Generated.java").exists());
+	}
+
+	@Test
+	public void presenterGeneratedAfterRegistryIsReported() throws IOException
+	{
+		// late processor is called after MvpCompiler at second round, when registry is generated
+		DiagnosticCollector<JavaFileObject> diagnostics = compile(Collections.<String>emptyList(), DEFAULT_SOURCES, Arrays.asList(new MvpCompiler(), new LatePresenterProcessor()), true);
+
+		boolean hasWarning = false;
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics())
+		{
+			hasWarning |= diagnostic.getKind() == Diagnostic.Kind.WARNING && diagnostic.getMessage(null).startsWith("presenter.LatePresenter ");
+		}
+		assertTrue("Presenter, which is not in registry, should be reported: " + diagnostics.getDiagnostics(), hasWarning);
+		assertFalse(read("presenter/MvpRegistry$$Generated.java").contains("LatePresenter"));
+	}
+
+	private DiagnosticCollector<JavaFileObject> compile(List<String> options, List<JavaFileObject> sources) throws IOException
+	{
+		// late processor is called before MvpCompiler, so its presenter is processed at second round
+		return compile(options, sources, Arrays.asList(new LatePresenterProcessor(), new MvpCompiler()), true);
+	}
+
+	private DiagnosticCollector<JavaFileObject> compile(List<String> options, List<JavaFileObject> sources, List<? extends Processor> processors, boolean isSuccessExpected) throws IOException
+	{
+		JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+		StandardJavaFileManager fileManager = javac.getStandardFileManager(null, null, null);
+		fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(mOutputDir));
+		fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singleton(mOutputDir));
+
+		List<String> allOptions = new ArrayList<>(options);
+		allOptions.add("-proc:only");
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		JavaCompiler.CompilationTask task = javac.getTask(null, fileManager, diagnostics, allOptions, null, sources);
+		task.setProcessors(processors);
+
+		assertEquals(diagnostics.getDiagnostics().toString(), isSuccessExpected, task.call());
+
+		return diagnostics;
+	}
+
+	private String read(String path) throws IOException
+	{
+		return Files.toString(new File(mOutputDir, path), Charset.forName("UTF-8"));
+	}
+
+	/**
+	 * Generates presenter at its first call, so it is processed by {@link MvpCompiler} at next round
+	 */
+	private static class LatePresenterProcessor extends AbstractProcessor
+	{
+		private boolean mGenerated;
+
+		@Override
+		public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+		{
+			if (mGenerated)
+			{
+				return false;
+			}
+			mGenerated = true;
+
+			try
+			{
+				Writer writer = processingEnv.getFiler().createSourceFile("presenter.LatePresenter").openWriter();
+				writer.write("package presenter;\n" +
+						"\n" +
+						"@com.arellomobile.mvp.InjectViewState\n" +
+						"public class LatePresenter extends com.arellomobile.mvp.MvpPresenter<view.PositiveViewStateView>\n" +
+						"{\n" +
+						"}\n");
+				writer.close();
+			}
+			catch (IOException e)
+			{
+				throw new IllegalStateException(e);
+			}
+
+			return false;
+		}
+
+		@Override
+		public Set<String> getSupportedAnnotationTypes()
+		{
+			return ImmutableSet.of("*");
+		}
+
+		@Override
+		public SourceVersion getSupportedSourceVersion()
+		{
+			return SourceVersion.latestSupported();
+		}
+	}
+}
@@ -2,6 +2,7 @@ package com.arellomobile.mvp.factory;
 
 import com.arellomobile.mvp.MvpPresenter;
 import com.arellomobile.mvp.PresenterFactory;
+import com.arellomobile.mvp.PresenterKey;
 
 /**
  * Date: 08.02.2016
@@ -32,8 +33,8 @@ public class MockPresenterFactory implements PresenterFactory<MvpPresenter<?>, S
 	}
 
 	@Override
-	public String createTag(final Class<MvpPresenter<?>> aClass, final String s)
+	public PresenterKey createKey(final Class<MvpPresenter<?>> aClass, final String s)
 	{
-		return s;
+		return PresenterKey.of(s);
 	}
 }
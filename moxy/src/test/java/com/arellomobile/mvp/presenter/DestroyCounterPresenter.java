@@ -0,0 +1,18 @@
+package com.arellomobile.mvp.presenter;
+
+/**
+ * Date: 18.10.2026
+ * Time: 18:02
+ *
+ * @author agent
+ */
+public class DestroyCounterPresenter extends NoViewStatePresenter
+{
+	public int mDestroyCount;
+
+	@Override
+	public void onDestroy()
+	{
+		mDestroyCount++;
+	}
+}
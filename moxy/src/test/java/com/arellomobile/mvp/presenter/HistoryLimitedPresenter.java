@@ -0,0 +1,16 @@
+package com.arellomobile.mvp.presenter;
+
+import com.arellomobile.mvp.InjectViewState;
+import com.arellomobile.mvp.MvpPresenter;
+import com.arellomobile.mvp.view.HistoryLimitedView;
+
+/**
+ * Date: 18.10.2026
+ * Time: 11:42
+ *
+ * @author agent
+ */
+@InjectViewState
+public class HistoryLimitedPresenter extends MvpPresenter<HistoryLimitedView>
+{
+}
@@ -0,0 +1,20 @@
+package com.arellomobile.mvp.presenter;
+
+import com.arellomobile.mvp.InjectViewState;
+import com.arellomobile.mvp.MvpPresenter;
+import com.arellomobile.mvp.view.PersistentView;
+
+/**
+ * Date: 18.10.2026
+ * Time: 21:45
+ *
+ * @author agent
+ */
+@InjectViewState
+public class PersistentPresenter extends MvpPresenter<PersistentView>
+{
+	public boolean isRestored()
+	{
+		return isViewStateRestored();
+	}
+}
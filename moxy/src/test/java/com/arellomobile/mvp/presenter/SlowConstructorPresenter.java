@@ -0,0 +1,30 @@
+package com.arellomobile.mvp.presenter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:40
+ * <p>
+ * Counts its instances. Construction is slow, so concurrent requests of the same presenter meet during it
+ *
+ * @author agent
+ */
+public class SlowConstructorPresenter extends NoViewStatePresenter
+{
+	public static final AtomicInteger sCreatedCount = new AtomicInteger();
+
+	public SlowConstructorPresenter()
+	{
+		sCreatedCount.incrementAndGet();
+
+		try
+		{
+			Thread.sleep(50);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,277 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 12:50
+ *
+ * @author agent
+ */
+public class CommandHistoryTest
+{
+	private final TestCommand mFirst = new TestCommand();
+	private final TestCommand mSecond = new TestCommand();
+
+	@Test
+	public void removeByCommand()
+	{
+		checkRemoveByCommand(0);
+	}
+
+	@Test
+	public void removeByCommandFromLongHistory()
+	{
+		// long history is indexed by command
+		checkRemoveByCommand(100);
+	}
+
+	private void checkRemoveByCommand(int otherCommands)
+	{
+		CommandHistory<MvpView> history = new CommandHistory<>();
+		List<Pair<ViewCommand<MvpView>, Object>> others = new ArrayList<>();
+		for (int i = 0; i < otherCommands; i++)
+		{
+			others.add(add(history, new TestCommand(), i));
+		}
+
+		Pair<ViewCommand<MvpView>, Object> first1 = add(history, mFirst, 1);
+		Pair<ViewCommand<MvpView>, Object> second = add(history, mSecond, 2);
+		Pair<ViewCommand<MvpView>, Object> first3 = add(history, mFirst, 3);
+		Pair<ViewCommand<MvpView>, Object> first4 = add(history, mFirst, 4);
+
+		assertEquals(3, history.countOf(mFirst));
+		assertSame(first1, history.removeFirstOf(mFirst));
+		assertSame(first4, history.removeLastOf(mFirst));
+		assertEquals(concat(others, second, first3), history);
+
+		assertEquals(1, history.removeAllOf(mFirst));
+		assertFalse(history.containsCommand(mFirst));
+		assertNull(history.removeFirstOf(mFirst));
+		assertEquals(concat(others, second), history);
+	}
+
+	@Test
+	public void iteratorKeepsCommandIndex()
+	{
+		CommandHistory<MvpView> history = new CommandHistory<>();
+		for (int i = 0; i < 100; i++)
+		{
+			add(history, new TestCommand(), i);
+		}
+		add(history, mFirst, 1);
+		add(history, mFirst, 2);
+		// build index
+		history.countOf(mFirst);
+
+		ListIterator<Pair<ViewCommand<MvpView>, Object>> iterator = history.listIterator(100);
+		iterator.next();
+		Pair<ViewCommand<MvpView>, Object> inserted = Pair.<ViewCommand<MvpView>, Object>create(mFirst, 0);
+		iterator.add(inserted);
+		iterator.next();
+		iterator.set(Pair.<ViewCommand<MvpView>, Object>create(mSecond, 2));
+
+		assertSame("Inserted entry should be linked between entries of same command", inserted, history.removeLastOf(mFirst));
+		assertEquals(102, history.countOfTag("test"));
+		assertEquals(1, history.countOf(mSecond));
+		assertEquals(1, history.countOf(mFirst));
+	}
+
+	@Test
+	public void sameOrderAsList()
+	{
+		checkSameOrderAsList(5);
+	}
+
+	@Test
+	public void sameOrderAsListForLongHistory()
+	{
+		checkSameOrderAsList(50);
+	}
+
+	private static void checkSameOrderAsList(int commandsCount)
+	{
+		Random random = new Random(42);
+		TestCommand[] commands = new TestCommand[commandsCount];
+		for (int i = 0; i < commands.length; i++)
+		{
+			commands[i] = new TestCommand("tag" + i % 3);
+		}
+
+		CommandHistory<MvpView> history = new CommandHistory<>();
+		List<Pair<ViewCommand<MvpView>, Object>> expected = new ArrayList<>();
+		StateStrategy addToEndSingle = new AddToEndSingleStrategy();
+		StateStrategy addToEnd = new AddToEndStrategy();
+
+		for (int i = 0; i < 10000; i++)
+		{
+			Pair<ViewCommand<MvpView>, Object> entry = Pair.<ViewCommand<MvpView>, Object>create(commands[random.nextInt(commands.length)], i);
+
+			switch (random.nextInt(10))
+			{
+				case 0:
+					addToEnd.beforeApply(history, entry);
+					addToEnd.beforeApply(expected, entry);
+					break;
+				case 1:
+				case 2:
+				case 3:
+					addToEndSingle.beforeApply(history, entry);
+					// plain list is handled by scan
+					addToEndSingle.beforeApply(expected, entry);
+					break;
+				case 4:
+					removeOldest(history, expected, random.nextInt(3));
+					break;
+				case 5:
+					history.removeAllOf(entry.first);
+					removeAll(expected, entry.first);
+					break;
+				case 6:
+					history.removeAllOfTag(entry.first.getTag());
+					removeAllOfTag(expected, entry.first.getTag());
+					break;
+				case 7:
+					assertEquals(countOfTag(expected, entry.first.getTag()), history.countOfTag(entry.first.getTag()));
+					break;
+				default:
+					assertEquals(countOf(expected, entry.first), history.countOf(entry.first));
+			}
+
+			assertEquals(expected, history);
+		}
+
+		assertTrue(expected.size() > 0);
+	}
+
+	private static void removeOldest(List<Pair<ViewCommand<MvpView>, Object>> history, List<Pair<ViewCommand<MvpView>, Object>> expected, int count)
+	{
+		for (int i = 0; i < count && !expected.isEmpty(); i++)
+		{
+			Iterator<Pair<ViewCommand<MvpView>, Object>> iterator = history.iterator();
+			iterator.next();
+			iterator.remove();
+			expected.remove(0);
+		}
+	}
+
+	private static int countOf(List<Pair<ViewCommand<MvpView>, Object>> list, ViewCommand<MvpView> command)
+	{
+		int count = 0;
+		for (Pair<ViewCommand<MvpView>, Object> entry : list)
+		{
+			if (entry.first == command)
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static int countOfTag(List<Pair<ViewCommand<MvpView>, Object>> list, String tag)
+	{
+		int count = 0;
+		for (Pair<ViewCommand<MvpView>, Object> entry : list)
+		{
+			if (entry.first.getTag().equals(tag))
+			{
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static void removeAllOfTag(List<Pair<ViewCommand<MvpView>, Object>> list, String tag)
+	{
+		Iterator<Pair<ViewCommand<MvpView>, Object>> iterator = list.iterator();
+		while (iterator.hasNext())
+		{
+			if (iterator.next().first.getTag().equals(tag))
+			{
+				iterator.remove();
+			}
+		}
+	}
+
+	private static void removeAll(List<Pair<ViewCommand<MvpView>, Object>> list, ViewCommand<MvpView> command)
+	{
+		Iterator<Pair<ViewCommand<MvpView>, Object>> iterator = list.iterator();
+		while (iterator.hasNext())
+		{
+			if (iterator.next().first == command)
+			{
+				iterator.remove();
+			}
+		}
+	}
+
+	private static Pair<ViewCommand<MvpView>, Object> add(CommandHistory<MvpView> history, ViewCommand<MvpView> command, Object params)
+	{
+		Pair<ViewCommand<MvpView>, Object> entry = Pair.create(command, params);
+		history.add(entry);
+		return entry;
+	}
+
+	@SafeVarargs
+	private static List<Pair<ViewCommand<MvpView>, Object>> concat(List<Pair<ViewCommand<MvpView>, Object>> head, Pair<ViewCommand<MvpView>, Object>... entries)
+	{
+		List<Pair<ViewCommand<MvpView>, Object>> list = new ArrayList<>(head);
+		for (Pair<ViewCommand<MvpView>, Object> entry : entries)
+		{
+			list.add(entry);
+		}
+		return list;
+	}
+
+	private static class TestCommand implements ViewCommand<MvpView>
+	{
+		private final String mTag;
+
+		private TestCommand()
+		{
+			this("test");
+		}
+
+		private TestCommand(String tag)
+		{
+			mTag = tag;
+		}
+
+		@Override
+		public void apply(MvpView view, Object params)
+		{
+		}
+
+		@Override
+		public Class<? extends StateStrategy> getStrategyType()
+		{
+			return AddToEndStrategy.class;
+		}
+
+		@Override
+		public String getTag()
+		{
+			return mTag;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.arellomobile.mvp.MvpFacade;
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.ViewCommands;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleTagStrategy;
+import com.arellomobile.mvp.viewstate.strategy.RecordStateStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategyAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 16:20
+ *
+ * @author agent
+ */
+public class CommandRecordTest
+{
+	@Before
+	public void setup()
+	{
+		RecordingStrategy.sRecords.clear();
+	}
+
+	@Test
+	public void sameRecordIsPassedToStrategy()
+	{
+		RecordingStrategy strategy = new RecordingStrategy();
+		ViewCommands<MvpView> viewCommands = new ViewCommands<>();
+		TestCommand command = new TestCommand(strategy, "test");
+
+		CommandRecord<MvpView> record = viewCommands.beforeApply(command, 1);
+		viewCommands.afterApply(record);
+		viewCommands.reapply(null);
+
+		assertEquals(3, RecordingStrategy.sRecords.size());
+		for (Pair<?, ?> passed : RecordingStrategy.sRecords)
+		{
+			assertSame("Record should be reused by before apply, after apply and replay", record, passed);
+		}
+	}
+
+	@Test
+	public void legacyStrategyIsAdapted()
+	{
+		RecordingStrategy strategy = new RecordingStrategy();
+		ViewCommands<MvpView> viewCommands = new ViewCommands<>();
+		TestCommand command = new TestCommand(strategy, "test");
+
+		viewCommands.beforeApply(command, 1);
+		viewCommands.beforeApply(command, 2);
+		viewCommands.reapply(null);
+
+		assertEquals(2, viewCommands.size());
+		assertEquals(4, RecordingStrategy.sRecords.size());
+		assertTrue("Legacy strategy should receive records as pairs", RecordingStrategy.sRecords.get(0) instanceof CommandRecord);
+
+		RecordStateStrategy adapter = MvpFacade.getInstance().getStateStrategyStore().getRecordStateStrategy(strategy);
+		assertSame(strategy, ((StateStrategyAdapter) adapter).getStateStrategy());
+	}
+
+	@Test
+	public void recordTagIsUsedByTagStrategy()
+	{
+		AddToEndSingleTagStrategy strategy = new AddToEndSingleTagStrategy();
+		CommandHistory<MvpView> history = new CommandHistory<>();
+		TestCommand first = new TestCommand(strategy, "first");
+		TestCommand second = new TestCommand(strategy, "second");
+
+		strategy.beforeApply(history, new CommandRecord<>(first, 1, "shared"));
+		strategy.beforeApply(history, new CommandRecord<>(second, 2));
+		strategy.beforeApply(history, new CommandRecord<>(second, 3, "shared"));
+
+		assertEquals(2, history.size());
+		assertEquals(1, history.countOfTag("shared"));
+		assertEquals(3, history.get(1).second);
+	}
+
+	@Test
+	public void recordStrategyWorksWithPlainList()
+	{
+		StateStrategy strategy = new AddToEndSingleStrategy();
+		List<Pair<ViewCommand<MvpView>, Object>> history = new ArrayList<>();
+		TestCommand first = new TestCommand(strategy, "test");
+		TestCommand second = new TestCommand(strategy, "test");
+
+		strategy.beforeApply(history, Pair.<ViewCommand<MvpView>, Object>create(first, 1));
+		strategy.beforeApply(history, Pair.<ViewCommand<MvpView>, Object>create(second, 2));
+		strategy.beforeApply(history, Pair.<ViewCommand<MvpView>, Object>create(first, 3));
+
+		assertEquals(2, history.size());
+		assertSame(second, history.get(0).first);
+		assertEquals(3, history.get(1).second);
+	}
+
+	@Test
+	public void overriddenMethodOfBuiltInStrategyIsCalled()
+	{
+		ViewCommands<MvpView> viewCommands = new ViewCommands<>();
+		TestCommand command = new TestCommand(new RecordingSingleStrategy(), "test");
+
+		viewCommands.beforeApply(command, 1);
+		viewCommands.beforeApply(command, 2);
+
+		assertEquals(2, RecordingStrategy.sRecords.size());
+		assertEquals("Behaviour of built-in strategy should be kept", 1, viewCommands.size());
+	}
+
+	/**
+	 * Subclass of built-in strategy, which overrides method of {@link StateStrategy}
+	 */
+	public static class RecordingSingleStrategy extends AddToEndSingleStrategy
+	{
+		@Override
+		public <View extends MvpView> void beforeApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+		{
+			RecordingStrategy.sRecords.add(incomingState);
+			super.beforeApply(currentState, incomingState);
+		}
+	}
+
+	/**
+	 * View state creates own instance of custom strategy, so records are collected to static list
+	 */
+	public static class RecordingStrategy implements StateStrategy
+	{
+		private static final List<Pair<?, ?>> sRecords = new ArrayList<>();
+
+		@Override
+		public <View extends MvpView> void beforeApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+		{
+			sRecords.add(incomingState);
+			currentState.add(incomingState);
+		}
+
+		@Override
+		public <View extends MvpView> void afterApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+		{
+			sRecords.add(incomingState);
+		}
+	}
+
+	private static class TestCommand implements ViewCommand<MvpView>
+	{
+		private final StateStrategy mStrategy;
+		private final String mTag;
+
+		private TestCommand(StateStrategy strategy, String tag)
+		{
+			mStrategy = strategy;
+			mTag = tag;
+		}
+
+		@Override
+		public void apply(MvpView view, Object params)
+		{
+		}
+
+		@Override
+		public Class<? extends StateStrategy> getStrategyType()
+		{
+			return mStrategy.getClass();
+		}
+
+		@Override
+		public String getTag()
+		{
+			return mTag;
+		}
+	}
+}
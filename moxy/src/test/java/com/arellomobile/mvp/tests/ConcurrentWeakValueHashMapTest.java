@@ -0,0 +1,179 @@
+package com.arellomobile.mvp.tests;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.arellomobile.mvp.ConcurrentWeakValueHashMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 20:05
+ *
+ * @author agent
+ */
+public class ConcurrentWeakValueHashMapTest
+{
+	@Test
+	public void putGetRemove()
+	{
+		ConcurrentWeakValueHashMap<String, Object> map = new ConcurrentWeakValueHashMap<>();
+		Object first = new Object();
+		Object second = new Object();
+
+		assertNull(map.put("key", first));
+		assertSame(first, map.get("key"));
+		assertSame("Put should return previous value", first, map.put("key", second));
+		assertSame(second, map.putIfAbsent("key", first));
+		assertFalse("Entry should not be removed by other value", map.remove("key", first));
+		assertSame(second, map.remove("key"));
+		assertNull(map.get("key"));
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	public void collectedValuesDisappear()
+	{
+		ConcurrentWeakValueHashMap<String, Object> map = new ConcurrentWeakValueHashMap<>();
+		Object strongValue = new Object();
+
+		map.put("strong", strongValue);
+		WeakReference<Object> weakValue = putGarbage(map, "weak");
+
+		awaitCollection(weakValue);
+
+		assertNull("Collected value should not be returned", map.get("weak"));
+		assertEquals("Entry of collected value should be removed", 1, map.size());
+		assertSame(strongValue, map.get("strong"));
+	}
+
+	@Test
+	public void staleReferenceDoesNotRemoveNewValue()
+	{
+		ConcurrentWeakValueHashMap<String, Object> map = new ConcurrentWeakValueHashMap<>();
+
+		WeakReference<Object> weakValue = putGarbage(map, "key");
+		Object newValue = new Object();
+		map.put("key", newValue);
+
+		awaitCollection(weakValue);
+		map.expungeStaleEntries();
+
+		assertSame("Value put after collected one should stay in map", newValue, map.get("key"));
+	}
+
+	@Test
+	public void iterationIsLiveView()
+	{
+		ConcurrentWeakValueHashMap<String, Object> map = new ConcurrentWeakValueHashMap<>();
+		List<Object> values = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+		{
+			Object value = new Object();
+			values.add(value);
+			map.put("key" + i, value);
+		}
+
+		assertSame("Entry set should be view, not copy", map.entrySet(), map.entrySet());
+
+		Iterator<Map.Entry<String, Object>> iterator = map.entrySet().iterator();
+		while (iterator.hasNext())
+		{
+			Map.Entry<String, Object> entry = iterator.next();
+			assertNotNull(entry.getValue());
+
+			if (!entry.getKey().equals("key0"))
+			{
+				iterator.remove();
+			}
+		}
+
+		assertEquals("Iterator should remove entries from map", 1, map.size());
+		assertSame(values.get(0), map.values().iterator().next());
+	}
+
+	@Test
+	public void concurrentPutIfAbsentKeepsSingleValue() throws Exception
+	{
+		final ConcurrentWeakValueHashMap<Integer, Object> map = new ConcurrentWeakValueHashMap<>();
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		try
+		{
+			List<Future<Object>> futures = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++)
+			{
+				futures.add(executor.submit(new Callable<Object>()
+				{
+					@Override
+					public Object call() throws Exception
+					{
+						start.await();
+
+						Object value = new Object();
+						Object existingValue = map.putIfAbsent(0, value);
+
+						return existingValue != null ? existingValue : value;
+					}
+				}));
+			}
+
+			start.countDown();
+
+			Object value = futures.get(0).get(30, TimeUnit.SECONDS);
+			for (Future<Object> future : futures)
+			{
+				assertSame("All threads should see same value", value, future.get(30, TimeUnit.SECONDS));
+			}
+			assertSame(value, map.get(0));
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	private static WeakReference<Object> putGarbage(Map<String, Object> map, String key)
+	{
+		Object value = new Object();
+		map.put(key, value);
+
+		return new WeakReference<>(value);
+	}
+
+	private static void awaitCollection(WeakReference<Object> reference)
+	{
+		for (int i = 0; i < 100 && reference.get() != null; i++)
+		{
+			System.gc();
+			//noinspection EmptyCatchBlock
+			try
+			{
+				Thread.sleep(10);
+			}
+			catch (InterruptedException e)
+			{
+			}
+		}
+
+		assertTrue("Value is not collected", reference.get() == null);
+	}
+}
@@ -0,0 +1,315 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.view.ProgressView;
+import com.arellomobile.mvp.view.ProgressView$$State;
+import com.arellomobile.mvp.viewstate.CommandRecord;
+import com.arellomobile.mvp.viewstate.MvpViewState;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.dispatch.ManualFrameScheduler;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 17:50
+ *
+ * @author agent
+ */
+public class FrameDispatchTest
+{
+	private ManualFrameScheduler mFrameScheduler;
+	private ProgressView$$State mViewState;
+	private RecordingProgressView mView;
+
+	@Before
+	public void setup()
+	{
+		mFrameScheduler = new ManualFrameScheduler();
+		mViewState = new ProgressView$$State();
+		mViewState.setFrameScheduler(mFrameScheduler);
+		mView = new RecordingProgressView();
+		mViewState.attachView(mView);
+	}
+
+	@Test
+	public void commandsAreDeliveredInFrame()
+	{
+		mViewState.showMessage("first");
+		mViewState.showMessage("second");
+
+		assertTrue("Commands should wait for frame", mView.mCalls.isEmpty());
+		assertEquals("Frame should be scheduled once per batch", 1, mFrameScheduler.getScheduledFramesCount());
+
+		assertEquals(1, mFrameScheduler.runFrames());
+		assertEquals(Arrays.asList("message:first", "message:second"), mView.mCalls);
+	}
+
+	@Test
+	public void sameCommandIsCoalesced()
+	{
+		for (int i = 0; i < 50; i++)
+		{
+			mViewState.setProgress(i);
+		}
+		mViewState.showMessage("done");
+		mViewState.setProgress(100);
+
+		mFrameScheduler.runFrames();
+
+		assertEquals(Arrays.asList("message:done", "progress:100"), mView.mCalls);
+	}
+
+	@Test
+	public void sameTagIsCoalesced()
+	{
+		mViewState.showProgress();
+		mViewState.showError("error");
+		mViewState.showContent("content");
+		mViewState.hideLoading();
+		mViewState.showContent("other");
+
+		mFrameScheduler.runFrames();
+
+		assertEquals(Collections.singletonList("content:other"), mView.mCalls);
+	}
+
+	@Test
+	public void singleStateDropsBatch()
+	{
+		mViewState.setProgress(1);
+		mViewState.showMessage("message");
+		mViewState.reset();
+		mViewState.setProgress(2);
+
+		mFrameScheduler.runFrames();
+
+		assertEquals(Arrays.asList("reset", "progress:2"), mView.mCalls);
+	}
+
+	@Test
+	public void commandsAreRecordedImmediately()
+	{
+		mViewState.setProgress(1);
+		mViewState.setProgress(2);
+
+		RecordingProgressView newView = new RecordingProgressView();
+		mViewState.attachView(newView);
+
+		assertEquals("Pending commands should be delivered before new view is attached", Collections.singletonList("progress:2"), mView.mCalls);
+		assertEquals(Collections.singletonList("progress:2"), newView.mCalls);
+
+		mFrameScheduler.runFrames();
+		assertEquals("Pending command should not be delivered twice", 1, mView.mCalls.size());
+		assertEquals(1, newView.mCalls.size());
+	}
+
+	@Test
+	public void commandsSentInFrameWaitForNextFrame()
+	{
+		mViewState.showMessage("first");
+		mView.mOnMessage = new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				mView.mOnMessage = null;
+				mViewState.showMessage("second");
+			}
+		};
+
+		mFrameScheduler.runFrames();
+		assertEquals(Collections.singletonList("message:first"), mView.mCalls);
+
+		mFrameScheduler.runFrames();
+		assertEquals(Arrays.asList("message:first", "message:second"), mView.mCalls);
+	}
+
+	@Test
+	public void detachedViewIsSkipped()
+	{
+		mViewState.setProgress(1);
+		mViewState.detachView(mView);
+
+		mFrameScheduler.runFrames();
+
+		assertTrue(mView.mCalls.isEmpty());
+	}
+
+	@Test
+	public void removedSchedulerFlushesBatch()
+	{
+		mViewState.setProgress(1);
+		mViewState.setFrameScheduler(null);
+
+		assertNull(mViewState.getFrameScheduler());
+		assertEquals(Collections.singletonList("progress:1"), mView.mCalls);
+
+		mViewState.setProgress(2);
+		assertEquals(Arrays.asList("progress:1", "progress:2"), mView.mCalls);
+
+		mFrameScheduler.runFrames();
+		assertEquals(2, mView.mCalls.size());
+	}
+
+	@Test
+	public void subclassOfBuiltInStrategyIsNotCoalesced()
+	{
+		final List<Object> calls = new ArrayList<>();
+		LogViewState viewState = new LogViewState();
+		viewState.setFrameScheduler(mFrameScheduler);
+		viewState.attachView(new LogView()
+		{
+			@Override
+			public void log(Object line)
+			{
+				calls.add(line);
+			}
+		});
+
+		viewState.log(1);
+		viewState.log(2);
+
+		mFrameScheduler.runFrames();
+
+		assertEquals(Arrays.<Object>asList(1, 2), calls);
+	}
+
+	@Test
+	public void schedulerIsReturned()
+	{
+		assertSame(mFrameScheduler, mViewState.getFrameScheduler());
+	}
+
+	/**
+	 * Keeps all calls, though it extends {@link AddToEndSingleStrategy}
+	 */
+	public static class KeepAllStrategy extends AddToEndSingleStrategy
+	{
+		@Override
+		public <View extends MvpView> void beforeApply(CommandHistory<View> history, CommandRecord<View> incoming)
+		{
+			history.add(incoming);
+		}
+	}
+
+	private interface LogView extends MvpView
+	{
+		void log(Object line);
+	}
+
+	private enum LogCommand implements ViewCommand<LogView>
+	{
+		INSTANCE;
+
+		@Override
+		public void apply(LogView view, Object params)
+		{
+			view.log(params);
+		}
+
+		@Override
+		public Class<? extends StateStrategy> getStrategyType()
+		{
+			return KeepAllStrategy.class;
+		}
+
+		@Override
+		public String getTag()
+		{
+			return null;
+		}
+	}
+
+	private static class LogViewState extends MvpViewState<LogView>
+	{
+		void log(Object line)
+		{
+			CommandRecord<LogView> record = mViewCommands.beforeApply(LogCommand.INSTANCE, line);
+
+			if (mViews != null && !mViews.isEmpty())
+			{
+				dispatchInFrame(record);
+			}
+		}
+
+		@Override
+		protected void restoreState(LogView view)
+		{
+			mViewCommands.reapply(view);
+		}
+	}
+
+	private static class RecordingProgressView implements ProgressView
+	{
+		private final List<String> mCalls = new ArrayList<>();
+		private Runnable mOnMessage;
+
+		@Override
+		public void setProgress(int progress)
+		{
+			mCalls.add("progress:" + progress);
+		}
+
+		@Override
+		public void showMessage(String message)
+		{
+			mCalls.add("message:" + message);
+
+			if (mOnMessage != null)
+			{
+				mOnMessage.run();
+			}
+		}
+
+		@Override
+		public void reset()
+		{
+			mCalls.add("reset");
+		}
+
+		@Override
+		public void showTitle(String title)
+		{
+			mCalls.add(title);
+		}
+
+		@Override
+		public void showProgress()
+		{
+			mCalls.add("progress");
+		}
+
+		@Override
+		public void showError(String message)
+		{
+			mCalls.add("error:" + message);
+		}
+
+		@Override
+		public void showContent(String content)
+		{
+			mCalls.add("content:" + content);
+		}
+
+		@Override
+		public void hideLoading()
+		{
+			mCalls.add("hide");
+		}
+	}
+}
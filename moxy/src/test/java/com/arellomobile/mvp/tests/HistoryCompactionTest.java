@@ -0,0 +1,150 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.arellomobile.mvp.view.CompactedView;
+import com.arellomobile.mvp.view.CompactedView$$State;
+import com.arellomobile.mvp.view.ProgressView$$State;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:15
+ *
+ * @author agent
+ */
+public class HistoryCompactionTest
+{
+	@Test
+	public void lastCallOfEachKeyIsKept()
+	{
+		CompactedView$$State viewState = new CompactedView$$State();
+		viewState.setLabel(1, "a");
+		viewState.setLabel(2, "b");
+		viewState.log("log");
+		viewState.setLabel(1, "c");
+		viewState.setLabel(1, "d");
+
+		assertEquals(2, viewState.compactHistory());
+		assertEquals(Arrays.asList("label:2=b", "log:log", "label:1=d"), replay(viewState));
+	}
+
+	@Test
+	public void repeatedIdempotentCallsAreCollapsed()
+	{
+		CompactedView$$State viewState = new CompactedView$$State();
+		viewState.refresh();
+		viewState.refresh();
+		viewState.highlight("item", 0.5f, new int[]{1, 2});
+		viewState.highlight("item", 0.5f, new int[]{1, 2});
+		viewState.highlight("item", 0.5f, new int[]{1, 3});
+		viewState.highlight(null, 0.5f, null);
+		viewState.highlight(null, 0.5f, null);
+		viewState.refresh();
+
+		assertEquals(3, viewState.compactHistory());
+		assertEquals(Arrays.asList("refresh", "highlight:item,[1, 2]", "highlight:item,[1, 3]", "highlight:null,null", "refresh"), replay(viewState));
+	}
+
+	@Test
+	public void idempotentCallsAreCollapsedOnlyInRow()
+	{
+		CompactedView$$State viewState = new CompactedView$$State();
+		viewState.refresh();
+		viewState.log("log");
+		viewState.refresh();
+
+		assertEquals(0, viewState.compactHistory());
+		assertEquals(Arrays.asList("refresh", "log:log", "refresh"), replay(viewState));
+	}
+
+	@Test
+	public void historyIsCompactedWhenItGrows()
+	{
+		CompactedView$$State viewState = new CompactedView$$State();
+		for (int i = 0; i < 1000; i++)
+		{
+			viewState.setLabel(i % 4, "label" + i);
+		}
+
+		List<String> calls = replay(viewState);
+		assertTrue("History should be compacted incrementally, but was " + calls.size(), calls.size() < 64);
+		assertEquals("label:3=label999", calls.get(calls.size() - 1));
+	}
+
+	@Test
+	public void historyIsCompactedWhenLastViewIsDetached()
+	{
+		CompactedView$$State viewState = new CompactedView$$State();
+		RecordingCompactedView first = new RecordingCompactedView();
+		RecordingCompactedView second = new RecordingCompactedView();
+		viewState.attachView(first);
+		viewState.attachView(second);
+
+		viewState.setLabel(1, "a");
+		viewState.setLabel(1, "b");
+
+		viewState.detachView(first);
+		assertEquals("History should not be compacted while view is attached", 1, viewState.compactHistory());
+
+		viewState.setLabel(1, "c");
+		viewState.detachView(second);
+		assertEquals(0, viewState.compactHistory());
+		assertEquals(Collections.singletonList("label:1=c"), replay(viewState));
+	}
+
+	@Test
+	public void historyWithoutCompactionIsNotChanged()
+	{
+		ProgressView$$State viewState = new ProgressView$$State();
+		viewState.showMessage("message");
+		viewState.showMessage("message");
+
+		assertEquals(0, viewState.compactHistory());
+	}
+
+	private static List<String> replay(CompactedView$$State viewState)
+	{
+		RecordingCompactedView view = new RecordingCompactedView();
+		viewState.attachView(view);
+		viewState.detachView(view);
+
+		return view.mCalls;
+	}
+
+	private static class RecordingCompactedView implements CompactedView
+	{
+		private final List<String> mCalls = new ArrayList<>();
+
+		@Override
+		public void setLabel(int id, String label)
+		{
+			mCalls.add("label:" + id + "=" + label);
+		}
+
+		@Override
+		public void highlight(String item, float alpha, int[] path)
+		{
+			mCalls.add("highlight:" + item + "," + Arrays.toString(path));
+		}
+
+		@Override
+		public void refresh()
+		{
+			mCalls.add("refresh");
+		}
+
+		@Override
+		public void log(String message)
+		{
+			mCalls.add("log:" + message);
+		}
+	}
+}
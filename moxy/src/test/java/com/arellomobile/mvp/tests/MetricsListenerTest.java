@@ -0,0 +1,158 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.arellomobile.mvp.MvpDelegate;
+import com.arellomobile.mvp.MvpFacade;
+import com.arellomobile.mvp.MvpMetricsListener;
+import com.arellomobile.mvp.MvpPresenter;
+import com.arellomobile.mvp.presenter.PresenterType;
+import com.arellomobile.mvp.view.CounterTestView;
+import com.arellomobile.mvp.view.HierarchyChildView;
+import com.arellomobile.mvp.view.TestView$$State;
+import com.arellomobile.mvp.viewstate.MvpViewState;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:20
+ *
+ * @author agent
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class MetricsListenerTest
+{
+	private RecordingMetricsListener mMetricsListener;
+
+	@Before
+	public void setup()
+	{
+		mMetricsListener = new RecordingMetricsListener();
+		MvpFacade.setMetricsListener(mMetricsListener);
+	}
+
+	@After
+	public void tearDown()
+	{
+		MvpFacade.setMetricsListener(null);
+	}
+
+	@Test
+	public void delegateLifecycleReported()
+	{
+		HierarchyChildView view = new HierarchyChildView();
+		MvpDelegate<HierarchyChildView> delegate = new MvpDelegate<>(view);
+		delegate.onCreate(null);
+		delegate.onStart();
+		delegate.onStop();
+		delegate.onDestroy();
+
+		assertEquals("Each presenter of new delegate should be created", 2, count(mMetricsListener.mCreated, PresenterType.LOCAL));
+		assertEquals("Each created presenter should be added to store", 2, count(mMetricsListener.mAdded, PresenterType.LOCAL));
+		assertEquals("Each local presenter should be removed on destroy", 2, count(mMetricsListener.mRemoved, PresenterType.LOCAL));
+		assertEquals(1, mMetricsListener.mDelegatesCreated);
+	}
+
+	@Test
+	public void commandsReported()
+	{
+		TestView$$State viewState = new TestView$$State();
+		viewState.testEvent();
+		viewState.testEvent();
+		viewState.attachView(new CounterTestView());
+
+		assertEquals(2, count(mMetricsListener.mRecorded, AddToEndStrategy.class));
+		assertEquals(2, count(mMetricsListener.mReplayed, AddToEndStrategy.class));
+		assertTrue("Restore should be reported", mMetricsListener.mRestored.contains(TestView$$State.class));
+	}
+
+	@Test
+	public void removedListenerIsNotCalled()
+	{
+		MvpFacade.setMetricsListener(null);
+
+		new TestView$$State().testEvent();
+
+		assertTrue(mMetricsListener.mRecorded.isEmpty());
+	}
+
+	private static int count(List<?> events, Object event)
+	{
+		int count = 0;
+		for (Object e : events)
+		{
+			if (e == event)
+			{
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	private static class RecordingMetricsListener extends MvpMetricsListener
+	{
+		private final List<PresenterType> mCreated = new ArrayList<>();
+		private final List<PresenterType> mAdded = new ArrayList<>();
+		private final List<PresenterType> mRemoved = new ArrayList<>();
+		private final List<Class<?>> mRecorded = new ArrayList<>();
+		private final List<Class<?>> mReplayed = new ArrayList<>();
+		private final List<Class<?>> mRestored = new ArrayList<>();
+		private int mDelegatesCreated;
+
+		@Override
+		public void onPresenterCreated(PresenterType type, Class<? extends MvpPresenter<?>> presenterClass, long nanos)
+		{
+			mCreated.add(type);
+		}
+
+		@Override
+		public void onPresenterAdded(PresenterType type, Class<? extends MvpPresenter<?>> presenterClass)
+		{
+			mAdded.add(type);
+		}
+
+		@Override
+		public void onPresenterRemoved(PresenterType type, Class<? extends MvpPresenter<?>> presenterClass)
+		{
+			mRemoved.add(type);
+		}
+
+		@Override
+		public void onDelegateCreated(Class<?> delegatedClass, int presentersCount, long nanos)
+		{
+			mDelegatesCreated++;
+		}
+
+		@Override
+		public void onCommandRecorded(Class<? extends StateStrategy> strategyType)
+		{
+			mRecorded.add(strategyType);
+		}
+
+		@Override
+		public void onCommandReplayed(Class<? extends StateStrategy> strategyType)
+		{
+			mReplayed.add(strategyType);
+		}
+
+		@Override
+		public void onStateRestored(Class<? extends MvpViewState<?>> viewStateClass, long nanos)
+		{
+			mRestored.add(viewStateClass);
+		}
+	}
+}
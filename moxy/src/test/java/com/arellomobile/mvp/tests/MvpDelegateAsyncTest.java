@@ -0,0 +1,235 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.arellomobile.mvp.MvpDelegate;
+import com.arellomobile.mvp.factory.MockPresenterFactory;
+import com.arellomobile.mvp.params.MockParams2;
+import com.arellomobile.mvp.presenter.SlowConstructorPresenter;
+import com.arellomobile.mvp.view.DelegateLocalPresenterTestView;
+import com.arellomobile.mvp.view.GlobalTagTestView;
+import com.arellomobile.mvp.view.HierarchyChildView;
+import com.arellomobile.mvp.view.SlowConstructorTestView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 21:10
+ *
+ * @author agent
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class MvpDelegateAsyncTest
+{
+	@Test
+	public void presentersBoundAndAttachedWhenCreated()
+	{
+		QueueExecutor backgroundExecutor = new QueueExecutor();
+		QueueExecutor mainExecutor = new QueueExecutor();
+
+		HierarchyChildView view = new HierarchyChildView();
+		MvpDelegate<HierarchyChildView> delegate = new MvpDelegate<>(view);
+		delegate.onCreate(null, backgroundExecutor, mainExecutor);
+		delegate.onStart();
+
+		assertFalse("Presenters should not be created synchronously", delegate.isPresentersCreated());
+
+		backgroundExecutor.runAll();
+
+		assertNull("Presenter should not be bound outside of main executor", view.mChildPresenter);
+
+		mainExecutor.runAll();
+
+		assertTrue(delegate.isPresentersCreated());
+		assertNotNull("Presenter of base class is not injected", view.mBasePresenter);
+		assertNotNull("Presenter of child class is not injected", view.mChildPresenter);
+		assertTrue("Started view should be attached to created presenter", view.mChildPresenter.getAttachedViews().contains(view));
+
+		delegate.onStop();
+		delegate.onDestroy();
+
+		assertFalse(view.mChildPresenter.getAttachedViews().contains(view));
+	}
+
+	@Test
+	public void destroyedDelegateIsNotBound()
+	{
+		QueueExecutor backgroundExecutor = new QueueExecutor();
+		QueueExecutor mainExecutor = new QueueExecutor();
+
+		HierarchyChildView view = new HierarchyChildView();
+		MvpDelegate<HierarchyChildView> delegate = new MvpDelegate<>(view);
+		delegate.onCreate(null, backgroundExecutor, mainExecutor);
+		delegate.onStart();
+		delegate.onStop();
+		delegate.onDestroy();
+
+		backgroundExecutor.runAll();
+		mainExecutor.runAll();
+
+		assertFalse(delegate.isPresentersCreated());
+		assertNull("Presenter should not be bound to destroyed view", view.mChildPresenter);
+	}
+
+	@Test
+	public void concurrentDelegatesShareGlobalPresenter() throws Exception
+	{
+		ExecutorService backgroundExecutor = Executors.newFixedThreadPool(4);
+		QueueExecutor mainExecutor = new QueueExecutor();
+
+		try
+		{
+			List<GlobalTagTestView> views = new ArrayList<>();
+			for (int i = 0; i < 8; i++)
+			{
+				GlobalTagTestView view = new GlobalTagTestView();
+				views.add(view);
+
+				new MvpDelegate<>(view).onCreate(null, backgroundExecutor, mainExecutor);
+			}
+
+			mainExecutor.await(views.size());
+
+			for (GlobalTagTestView view : views)
+			{
+				assertNotNull("Presenter is not injected", view.mPresenter);
+				assertSame("Views should share global presenter", views.get(0).mPresenter, view.mPresenter);
+			}
+		}
+		finally
+		{
+			backgroundExecutor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void concurrentDelegatesCreatePresenterOnce() throws Exception
+	{
+		ExecutorService backgroundExecutor = Executors.newFixedThreadPool(4);
+		QueueExecutor mainExecutor = new QueueExecutor();
+
+		try
+		{
+			SlowConstructorPresenter.sCreatedCount.set(0);
+
+			List<SlowConstructorTestView> views = new ArrayList<>();
+			for (int i = 0; i < 8; i++)
+			{
+				SlowConstructorTestView view = new SlowConstructorTestView();
+				views.add(view);
+
+				new MvpDelegate<>(view).onCreate(null, backgroundExecutor, mainExecutor);
+			}
+
+			mainExecutor.await(views.size());
+
+			assertEquals("Presenter should be constructed once for key", 1, SlowConstructorPresenter.sCreatedCount.get());
+			for (SlowConstructorTestView view : views)
+			{
+				assertSame("Views should share global presenter", views.get(0).mPresenter, view.mPresenter);
+			}
+		}
+		finally
+		{
+			backgroundExecutor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void paramsProvidedOnCallingThread() throws Exception
+	{
+		ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor();
+		QueueExecutor mainExecutor = new QueueExecutor();
+
+		ParamsThreadView view = new ParamsThreadView();
+
+		try
+		{
+			new MvpDelegate<>(view).onCreate(null, backgroundExecutor, mainExecutor);
+
+			assertEquals(1, view.mParamsThreads.size());
+			assertSame("Params should be provided by view on calling thread", Thread.currentThread(), view.mParamsThreads.get(0));
+
+			mainExecutor.await(1);
+
+			assertNotNull("Presenter is not injected", view.mInjectViewStatePresenter);
+		}
+		finally
+		{
+			backgroundExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Remembers threads, which request params. Implements both params providers of {@link MockPresenterFactory}
+	 */
+	private static class ParamsThreadView extends DelegateLocalPresenterTestView implements MockParams2
+	{
+		final List<Thread> mParamsThreads = new ArrayList<>();
+
+		@Override
+		public String mockParams(String presenterId)
+		{
+			mParamsThreads.add(Thread.currentThread());
+			return super.mockParams(presenterId);
+		}
+
+		@Override
+		public String mockParams2(String presenterId)
+		{
+			return mockParams(presenterId);
+		}
+	}
+
+	/**
+	 * Collects tasks, which are executed by test thread
+	 */
+	private static class QueueExecutor implements Executor
+	{
+		private final LinkedBlockingQueue<Runnable> mTasks = new LinkedBlockingQueue<>();
+
+		@Override
+		public void execute(Runnable command)
+		{
+			mTasks.add(command);
+		}
+
+		void runAll()
+		{
+			Runnable task;
+			while ((task = mTasks.poll()) != null)
+			{
+				task.run();
+			}
+		}
+
+		void await(int count) throws InterruptedException
+		{
+			for (int i = 0; i < count; i++)
+			{
+				Runnable task = mTasks.poll(30, TimeUnit.SECONDS);
+				assertNotNull("Main executor didn't get all tasks", task);
+
+				task.run();
+			}
+		}
+	}
+}
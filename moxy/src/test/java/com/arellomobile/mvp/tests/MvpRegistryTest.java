@@ -0,0 +1,46 @@
+package com.arellomobile.mvp.tests;
+
+import com.arellomobile.mvp.MvpFacade;
+import com.arellomobile.mvp.MvpRegistry;
+import com.arellomobile.mvp.presenter.InjectViewStatePresenter;
+import com.arellomobile.mvp.presenter.NoViewStatePresenter;
+import com.arellomobile.mvp.view.HierarchyChildView;
+import com.arellomobile.mvp.view.HierarchyMiddleView;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Date: 18.10.2026
+ * Time: 12:48
+ *
+ * @author agent
+ */
+public class MvpRegistryTest
+{
+	@Test
+	public void generatedRegistryLoaded()
+	{
+		assertNotNull("Generated registry is not loaded", MvpFacade.getInstance().getRegistry());
+	}
+
+	@Test
+	public void registryContainsPresentersContainers()
+	{
+		MvpRegistry registry = MvpFacade.getInstance().getRegistry();
+
+		assertNotNull("Registry has no binder for presenters container", registry.getPresenterBinder(HierarchyChildView.class));
+		assertNull("Registry has binder for class without presenters", registry.getPresenterBinder(HierarchyMiddleView.class));
+	}
+
+	@Test
+	public void registryContainsViewStateProviders()
+	{
+		MvpRegistry registry = MvpFacade.getInstance().getRegistry();
+
+		assertNotNull("Registry has no view state provider for presenter", registry.getViewStateProvider(InjectViewStatePresenter.class));
+		assertNull("Registry has view state provider for presenter without view state", registry.getViewStateProvider(NoViewStatePresenter.class));
+	}
+}
@@ -0,0 +1,288 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import android.os.Bundle;
+
+import com.arellomobile.mvp.MvpDelegate;
+import com.arellomobile.mvp.MvpFacade;
+import com.arellomobile.mvp.PresenterKey;
+import com.arellomobile.mvp.presenter.PresenterType;
+import com.arellomobile.mvp.view.PersistentView;
+import com.arellomobile.mvp.view.PersistentView$$State;
+import com.arellomobile.mvp.view.ProgressView$$State;
+import com.arellomobile.mvp.view.RecordingPersistentView;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.history.DropOldestEvictionPolicy;
+import com.arellomobile.mvp.viewstate.history.EvictionListener;
+import com.arellomobile.mvp.viewstate.history.MaxBytesEvictionPolicy;
+import com.arellomobile.mvp.viewstate.persistence.CommandReader;
+import com.arellomobile.mvp.viewstate.persistence.CommandWriter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 21:50
+ *
+ * @author agent
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PersistentStateTest
+{
+	@Test
+	public void historyIsRestored()
+	{
+		PersistentView$$State viewState = fillViewState();
+		RecordingPersistentView view = new RecordingPersistentView();
+		viewState.attachView(view);
+
+		PersistentView$$State restoredViewState = new PersistentView$$State();
+		assertTrue(restoredViewState.restoreHistory(viewState.saveHistory()));
+		assertTrue(restoredViewState.isHistoryRestored());
+
+		RecordingPersistentView restoredView = new RecordingPersistentView();
+		restoredViewState.attachView(restoredView);
+
+		assertEquals(4, view.mCalls.size());
+		assertEquals(view.mCalls, restoredView.mCalls);
+	}
+
+	@Test
+	public void restoredHistoryIsSavedWithoutDecoding()
+	{
+		byte[] history = fillViewState().saveHistory();
+
+		PersistentView$$State restoredViewState = new PersistentView$$State();
+		restoredViewState.restoreHistory(history);
+		byte[] savedAgain = restoredViewState.saveHistory();
+
+		assertArrayEquals(history, savedAgain);
+		assertNotSame(history, savedAgain);
+	}
+
+	@Test
+	public void restoredHistoryIsMergedWithNewCommands()
+	{
+		byte[] history = fillViewState().saveHistory();
+
+		PersistentView$$State restoredViewState = new PersistentView$$State();
+		restoredViewState.select(7, false, null, null, null);
+		restoredViewState.restoreHistory(history);
+
+		RecordingPersistentView view = new RecordingPersistentView();
+		restoredViewState.attachView(view);
+
+		assertEquals("New commands should be applied after restored ones", "select:7,false,null,null,null", view.mCalls.get(view.mCalls.size() - 1));
+		assertEquals("Restored select should be replaced by new one", 4, view.mCalls.size());
+	}
+
+	@Test
+	public void restoredHistoryIsClearedBySingleStateCommand()
+	{
+		byte[] history = fillViewState().saveHistory();
+
+		PersistentView$$State restoredViewState = new PersistentView$$State();
+		restoredViewState.clear();
+		restoredViewState.restoreHistory(history);
+
+		RecordingPersistentView view = new RecordingPersistentView();
+		restoredViewState.attachView(view);
+
+		assertEquals(Collections.singletonList("clear"), view.mCalls);
+	}
+
+	@Test
+	public void restoredHistoryIsBoundedByMaxBytes()
+	{
+		char[] title = new char[5000];
+		Arrays.fill(title, 't');
+
+		PersistentView$$State viewState = new PersistentView$$State();
+		viewState.showItems(1, 1L, new String(title), PersistentView.Mode.LIST);
+		viewState.scrollTo(0f, 1.0, false, (byte) 0, (short) 0, 'a');
+		byte[] history = viewState.saveHistory();
+
+		PersistentView$$State restoredViewState = new PersistentView$$State();
+		restoredViewState.setEvictionPolicy(new MaxBytesEvictionPolicy(1000));
+		restoredViewState.restoreHistory(history);
+
+		RecordingPersistentView view = new RecordingPersistentView();
+		restoredViewState.attachView(view);
+
+		assertEquals("Restored command over limit should be evicted", Collections.singletonList("scroll:0.0,1.0,false,0,0,a"), view.mCalls);
+	}
+
+	@Test
+	public void restoredCommandIsEvictedWithParams()
+	{
+		PersistentView$$State viewState = new PersistentView$$State();
+		viewState.showItems(3, 30L, "title", PersistentView.Mode.GRID);
+		viewState.scrollTo(0f, 1.0, false, (byte) 0, (short) 0, 'a');
+		byte[] history = viewState.saveHistory();
+
+		final List<Object> evictedParams = new ArrayList<>();
+		PersistentView$$State restoredViewState = new PersistentView$$State();
+		restoredViewState.setEvictionPolicy(new DropOldestEvictionPolicy(1));
+		restoredViewState.setEvictionListener(new EvictionListener()
+		{
+			@Override
+			public void onCommandEvicted(ViewCommand<?> command, Object params)
+			{
+				evictedParams.add(params);
+			}
+		});
+		restoredViewState.restoreHistory(history);
+
+		assertEquals(1, evictedParams.size());
+		assertNotNull("Params of restored command should be decoded for listener", evictedParams.get(0));
+	}
+
+	@Test
+	public void historyIsNotRestoredAfterAttach()
+	{
+		byte[] history = fillViewState().saveHistory();
+
+		PersistentView$$State viewState = new PersistentView$$State();
+		RecordingPersistentView view = new RecordingPersistentView();
+		viewState.attachView(view);
+		viewState.detachView(view);
+
+		assertFalse(viewState.restoreHistory(history));
+		assertFalse(viewState.isHistoryRestored());
+
+		PersistentView$$State restoredViewState = new PersistentView$$State();
+		assertTrue(restoredViewState.restoreHistory(history));
+		assertFalse("History should be restored once", restoredViewState.restoreHistory(history));
+	}
+
+	@Test
+	public void historyOfOtherSchemaIsDropped()
+	{
+		byte[] history = fillViewState().saveHistory();
+		// first byte of schema hash
+		history[1] ^= 1;
+
+		PersistentView$$State viewState = new PersistentView$$State();
+		assertFalse(viewState.restoreHistory(history));
+
+		RecordingPersistentView view = new RecordingPersistentView();
+		viewState.attachView(view);
+		assertTrue(view.mCalls.isEmpty());
+	}
+
+	@Test
+	public void notPersistentViewStateHasNoHistory()
+	{
+		ProgressView$$State viewState = new ProgressView$$State();
+		viewState.setProgress(1);
+
+		assertNull(viewState.saveHistory());
+		assertFalse(viewState.restoreHistory(new byte[]{1, 0, 0}));
+	}
+
+	@Test
+	public void historyIsRestoredByDelegate()
+	{
+		RecordingPersistentView view = new RecordingPersistentView();
+		MvpDelegate<RecordingPersistentView> delegate = new MvpDelegate<>(view);
+		delegate.onCreate(null);
+		delegate.onStart();
+		view.mPresenter.getViewState().showItems(3, 30L, "title", PersistentView.Mode.GRID);
+
+		Bundle outState = new Bundle();
+		delegate.onSaveInstanceState(outState);
+		delegate.onStop();
+		delegate.onDestroy();
+
+		// death of process
+		PresenterKey delegateKey = PresenterKey.of(outState.getInt("com.arellomobile.mvp.MvpDelegate.KEY_TAGS"));
+		MvpFacade.getInstance().getPresenterStore().removeAll(PresenterType.LOCAL, delegateKey);
+
+		RecordingPersistentView restoredView = new RecordingPersistentView();
+		MvpDelegate<RecordingPersistentView> restoredDelegate = new MvpDelegate<>(restoredView);
+		restoredDelegate.onCreate(outState);
+		restoredDelegate.onStart();
+
+		assertNotSame(view.mPresenter, restoredView.mPresenter);
+		assertTrue(restoredView.mPresenter.isRestored());
+		assertEquals(Collections.singletonList("items:3,30,title,GRID"), restoredView.mCalls);
+
+		restoredDelegate.onStop();
+		restoredDelegate.onDestroy();
+	}
+
+	@Test
+	public void writerAndReaderAreSymmetric()
+	{
+		CommandWriter writer = new CommandWriter(1);
+		writer.writeInt(Integer.MIN_VALUE);
+		writer.writeInt(-1);
+		writer.writeInt(Integer.MAX_VALUE);
+		writer.writeLong(Long.MIN_VALUE);
+		writer.writeFloat(Float.NaN);
+		writer.writeDouble(-0.5);
+		writer.writeBoolean(true);
+		writer.writeString("a\u00e9\u4e2d\uD83D\uDE00");
+		writer.writeString(null);
+		writer.writeString("");
+		writer.writeBytes(new byte[]{1, 2, 3});
+		writer.writeBytes(null);
+		writer.writeEnum(PersistentView.Mode.LIST);
+		writer.writeEnum(null);
+
+		CommandReader reader = new CommandReader(writer.toByteArray());
+		assertEquals(Integer.MIN_VALUE, reader.readInt());
+		assertEquals(-1, reader.readInt());
+		assertEquals(Integer.MAX_VALUE, reader.readInt());
+		assertEquals(Long.MIN_VALUE, reader.readLong());
+		assertTrue(Float.isNaN(reader.readFloat()));
+		assertEquals(-0.5, reader.readDouble(), 0);
+		assertTrue(reader.readBoolean());
+		assertEquals("a\u00e9\u4e2d\uD83D\uDE00", reader.readString());
+		assertNull(reader.readString());
+		assertEquals("", reader.readString());
+		assertTrue(Arrays.equals(new byte[]{1, 2, 3}, reader.readBytes()));
+		assertNull(reader.readBytes());
+		assertEquals(PersistentView.Mode.LIST, reader.readEnum(PersistentView.Mode.values()));
+		assertNull(reader.readEnum(PersistentView.Mode.values()));
+		assertTrue(reader.isEnd());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void truncatedDataIsRejected()
+	{
+		CommandWriter writer = new CommandWriter();
+		writer.writeString("truncated");
+		byte[] bytes = writer.toByteArray();
+
+		new CommandReader(bytes, 0, bytes.length - 1).readString();
+	}
+
+	private static PersistentView$$State fillViewState()
+	{
+		PersistentView$$State viewState = new PersistentView$$State();
+		viewState.showItems(10, Long.MAX_VALUE, "\u0437\u0430\u0433 \uD83D\uDE00", PersistentView.Mode.LIST);
+		viewState.scrollTo(1.5f, -2.25, true, (byte) -3, (short) 300, 'x');
+		viewState.select(null, null, null, null, null);
+		viewState.select(-5, true, '\u044f', -1L, new byte[]{0, -1, 127});
+		viewState.showItems(0, 0, null, null);
+
+		return viewState;
+	}
+}
@@ -0,0 +1,79 @@
+package com.arellomobile.mvp.tests;
+
+import java.lang.management.ManagementFactory;
+
+import com.arellomobile.mvp.MvpDelegate;
+import com.arellomobile.mvp.PresenterBinder;
+import com.arellomobile.mvp.view.GlobalTagChildView;
+import com.arellomobile.mvp.view.GlobalTagTestView;
+import com.arellomobile.mvp.view.HierarchyChildView;
+import com.arellomobile.mvp.view.HierarchyChildView$$PresentersBinder;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 14:20
+ *
+ * @author agent
+ */
+public class PresenterBinderAllocationTest
+{
+	private static final int ITERATIONS = 10000;
+	// key of delegate, list of its presenters and iterators over it. Lookup of binder by reflection takes kilobytes
+	private static final int MAX_CYCLE_BYTES = 512;
+	// noise of measurement
+	private static final int TOLERANCE_BYTES = 32;
+
+	@Test
+	public void presenterFieldsAreCached()
+	{
+		PresenterBinder<HierarchyChildView> binder = new HierarchyChildView$$PresentersBinder();
+
+		assertSame("Binder should return same fields list on each call", binder.getPresenterFields(), binder.getPresenterFields());
+		assertSame("Binders of same class should share fields list", binder.getPresenterFields(), new HierarchyChildView$$PresentersBinder().getPresenterFields());
+	}
+
+	@Test
+	public void warmDelegateBindingDoesNotAllocate()
+	{
+		java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+
+		com.sun.management.ThreadMXBean allocationCounter = (com.sun.management.ThreadMXBean) threadMXBean;
+		Assume.assumeTrue(allocationCounter.isThreadAllocatedMemorySupported());
+		allocationCounter.setThreadAllocatedMemoryEnabled(true);
+
+		// global presenters stay in store, so warm delegate neither creates presenters nor resolves binders
+		long allocated = measureCycle(allocationCounter, new MvpDelegate<>(new GlobalTagTestView()));
+		long childAllocated = measureCycle(allocationCounter, new MvpDelegate<>(new GlobalTagChildView()));
+
+		assertTrue("Warm delegate allocated " + allocated + " bytes per onCreate/onDestroy", allocated < MAX_CYCLE_BYTES);
+		assertTrue("Superclass without binder added " + (childAllocated - allocated) + " bytes", childAllocated - allocated < TOLERANCE_BYTES);
+	}
+
+	private static long measureCycle(com.sun.management.ThreadMXBean allocationCounter, MvpDelegate<?> delegate)
+	{
+		// warm up class loading, binders lookup and interpreter
+		cycle(delegate, ITERATIONS);
+
+		long threadId = Thread.currentThread().getId();
+		long before = allocationCounter.getThreadAllocatedBytes(threadId);
+		cycle(delegate, ITERATIONS);
+
+		return (allocationCounter.getThreadAllocatedBytes(threadId) - before) / ITERATIONS;
+	}
+
+	private static void cycle(MvpDelegate<?> delegate, int iterations)
+	{
+		for (int iteration = 0; iteration < iterations; iteration++)
+		{
+			delegate.onCreate(null);
+			delegate.onDestroy();
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.arellomobile.mvp.tests;
+
+import com.arellomobile.mvp.MvpDelegate;
+import com.arellomobile.mvp.view.HierarchyChildView;
+import com.arellomobile.mvp.view.HierarchyChildView$$PresentersBinder;
+import com.arellomobile.mvp.view.HierarchyMiddleView;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+
+/**
+ * Date: 18.10.2026
+ * Time: 11:12
+ *
+ * @author agent
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PresenterHierarchyTest
+{
+	@Test
+	public void presentersFromAllLevelsInjected()
+	{
+		for (int i = 0; i < 3; i++)
+		{
+			// first iteration resolves binders, next ones should be served from cache with same result
+			HierarchyChildView view = new HierarchyChildView();
+			MvpDelegate<HierarchyChildView> delegate = new MvpDelegate<>(view);
+			delegate.onCreate(null);
+			delegate.onStart();
+
+			assertNotNull("Presenter of base class is not injected", view.mBasePresenter);
+			assertNotNull("Presenter of child class is not injected", view.mChildPresenter);
+			assertNotSame("Presenters of different fields are same", view.mBasePresenter, view.mChildPresenter);
+
+			delegate.onStop();
+			delegate.onDestroy();
+		}
+	}
+
+	@Test
+	public void childBinderContainsParentFields()
+	{
+		assertEquals("Binder of child class should contain presenters of all superclasses", 2, new HierarchyChildView$$PresentersBinder().getPresenterFields().size());
+	}
+
+	@Test
+	public void classWithoutOwnPresentersUsesParentBinder()
+	{
+		HierarchyMiddleView view = new HierarchyMiddleView();
+		MvpDelegate<HierarchyMiddleView> delegate = new MvpDelegate<>(view);
+		delegate.onCreate(null);
+
+		assertNotNull("Presenter of base class is not injected", view.mBasePresenter);
+
+		delegate.onDestroy();
+	}
+}
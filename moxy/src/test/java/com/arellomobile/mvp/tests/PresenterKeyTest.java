@@ -0,0 +1,60 @@
+package com.arellomobile.mvp.tests;
+
+import com.arellomobile.mvp.PresenterKey;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 17:15
+ *
+ * @author agent
+ */
+public class PresenterKeyTest
+{
+	@Test
+	public void sameStructureKeysAreEqual()
+	{
+		PresenterKey first = PresenterKey.of("delegate").child("mPresenter");
+		PresenterKey second = PresenterKey.of("delegate").child("mPresenter");
+
+		assertEquals("Keys with same path should be equal", first, second);
+		assertEquals("Keys with same path should have same hash code", first.hashCode(), second.hashCode());
+	}
+
+	@Test
+	public void differentPathKeysAreNotEqual()
+	{
+		assertNotEquals("Keys of different delegates should not be equal", PresenterKey.of("first").child("mPresenter"), PresenterKey.of("second").child("mPresenter"));
+		assertNotEquals("Child key should not be equal to root key with same name", PresenterKey.of("delegate").child("mPresenter"), PresenterKey.of("mPresenter"));
+	}
+
+	@Test
+	public void idKeys()
+	{
+		assertEquals(PresenterKey.of(7).child(0), PresenterKey.of(7).child(0));
+		assertEquals(PresenterKey.of(7).child(0).hashCode(), PresenterKey.of(7).child(0).hashCode());
+		assertNotEquals("Keys of different fields should not be equal", PresenterKey.of(7).child(0), PresenterKey.of(7).child(1));
+		assertNotEquals("Id key should not be equal to name key", PresenterKey.of(7), PresenterKey.of("7"));
+		assertTrue(PresenterKey.of(7).child(0).isDescendantOf(PresenterKey.of(7)));
+	}
+
+	@Test
+	public void descendants()
+	{
+		PresenterKey delegate = PresenterKey.of("delegate");
+		PresenterKey childDelegate = delegate.child("child");
+		PresenterKey presenter = childDelegate.child("mPresenter");
+
+		assertTrue("Key should be descendant of itself", delegate.isDescendantOf(delegate));
+		assertTrue("Presenter key should be descendant of delegate", presenter.isDescendantOf(PresenterKey.of("delegate")));
+		assertTrue("Presenter key should be descendant of child delegate", presenter.isDescendantOf(childDelegate));
+		assertFalse("Parent key should not be descendant of child", delegate.isDescendantOf(presenter));
+		assertFalse("Key should not be descendant of other scope", presenter.isDescendantOf(PresenterKey.of("other")));
+	}
+}
@@ -0,0 +1,211 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.arellomobile.mvp.MvpPresenter;
+import com.arellomobile.mvp.PresenterKey;
+import com.arellomobile.mvp.PresenterStore;
+import com.arellomobile.mvp.presenter.DestroyCounterPresenter;
+import com.arellomobile.mvp.presenter.PresenterType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 18.10.2026
+ * Time: 19:10
+ *
+ * @author agent
+ */
+public class PresenterStoreConcurrencyTest
+{
+	private static final int THREADS = 8;
+	private static final int ITERATIONS = 2000;
+
+	private PresenterStore mPresenterStore;
+	private ExecutorService mExecutor;
+
+	@Before
+	public void setup()
+	{
+		mPresenterStore = new PresenterStore();
+		mExecutor = Executors.newFixedThreadPool(THREADS);
+	}
+
+	@After
+	public void tearDown()
+	{
+		mExecutor.shutdownNow();
+	}
+
+	@Test
+	public void globalPresenterCreatedOnce() throws Exception
+	{
+		checkCreatedOnce(PresenterType.GLOBAL);
+	}
+
+	@Test
+	public void weakPresenterCreatedOnce() throws Exception
+	{
+		checkCreatedOnce(PresenterType.WEAK);
+	}
+
+	@Test
+	public void recursiveCreationFails()
+	{
+		final PresenterKey key = PresenterKey.of("recursive");
+
+		try
+		{
+			mPresenterStore.getOrCreate(PresenterType.GLOBAL, key, DestroyCounterPresenter.class, new Callable<MvpPresenter<?>>()
+			{
+				@Override
+				public MvpPresenter<?> call()
+				{
+					return mPresenterStore.getOrCreate(PresenterType.GLOBAL, key, DestroyCounterPresenter.class, new CountingCreator(new AtomicInteger()));
+				}
+			});
+
+			fail("Recursive creation of presenter should fail");
+		}
+		catch (IllegalStateException e)
+		{
+			// expected
+		}
+
+		assertNull("Presenter should not be stored after failed creation", mPresenterStore.get(PresenterType.GLOBAL, key, DestroyCounterPresenter.class));
+	}
+
+	@Test
+	public void concurrentModificationKeepsStoreConsistent() throws Exception
+	{
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Future<Void>> futures = new ArrayList<>();
+
+		for (int thread = 0; thread < THREADS; thread++)
+		{
+			final PresenterKey scope = PresenterKey.of("scope" + thread);
+
+			futures.add(mExecutor.submit(new Callable<Void>()
+			{
+				@Override
+				public Void call() throws Exception
+				{
+					start.await();
+
+					for (int i = 0; i < ITERATIONS; i++)
+					{
+						PresenterKey key = scope.child("child" + (i % 10)).child("mPresenter");
+						DestroyCounterPresenter presenter = new DestroyCounterPresenter();
+
+						mPresenterStore.add(PresenterType.LOCAL, key, presenter);
+						assertSame(presenter, mPresenterStore.get(PresenterType.LOCAL, key, DestroyCounterPresenter.class));
+
+						if (i % 2 == 0)
+						{
+							assertSame(presenter, mPresenterStore.remove(PresenterType.LOCAL, key, DestroyCounterPresenter.class));
+						}
+						else
+						{
+							mPresenterStore.removeAll(PresenterType.LOCAL, scope);
+							assertEquals(1, presenter.mDestroyCount);
+						}
+
+						assertNull(mPresenterStore.get(PresenterType.LOCAL, key, DestroyCounterPresenter.class));
+					}
+
+					return null;
+				}
+			}));
+		}
+
+		start.countDown();
+
+		for (Future<Void> future : futures)
+		{
+			future.get(30, TimeUnit.SECONDS);
+		}
+
+		// every scope is empty now, so new presenters should be stored and removed as usual
+		PresenterKey key = PresenterKey.of("scope0").child("mPresenter");
+		DestroyCounterPresenter presenter = new DestroyCounterPresenter();
+		mPresenterStore.add(PresenterType.LOCAL, key, presenter);
+		mPresenterStore.removeAll(PresenterType.LOCAL, PresenterKey.of("scope0"));
+
+		assertEquals("Presenter is not destroyed after concurrent modifications", 1, presenter.mDestroyCount);
+	}
+
+	private void checkCreatedOnce(final PresenterType type) throws Exception
+	{
+		for (int round = 0; round < 50; round++)
+		{
+			final PresenterKey key = PresenterKey.of("delegate" + round).child("mPresenter");
+			final AtomicInteger creations = new AtomicInteger();
+			final CountDownLatch start = new CountDownLatch(1);
+
+			List<Future<MvpPresenter<?>>> futures = new ArrayList<>();
+			for (int thread = 0; thread < THREADS; thread++)
+			{
+				futures.add(mExecutor.submit(new Callable<MvpPresenter<?>>()
+				{
+					@Override
+					public MvpPresenter<?> call() throws Exception
+					{
+						start.await();
+
+						return mPresenterStore.getOrCreate(type, key, DestroyCounterPresenter.class, new CountingCreator(creations));
+					}
+				}));
+			}
+
+			start.countDown();
+
+			// hold strong reference, so weak presenter is not collected while it is checked
+			MvpPresenter<?> presenter = futures.get(0).get(30, TimeUnit.SECONDS);
+			for (Future<MvpPresenter<?>> future : futures)
+			{
+				assertSame("All threads should get same presenter", presenter, future.get(30, TimeUnit.SECONDS));
+			}
+
+			assertEquals("Presenter should be created once", 1, creations.get());
+			assertSame("Created presenter should be stored", presenter, mPresenterStore.get(type, key, DestroyCounterPresenter.class));
+			assertTrue(presenter instanceof DestroyCounterPresenter);
+		}
+	}
+
+	private static class CountingCreator implements Callable<MvpPresenter<?>>
+	{
+		private final AtomicInteger mCreations;
+
+		CountingCreator(AtomicInteger creations)
+		{
+			mCreations = creations;
+		}
+
+		@Override
+		public MvpPresenter<?> call() throws Exception
+		{
+			mCreations.incrementAndGet();
+
+			// widen race window between check and store
+			Thread.sleep(1);
+
+			return new DestroyCounterPresenter();
+		}
+	}
+}
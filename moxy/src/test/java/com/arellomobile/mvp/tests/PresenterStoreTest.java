@@ -0,0 +1,87 @@
+package com.arellomobile.mvp.tests;
+
+import com.arellomobile.mvp.PresenterKey;
+import com.arellomobile.mvp.PresenterStore;
+import com.arellomobile.mvp.presenter.DestroyCounterPresenter;
+import com.arellomobile.mvp.presenter.PresenterType;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Date: 18.10.2026
+ * Time: 18:05
+ *
+ * @author agent
+ */
+public class PresenterStoreTest
+{
+	private PresenterStore mPresenterStore;
+	private PresenterKey mScope;
+	private PresenterKey mOtherScope;
+
+	@Before
+	public void setup()
+	{
+		mPresenterStore = new PresenterStore();
+		mScope = PresenterKey.of("scope");
+		mOtherScope = PresenterKey.of("other");
+	}
+
+	@Test
+	public void removeAllRemovesOnlyScope()
+	{
+		DestroyCounterPresenter scopePresenter = add(PresenterType.GLOBAL, mScope.child("mPresenter"));
+		DestroyCounterPresenter childScopePresenter = add(PresenterType.LOCAL, mScope.child("child").child("mPresenter"));
+		DestroyCounterPresenter otherPresenter = add(PresenterType.GLOBAL, mOtherScope.child("mPresenter"));
+
+		mPresenterStore.removeAll(PresenterType.GLOBAL, mScope);
+
+		assertEquals("Presenter of scope is not destroyed", 1, scopePresenter.mDestroyCount);
+		assertEquals("Presenter of child scope is not destroyed", 1, childScopePresenter.mDestroyCount);
+		assertEquals("Presenter of other scope is destroyed", 0, otherPresenter.mDestroyCount);
+
+		assertNull("Presenter of scope is still in store", get(mScope.child("mPresenter")));
+		assertNull("Presenter of child scope is still in store", get(mScope.child("child").child("mPresenter")));
+		assertSame("Presenter of other scope is removed", otherPresenter, get(mOtherScope.child("mPresenter")));
+	}
+
+	@Test
+	public void removedScopeCouldBeReused()
+	{
+		add(PresenterType.GLOBAL, mScope.child("mPresenter"));
+		mPresenterStore.removeAll(PresenterType.GLOBAL, mScope);
+
+		DestroyCounterPresenter presenter = add(PresenterType.GLOBAL, mScope.child("mPresenter"));
+		mPresenterStore.removeAll(PresenterType.GLOBAL, mScope);
+
+		assertEquals("Presenter added after scope removing is not destroyed", 1, presenter.mDestroyCount);
+	}
+
+	@Test
+	public void removedPresenterIsNotDestroyedWithScope()
+	{
+		DestroyCounterPresenter presenter = add(PresenterType.GLOBAL, mScope.child("mPresenter"));
+		mPresenterStore.remove(PresenterType.GLOBAL, mScope.child("mPresenter"), DestroyCounterPresenter.class);
+
+		mPresenterStore.removeAll(PresenterType.GLOBAL, mScope);
+
+		assertEquals("Removed presenter is destroyed by scope", 0, presenter.mDestroyCount);
+	}
+
+	private DestroyCounterPresenter add(PresenterType type, PresenterKey key)
+	{
+		DestroyCounterPresenter presenter = new DestroyCounterPresenter();
+		mPresenterStore.add(type, key, presenter);
+		return presenter;
+	}
+
+	private Object get(PresenterKey key)
+	{
+		return mPresenterStore.get(PresenterType.GLOBAL, key, DestroyCounterPresenter.class);
+	}
+}
@@ -0,0 +1,118 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.arellomobile.mvp.MvpFacade;
+import com.arellomobile.mvp.PrewarmReport;
+import com.arellomobile.mvp.presenter.CustomStrategyPresenter;
+import com.arellomobile.mvp.presenter.InjectViewStatePresenter;
+import com.arellomobile.mvp.presenter.NoViewStatePresenter;
+import com.arellomobile.mvp.view.HierarchyChildView;
+import com.arellomobile.mvp.view.HierarchyMiddleView;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 22:30
+ *
+ * @author agent
+ */
+public class PrewarmTest
+{
+	private static final Executor DIRECT_EXECUTOR = new Executor()
+	{
+		@Override
+		public void execute(Runnable command)
+		{
+			command.run();
+		}
+	};
+
+	@Test
+	public void reportContainsGivenClasses()
+	{
+		PrewarmReport report = prewarm(Collections.<Class<?>>singletonList(HierarchyMiddleView.class), Collections.<Class<?>>singletonList(NoViewStatePresenter.class));
+
+		assertTrue("Report has no failures", report.getFailures().isEmpty());
+		assertTrue("Presenters container is not reported", report.getTimings().containsKey(HierarchyMiddleView.class));
+		assertTrue("Total time is not measured", report.getTotalTime(TimeUnit.NANOSECONDS) > 0);
+	}
+
+	@Test
+	public void registryClassesPrewarmed()
+	{
+		final PrewarmReport[] reports = new PrewarmReport[1];
+
+		MvpFacade.prewarm(DIRECT_EXECUTOR, new PrewarmReport.Callback()
+		{
+			@Override
+			public void onPrewarmed(PrewarmReport report)
+			{
+				reports[0] = report;
+			}
+		});
+
+		PrewarmReport report = reports[0];
+		assertNotNull("Callback is not called", report);
+		assertTrue("Failures: " + report.getFailures(), report.getFailures().isEmpty());
+		assertTrue("Presenters container from registry is not prewarmed", report.getTimings().containsKey(HierarchyChildView.class));
+		assertTrue(report.getTimings().keySet().containsAll(MvpFacade.getInstance().getRegistry().getPresentersContainers()));
+		assertTrue("Summary should list prewarmed classes", report.toString().startsWith("Prewarmed "));
+	}
+
+	@Test
+	public void presenterWithViewStatePrewarmed()
+	{
+		PrewarmReport report = prewarm(Collections.<Class<?>>emptyList(), Collections.<Class<?>>singletonList(InjectViewStatePresenter.class));
+
+		assertTrue("Failures: " + report.getFailures(), report.getFailures().isEmpty());
+	}
+
+	@Test
+	public void stateStrategiesPrewarmed()
+	{
+		// presenter could be already prewarmed from registry, so instances are not reset
+		PrewarmReport report = prewarm(Collections.<Class<?>>emptyList(), Collections.<Class<?>>singletonList(CustomStrategyPresenter.class));
+
+		assertTrue("Failures: " + report.getFailures(), report.getFailures().isEmpty());
+		assertTrue("Strategy of command is not created", PrewarmedStrategy.sInstances.get() > 0);
+	}
+
+	/**
+	 * Strategy of {@link com.arellomobile.mvp.view.CustomStrategyView}, which is created only by prewarm
+	 */
+	public static class PrewarmedStrategy extends AddToEndStrategy
+	{
+		static final AtomicInteger sInstances = new AtomicInteger();
+
+		public PrewarmedStrategy()
+		{
+			sInstances.incrementAndGet();
+		}
+	}
+
+	private static PrewarmReport prewarm(Collection<Class<?>> presentersContainers, Collection<Class<?>> presenters)
+	{
+		final PrewarmReport[] reports = new PrewarmReport[1];
+
+		MvpFacade.prewarm(presentersContainers, presenters, DIRECT_EXECUTOR, new PrewarmReport.Callback()
+		{
+			@Override
+			public void onPrewarmed(PrewarmReport report)
+			{
+				reports[0] = report;
+			}
+		});
+
+		return reports[0];
+	}
+}
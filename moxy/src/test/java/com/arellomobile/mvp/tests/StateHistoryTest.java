@@ -0,0 +1,255 @@
+package com.arellomobile.mvp.tests;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.arellomobile.mvp.view.HistoryLimitedView;
+import com.arellomobile.mvp.view.HistoryLimitedView$$State;
+import com.arellomobile.mvp.view.ProgressView$$State;
+import com.arellomobile.mvp.view.TestView2;
+import com.arellomobile.mvp.view.TestView2$$State;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.history.CollapseByCommandEvictionPolicy;
+import com.arellomobile.mvp.viewstate.history.CommandSizeEstimator;
+import com.arellomobile.mvp.viewstate.history.DropOldestEvictionPolicy;
+import com.arellomobile.mvp.viewstate.history.EvictionListener;
+import com.arellomobile.mvp.viewstate.history.MaxBytesEvictionPolicy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 11:45
+ *
+ * @author agent
+ */
+public class StateHistoryTest
+{
+	@Test
+	public void annotationLimitsGeneratedViewState()
+	{
+		HistoryLimitedView$$State viewState = new HistoryLimitedView$$State();
+		EvictedCommands evicted = new EvictedCommands();
+		viewState.setEvictionListener(evicted);
+
+		assertTrue("Policy from annotation is not set", viewState.getEvictionPolicy() instanceof CollapseByCommandEvictionPolicy);
+
+		viewState.showItem(1);
+		viewState.showTitle("title");
+		viewState.showItem(2);
+		viewState.showItem(3);
+
+		RecordingHistoryLimitedView view = new RecordingHistoryLimitedView();
+		viewState.attachView(view);
+
+		assertEquals("Repeated command should be evicted first", Arrays.<Object>asList("title", 2, 3), view.mCalls);
+		assertEquals(Arrays.<Object>asList(1), evicted.mParams);
+	}
+
+	@Test
+	public void collapseDropsOldestWhenCommandsAreUnique()
+	{
+		TestView2$$State viewState = new TestView2$$State();
+		viewState.setEvictionPolicy(new CollapseByCommandEvictionPolicy(1));
+
+		viewState.testEvent("first");
+		viewState.testEvent("second");
+
+		assertEquals(Arrays.<Object>asList("second"), restore(viewState));
+	}
+
+	@Test
+	public void runtimePolicyTrimsCurrentHistory()
+	{
+		TestView2$$State viewState = new TestView2$$State();
+		EvictedCommands evicted = new EvictedCommands();
+		viewState.setEvictionListener(evicted);
+
+		for (int i = 0; i < 5; i++)
+		{
+			viewState.testEvent(i);
+		}
+
+		viewState.setEvictionPolicy(new DropOldestEvictionPolicy(2));
+		assertEquals("Oldest commands should be evicted immediately", Arrays.<Object>asList(0, 1, 2), evicted.mParams);
+
+		viewState.testEvent(5);
+
+		assertEquals(Arrays.<Object>asList(4, 5), restore(viewState));
+	}
+
+	@Test
+	public void maxBytesKeepsNewestCommand()
+	{
+		TestView2$$State viewState = new TestView2$$State();
+		viewState.setEvictionPolicy(new MaxBytesEvictionPolicy(25, new CommandSizeEstimator()
+		{
+			@Override
+			public long estimateSize(ViewCommand<?> command, Object params)
+			{
+				return (Integer) getSingleArgument(params);
+			}
+		}));
+
+		viewState.testEvent(10);
+		viewState.testEvent(10);
+		viewState.testEvent(10);
+		assertEquals(Arrays.<Object>asList(10, 10), restore(viewState));
+
+		viewState.testEvent(100);
+		assertEquals("Newest command should be kept even if it exceeds limit", Arrays.<Object>asList(100), restore(viewState));
+	}
+
+	@Test
+	public void defaultEstimatorLimitsHistory()
+	{
+		TestView2$$State viewState = new TestView2$$State();
+		viewState.setEvictionPolicy(new MaxBytesEvictionPolicy(1024));
+
+		for (int i = 0; i < 1000; i++)
+		{
+			viewState.testEvent("command " + i);
+		}
+
+		List<Object> restored = restore(viewState);
+		assertTrue("History should be bounded, but has " + restored.size() + " commands", restored.size() < 100);
+		assertEquals("command 999", restored.get(restored.size() - 1));
+	}
+
+	@Test
+	public void maxBytesCountsCommandsRemovedByStrategies()
+	{
+		ProgressView$$State viewState = new ProgressView$$State();
+		EvictedCommands evicted = new EvictedCommands();
+		viewState.setEvictionListener(evicted);
+		viewState.setEvictionPolicy(new MaxBytesEvictionPolicy(25, new CommandSizeEstimator()
+		{
+			@Override
+			public long estimateSize(ViewCommand<?> command, Object params)
+			{
+				return 10;
+			}
+		}));
+
+		viewState.showMessage("a");
+		for (int i = 0; i < 5; i++)
+		{
+			viewState.setProgress(i);
+		}
+		viewState.reset();
+		viewState.showMessage("b");
+
+		assertEquals("Commands replaced by strategies should not be counted", Collections.emptyList(), evicted.mParams);
+
+		viewState.showMessage("c");
+
+		assertEquals(Arrays.<Object>asList((Object) null), evicted.mParams);
+	}
+
+	@Test
+	public void collapseEvictsRepeatedCallsOfLongHistory()
+	{
+		HistoryLimitedView$$State viewState = new HistoryLimitedView$$State();
+		viewState.setEvictionPolicy(new CollapseByCommandEvictionPolicy(20));
+
+		for (int i = 0; i < 100; i++)
+		{
+			viewState.showItem(i);
+			if (i % 10 == 0)
+			{
+				viewState.showTitle("title " + i);
+			}
+		}
+
+		RecordingHistoryLimitedView view = new RecordingHistoryLimitedView();
+		viewState.attachView(view);
+
+		assertEquals(20, view.mCalls.size());
+		assertEquals(1, Collections.frequency(view.mCalls, "title 90"));
+		assertEquals(99, view.mCalls.get(view.mCalls.size() - 1));
+	}
+
+	@Test
+	public void historyIsUnboundedWithoutPolicy()
+	{
+		TestView2$$State viewState = new TestView2$$State();
+		assertNull(viewState.getEvictionPolicy());
+
+		for (int i = 0; i < 100; i++)
+		{
+			viewState.testEvent(i);
+		}
+
+		assertEquals(100, restore(viewState).size());
+	}
+
+	private static List<Object> restore(TestView2$$State viewState)
+	{
+		RecordingTestView2 view = new RecordingTestView2();
+		viewState.attachView(view);
+		viewState.detachView(view);
+
+		return view.mCalls;
+	}
+
+	private static class EvictedCommands implements EvictionListener
+	{
+		private final List<Object> mParams = new ArrayList<>();
+
+		@Override
+		public void onCommandEvicted(ViewCommand<?> command, Object params)
+		{
+			// params of generated commands are wrapped to holder with field per argument
+			mParams.add(params == null ? null : getSingleArgument(params));
+		}
+	}
+
+	private static Object getSingleArgument(Object params)
+	{
+		try
+		{
+			Field field = params.getClass().getDeclaredFields()[0];
+			field.setAccessible(true);
+			return field.get(params);
+		}
+		catch (IllegalAccessException e)
+		{
+			throw new AssertionError(e);
+		}
+	}
+
+	private static class RecordingTestView2 implements TestView2
+	{
+		private final List<Object> mCalls = new ArrayList<>();
+
+		@Override
+		public void testEvent(Object o)
+		{
+			mCalls.add(o);
+		}
+	}
+
+	private static class RecordingHistoryLimitedView implements HistoryLimitedView
+	{
+		private final List<Object> mCalls = new ArrayList<>();
+
+		@Override
+		public void showItem(int item)
+		{
+			mCalls.add(item);
+		}
+
+		@Override
+		public void showTitle(String title)
+		{
+			mCalls.add(title);
+		}
+	}
+}
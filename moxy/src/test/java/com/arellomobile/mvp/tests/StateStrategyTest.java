@@ -3,7 +3,13 @@ package com.arellomobile.mvp.tests;
 import android.os.Bundle;
 
 import com.arellomobile.mvp.MvpDelegate;
+import com.arellomobile.mvp.MvpFacade;
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.StateStrategyStore;
 import com.arellomobile.mvp.view.ChildView;
+import com.arellomobile.mvp.viewstate.ResolvedStrategyCommand;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.ViewCommands;
 import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy;
 import com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy;
 import com.arellomobile.mvp.viewstate.strategy.SkipStrategy;
@@ -18,6 +24,11 @@ import org.robolectric.annotation.Config;
 import java.lang.reflect.Field;
 import java.util.Map;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -60,6 +71,50 @@ public class StateStrategyTest
 
 	}
 
+	@Test
+	public void onlyBuiltInStrategiesShared()
+	{
+		StateStrategyStore stateStrategyStore = MvpFacade.getInstance().getStateStrategyStore();
+
+		assertSame("Store creates built-in strategy twice", stateStrategyStore.getStateStrategy(AddToEndStrategy.class), stateStrategyStore.getStateStrategy(AddToEndStrategy.class));
+		assertNotSame("Custom strategy could keep state", stateStrategyStore.getStateStrategy(ViewCommandsReapplyTest.RemoveAfterApplyStrategy.class), stateStrategyStore.getStateStrategy(ViewCommandsReapplyTest.RemoveAfterApplyStrategy.class));
+		assertNotSame("Subclass of built-in strategy could keep state", stateStrategyStore.getStateStrategy(CountingStrategy.class), stateStrategyStore.getStateStrategy(CountingStrategy.class));
+		assertFalse(stateStrategyStore.isShared(CountingStrategy.class));
+	}
+
+	@Test
+	public void customStrategyCreatedOncePerViewState()
+	{
+		CountingStrategy.sInstances = 0;
+		CountingCommand command = new CountingCommand();
+
+		ViewCommands<MvpView> first = new ViewCommands<>();
+		first.beforeApply(command);
+		first.beforeApply(command);
+		ViewCommands<MvpView> second = new ViewCommands<>();
+		second.beforeApply(command);
+
+		assertEquals("Each view state should have own instance of custom strategy", 2, CountingStrategy.sInstances);
+		assertEquals(2, first.size());
+		assertEquals(1, second.size());
+	}
+
+	@Test
+	public void generatedCommandResolvesSharedStrategyOnce() throws ClassNotFoundException
+	{
+		StateStrategyStore stateStrategyStore = MvpFacade.getInstance().getStateStrategyStore();
+
+		for (Object object : Class.forName("com.arellomobile.mvp.view.ProgressView$$State$LocalViewCommand").getEnumConstants())
+		{
+			ResolvedStrategyCommand<?> command = (ResolvedStrategyCommand<?>) object;
+
+			assertSame("Command should keep shared strategy of its type", stateStrategyStore.getStateStrategy(command.getStrategyType()), command.getSharedStrategy());
+			assertSame(command.getSharedStrategy(), command.getSharedStrategy());
+		}
+
+		assertNull("Custom strategy should not be shared", stateStrategyStore.getSharedStrategy(CountingStrategy.class));
+	}
+
 	@SuppressWarnings("unchecked")
 	private void checkStrategy(final Object[] enumConstants, final Map<String, Class<? extends StateStrategy>> result) throws NoSuchFieldException, IllegalAccessException
 	{
@@ -73,4 +128,36 @@ public class StateStrategyTest
 		}
 	}
 
+	/**
+	 * Subclass of built-in strategy, which counts its instances
+	 */
+	public static class CountingStrategy extends AddToEndStrategy
+	{
+		static int sInstances;
+
+		public CountingStrategy()
+		{
+			sInstances++;
+		}
+	}
+
+	private static class CountingCommand implements ViewCommand<MvpView>
+	{
+		@Override
+		public void apply(MvpView view, Object params)
+		{
+		}
+
+		@Override
+		public Class<? extends StateStrategy> getStrategyType()
+		{
+			return CountingStrategy.class;
+		}
+
+		@Override
+		public String getTag()
+		{
+			return null;
+		}
+	}
 }
@@ -0,0 +1,120 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.arellomobile.mvp.view.LoadingView;
+import com.arellomobile.mvp.view.LoadingView$$State;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Date: 18.10.2026
+ * Time: 14:35
+ *
+ * @author agent
+ */
+public class TagStrategyTest
+{
+	@Test
+	public void commandsWithSameTagShareSlot()
+	{
+		LoadingView$$State viewState = new LoadingView$$State();
+
+		viewState.showProgress();
+		viewState.showTitle("title");
+		viewState.showError("error");
+		viewState.showProgress();
+		viewState.showContent("content");
+
+		assertEquals(Arrays.asList("title", "content:content"), restore(viewState));
+	}
+
+	@Test
+	public void clearTagRemovesSlot()
+	{
+		LoadingView$$State viewState = new LoadingView$$State();
+
+		viewState.showTitle("title");
+		viewState.showProgress();
+		viewState.hideLoading();
+
+		assertEquals(Arrays.asList("title"), restore(viewState));
+	}
+
+	@Test
+	public void clearTagIsAppliedToAttachedView()
+	{
+		LoadingView$$State viewState = new LoadingView$$State();
+		RecordingLoadingView view = new RecordingLoadingView();
+		viewState.attachView(view);
+
+		viewState.showProgress();
+		viewState.hideLoading();
+
+		assertEquals(Arrays.asList("progress", "hide"), view.mCalls);
+	}
+
+	@Test
+	public void longHistoryUsesSameSlot()
+	{
+		LoadingView$$State viewState = new LoadingView$$State();
+
+		for (int i = 0; i < 100; i++)
+		{
+			viewState.showTitle("title" + i);
+			viewState.showError("error" + i);
+		}
+
+		List<String> restored = restore(viewState);
+		assertEquals(101, restored.size());
+		assertEquals("error:error99", restored.get(100));
+	}
+
+	private static List<String> restore(LoadingView$$State viewState)
+	{
+		RecordingLoadingView view = new RecordingLoadingView();
+		viewState.attachView(view);
+		viewState.detachView(view);
+
+		return view.mCalls;
+	}
+
+	private static class RecordingLoadingView implements LoadingView
+	{
+		private final List<String> mCalls = new ArrayList<>();
+
+		@Override
+		public void showTitle(String title)
+		{
+			mCalls.add(title);
+		}
+
+		@Override
+		public void showProgress()
+		{
+			mCalls.add("progress");
+		}
+
+		@Override
+		public void showError(String message)
+		{
+			mCalls.add("error:" + message);
+		}
+
+		@Override
+		public void showContent(String content)
+		{
+			mCalls.add("content:" + content);
+		}
+
+		@Override
+		public void hideLoading()
+		{
+			mCalls.add("hide");
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.Pair;
+import com.arellomobile.mvp.viewstate.ViewCommand;
+import com.arellomobile.mvp.viewstate.ViewCommands;
+import com.arellomobile.mvp.viewstate.history.CommandHistory;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategy;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Date: 18.10.2026
+ * Time: 15:10
+ *
+ * @author agent
+ */
+public class ViewCommandsReapplyTest
+{
+	private final List<Object> mApplied = new ArrayList<>();
+
+	@Test
+	public void strategyChangesHistoryDuringReapply()
+	{
+		ViewCommands<MvpView> viewCommands = new ViewCommands<>();
+		TestCommand once = new TestCommand(new RemoveAfterApplyStrategy());
+		TestCommand always = new TestCommand(new AddToEndStrategy());
+
+		viewCommands.beforeApply(once, 1);
+		viewCommands.beforeApply(always, 2);
+		viewCommands.beforeApply(once, 3);
+
+		viewCommands.reapply(null);
+		assertEquals("Each recorded command should be applied, even if history is changed", list(1, 2, 3), mApplied);
+
+		mApplied.clear();
+		viewCommands.reapply(null);
+		assertEquals(list(2), mApplied);
+	}
+
+	@Test
+	public void commandRecordedDuringReapplyIsNotReplayed()
+	{
+		final ViewCommands<MvpView> viewCommands = new ViewCommands<>();
+		final TestCommand second = new TestCommand(new AddToEndStrategy());
+		TestCommand first = new TestCommand(new AddToEndStrategy())
+		{
+			@Override
+			public void apply(MvpView view, Object params)
+			{
+				super.apply(view, params);
+				viewCommands.beforeApply(second, 2);
+			}
+		};
+
+		viewCommands.beforeApply(first, 1);
+		viewCommands.reapply(null);
+
+		assertEquals(list(1), mApplied);
+		assertEquals(2, viewCommands.size());
+	}
+
+	@Test
+	public void snapshotIsSharedUntilChange()
+	{
+		CommandHistory<MvpView> history = new CommandHistory<>();
+		TestCommand command = new TestCommand(new AddToEndStrategy());
+		history.add(Pair.<ViewCommand<MvpView>, Object>create(command, 1));
+
+		List<Pair<ViewCommand<MvpView>, Object>> snapshot = history.snapshot();
+		assertSame(snapshot, history.snapshot());
+
+		history.add(Pair.<ViewCommand<MvpView>, Object>create(command, 2));
+		assertEquals("Snapshot should not be changed by history", 1, snapshot.size());
+		assertNotSame(snapshot, history.snapshot());
+		assertEquals(history, history.snapshot());
+
+		try
+		{
+			snapshot.clear();
+		}
+		catch (UnsupportedOperationException e)
+		{
+			assertEquals(1, snapshot.size());
+			return;
+		}
+
+		throw new AssertionError("Snapshot should be immutable");
+	}
+
+	@Test
+	public void snapshotsAreNotChangedByHistory()
+	{
+		CommandHistory<MvpView> history = new CommandHistory<>();
+		TestCommand command = new TestCommand(new AddToEndStrategy());
+		for (int i = 0; i < 10; i++)
+		{
+			history.add(Pair.<ViewCommand<MvpView>, Object>create(command, i));
+		}
+
+		List<Pair<ViewCommand<MvpView>, Object>> appended = history.snapshot();
+		history.add(Pair.<ViewCommand<MvpView>, Object>create(command, 10));
+		List<Pair<ViewCommand<MvpView>, Object>> afterAppend = history.snapshot();
+
+		history.removeFirstOf(command);
+		history.add(Pair.<ViewCommand<MvpView>, Object>create(command, 11));
+		List<Pair<ViewCommand<MvpView>, Object>> afterRemove = history.snapshot();
+
+		ListIterator<Pair<ViewCommand<MvpView>, Object>> iterator = history.listIterator(0);
+		iterator.next();
+		iterator.set(Pair.<ViewCommand<MvpView>, Object>create(command, -1));
+		history.add(Pair.<ViewCommand<MvpView>, Object>create(command, 12));
+
+		assertEquals(10, appended.size());
+		assertEquals(9, appended.get(9).second);
+		assertEquals(11, afterAppend.size());
+		assertEquals(10, afterAppend.get(10).second);
+		assertEquals(11, afterRemove.size());
+		assertEquals(1, afterRemove.get(0).second);
+		assertEquals(11, afterRemove.get(10).second);
+		assertEquals(history, history.snapshot());
+		assertEquals(-1, history.snapshot().get(0).second);
+	}
+
+	private static List<Object> list(Object... values)
+	{
+		List<Object> list = new ArrayList<>();
+		for (Object value : values)
+		{
+			list.add(value);
+		}
+		return list;
+	}
+
+	public static class RemoveAfterApplyStrategy implements StateStrategy
+	{
+		@Override
+		public <View extends MvpView> void beforeApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+		{
+			currentState.add(incomingState);
+		}
+
+		@Override
+		public <View extends MvpView> void afterApply(List<Pair<ViewCommand<View>, Object>> currentState, Pair<ViewCommand<View>, Object> incomingState)
+		{
+			currentState.remove(incomingState);
+		}
+	}
+
+	private class TestCommand implements ViewCommand<MvpView>
+	{
+		private final StateStrategy mStrategy;
+
+		private TestCommand(StateStrategy strategy)
+		{
+			mStrategy = strategy;
+		}
+
+		@Override
+		public void apply(MvpView view, Object params)
+		{
+			mApplied.add(params);
+		}
+
+		@Override
+		public Class<? extends StateStrategy> getStrategyType()
+		{
+			return mStrategy.getClass();
+		}
+
+		@Override
+		public String getTag()
+		{
+			return "test";
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package com.arellomobile.mvp.tests;
+
+import com.arellomobile.mvp.presenter.InjectViewStatePresenter;
+import com.arellomobile.mvp.presenter.NoViewStatePresenter;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Date: 18.10.2026
+ * Time: 15:30
+ *
+ * @author agent
+ */
+public class ViewStateProviderTest
+{
+	@Test
+	public void eachPresenterHasOwnViewState()
+	{
+		InjectViewStatePresenter first = new InjectViewStatePresenter();
+		InjectViewStatePresenter second = new InjectViewStatePresenter();
+
+		assertNotNull("View state is not created", first.getViewState());
+		assertNotNull("View state is not created for cached provider", second.getViewState());
+		assertNotSame("Presenters share view state", first.getViewState(), second.getViewState());
+	}
+
+	@Test
+	public void presenterWithoutViewState()
+	{
+		for (int i = 0; i < 2; i++)
+		{
+			// second iteration checks cached "no view state" result
+			assertNull("View state created for presenter without @InjectViewState", new NoViewStatePresenter().getViewState());
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package com.arellomobile.mvp.tests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.arellomobile.mvp.view.ProgressView;
+import com.arellomobile.mvp.view.ProgressView$$State;
+import com.arellomobile.mvp.viewstate.dispatch.MpscQueue;
+import com.arellomobile.mvp.viewstate.dispatch.ViewThread;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 18:50
+ *
+ * @author agent
+ */
+public class ViewThreadDispatchTest
+{
+	private static final int PRODUCERS_COUNT = 8;
+	private static final int COMMANDS_COUNT = 5000;
+
+	private ExecutorViewThread mViewThread;
+	private ExecutorService mProducers;
+
+	@Before
+	public void setup()
+	{
+		mViewThread = new ExecutorViewThread();
+		mProducers = Executors.newFixedThreadPool(PRODUCERS_COUNT);
+	}
+
+	@After
+	public void tearDown()
+	{
+		mProducers.shutdownNow();
+		mViewThread.mExecutor.shutdownNow();
+	}
+
+	@Test
+	public void queueKeepsOrderOfEachProducer() throws Exception
+	{
+		final MpscQueue<int[]> queue = new MpscQueue<>();
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < PRODUCERS_COUNT; i++)
+		{
+			final int producer = i;
+			futures.add(mProducers.submit(new Callable<Void>()
+			{
+				@Override
+				public Void call() throws Exception
+				{
+					start.await();
+					for (int j = 0; j < COMMANDS_COUNT; j++)
+					{
+						queue.offer(new int[]{producer, j});
+					}
+					return null;
+				}
+			}));
+		}
+
+		start.countDown();
+
+		int[] next = new int[PRODUCERS_COUNT];
+		int polled = 0;
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (polled < PRODUCERS_COUNT * COMMANDS_COUNT)
+		{
+			assertTrue("Queue lost elements", System.nanoTime() < deadline);
+
+			int[] element = queue.poll();
+			if (element == null)
+			{
+				Thread.yield();
+				continue;
+			}
+
+			assertEquals("Elements of producer should be polled in order", next[element[0]], element[1]);
+			next[element[0]]++;
+			polled++;
+		}
+
+		for (Future<?> future : futures)
+		{
+			future.get();
+		}
+		assertNull(queue.poll());
+		assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void commandsFromManyThreadsAreAppliedOnViewThread() throws Exception
+	{
+		final ProgressView$$State viewState = new ProgressView$$State();
+		final RecordingProgressView view = new RecordingProgressView();
+		mViewThread.call(new Callable<Void>()
+		{
+			@Override
+			public Void call()
+			{
+				viewState.setViewThread(mViewThread);
+				viewState.attachView(view);
+				return null;
+			}
+		});
+
+		final CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < PRODUCERS_COUNT; i++)
+		{
+			final int producer = i;
+			futures.add(mProducers.submit(new Callable<Void>()
+			{
+				@Override
+				public Void call() throws Exception
+				{
+					start.await();
+					for (int j = 0; j < COMMANDS_COUNT; j++)
+					{
+						viewState.showMessage(producer + ":" + j);
+						viewState.setProgress(j);
+					}
+					return null;
+				}
+			}));
+		}
+
+		start.countDown();
+		for (Future<?> future : futures)
+		{
+			future.get(30, TimeUnit.SECONDS);
+		}
+
+		// queued drain runs before this task, because executor is serial
+		final List<String> restored = mViewThread.call(new Callable<List<String>>()
+		{
+			@Override
+			public List<String> call()
+			{
+				viewState.showMessage("last");
+
+				RecordingProgressView restoredView = new RecordingProgressView();
+				viewState.attachView(restoredView);
+				viewState.detachView(restoredView);
+				return restoredView.mMessages;
+			}
+		});
+
+		assertEquals("Views should be touched by view thread only", 0, view.mForeignCalls.get());
+		assertEquals(PRODUCERS_COUNT * COMMANDS_COUNT + 1, view.mMessages.size());
+		assertEquals(PRODUCERS_COUNT * COMMANDS_COUNT, view.mProgressCalls);
+		assertEquals("Command sent on view thread should be applied after queued ones", "last", view.mMessages.get(view.mMessages.size() - 1));
+		assertEquals("History should contain each command", view.mMessages, restored);
+
+		int[] next = new int[PRODUCERS_COUNT];
+		for (String message : view.mMessages.subList(0, view.mMessages.size() - 1))
+		{
+			String[] parts = message.split(":");
+			int producer = Integer.parseInt(parts[0]);
+			assertEquals("Commands of each thread should be applied in order", next[producer], Integer.parseInt(parts[1]));
+			next[producer]++;
+		}
+	}
+
+	@Test
+	public void commandOnViewThreadIsAppliedImmediately() throws Exception
+	{
+		final ProgressView$$State viewState = new ProgressView$$State();
+		final RecordingProgressView view = new RecordingProgressView();
+
+		List<String> messages = mViewThread.call(new Callable<List<String>>()
+		{
+			@Override
+			public List<String> call()
+			{
+				viewState.setViewThread(mViewThread);
+				viewState.attachView(view);
+				viewState.showMessage("now");
+				return new ArrayList<>(view.mMessages);
+			}
+		});
+
+		assertEquals(1, messages.size());
+		assertSame(mViewThread, viewState.getViewThread());
+	}
+
+	private static class ExecutorViewThread implements ViewThread
+	{
+		private volatile Thread mThread;
+		private final ExecutorService mExecutor = Executors.newSingleThreadExecutor(new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(Runnable runnable)
+			{
+				mThread = new Thread(runnable, "view");
+				return mThread;
+			}
+		});
+
+		@Override
+		public boolean isViewThread()
+		{
+			return Thread.currentThread() == mThread;
+		}
+
+		@Override
+		public void execute(Runnable task)
+		{
+			mExecutor.execute(task);
+		}
+
+		private <T> T call(Callable<T> callable) throws Exception
+		{
+			return mExecutor.submit(callable).get(30, TimeUnit.SECONDS);
+		}
+	}
+
+	private class RecordingProgressView implements ProgressView
+	{
+		private final List<String> mMessages = new ArrayList<>();
+		private final AtomicInteger mForeignCalls = new AtomicInteger();
+		private int mProgressCalls;
+
+		private void check()
+		{
+			if (!mViewThread.isViewThread())
+			{
+				mForeignCalls.incrementAndGet();
+			}
+		}
+
+		@Override
+		public void setProgress(int progress)
+		{
+			check();
+			mProgressCalls++;
+		}
+
+		@Override
+		public void showMessage(String message)
+		{
+			check();
+			mMessages.add(message);
+		}
+
+		@Override
+		public void reset()
+		{
+			check();
+		}
+
+		@Override
+		public void showTitle(String title)
+		{
+			check();
+		}
+
+		@Override
+		public void showProgress()
+		{
+			check();
+		}
+
+		@Override
+		public void showError(String message)
+		{
+			check();
+		}
+
+		@Override
+		public void showContent(String content)
+		{
+			check();
+		}
+
+		@Override
+		public void hideLoading()
+		{
+			check();
+		}
+	}
+}
@@ -0,0 +1,278 @@
+package com.arellomobile.mvp.tests;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import com.arellomobile.mvp.WeakViewSet;
+import com.arellomobile.mvp.view.ProgressView;
+import com.arellomobile.mvp.view.ProgressView$$State;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 18.10.2026
+ * Time: 19:45
+ *
+ * @author agent
+ */
+public class WeakViewSetTest
+{
+	@Test
+	public void singleView()
+	{
+		WeakViewSet<Object> views = new WeakViewSet<>();
+		Object view = new Object();
+
+		assertTrue(views.isEmpty());
+		assertFalse(views.iterator().hasNext());
+
+		assertTrue(views.add(view));
+		assertFalse("View should be added once", views.add(view));
+		assertEquals(1, views.size());
+		assertTrue(views.contains(view));
+		assertFalse(views.contains(new Object()));
+
+		Iterator<Object> iterator = views.iterator();
+		assertSame(view, iterator.next());
+		assertFalse(iterator.hasNext());
+		iterator.remove();
+
+		assertTrue(views.isEmpty());
+		assertFalse(views.remove(view));
+	}
+
+	@Test
+	public void growsAndShrinks()
+	{
+		WeakViewSet<Object> views = new WeakViewSet<>();
+		Object first = new Object();
+		Object second = new Object();
+		Object third = new Object();
+
+		views.add(first);
+		views.add(second);
+		views.add(third);
+		assertEquals(3, views.size());
+		assertEquals(new HashSet<>(Arrays.asList(first, second, third)), new HashSet<>(views));
+
+		assertTrue(views.remove(second));
+		assertTrue(views.remove(first));
+		assertEquals(1, views.size());
+		assertTrue(views.contains(third));
+
+		assertTrue(views.add(first));
+		assertEquals(2, views.size());
+
+		views.clear();
+		assertTrue(views.isEmpty());
+	}
+
+	@Test
+	public void referencesAreSnapshot()
+	{
+		WeakViewSet<Object> views = new WeakViewSet<>();
+		Object first = new Object();
+		Object second = new Object();
+		views.add(first);
+
+		WeakReference<Object>[] references = views.getReferences();
+		assertSame("Snapshot should be shared until change", references, views.getReferences());
+
+		views.add(second);
+		views.remove(first);
+
+		assertEquals("Snapshot should not be changed by set", 1, references.length);
+		assertSame(first, references[0].get());
+		assertEquals(1, views.getReferences().length);
+		assertSame(second, views.getReferences()[0].get());
+	}
+
+	@Test
+	public void viewsChangedDuringBroadcast()
+	{
+		final ProgressView$$State viewState = new ProgressView$$State();
+		final List<String> calls = new ArrayList<>();
+		final ProgressView late = new CallsProgressView("late", calls, null);
+		ProgressView first = new CallsProgressView("first", calls, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				viewState.attachView(late);
+			}
+		});
+		final ProgressView[] second = new ProgressView[1];
+		second[0] = new CallsProgressView("second", calls, new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				viewState.detachView(second[0]);
+			}
+		});
+		viewState.attachView(first);
+		viewState.attachView(second[0]);
+
+		viewState.showMessage("message");
+
+		assertEquals("Views attached during broadcast should get command by restore only", Arrays.asList("first", "late", "second"), calls);
+		assertEquals(new HashSet<>(Arrays.asList(first, late)), new HashSet<>(viewState.getViews()));
+	}
+
+	@Test
+	public void viewsAreNotHeld()
+	{
+		checkCollected(1);
+		checkCollected(3);
+	}
+
+	private static void checkCollected(int viewsCount)
+	{
+		WeakViewSet<Object> views = new WeakViewSet<>();
+		Set<WeakReference<Object>> references = new HashSet<>();
+		for (int i = 0; i < viewsCount; i++)
+		{
+			references.add(addGarbage(views));
+		}
+
+		for (WeakReference<Object> reference : references)
+		{
+			awaitCollection(reference);
+		}
+
+		assertTrue("Collected views should be removed", views.isEmpty());
+		assertEquals(0, views.size());
+		assertFalse(views.iterator().hasNext());
+	}
+
+	@Test
+	public void viewStateRestoresAndDetaches()
+	{
+		ProgressView$$State viewState = new ProgressView$$State();
+		final boolean[] inRestoreState = new boolean[1];
+
+		viewState.setProgress(1);
+		ProgressView view = new CheckingProgressView(viewState, inRestoreState);
+		viewState.attachView(view);
+
+		assertTrue("View should be in restore state while commands are replayed", inRestoreState[0]);
+		assertFalse(viewState.isInRestoreState(view));
+		assertTrue(viewState.getViews().contains(view));
+
+		viewState.detachView(view);
+		assertTrue(viewState.getViews().isEmpty());
+	}
+
+	private static WeakReference<Object> addGarbage(WeakViewSet<Object> views)
+	{
+		Object view = new Object();
+		views.add(view);
+
+		return new WeakReference<>(view);
+	}
+
+	private static void awaitCollection(WeakReference<Object> reference)
+	{
+		for (int i = 0; i < 100 && reference.get() != null; i++)
+		{
+			System.gc();
+			//noinspection EmptyCatchBlock
+			try
+			{
+				Thread.sleep(10);
+			}
+			catch (InterruptedException e)
+			{
+			}
+		}
+	}
+
+	private static class CallsProgressView extends CheckingProgressView
+	{
+		private final String mName;
+		private final List<String> mCalls;
+		private final Runnable mOnMessage;
+
+		private CallsProgressView(String name, List<String> calls, Runnable onMessage)
+		{
+			super(null, new boolean[1]);
+			mName = name;
+			mCalls = calls;
+			mOnMessage = onMessage;
+		}
+
+		@Override
+		public void showMessage(String message)
+		{
+			mCalls.add(mName);
+
+			if (mOnMessage != null)
+			{
+				mOnMessage.run();
+			}
+		}
+	}
+
+	private static class CheckingProgressView implements ProgressView
+	{
+		private final ProgressView$$State mViewState;
+		private final boolean[] mInRestoreState;
+
+		private CheckingProgressView(ProgressView$$State viewState, boolean[] inRestoreState)
+		{
+			mViewState = viewState;
+			mInRestoreState = inRestoreState;
+		}
+
+		@Override
+		public void setProgress(int progress)
+		{
+			mInRestoreState[0] = mViewState.isInRestoreState(this);
+		}
+
+		@Override
+		public void showMessage(String message)
+		{
+		}
+
+		@Override
+		public void reset()
+		{
+		}
+
+		@Override
+		public void showTitle(String title)
+		{
+		}
+
+		@Override
+		public void showProgress()
+		{
+		}
+
+		@Override
+		public void showError(String message)
+		{
+		}
+
+		@Override
+		public void showContent(String content)
+		{
+		}
+
+		@Override
+		public void hideLoading()
+		{
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package com.arellomobile.mvp.view;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.history.Compaction;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:10
+ *
+ * @author agent
+ */
+public interface CompactedView extends MvpView
+{
+	@Compaction(value = Compaction.Rule.LAST_BY_KEY, key = "id")
+	void setLabel(int id, String label);
+
+	@Compaction(Compaction.Rule.IDEMPOTENT)
+	void highlight(String item, float alpha, int[] path);
+
+	@Compaction(Compaction.Rule.IDEMPOTENT)
+	void refresh();
+
+	void log(String message);
+}
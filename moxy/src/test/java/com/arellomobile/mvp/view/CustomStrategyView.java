@@ -0,0 +1,17 @@
+package com.arellomobile.mvp.view;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.tests.PrewarmTest;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategyType;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:50
+ *
+ * @author agent
+ */
+public interface CustomStrategyView extends MvpView
+{
+	@StateStrategyType(PrewarmTest.PrewarmedStrategy.class)
+	void showCount(int count);
+}
@@ -0,0 +1,13 @@
+package com.arellomobile.mvp.view;
+
+/**
+ * Date: 19.10.2026
+ * Time: 00:10
+ * <p>
+ * Subclass without presenters, so it has no binder
+ *
+ * @author agent
+ */
+public class GlobalTagChildView extends GlobalTagTestView
+{
+}
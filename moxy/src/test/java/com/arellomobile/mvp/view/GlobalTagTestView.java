@@ -0,0 +1,19 @@
+package com.arellomobile.mvp.view;
+
+import com.arellomobile.mvp.presenter.InjectPresenter;
+import com.arellomobile.mvp.presenter.InjectViewStatePresenter;
+import com.arellomobile.mvp.presenter.PresenterType;
+
+/**
+ * Date: 18.10.2026
+ * Time: 21:25
+ *
+ * @author agent
+ */
+public class GlobalTagTestView extends CounterTestView
+{
+	public static final String TAG = "GlobalTagTestPresenter";
+
+	@InjectPresenter(type = PresenterType.GLOBAL, tag = TAG)
+	public InjectViewStatePresenter mPresenter;
+}
@@ -0,0 +1,16 @@
+package com.arellomobile.mvp.view;
+
+import com.arellomobile.mvp.presenter.InjectPresenter;
+import com.arellomobile.mvp.presenter.InjectViewStatePresenter;
+
+/**
+ * Date: 18.10.2026
+ * Time: 11:06
+ *
+ * @author agent
+ */
+public class HierarchyChildView extends HierarchyMiddleView
+{
+	@InjectPresenter
+	public InjectViewStatePresenter mChildPresenter;
+}
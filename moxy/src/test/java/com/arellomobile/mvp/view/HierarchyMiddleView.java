@@ -0,0 +1,11 @@
+package com.arellomobile.mvp.view;
+
+/**
+ * Date: 18.10.2026
+ * Time: 11:05
+ *
+ * @author agent
+ */
+public class HierarchyMiddleView extends HierarchyBaseView
+{
+}
@@ -0,0 +1,18 @@
+package com.arellomobile.mvp.view;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.history.StateHistory;
+
+/**
+ * Date: 18.10.2026
+ * Time: 11:40
+ *
+ * @author agent
+ */
+@StateHistory(maxCommands = 3, eviction = StateHistory.Eviction.COLLAPSE_BY_COMMAND)
+public interface HistoryLimitedView extends MvpView
+{
+	void showItem(int item);
+
+	void showTitle(String title);
+}
@@ -0,0 +1,31 @@
+package com.arellomobile.mvp.view;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleTagStrategy;
+import com.arellomobile.mvp.viewstate.strategy.ClearTagStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategyType;
+
+/**
+ * Date: 18.10.2026
+ * Time: 14:30
+ *
+ * @author agent
+ */
+public interface LoadingView extends MvpView
+{
+	String LOADING_TAG = "loading";
+
+	void showTitle(String title);
+
+	@StateStrategyType(value = AddToEndSingleTagStrategy.class, tag = LOADING_TAG)
+	void showProgress();
+
+	@StateStrategyType(value = AddToEndSingleTagStrategy.class, tag = LOADING_TAG)
+	void showError(String message);
+
+	@StateStrategyType(value = AddToEndSingleTagStrategy.class, tag = LOADING_TAG)
+	void showContent(String content);
+
+	@StateStrategyType(value = ClearTagStrategy.class, tag = LOADING_TAG)
+	void hideLoading();
+}
@@ -0,0 +1,32 @@
+package com.arellomobile.mvp.view;
+
+import com.arellomobile.mvp.MvpView;
+import com.arellomobile.mvp.viewstate.persistence.PersistentState;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy;
+import com.arellomobile.mvp.viewstate.strategy.SingleStateStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategyType;
+
+/**
+ * Date: 18.10.2026
+ * Time: 21:40
+ *
+ * @author agent
+ */
+@PersistentState
+public interface PersistentView extends MvpView
+{
+	enum Mode
+	{
+		LIST, GRID
+	}
+
+	void showItems(int count, long total, String title, Mode mode);
+
+	void scrollTo(float offset, double scale, boolean animated, byte page, short row, char section);
+
+	@StateStrategyType(AddToEndSingleStrategy.class)
+	void select(Integer position, Boolean checked, Character key, Long id, byte[] payload);
+
+	@StateStrategyType(SingleStateStrategy.class)
+	void clear();
+}
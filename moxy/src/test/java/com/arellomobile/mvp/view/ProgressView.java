@@ -0,0 +1,24 @@
+package com.arellomobile.mvp.view;
+
+import com.arellomobile.mvp.viewstate.strategy.AddToEndSingleStrategy;
+import com.arellomobile.mvp.viewstate.strategy.AddToEndStrategy;
+import com.arellomobile.mvp.viewstate.strategy.SingleStateStrategy;
+import com.arellomobile.mvp.viewstate.strategy.StateStrategyType;
+
+/**
+ * Date: 18.10.2026
+ * Time: 17:45
+ *
+ * @author agent
+ */
+@StateStrategyType(AddToEndSingleStrategy.class)
+public interface ProgressView extends LoadingView
+{
+	void setProgress(int progress);
+
+	@StateStrategyType(AddToEndStrategy.class)
+	void showMessage(String message);
+
+	@StateStrategyType(SingleStateStrategy.class)
+	void reset();
+}
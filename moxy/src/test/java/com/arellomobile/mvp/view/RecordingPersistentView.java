@@ -0,0 +1,46 @@
+package com.arellomobile.mvp.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.arellomobile.mvp.presenter.InjectPresenter;
+import com.arellomobile.mvp.presenter.PersistentPresenter;
+
+/**
+ * Date: 18.10.2026
+ * Time: 21:45
+ *
+ * @author agent
+ */
+public class RecordingPersistentView implements PersistentView
+{
+	@InjectPresenter
+	public PersistentPresenter mPresenter;
+
+	public final List<String> mCalls = new ArrayList<>();
+
+	@Override
+	public void showItems(int count, long total, String title, Mode mode)
+	{
+		mCalls.add("items:" + count + "," + total + "," + title + "," + mode);
+	}
+
+	@Override
+	public void scrollTo(float offset, double scale, boolean animated, byte page, short row, char section)
+	{
+		mCalls.add("scroll:" + offset + "," + scale + "," + animated + "," + page + "," + row + "," + section);
+	}
+
+	@Override
+	public void select(Integer position, Boolean checked, Character key, Long id, byte[] payload)
+	{
+		mCalls.add("select:" + position + "," + checked + "," + key + "," + id + "," + Arrays.toString(payload));
+	}
+
+	@Override
+	public void clear()
+	{
+		mCalls.add("clear");
+	}
+}
@@ -0,0 +1,19 @@
+package com.arellomobile.mvp.view;
+
+import com.arellomobile.mvp.presenter.InjectPresenter;
+import com.arellomobile.mvp.presenter.PresenterType;
+import com.arellomobile.mvp.presenter.SlowConstructorPresenter;
+
+/**
+ * Date: 18.10.2026
+ * Time: 23:42
+ *
+ * @author agent
+ */
+public class SlowConstructorTestView extends CounterTestView
+{
+	public static final String TAG = "SlowConstructorPresenter";
+
+	@InjectPresenter(type = PresenterType.GLOBAL, tag = TAG)
+	public SlowConstructorPresenter mPresenter;
+}